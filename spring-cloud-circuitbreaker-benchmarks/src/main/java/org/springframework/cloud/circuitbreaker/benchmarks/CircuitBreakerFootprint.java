@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+
+/**
+ * Memory held for each circuit breaker of a {@link Resilience4JCircuitBreakerFactory},
+ * measured with JOL by walking the object graph of the factory and the circuit breakers
+ * it created. Prints the bytes held for each circuit breaker:
+ * <ul>
+ * <li>by the circuit breaker itself, once its id is known to the factory</li>
+ * <li>for its id once created, including its configuration and resources</li>
+ * <li>for its id once called, including the Resilience4J circuit breaker and its sliding
+ * window</li>
+ * </ul>
+ * The bytes a circuit breaker holds of its own are compared against a baseline measured
+ * in the same run: the circuit breaker with settings of its own, that is its settings
+ * object and the group tags map they hold, which is what each circuit breaker held
+ * before circuit breakers shared their settings. Fails when a circuit breaker holds
+ * more than half of the baseline.
+ *
+ * @author Ryan Baxter
+ */
+public final class CircuitBreakerFootprint {
+
+	private static final int CIRCUIT_BREAKERS = 10_000;
+
+	private static final int GROUPS = 10;
+
+	private static final Supplier<String> SUPPLIER = () -> "foo";
+
+	private static final Function<Throwable, String> FALLBACK = t -> "fallback";
+
+	private CircuitBreakerFootprint() {
+	}
+
+	public static void main(String[] args) throws ReflectiveOperationException {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		try {
+			long empty = GraphLayout.parseInstance(factory).totalSize();
+			CircuitBreaker[] circuitBreakers = create(factory);
+			long created = GraphLayout.parseInstance(factory, circuitBreakers).totalSize();
+			// Circuit breakers created again for the same ids only add their own state
+			CircuitBreaker[] recreated = create(factory);
+			long own = GraphLayout.parseInstance(factory, circuitBreakers, recreated).totalSize() - created;
+			for (CircuitBreaker circuitBreaker : circuitBreakers) {
+				circuitBreaker.run(SUPPLIER, FALLBACK);
+			}
+			long called = GraphLayout.parseInstance(factory, circuitBreakers).totalSize();
+
+			long ownBytes = own / CIRCUIT_BREAKERS;
+			long baselineBytes = ownBytes + unsharedSettingsSize(recreated[0]);
+			System.out.printf("Circuit breaker: %d bytes, %d bytes with settings of its own%n", ownBytes,
+					baselineBytes);
+			System.out.printf("Created circuit breaker id: %d bytes%n", (created - empty) / CIRCUIT_BREAKERS);
+			System.out.printf("Called circuit breaker id: %d bytes%n", (called - empty) / CIRCUIT_BREAKERS);
+			if (ownBytes * 2 > baselineBytes) {
+				throw new IllegalStateException(String.format(
+						"Circuit breaker held %d bytes, expected at most half of the %d bytes it holds with "
+								+ "settings of its own",
+						ownBytes, baselineBytes));
+			}
+		}
+		finally {
+			factory.stop();
+		}
+	}
+
+	/**
+	 * Bytes a circuit breaker would hold if its settings were not shared: the settings
+	 * object and the group tags map it holds. The objects the settings refer to, such as
+	 * the registries and configurations, were shared before as well.
+	 */
+	private static long unsharedSettingsSize(CircuitBreaker circuitBreaker) throws ReflectiveOperationException {
+		Object settings = field(circuitBreaker, "settings");
+		Object tags = field(settings, "tags");
+		Object groupName = field(settings, "groupName");
+		return VM.current().sizeOf(settings)
+				+ GraphLayout.parseInstance(tags).subtract(GraphLayout.parseInstance(groupName)).totalSize();
+	}
+
+	private static Object field(Object target, String name) throws ReflectiveOperationException {
+		Field field = target.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		return field.get(target);
+	}
+
+	private static CircuitBreaker[] create(Resilience4JCircuitBreakerFactory factory) {
+		CircuitBreaker[] circuitBreakers = new CircuitBreaker[CIRCUIT_BREAKERS];
+		for (int i = 0; i < CIRCUIT_BREAKERS; i++) {
+			circuitBreakers[i] = factory.create("circuitBreaker" + i, "group" + (i % GROUPS));
+		}
+		return circuitBreakers;
+	}
+
+}
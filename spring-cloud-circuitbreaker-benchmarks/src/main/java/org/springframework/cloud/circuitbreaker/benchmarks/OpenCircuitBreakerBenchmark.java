@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.benchmarks;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+
+/**
+ * Throughput of calls to an open circuit breaker, which fail fast to the fallback
+ * without decorating the call, against the throughput of calls to a closed circuit
+ * breaker as a baseline. The circuit breakers have no fallback cache, since a circuit
+ * breaker with a fallback cache does not take the fast path.
+ * <p>
+ * The reactive benchmarks subscribe to the {@link Mono} returned by the circuit breaker,
+ * which completes on the calling thread, without blocking for its result.
+ * <p>
+ * {@link #main(String[])} runs the blocking and the reactive benchmarks and reports the
+ * throughput of the open circuit breakers relative to the closed ones measured in the
+ * same run, rather than against an absolute number of calls that depends on the machine.
+ * The {@code verify} phase of this module runs it.
+ *
+ * @author Ryan Baxter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class OpenCircuitBreakerBenchmark {
+
+	private static final Supplier<String> SUPPLIER = () -> "foo";
+
+	private static final Function<Throwable, String> FALLBACK = t -> "fallback";
+
+	private static final Mono<String> MONO = Mono.just("foo");
+
+	private static final Function<Throwable, Mono<String>> MONO_FALLBACK = t -> Mono.just("fallback");
+
+	private CircuitBreaker circuitBreaker;
+
+	private CircuitBreaker closedCircuitBreaker;
+
+	private ReactiveCircuitBreaker reactiveCircuitBreaker;
+
+	private ReactiveCircuitBreaker closedReactiveCircuitBreaker;
+
+	@Setup
+	public void setup() {
+		CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+			.waitDurationInOpenState(Duration.ofHours(1))
+			.writableStackTraceEnabled(false)
+			.build();
+		Resilience4JConfigurationProperties properties = new Resilience4JConfigurationProperties();
+		properties.setDisableThreadPool(true);
+
+		CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(config);
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(circuitBreakerRegistry,
+				TimeLimiterRegistry.ofDefaults(), null, properties);
+		this.circuitBreaker = factory.create("blocking");
+		this.circuitBreaker.run(SUPPLIER, FALLBACK);
+		circuitBreakerRegistry.circuitBreaker("blocking").transitionToOpenState();
+		this.closedCircuitBreaker = factory.create("closedBlocking");
+
+		CircuitBreakerRegistry reactiveCircuitBreakerRegistry = CircuitBreakerRegistry.of(config);
+		ReactiveResilience4JCircuitBreakerFactory reactiveFactory = new ReactiveResilience4JCircuitBreakerFactory(
+				reactiveCircuitBreakerRegistry, TimeLimiterRegistry.ofDefaults(), null, properties);
+		this.reactiveCircuitBreaker = reactiveFactory.create("reactive");
+		this.reactiveCircuitBreaker.run(MONO, MONO_FALLBACK).block();
+		reactiveCircuitBreakerRegistry.circuitBreaker("reactive").transitionToOpenState();
+		this.closedReactiveCircuitBreaker = reactiveFactory.create("closedReactive");
+	}
+
+	@Benchmark
+	public String blocking() {
+		return this.circuitBreaker.run(SUPPLIER, FALLBACK);
+	}
+
+	@Benchmark
+	public String closedBlocking() {
+		return this.closedCircuitBreaker.run(SUPPLIER, FALLBACK);
+	}
+
+	@Benchmark
+	public void reactive(Blackhole blackhole) {
+		this.reactiveCircuitBreaker.run(MONO, MONO_FALLBACK).subscribe(blackhole::consume);
+	}
+
+	@Benchmark
+	public void closedReactive(Blackhole blackhole) {
+		this.closedReactiveCircuitBreaker.run(MONO, MONO_FALLBACK).subscribe(blackhole::consume);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder().include(OpenCircuitBreakerBenchmark.class.getName()).build();
+		Map<String, Double> scores = new HashMap<>();
+		for (RunResult result : new Runner(options).run()) {
+			String benchmark = result.getParams().getBenchmark();
+			scores.put(benchmark.substring(benchmark.lastIndexOf('.') + 1), result.getPrimaryResult().getScore());
+		}
+		report("blocking", scores.get("blocking"), scores.get("closedBlocking"));
+		report("reactive", scores.get("reactive"), scores.get("closedReactive"));
+	}
+
+	private static void report(String benchmark, double open, double closed) {
+		System.out.printf("Open %s circuit breaker: %.0f calls per second, %.1fx the %.0f calls per second "
+				+ "of a closed circuit breaker%n", benchmark, open, open / closed, closed);
+	}
+
+}
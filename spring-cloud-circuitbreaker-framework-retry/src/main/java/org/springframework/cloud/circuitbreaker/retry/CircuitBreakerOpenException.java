@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.retry;
+
+/**
+ * Passed to the fallback of a {@link FrameworkRetryCircuitBreaker} call that is not
+ * permitted because the circuit is open, when no failure caused the circuit to open.
+ *
+ * @author Ryan Baxter
+ * @see FrameworkRetryConfigBuilder#writableStackTraceEnabled(boolean)
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+	private final String circuitBreakerName;
+
+	public CircuitBreakerOpenException(String circuitBreakerName) {
+		this(circuitBreakerName, true);
+	}
+
+	/**
+	 * Create an exception, without a stack trace and suppressed exceptions if
+	 * {@code writableStackTrace} is {@code false}, so that it can be shared.
+	 */
+	CircuitBreakerOpenException(String circuitBreakerName, boolean writableStackTrace) {
+		super("Circuit breaker is open for: " + circuitBreakerName, null, writableStackTrace, writableStackTrace);
+		this.circuitBreakerName = circuitBreakerName;
+	}
+
+	public String getCircuitBreakerName() {
+		return this.circuitBreakerName;
+	}
+
+}
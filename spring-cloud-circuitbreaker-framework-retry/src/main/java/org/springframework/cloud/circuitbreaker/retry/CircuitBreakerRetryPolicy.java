@@ -38,8 +38,14 @@ import org.springframework.core.retry.RetryPolicy;
  *
  * <p>
  * The resetTimeout determines how long to wait after a failure before resetting the
- * state. If a failure occurs and no more failures happen within the resetTimeout period,
- * the circuit breaker state is reset.
+ * state. If a failure opens the circuit and it is still open after the resetTimeout
+ * period, the circuit breaker state is reset.
+ * </p>
+ *
+ * <p>
+ * The state and the time it was entered are packed into a single {@link AtomicLong}, so
+ * every transition is a single compare-and-set and concurrent callers always observe a
+ * consistent state.
  * </p>
  *
  * @author Ryan Baxter
@@ -68,13 +74,22 @@ public class CircuitBreakerRetryPolicy {
 
 	}
 
-	private final RetryPolicy retryPolicy;
+	private static final State[] STATES = State.values();
+
+	private static final int STATE_BITS = 2;
 
-	private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+	private static final long STATE_MASK = (1L << STATE_BITS) - 1;
 
-	private final AtomicLong openedAt = new AtomicLong(0);
+	private static final long CLOSED = pack(State.CLOSED, 0);
 
-	private final AtomicLong lastFailureTime = new AtomicLong(0);
+	private final RetryPolicy retryPolicy;
+
+	/**
+	 * The state of the circuit breaker in its lower bits and the time, in milliseconds,
+	 * it last opened or became half-open in its upper bits, so that every transition is a
+	 * single compare-and-set.
+	 */
+	private final AtomicLong state = new AtomicLong(CLOSED);
 
 	private final AtomicReference<@Nullable Throwable> lastException = new AtomicReference<>();
 
@@ -82,6 +97,8 @@ public class CircuitBreakerRetryPolicy {
 
 	private final Duration resetTimeout;
 
+	private final @Nullable String name;
+
 	/**
 	 * Create a new circuit breaker retry policy with default settings.
 	 * @param retryPolicy the underlying retry policy to use when the circuit is closed
@@ -99,9 +116,24 @@ public class CircuitBreakerRetryPolicy {
 	 * breaker state
 	 */
 	public CircuitBreakerRetryPolicy(RetryPolicy retryPolicy, Duration openTimeout, Duration resetTimeout) {
+		this(retryPolicy, openTimeout, resetTimeout, null);
+	}
+
+	/**
+	 * Create a new circuit breaker retry policy for a circuit breaker.
+	 * @param retryPolicy the underlying retry policy to use when the circuit is closed
+	 * @param openTimeout the time the circuit stays open before transitioning to
+	 * half-open
+	 * @param resetTimeout the time to wait after a failure before resetting the circuit
+	 * breaker state
+	 * @param name the name of the circuit breaker, recorded with its state transitions
+	 */
+	CircuitBreakerRetryPolicy(RetryPolicy retryPolicy, Duration openTimeout, Duration resetTimeout,
+			@Nullable String name) {
 		this.retryPolicy = retryPolicy;
 		this.openTimeout = openTimeout;
 		this.resetTimeout = resetTimeout;
+		this.name = name;
 	}
 
 	/**
@@ -109,77 +141,78 @@ public class CircuitBreakerRetryPolicy {
 	 * @return true if retry should be attempted, false otherwise
 	 */
 	public boolean canRetry() {
-		State currentState = this.state.get();
 		long now = System.currentTimeMillis();
-
-		// Check if we should reset due to resetTimeout
-		long lastFailure = this.lastFailureTime.get();
-		if (lastFailure > 0 && (now - lastFailure >= this.resetTimeout.toMillis())) {
-			// Reset the circuit breaker if enough time has passed since last failure
-			if (currentState == State.OPEN && this.state.compareAndSet(State.OPEN, State.CLOSED)) {
-				this.lastException.set(null);
+		for (;;) {
+			long current = this.state.get();
+			if (stateOf(current) != State.OPEN) {
+				// Circuit is closed or half-open, allow retry
+				return true;
 			}
-			currentState = this.state.get();
-		}
-
-		// If circuit is open, check if openTimeout has passed
-		if (currentState == State.OPEN) {
-			long opened = this.openedAt.get();
-			if (now - opened >= this.openTimeout.toMillis()) {
-				// Try to transition to half-open
-				if (this.state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
-					// Allow one request through in half-open state
+			long elapsed = now - timeOf(current);
+			if (elapsed >= this.resetTimeout.toMillis()) {
+				// Reset the circuit breaker if enough time has passed since it opened
+				Throwable exception = this.lastException.get();
+				if (this.state.compareAndSet(current, CLOSED)) {
+					this.lastException.compareAndSet(exception, null);
+					FlightRecorderEvents.stateTransition(this.name, State.OPEN, State.CLOSED);
+					return true;
+				}
+			}
+			else if (elapsed >= this.openTimeout.toMillis()) {
+				// Try to transition to half-open and allow one request through
+				if (this.state.compareAndSet(current, pack(State.HALF_OPEN, now))) {
+					FlightRecorderEvents.stateTransition(this.name, State.OPEN, State.HALF_OPEN);
 					return true;
 				}
 			}
-			// Circuit is open and timeout hasn't passed
-			return false;
+			else {
+				// Circuit is open and timeout hasn't passed
+				return false;
+			}
 		}
-
-		// Circuit is closed or half-open, allow retry
-		return true;
 	}
 
 	/**
 	 * Record a successful execution.
 	 */
 	public void recordSuccess() {
-		State currentState = this.state.get();
-
-		if (currentState == State.HALF_OPEN) {
-			// Successful request in half-open state, close the circuit
-			if (this.state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
-				this.lastException.set(null);
-				this.lastFailureTime.set(0);
+		Throwable exception = this.lastException.get();
+		for (;;) {
+			long current = this.state.get();
+			State currentState = stateOf(current);
+			if (currentState == State.OPEN) {
+				return;
+			}
+			// Successful request in half-open state closes the circuit
+			if (currentState == State.CLOSED) {
+				this.lastException.compareAndSet(exception, null);
+				return;
+			}
+			if (this.state.compareAndSet(current, CLOSED)) {
+				this.lastException.compareAndSet(exception, null);
+				FlightRecorderEvents.stateTransition(this.name, currentState, State.CLOSED);
+				return;
 			}
-		}
-		else if (currentState == State.CLOSED) {
-			// Reset state on success
-			this.lastException.set(null);
-			this.lastFailureTime.set(0);
 		}
 	}
 
 	/**
 	 * Record a failed execution. The circuit will open immediately after a single failed
-	 * execution (after all retries are exhausted).
+	 * execution (after all retries are exhausted). Failures recorded while the circuit is
+	 * already open only update the last exception.
 	 * @param exception the exception that caused the failure
 	 */
 	public void recordFailure(Throwable exception) {
 		this.lastException.set(exception);
-		this.lastFailureTime.set(System.currentTimeMillis());
-		State currentState = this.state.get();
-
-		if (currentState == State.HALF_OPEN) {
-			// Failed request in half-open state, open the circuit again
-			if (this.state.compareAndSet(State.HALF_OPEN, State.OPEN)) {
-				this.openedAt.set(System.currentTimeMillis());
+		for (;;) {
+			long current = this.state.get();
+			State currentState = stateOf(current);
+			if (currentState == State.OPEN) {
+				return;
 			}
-		}
-		else if (currentState == State.CLOSED) {
-			// Open the circuit immediately on first failure
-			if (this.state.compareAndSet(State.CLOSED, State.OPEN)) {
-				this.openedAt.set(System.currentTimeMillis());
+			if (this.state.compareAndSet(current, pack(State.OPEN, System.currentTimeMillis()))) {
+				FlightRecorderEvents.stateTransition(this.name, currentState, State.OPEN);
+				return;
 			}
 		}
 	}
@@ -189,7 +222,7 @@ public class CircuitBreakerRetryPolicy {
 	 * @return true if the circuit is open, false otherwise
 	 */
 	public boolean isOpen() {
-		return this.state.get() == State.OPEN;
+		return stateOf(this.state.get()) == State.OPEN;
 	}
 
 	/**
@@ -197,7 +230,7 @@ public class CircuitBreakerRetryPolicy {
 	 * @return the current state
 	 */
 	public State getState() {
-		return this.state.get();
+		return stateOf(this.state.get());
 	}
 
 	/**
@@ -236,10 +269,23 @@ public class CircuitBreakerRetryPolicy {
 	 * Reset the circuit breaker to its initial state.
 	 */
 	public void reset() {
-		this.state.set(State.CLOSED);
-		this.openedAt.set(0);
-		this.lastFailureTime.set(0);
+		State previousState = stateOf(this.state.getAndSet(CLOSED));
 		this.lastException.set(null);
+		if (previousState != State.CLOSED) {
+			FlightRecorderEvents.stateTransition(this.name, previousState, State.CLOSED);
+		}
+	}
+
+	private static long pack(State state, long time) {
+		return (time << STATE_BITS) | state.ordinal();
+	}
+
+	private static State stateOf(long state) {
+		return STATES[(int) (state & STATE_MASK)];
+	}
+
+	private static long timeOf(long state) {
+		return state >>> STATE_BITS;
 	}
 
 }
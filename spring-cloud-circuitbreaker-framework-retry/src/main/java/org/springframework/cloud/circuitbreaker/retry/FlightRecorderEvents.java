@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.retry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * JDK Flight Recorder events of the framework retry circuit breakers. Each event is only
+ * created and committed while a recording enables it, so emitting events costs a check
+ * of a flag when JFR is not recording.
+ *
+ * @author Ryan Baxter
+ */
+final class FlightRecorderEvents {
+
+	static final String CATEGORY = "Spring Cloud Circuit Breaker";
+
+	private FlightRecorderEvents() {
+	}
+
+	/**
+	 * Emit the event of a call rejected because the circuit is open.
+	 * @param circuitBreakerName the name of the circuit breaker
+	 * @param failure the failure passed to the fallback
+	 */
+	static void rejected(String circuitBreakerName, Throwable failure) {
+		RejectedEvent event = new RejectedEvent();
+		if (event.isEnabled()) {
+			event.circuitBreaker = circuitBreakerName;
+			event.exceptionClass = failure.getClass().getName();
+			event.commit();
+		}
+	}
+
+	/**
+	 * Emit the event of a fallback applied to a failed call.
+	 * @param circuitBreakerName the name of the circuit breaker
+	 * @param failure the failure passed to the fallback
+	 */
+	static void fallback(String circuitBreakerName, Throwable failure) {
+		FallbackEvent event = new FallbackEvent();
+		if (event.isEnabled()) {
+			event.circuitBreaker = circuitBreakerName;
+			event.exceptionClass = failure.getClass().getName();
+			event.commit();
+		}
+	}
+
+	/**
+	 * Emit the event of a circuit breaker changing state.
+	 * @param circuitBreakerName the name of the circuit breaker, {@code null} if the
+	 * retry policy was not created for a circuit breaker
+	 * @param fromState the state the circuit breaker left
+	 * @param toState the state the circuit breaker entered
+	 */
+	static void stateTransition(@Nullable String circuitBreakerName, CircuitBreakerRetryPolicy.State fromState,
+			CircuitBreakerRetryPolicy.State toState) {
+		StateTransitionEvent event = new StateTransitionEvent();
+		if (event.isEnabled()) {
+			event.circuitBreaker = circuitBreakerName;
+			event.fromState = fromState.name();
+			event.toState = toState.name();
+			event.commit();
+		}
+	}
+
+	@Name("org.springframework.cloud.circuitbreaker.retry.Rejected")
+	@Label("Call Rejected")
+	@Description("A call was rejected because the circuit is open")
+	@Category({ CATEGORY, "Framework Retry" })
+	static final class RejectedEvent extends Event {
+
+		@Label("Circuit Breaker")
+		@Nullable String circuitBreaker;
+
+		@Label("Exception Class")
+		@Nullable String exceptionClass;
+
+	}
+
+	@Name("org.springframework.cloud.circuitbreaker.retry.Fallback")
+	@Label("Fallback Applied")
+	@Description("The fallback of a circuit breaker was applied to a failed or rejected call")
+	@Category({ CATEGORY, "Framework Retry" })
+	static final class FallbackEvent extends Event {
+
+		@Label("Circuit Breaker")
+		@Nullable String circuitBreaker;
+
+		@Label("Exception Class")
+		@Nullable String exceptionClass;
+
+	}
+
+	@Name("org.springframework.cloud.circuitbreaker.retry.StateTransition")
+	@Label("Circuit Breaker State Transition")
+	@Description("A circuit breaker changed state")
+	@Category({ CATEGORY, "Framework Retry" })
+	@StackTrace(false)
+	static final class StateTransitionEvent extends Event {
+
+		@Label("Circuit Breaker")
+		@Nullable String circuitBreaker;
+
+		@Label("From State")
+		@Nullable String fromState;
+
+		@Label("To State")
+		@Nullable String toState;
+
+	}
+
+}
@@ -18,8 +18,10 @@ package org.springframework.cloud.circuitbreaker.retry;
 
 import java.util.List;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jspecify.annotations.Nullable;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
@@ -49,4 +51,17 @@ public class FrameworkRetryAutoConfiguration {
 		return factory;
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	static class RetryBudgetMetricsConfiguration {
+
+		@Bean
+		Customizer<FrameworkRetryCircuitBreakerFactory> retryBudgetMetricsCustomizer(
+				ObjectProvider<MeterRegistry> meterRegistry) {
+			return factory -> meterRegistry.ifAvailable(registry -> factory
+				.setRetryBudgetConsumer(retryBudget -> new RetryBudgetMetrics(retryBudget).bindTo(registry)));
+		}
+
+	}
+
 }
@@ -58,11 +58,18 @@ public class FrameworkRetryCircuitBreaker implements CircuitBreaker {
 			// Circuit is open and timeout hasn't elapsed
 			Throwable lastException = this.circuitBreakerPolicy.getLastException();
 			if (lastException == null) {
-				lastException = new IllegalStateException("Circuit breaker is open for: " + this.id);
+				lastException = this.config.getOpenException(this.id);
 			}
+			FlightRecorderEvents.rejected(this.id, lastException);
+			FlightRecorderEvents.fallback(this.id, lastException);
 			return fallback.apply(lastException);
 		}
 
+		RetryBudget retryBudget = this.config.getRetryBudget();
+		if (retryBudget != null) {
+			retryBudget.onCall();
+		}
+
 		// Create a retry template with the configured policy
 		RetryTemplate retryTemplate = new RetryTemplate(this.circuitBreakerPolicy.getRetryPolicy());
 
@@ -79,6 +86,7 @@ public class FrameworkRetryCircuitBreaker implements CircuitBreaker {
 			// This matches Spring Retry CircuitBreakerRetryPolicy behavior where
 			// a "failure" is one complete failed invocation (all retries exhausted)
 			this.circuitBreakerPolicy.recordFailure(t);
+			FlightRecorderEvents.fallback(this.id, t);
 			return fallback.apply(t);
 		}
 	}
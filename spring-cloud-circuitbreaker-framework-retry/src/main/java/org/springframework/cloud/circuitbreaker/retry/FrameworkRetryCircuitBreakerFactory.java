@@ -16,8 +16,13 @@
 
 package org.springframework.cloud.circuitbreaker.retry;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
+import org.jspecify.annotations.Nullable;
+
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
 import org.springframework.util.Assert;
@@ -32,6 +37,10 @@ public class FrameworkRetryCircuitBreakerFactory
 
 	private Function<String, FrameworkRetryConfig> defaultConfig = id -> new FrameworkRetryConfigBuilder(id).build();
 
+	private final Set<RetryBudget> retryBudgets = ConcurrentHashMap.newKeySet();
+
+	private @Nullable Consumer<RetryBudget> retryBudgetConsumer;
+
 	@Override
 	protected FrameworkRetryConfigBuilder configBuilder(String id) {
 		return new FrameworkRetryConfigBuilder(id);
@@ -46,7 +55,20 @@ public class FrameworkRetryCircuitBreakerFactory
 	public CircuitBreaker create(String id) {
 		Assert.hasText(id, "A circuit breaker must have an id");
 		FrameworkRetryConfig config = getConfigurations().computeIfAbsent(id, this.defaultConfig);
+		RetryBudget retryBudget = config.getRetryBudget();
+		if (retryBudget != null && this.retryBudgetConsumer != null && this.retryBudgets.add(retryBudget)) {
+			this.retryBudgetConsumer.accept(retryBudget);
+		}
 		return new FrameworkRetryCircuitBreaker(id, config);
 	}
 
+	/**
+	 * Set a consumer notified once for every {@link RetryBudget} used by the circuit
+	 * breakers this factory creates, for example to bind metrics for the budget.
+	 * @param retryBudgetConsumer the consumer
+	 */
+	public void setRetryBudgetConsumer(Consumer<RetryBudget> retryBudgetConsumer) {
+		this.retryBudgetConsumer = retryBudgetConsumer;
+	}
+
 }
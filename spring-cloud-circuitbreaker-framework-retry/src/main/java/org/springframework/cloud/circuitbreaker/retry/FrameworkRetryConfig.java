@@ -33,6 +33,12 @@ public class FrameworkRetryConfig {
 
 	private @Nullable RetryPolicy retryPolicy;
 
+	private @Nullable RetryBudget retryBudget;
+
+	private boolean writableStackTraceEnabled;
+
+	private volatile @Nullable CircuitBreakerOpenException openException;
+
 	/**
 	 * Get the circuit breaker identifier.
 	 * @return the identifier
@@ -87,4 +93,62 @@ public class FrameworkRetryConfig {
 		return this;
 	}
 
+	/**
+	 * Get the retry budget limiting the retries of this circuit breaker.
+	 * @return the retry budget or {@code null} if retries are not limited by a budget
+	 */
+	public @Nullable RetryBudget getRetryBudget() {
+		return this.retryBudget;
+	}
+
+	/**
+	 * Set the retry budget limiting the retries of this circuit breaker.
+	 * @param retryBudget the retry budget
+	 * @return this config instance
+	 */
+	FrameworkRetryConfig setRetryBudget(@Nullable RetryBudget retryBudget) {
+		this.retryBudget = retryBudget;
+		return this;
+	}
+
+	/**
+	 * Whether the exceptions passed to the fallback of calls not permitted while the
+	 * circuit is open are created with a stack trace.
+	 * @return {@code true} if the exceptions have a stack trace
+	 */
+	public boolean isWritableStackTraceEnabled() {
+		return this.writableStackTraceEnabled;
+	}
+
+	/**
+	 * Set whether the exceptions passed to the fallback of calls not permitted while the
+	 * circuit is open are created with a stack trace.
+	 * @param writableStackTraceEnabled {@code true} to create the exceptions with a stack
+	 * trace
+	 * @return this config instance
+	 */
+	FrameworkRetryConfig setWritableStackTraceEnabled(boolean writableStackTraceEnabled) {
+		this.writableStackTraceEnabled = writableStackTraceEnabled;
+		return this;
+	}
+
+	/**
+	 * Get the exception passed to the fallback of a call not permitted while the circuit
+	 * is open, if no failure caused the circuit to open. Unless stack traces are enabled,
+	 * a single stackless exception is created and shared by all these calls.
+	 * @param id the circuit breaker identifier
+	 * @return the exception
+	 */
+	CircuitBreakerOpenException getOpenException(String id) {
+		if (this.writableStackTraceEnabled) {
+			return new CircuitBreakerOpenException(id);
+		}
+		CircuitBreakerOpenException openException = this.openException;
+		if (openException == null) {
+			openException = new CircuitBreakerOpenException(id, false);
+			this.openException = openException;
+		}
+		return openException;
+	}
+
 }
@@ -18,6 +18,8 @@ package org.springframework.cloud.circuitbreaker.retry;
 
 import java.time.Duration;
 
+import org.jspecify.annotations.Nullable;
+
 import org.springframework.cloud.client.circuitbreaker.ConfigBuilder;
 import org.springframework.core.retry.RetryPolicy;
 
@@ -37,6 +39,10 @@ public class FrameworkRetryConfigBuilder implements ConfigBuilder<FrameworkRetry
 
 	private Duration resetTimeout = Duration.ofSeconds(5);
 
+	private @Nullable RetryBudget retryBudget;
+
+	private boolean writableStackTraceEnabled = false;
+
 	/**
 	 * Create a new builder for the given circuit breaker id.
 	 * @param id the circuit breaker identifier
@@ -80,13 +86,44 @@ public class FrameworkRetryConfigBuilder implements ConfigBuilder<FrameworkRetry
 		return this;
 	}
 
+	/**
+	 * Set the retry budget limiting the number of retries relative to the number of
+	 * calls. Configure the same {@link RetryBudget} instance for several circuit breakers
+	 * to share the budget between them. By default, retries are not limited by a budget.
+	 * @param retryBudget the retry budget
+	 * @return this builder
+	 */
+	public FrameworkRetryConfigBuilder retryBudget(@Nullable RetryBudget retryBudget) {
+		this.retryBudget = retryBudget;
+		return this;
+	}
+
+	/**
+	 * Set whether the exceptions passed to the fallback of calls not permitted while the
+	 * circuit is open are created with a stack trace. By default, a single stackless
+	 * exception is shared by all these calls, so rejecting a call while the circuit is
+	 * open does not allocate. Enable stack traces to find where rejected calls were made
+	 * when debugging.
+	 * @param writableStackTraceEnabled {@code true} to create an exception with a stack
+	 * trace for every rejected call
+	 * @return this builder
+	 */
+	public FrameworkRetryConfigBuilder writableStackTraceEnabled(boolean writableStackTraceEnabled) {
+		this.writableStackTraceEnabled = writableStackTraceEnabled;
+		return this;
+	}
+
 	@Override
 	public FrameworkRetryConfig build() {
-		CircuitBreakerRetryPolicy circuitBreakerPolicy = new CircuitBreakerRetryPolicy(this.retryPolicy,
-				this.openTimeout, this.resetTimeout);
+		RetryPolicy policy = (this.retryBudget != null) ? new RetryBudgetRetryPolicy(this.retryPolicy, this.retryBudget)
+				: this.retryPolicy;
+		CircuitBreakerRetryPolicy circuitBreakerPolicy = new CircuitBreakerRetryPolicy(policy, this.openTimeout,
+				this.resetTimeout, this.id);
 		return new FrameworkRetryConfig().setId(this.id)
 			.setRetryPolicy(this.retryPolicy)
-			.setCircuitBreakerRetryPolicy(circuitBreakerPolicy);
+			.setCircuitBreakerRetryPolicy(circuitBreakerPolicy)
+			.setRetryBudget(this.retryBudget)
+			.setWritableStackTraceEnabled(this.writableStackTraceEnabled);
 	}
 
 }
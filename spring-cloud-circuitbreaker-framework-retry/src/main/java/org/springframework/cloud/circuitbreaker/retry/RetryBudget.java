@@ -0,0 +1,198 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+/**
+ * A token bucket limiting the number of retries relative to the number of calls.
+ *
+ * <p>
+ * Every call deposits {@code retryRatio} tokens into the bucket, up to
+ * {@code maxTokens}, and every retry takes one token. When the bucket holds less than
+ * one token, retries are rejected and the call fails with the last exception. A budget
+ * with a retry ratio of {@code 0.1} therefore allows at most one retry for every ten
+ * calls once the initial {@code maxTokens} have been spent, which keeps the retry layer
+ * from multiplying the load on a failing downstream service. The bucket starts full.
+ * </p>
+ *
+ * <p>
+ * A budget can be shared by several circuit breakers by configuring the same instance
+ * for all of them. Tokens are kept in millionths in a single {@link AtomicLong}, so
+ * acquiring a retry never blocks.
+ * </p>
+ *
+ * <p>
+ * The deprecated spring-cloud-circuitbreaker-spring-retry module uses this class as well.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+public final class RetryBudget {
+
+	private static final long TOKEN = 1_000_000;
+
+	private final String name;
+
+	private final double retryRatio;
+
+	private final int maxTokens;
+
+	private final long deposit;
+
+	private final AtomicLong tokens;
+
+	private final LongAdder calls = new LongAdder();
+
+	private final LongAdder retries = new LongAdder();
+
+	private final LongAdder exhausted = new LongAdder();
+
+	/**
+	 * Create a new retry budget allowing bursts of up to 10 retries.
+	 * @param name the name of the budget, used as a metric tag
+	 * @param retryRatio the maximum ratio of retries to calls, between 0 and 1, either 0 or
+	 * at least one millionth
+	 */
+	public RetryBudget(String name, double retryRatio) {
+		this(name, retryRatio, 10);
+	}
+
+	/**
+	 * Create a new retry budget.
+	 * @param name the name of the budget, used as a metric tag
+	 * @param retryRatio the maximum ratio of retries to calls, between 0 and 1, either 0 or
+	 * at least one millionth
+	 * @param maxTokens the maximum number of tokens, that is the maximum burst of retries
+	 */
+	public RetryBudget(String name, double retryRatio, int maxTokens) {
+		Assert.hasText(name, "name must not be empty");
+		Assert.isTrue(retryRatio >= 0 && retryRatio <= 1, "retryRatio must be between 0 and 1");
+		Assert.isTrue(maxTokens >= 0, "maxTokens must not be negative");
+		long deposit = Math.round(retryRatio * TOKEN);
+		Assert.isTrue(retryRatio == 0 || deposit > 0, "retryRatio must be 0 or at least one millionth");
+		this.name = name;
+		this.retryRatio = retryRatio;
+		this.maxTokens = maxTokens;
+		this.deposit = deposit;
+		this.tokens = new AtomicLong(maxTokens * TOKEN);
+	}
+
+	/**
+	 * Account for a new call.
+	 */
+	public void onCall() {
+		this.calls.increment();
+		if (this.deposit == 0) {
+			return;
+		}
+		long max = this.maxTokens * TOKEN;
+		long current;
+		do {
+			current = this.tokens.get();
+			if (current >= max) {
+				return;
+			}
+		}
+		while (!this.tokens.compareAndSet(current, Math.min(max, current + this.deposit)));
+	}
+
+	/**
+	 * Take a token for a retry.
+	 * @return {@code true} if the retry is allowed, {@code false} if the budget is
+	 * exhausted
+	 */
+	public boolean tryAcquireRetry() {
+		long current;
+		do {
+			current = this.tokens.get();
+			if (current < TOKEN) {
+				this.exhausted.increment();
+				return false;
+			}
+		}
+		while (!this.tokens.compareAndSet(current, current - TOKEN));
+		this.retries.increment();
+		return true;
+	}
+
+	/**
+	 * Get the name of the budget.
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Get the maximum ratio of retries to calls.
+	 * @return the retry ratio
+	 */
+	public double getRetryRatio() {
+		return this.retryRatio;
+	}
+
+	/**
+	 * Get the maximum number of tokens.
+	 * @return the maximum number of tokens
+	 */
+	public int getMaxTokens() {
+		return this.maxTokens;
+	}
+
+	/**
+	 * Get the number of tokens currently available.
+	 * @return the available tokens
+	 */
+	public double getAvailableTokens() {
+		return (double) this.tokens.get() / TOKEN;
+	}
+
+	/**
+	 * Get the number of calls accounted for by this budget.
+	 * @return the number of calls
+	 */
+	public long getCalls() {
+		return this.calls.sum();
+	}
+
+	/**
+	 * Get the number of retries allowed by this budget.
+	 * @return the number of retries
+	 */
+	public long getRetries() {
+		return this.retries.sum();
+	}
+
+	/**
+	 * Get the number of retries rejected because the budget was exhausted.
+	 * @return the number of rejected retries
+	 */
+	public long getExhausted() {
+		return this.exhausted.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "RetryBudget{name=" + this.name + ", retryRatio=" + this.retryRatio + ", maxTokens=" + this.maxTokens
+				+ "}";
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.retry;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * {@link MeterBinder} for a {@link RetryBudget}.
+ *
+ * @author Ryan Baxter
+ */
+public class RetryBudgetMetrics implements MeterBinder {
+
+	private static final String PREFIX = "spring.cloud.circuitbreaker.retry.budget";
+
+	private static final String NAME_TAG = "name";
+
+	private final RetryBudget retryBudget;
+
+	/**
+	 * Create a new binder for the given retry budget.
+	 * @param retryBudget the retry budget
+	 */
+	public RetryBudgetMetrics(RetryBudget retryBudget) {
+		this.retryBudget = retryBudget;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		String name = this.retryBudget.getName();
+		FunctionCounter.builder(PREFIX + ".calls", this.retryBudget, RetryBudget::getCalls)
+			.description("Calls accounted for by the retry budget")
+			.tag(NAME_TAG, name)
+			.register(registry);
+		FunctionCounter.builder(PREFIX + ".retries", this.retryBudget, RetryBudget::getRetries)
+			.description("Retries allowed by the retry budget")
+			.tag(NAME_TAG, name)
+			.register(registry);
+		FunctionCounter.builder(PREFIX + ".exhausted", this.retryBudget, RetryBudget::getExhausted)
+			.description("Retries rejected because the retry budget was exhausted")
+			.tag(NAME_TAG, name)
+			.register(registry);
+		Gauge.builder(PREFIX + ".tokens", this.retryBudget, RetryBudget::getAvailableTokens)
+			.description("Tokens available in the retry budget")
+			.tag(NAME_TAG, name)
+			.register(registry);
+	}
+
+}
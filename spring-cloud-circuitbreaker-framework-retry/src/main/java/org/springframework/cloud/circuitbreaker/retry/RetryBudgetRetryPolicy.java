@@ -0,0 +1,61 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.retry;
+
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+/**
+ * {@link RetryPolicy} that only allows a retry when the wrapped policy allows it and a
+ * token can be taken from a {@link RetryBudget}. The token is taken when the back-off of
+ * the wrapped policy schedules a retry, so no token is spent on the final failed attempt.
+ *
+ * @author Ryan Baxter
+ */
+class RetryBudgetRetryPolicy implements RetryPolicy {
+
+	private final RetryPolicy delegate;
+
+	private final RetryBudget retryBudget;
+
+	RetryBudgetRetryPolicy(RetryPolicy delegate, RetryBudget retryBudget) {
+		this.delegate = delegate;
+		this.retryBudget = retryBudget;
+	}
+
+	@Override
+	public boolean shouldRetry(Throwable throwable) {
+		return this.delegate.shouldRetry(throwable);
+	}
+
+	@Override
+	public BackOff getBackOff() {
+		BackOff backOff = this.delegate.getBackOff();
+		return () -> {
+			BackOffExecution execution = backOff.start();
+			return () -> {
+				long interval = execution.nextBackOff();
+				if (interval == BackOffExecution.STOP || this.retryBudget.tryAcquireRetry()) {
+					return interval;
+				}
+				return BackOffExecution.STOP;
+			};
+		};
+	}
+
+}
@@ -17,6 +17,13 @@
 package org.springframework.cloud.circuitbreaker.retry;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
@@ -207,6 +214,64 @@ class CircuitBreakerRetryPolicyTest {
 		assertThat(policy.getState()).isEqualTo(State.CLOSED);
 	}
 
+	@Test
+	void testFailureWhileOpenDoesNotExtendOpenTimeout() throws InterruptedException {
+		CircuitBreakerRetryPolicy policy = new CircuitBreakerRetryPolicy(RetryPolicy.withDefaults(),
+				Duration.ofMillis(100), Duration.ofSeconds(5));
+
+		policy.recordFailure(new RuntimeException("Test error"));
+		Thread.sleep(70);
+
+		// A call that was already in flight fails while the circuit is open
+		Exception lateException = new RuntimeException("Late error");
+		policy.recordFailure(lateException);
+		assertThat(policy.getLastException()).isSameAs(lateException);
+		Thread.sleep(70);
+
+		// The open timeout is measured from the moment the circuit opened
+		assertThat(policy.canRetry()).isTrue();
+		assertThat(policy.getState()).isEqualTo(State.HALF_OPEN);
+	}
+
+	@Test
+	void testConcurrentTransitionsLeaveConsistentState() throws Exception {
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (int round = 0; round < 200; round++) {
+				CircuitBreakerRetryPolicy policy = new CircuitBreakerRetryPolicy(RetryPolicy.withDefaults(),
+						Duration.ZERO, Duration.ofSeconds(5));
+				policy.recordFailure(new RuntimeException("Test error"));
+				CyclicBarrier barrier = new CyclicBarrier(threads);
+				List<Future<?>> futures = new ArrayList<>();
+				for (int i = 0; i < threads; i++) {
+					boolean fail = i % 2 == 0;
+					futures.add(executor.submit(() -> {
+						barrier.await();
+						if (policy.canRetry()) {
+							if (fail) {
+								policy.recordFailure(new RuntimeException("Concurrent error"));
+							}
+							else {
+								policy.recordSuccess();
+							}
+						}
+						return null;
+					}));
+				}
+				for (Future<?> future : futures) {
+					future.get(5, TimeUnit.SECONDS);
+				}
+				// Every call that was let through recorded an outcome, so the circuit
+				// is never left half-open
+				assertThat(policy.getState()).isIn(State.OPEN, State.CLOSED);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@Test
 	void testGetters() {
 		Duration openTimeout = Duration.ofSeconds(30);
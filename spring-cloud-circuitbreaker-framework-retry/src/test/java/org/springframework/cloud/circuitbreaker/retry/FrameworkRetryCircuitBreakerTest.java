@@ -16,9 +16,16 @@
 
 package org.springframework.cloud.circuitbreaker.retry;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.core.retry.RetryPolicy;
@@ -231,4 +238,95 @@ class FrameworkRetryCircuitBreakerTest {
 		assertThat(circuitBreaker.getCircuitBreakerPolicy().isOpen()).isFalse();
 	}
 
+	@Test
+	void testRetryBudgetLimitsRetries() {
+		RetryBudget retryBudget = new RetryBudget("test", 0, 1);
+		FrameworkRetryConfig config = new FrameworkRetryConfigBuilder("test").retryPolicy(RetryPolicy.withMaxRetries(3))
+			.retryBudget(retryBudget)
+			.build();
+		FrameworkRetryCircuitBreaker circuitBreaker = new FrameworkRetryCircuitBreaker("test", config);
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = circuitBreaker.run(() -> {
+			attempts.incrementAndGet();
+			throw new RuntimeException("Error");
+		}, throwable -> "fallback");
+
+		// Initial attempt + the single retry the budget allows
+		assertThat(result).isEqualTo("fallback");
+		assertThat(attempts.get()).isEqualTo(2);
+		assertThat(retryBudget.getCalls()).isEqualTo(1);
+		assertThat(retryBudget.getRetries()).isEqualTo(1);
+		assertThat(retryBudget.getExhausted()).isEqualTo(1);
+	}
+
+	@Test
+	void testOpenExceptionIsSharedAndStackless() {
+		FrameworkRetryConfig config = new FrameworkRetryConfigBuilder("test").build();
+
+		CircuitBreakerOpenException openException = config.getOpenException("test");
+
+		assertThat(openException).hasMessage("Circuit breaker is open for: test");
+		assertThat(openException.getCircuitBreakerName()).isEqualTo("test");
+		assertThat(openException.getStackTrace()).isEmpty();
+		assertThat(config.getOpenException("test")).isSameAs(openException);
+		openException.addSuppressed(new RuntimeException("blocked"));
+		assertThat(openException.getSuppressed()).isEmpty();
+	}
+
+	@Test
+	void testOpenExceptionHasStackTraceWhenEnabled() {
+		FrameworkRetryConfig config = new FrameworkRetryConfigBuilder("test").writableStackTraceEnabled(true).build();
+
+		CircuitBreakerOpenException openException = config.getOpenException("test");
+
+		assertThat(config.isWritableStackTraceEnabled()).isTrue();
+		assertThat(openException.getStackTrace()).isNotEmpty();
+		assertThat(config.getOpenException("test")).isNotSameAs(openException);
+	}
+
+	@Test
+	void testFlightRecorderEvents() throws Exception {
+		FrameworkRetryConfig config = new FrameworkRetryConfigBuilder("test").retryPolicy(RetryPolicy.withMaxRetries(0))
+			.build();
+		FrameworkRetryCircuitBreaker circuitBreaker = new FrameworkRetryCircuitBreaker("test", config);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Path file = Files.createTempFile("circuitbreaker", ".jfr");
+		List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable("org.springframework.cloud.circuitbreaker.retry.Rejected");
+			recording.enable("org.springframework.cloud.circuitbreaker.retry.Fallback");
+			recording.enable("org.springframework.cloud.circuitbreaker.retry.StateTransition");
+			recording.start();
+			circuitBreaker.run(() -> {
+				throw new RuntimeException("Error");
+			}, throwable -> {
+				failure.set(throwable);
+				return "fallback";
+			});
+			circuitBreaker.run(() -> "success", throwable -> "fallback");
+			circuitBreaker.getCircuitBreakerPolicy().reset();
+			recording.stop();
+			recording.dump(file);
+			events = RecordingFile.readAllEvents(file);
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+
+		String failureClass = failure.get().getClass().getName();
+		assertThat(events).filteredOn(event -> event.getEventType().getName().endsWith(".Fallback"))
+			.extracting(event -> event.getString("exceptionClass"))
+			.containsExactly(failureClass, failureClass);
+		assertThat(events).filteredOn(event -> event.getEventType().getName().endsWith(".Rejected"))
+			.singleElement()
+			.satisfies(event -> {
+				assertThat(event.getString("circuitBreaker")).isEqualTo("test");
+				assertThat(event.getString("exceptionClass")).isEqualTo(failureClass);
+			});
+		assertThat(events).filteredOn(event -> event.getEventType().getName().endsWith(".StateTransition"))
+			.extracting(event -> event.getString("fromState") + "->" + event.getString("toState"))
+			.containsExactly("CLOSED->OPEN", "OPEN->CLOSED");
+	}
+
 }
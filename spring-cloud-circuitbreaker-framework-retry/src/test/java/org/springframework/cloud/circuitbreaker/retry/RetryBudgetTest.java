@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link RetryBudget}.
+ *
+ * @author Ryan Baxter
+ */
+class RetryBudgetTest {
+
+	@Test
+	void budgetStartsFull() {
+		RetryBudget retryBudget = new RetryBudget("test", 0.1, 2);
+		assertThat(retryBudget.tryAcquireRetry()).isTrue();
+		assertThat(retryBudget.tryAcquireRetry()).isTrue();
+		assertThat(retryBudget.tryAcquireRetry()).isFalse();
+		assertThat(retryBudget.getRetries()).isEqualTo(2);
+		assertThat(retryBudget.getExhausted()).isEqualTo(1);
+	}
+
+	@Test
+	void callsRefillBudget() {
+		RetryBudget retryBudget = new RetryBudget("test", 0.1, 2);
+		retryBudget.tryAcquireRetry();
+		retryBudget.tryAcquireRetry();
+		for (int i = 0; i < 9; i++) {
+			retryBudget.onCall();
+		}
+		assertThat(retryBudget.tryAcquireRetry()).isFalse();
+		retryBudget.onCall();
+		assertThat(retryBudget.tryAcquireRetry()).isTrue();
+		assertThat(retryBudget.getCalls()).isEqualTo(10);
+	}
+
+	@Test
+	void budgetIsCappedAtMaxTokens() {
+		RetryBudget retryBudget = new RetryBudget("test", 1, 2);
+		for (int i = 0; i < 10; i++) {
+			retryBudget.onCall();
+		}
+		assertThat(retryBudget.getAvailableTokens()).isEqualTo(2);
+	}
+
+	@Test
+	void smallRatioRefillsBudget() {
+		RetryBudget retryBudget = new RetryBudget("test", 0.0005, 1);
+		retryBudget.tryAcquireRetry();
+		for (int i = 0; i < 1999; i++) {
+			retryBudget.onCall();
+		}
+		assertThat(retryBudget.tryAcquireRetry()).isFalse();
+		retryBudget.onCall();
+		assertThat(retryBudget.tryAcquireRetry()).isTrue();
+	}
+
+	@Test
+	void ratioBelowOneMillionthIsRejected() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new RetryBudget("test", 0.0000001));
+		assertThat(new RetryBudget("test", 0).getRetryRatio()).isZero();
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.jcstress;
+
+import java.time.Duration;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.LL_Result;
+import org.openjdk.jcstress.infra.results.L_Result;
+
+import org.springframework.cloud.circuitbreaker.retry.CircuitBreakerRetryPolicy;
+import org.springframework.core.retry.RetryPolicy;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Stress tests of the {@link CircuitBreakerRetryPolicy} state machine under concurrent
+ * {@code canRetry}, {@code recordSuccess} and {@code recordFailure} calls.
+ *
+ * @author Ryan Baxter
+ */
+public final class CircuitBreakerRetryPolicyStressTests {
+
+	private static final Duration LONG = Duration.ofHours(1);
+
+	private CircuitBreakerRetryPolicyStressTests() {
+	}
+
+	static CircuitBreakerRetryPolicy open(Duration openTimeout, Duration resetTimeout) {
+		CircuitBreakerRetryPolicy policy = new CircuitBreakerRetryPolicy(RetryPolicy.withDefaults(), openTimeout,
+				resetTimeout);
+		policy.recordFailure(new IllegalStateException("opened"));
+		return policy;
+	}
+
+	static String messageOf(CircuitBreakerRetryPolicy policy) {
+		Throwable exception = policy.getLastException();
+		return (exception != null) ? String.valueOf(exception.getMessage()) : "none";
+	}
+
+	@JCStressTest
+	@Description("The trial call of a half-open circuit succeeds while another call fails.")
+	@Outcome(id = "OPEN", expect = ACCEPTABLE, desc = "The failure opens the circuit, whether or not it was closed.")
+	@Outcome(expect = FORBIDDEN, desc = "The failure is lost.")
+	@State
+	public static class HalfOpenSuccessAndFailure {
+
+		private final CircuitBreakerRetryPolicy policy = open(Duration.ZERO, LONG);
+
+		public HalfOpenSuccessAndFailure() {
+			this.policy.canRetry();
+		}
+
+		@Actor
+		public void success() {
+			this.policy.recordSuccess();
+		}
+
+		@Actor
+		public void failure() {
+			this.policy.recordFailure(new IllegalStateException("failure"));
+		}
+
+		@Arbiter
+		public void arbiter(L_Result r) {
+			r.r1 = this.policy.getState();
+		}
+
+	}
+
+	@JCStressTest
+	@Description("The open timeout of the circuit elapses while a call that was in flight fails.")
+	@Outcome(id = "true, HALF_OPEN", expect = ACCEPTABLE, desc = "The failure is recorded first and the call is "
+			+ "let through half-open.")
+	@Outcome(id = "true, OPEN", expect = ACCEPTABLE, desc = "The call is let through half-open and the failure "
+			+ "reopens the circuit.")
+	@Outcome(expect = FORBIDDEN, desc = "The call is rejected although the open timeout elapsed.")
+	@State
+	public static class OpenTimeoutAndFailure {
+
+		private final CircuitBreakerRetryPolicy policy = open(Duration.ZERO, LONG);
+
+		@Actor
+		public void canRetry(LL_Result r) {
+			r.r1 = this.policy.canRetry();
+		}
+
+		@Actor
+		public void failure() {
+			this.policy.recordFailure(new IllegalStateException("failure"));
+		}
+
+		@Arbiter
+		public void arbiter(LL_Result r) {
+			r.r2 = this.policy.getState();
+		}
+
+	}
+
+	@JCStressTest
+	@Description("The reset timeout of the circuit elapses while a call that was in flight fails.")
+	@Outcome(id = "true, CLOSED", expect = ACCEPTABLE, desc = "The failure is recorded first and the circuit is "
+			+ "reset.")
+	@Outcome(id = "true, OPEN", expect = ACCEPTABLE, desc = "The circuit is reset and the failure opens it again.")
+	@Outcome(expect = FORBIDDEN, desc = "The circuit is neither reset nor opened by the failure.")
+	@State
+	public static class ResetTimeoutAndFailure {
+
+		private final CircuitBreakerRetryPolicy policy = open(LONG, Duration.ZERO);
+
+		@Actor
+		public void canRetry(LL_Result r) {
+			r.r1 = this.policy.canRetry();
+		}
+
+		@Actor
+		public void failure() {
+			this.policy.recordFailure(new IllegalStateException("failure"));
+		}
+
+		@Arbiter
+		public void arbiter(LL_Result r) {
+			r.r2 = this.policy.getState();
+		}
+
+	}
+
+	@JCStressTest
+	@Description("Two calls of a closed circuit fail at the same time.")
+	@Outcome(id = { "OPEN, first", "OPEN, second" }, expect = ACCEPTABLE,
+			desc = "The circuit opens with the exception of either call.")
+	@Outcome(expect = FORBIDDEN, desc = "The circuit does not open or loses both exceptions.")
+	@State
+	public static class ConcurrentFailures {
+
+		private final CircuitBreakerRetryPolicy policy = new CircuitBreakerRetryPolicy(RetryPolicy.withDefaults(),
+				LONG, LONG);
+
+		@Actor
+		public void first() {
+			this.policy.recordFailure(new IllegalStateException("first"));
+		}
+
+		@Actor
+		public void second() {
+			this.policy.recordFailure(new IllegalStateException("second"));
+		}
+
+		@Arbiter
+		public void arbiter(LL_Result r) {
+			r.r1 = this.policy.getState();
+			r.r2 = messageOf(this.policy);
+		}
+
+	}
+
+}
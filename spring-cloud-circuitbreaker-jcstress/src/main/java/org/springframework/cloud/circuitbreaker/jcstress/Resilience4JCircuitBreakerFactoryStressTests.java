@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.jcstress;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Stress tests of the configuration and executor service caches of
+ * {@link Resilience4JCircuitBreakerFactory}.
+ *
+ * @author Ryan Baxter
+ */
+public final class Resilience4JCircuitBreakerFactoryStressTests {
+
+	/**
+	 * Never runs a task, group executor services are only compared.
+	 */
+	private static final ExecutorService GROUP_EXECUTOR_SERVICE = Executors.newSingleThreadExecutor();
+
+	private Resilience4JCircuitBreakerFactoryStressTests() {
+	}
+
+	@JCStressTest
+	@Description("Two threads create and call the circuit breaker of the same id.")
+	@Outcome(id = "1, 2", expect = ACCEPTABLE, desc = "Both calls are recorded by a single circuit breaker.")
+	@Outcome(expect = FORBIDDEN, desc = "The circuit breaker was created twice or a call was lost.")
+	@State
+	public static class ConcurrentCreate {
+
+		private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+		private final Resilience4JCircuitBreakerFactory factory;
+
+		public ConcurrentCreate() {
+			Resilience4JConfigurationProperties properties = new Resilience4JConfigurationProperties();
+			properties.setDisableThreadPool(true);
+			this.factory = new Resilience4JCircuitBreakerFactory(this.circuitBreakerRegistry,
+					TimeLimiterRegistry.ofDefaults(), null, properties);
+		}
+
+		@Actor
+		public void first() {
+			this.factory.create("foo").run(() -> "first");
+		}
+
+		@Actor
+		public void second() {
+			this.factory.create("foo").run(() -> "second");
+		}
+
+		@Arbiter
+		public void arbiter(II_Result r) {
+			r.r1 = this.circuitBreakerRegistry.getAllCircuitBreakers().size();
+			r.r2 = this.circuitBreakerRegistry.circuitBreaker("foo").getMetrics().getNumberOfSuccessfulCalls();
+		}
+
+	}
+
+	@JCStressTest
+	@Description("Two threads create circuit breakers of the same group.")
+	@Outcome(id = "1", expect = ACCEPTABLE, desc = "The executor service of the group is created once.")
+	@Outcome(expect = FORBIDDEN, desc = "The executor service of the group is created more than once.")
+	@State
+	public static class ConcurrentGroupExecutorService {
+
+		private final AtomicInteger created = new AtomicInteger();
+
+		private final Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+
+		public ConcurrentGroupExecutorService() {
+			this.factory.configureGroupExecutorService(group -> {
+				this.created.incrementAndGet();
+				return GROUP_EXECUTOR_SERVICE;
+			});
+		}
+
+		@Actor
+		public void first() {
+			this.factory.create("first", "group");
+		}
+
+		@Actor
+		public void second() {
+			this.factory.create("second", "group");
+		}
+
+		@Arbiter
+		public void arbiter(I_Result r) {
+			r.r1 = this.created.get();
+		}
+
+	}
+
+}
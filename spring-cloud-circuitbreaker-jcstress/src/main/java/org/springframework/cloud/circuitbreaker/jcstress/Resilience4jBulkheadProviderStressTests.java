@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.jcstress;
+
+import java.util.Map;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.LL_Result;
+import org.openjdk.jcstress.infra.results.Z_Result;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.BulkheadHandle;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JPriorityBulkheadConfig;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4jBulkheadProvider;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Stress tests of the configurations and bulkhead handles of
+ * {@link Resilience4jBulkheadProvider}.
+ *
+ * @author Ryan Baxter
+ */
+public final class Resilience4jBulkheadProviderStressTests {
+
+	private static final Map<String, String> TAGS = Map.of();
+
+	private Resilience4jBulkheadProviderStressTests() {
+	}
+
+	static Resilience4jBulkheadProvider bulkheadProvider() {
+		Resilience4JConfigurationProperties properties = new Resilience4JConfigurationProperties();
+		properties.setEnableSemaphoreDefaultBulkhead(true);
+		return new Resilience4jBulkheadProvider(ThreadPoolBulkheadRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+				properties);
+	}
+
+	static boolean isValid(@Nullable BulkheadHandle handle) {
+		return handle != null && handle.isValid();
+	}
+
+	@JCStressTest
+	@Description("A bulkhead is configured while a circuit breaker resolves its handle.")
+	@Outcome(id = "true", expect = ACCEPTABLE, desc = "The handle resolved afterwards uses the new configuration.")
+	@Outcome(id = "false", expect = FORBIDDEN, desc = "A handle resolved from the old configuration is still used.")
+	@State
+	public static class ConfigureWhileResolving {
+
+		private final Resilience4jBulkheadProvider bulkheadProvider = bulkheadProvider();
+
+		@Actor
+		public void configure() {
+			this.bulkheadProvider.configure(
+					builder -> builder.priorityBulkheadConfig(Resilience4JPriorityBulkheadConfig.ofDefaults()), "foo");
+		}
+
+		@Actor
+		public void resolve() {
+			this.bulkheadProvider.getBulkheadHandle("foo", TAGS);
+		}
+
+		@Arbiter
+		public void arbiter(Z_Result r) {
+			r.r1 = this.bulkheadProvider.getBulkheadHandle("foo", TAGS).getPriorityBulkhead() != null;
+		}
+
+	}
+
+	@JCStressTest
+	@Description("Two circuit breakers resolve the handle of the same bulkhead, which is then configured again.")
+	@Outcome(id = "false, false", expect = ACCEPTABLE, desc = "Both handles are invalidated.")
+	@Outcome(expect = FORBIDDEN, desc = "A handle outlives the configuration it was resolved from.")
+	@State
+	public static class ConcurrentResolve {
+
+		private final Resilience4jBulkheadProvider bulkheadProvider = bulkheadProvider();
+
+		private volatile @Nullable BulkheadHandle first;
+
+		private volatile @Nullable BulkheadHandle second;
+
+		@Actor
+		public void first() {
+			this.first = this.bulkheadProvider.getBulkheadHandle("foo", TAGS);
+		}
+
+		@Actor
+		public void second() {
+			this.second = this.bulkheadProvider.getBulkheadHandle("foo", TAGS);
+		}
+
+		@Arbiter
+		public void arbiter(LL_Result r) {
+			this.bulkheadProvider.configure(builder -> {
+			}, "foo");
+			r.r1 = isValid(this.first);
+			r.r2 = isValid(this.second);
+		}
+
+	}
+
+}
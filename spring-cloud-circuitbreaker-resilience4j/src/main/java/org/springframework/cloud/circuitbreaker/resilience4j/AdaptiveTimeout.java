@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive timeout state of a circuit breaker id: the observed call durations and the
+ * timeout derived from them, as described in {@link Resilience4JAdaptiveTimeoutConfig}.
+ * The durations are observed over one to two windows and the timeout is recomputed at
+ * most once per refresh interval of the configuration.
+ *
+ * <p>
+ * Calls that time out are recorded with the timeout that fired. Leaving them out would
+ * only keep the durations of the calls faster than the timeout, so the timeout would
+ * shrink exactly when the latency grows.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+final class AdaptiveTimeout {
+
+	private final Resilience4JAdaptiveTimeoutConfig config;
+
+	private final long refreshNanos;
+
+	private final LongSupplier nanoClock;
+
+	private final LatencyHistogram histogram;
+
+	private volatile long percentileNanos = -1;
+
+	private volatile long computedAt;
+
+	AdaptiveTimeout(Resilience4JAdaptiveTimeoutConfig config) {
+		this(config, System::nanoTime);
+	}
+
+	AdaptiveTimeout(Resilience4JAdaptiveTimeoutConfig config, LongSupplier nanoClock) {
+		this.config = config;
+		this.refreshNanos = config.getRefreshInterval().toNanos();
+		this.nanoClock = nanoClock;
+		this.histogram = new LatencyHistogram(config.getWindow().toNanos(), nanoClock);
+		this.computedAt = nanoClock.getAsLong() - this.refreshNanos;
+	}
+
+	Resilience4JAdaptiveTimeoutConfig getConfig() {
+		return this.config;
+	}
+
+	/**
+	 * Record the duration of a call that completed, or the timeout of a call that timed
+	 * out.
+	 * @param durationNanos the duration in nanoseconds
+	 */
+	void record(long durationNanos) {
+		this.histogram.record(durationNanos);
+	}
+
+	/**
+	 * Decorate the supplier to record its duration when it succeeds or fails. A failure
+	 * of a supplier interrupted because its call timed out is not recorded, since the
+	 * timeout of the call is recorded instead.
+	 * @param supplier the supplier
+	 * @param <T> the result type
+	 * @return the decorated supplier
+	 */
+	<T> Supplier<T> recording(Supplier<T> supplier) {
+		return () -> {
+			long start = this.nanoClock.getAsLong();
+			try {
+				T result = supplier.get();
+				record(this.nanoClock.getAsLong() - start);
+				return result;
+			}
+			catch (Throwable ex) {
+				if (!(ex instanceof InterruptedException) && !Thread.currentThread().isInterrupted()) {
+					record(this.nanoClock.getAsLong() - start);
+				}
+				throw ex;
+			}
+		};
+	}
+
+	/**
+	 * Get the timeout of the next calls.
+	 * @param timeLimiterTimeout the time limiter timeout, used until enough durations
+	 * have been observed and as the maximum timeout if none is configured
+	 * @return the timeout
+	 */
+	Duration getTimeout(Duration timeLimiterTimeout) {
+		long now = this.nanoClock.getAsLong();
+		if (now - this.computedAt >= this.refreshNanos) {
+			this.percentileNanos = this.histogram.getPercentile(this.config.getPercentile(),
+					this.config.getMinimumNumberOfCalls());
+			this.computedAt = now;
+		}
+		long percentile = this.percentileNanos;
+		if (percentile < 0) {
+			return timeLimiterTimeout;
+		}
+		Duration maximumTimeout = (this.config.getMaximumTimeout() != null) ? this.config.getMaximumTimeout()
+				: timeLimiterTimeout;
+		long timeoutNanos = (long) Math.min(Long.MAX_VALUE, percentile * this.config.getMultiplier());
+		timeoutNanos = Math.min(maximumTimeout.toNanos(), timeoutNanos);
+		return Duration.ofNanos(Math.max(this.config.getMinimumTimeout().toNanos(), timeoutNanos));
+	}
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties.AdmissionControlProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Sheds calls while the JVM is overloaded, before they reach the circuit breaker. The
+ * load of the JVM (the share of time spent in garbage collection, the CPU load of the
+ * process and the number of tasks waiting in the group executors) is sampled on a
+ * background thread, so deciding whether to admit a call only reads a volatile flag.
+ * While any of the signals exceeds its threshold, a share of the calls with a priority
+ * up to {@link AdmissionControlProperties#getShedPriority()} is rejected and their
+ * fallback applied.
+ *
+ * @author Ryan Baxter
+ * @see Resilience4JConfigurationProperties#getAdmissionControl()
+ */
+public class AdmissionController implements SmartLifecycle {
+
+	private static final Log LOG = LogFactory.getLog(AdmissionController.class);
+
+	private final Duration sampleInterval;
+
+	private final double maxGcPauseRatio;
+
+	private final double maxCpuLoad;
+
+	private final @Nullable Integer maxExecutorQueueDepth;
+
+	private final double shedRatio;
+
+	private final CallPriority shedPriority;
+
+	private final LoadSampler loadSampler;
+
+	private final List<IntSupplier> queueDepthSources = new CopyOnWriteArrayList<>();
+
+	private final LongAdder shed = new LongAdder();
+
+	private volatile boolean overloaded;
+
+	private @Nullable ScheduledExecutorService sampler;
+
+	public AdmissionController(AdmissionControlProperties properties) {
+		this(properties, new JvmLoadSampler());
+	}
+
+	AdmissionController(AdmissionControlProperties properties, LoadSampler loadSampler) {
+		Assert.isTrue(properties.getSampleInterval().isPositive(), "sampleInterval must be positive");
+		Assert.isTrue(properties.getShedRatio() >= 0 && properties.getShedRatio() <= 1,
+				"shedRatio must be between 0 and 1");
+		Assert.notNull(properties.getShedPriority(), "shedPriority must not be null");
+		this.sampleInterval = properties.getSampleInterval();
+		this.maxGcPauseRatio = properties.getMaxGcPauseRatio();
+		this.maxCpuLoad = properties.getMaxCpuLoad();
+		this.maxExecutorQueueDepth = properties.getMaxExecutorQueueDepth();
+		this.shedRatio = properties.getShedRatio();
+		this.shedPriority = properties.getShedPriority();
+		this.loadSampler = loadSampler;
+	}
+
+	/**
+	 * Add a source of the number of tasks waiting to be executed, compared to
+	 * {@link AdmissionControlProperties#getMaxExecutorQueueDepth()} summed with the other
+	 * sources.
+	 * @param queueDepthSource the queue depth source
+	 */
+	public void addQueueDepthSource(IntSupplier queueDepthSource) {
+		Assert.notNull(queueDepthSource, "Queue depth source must not be null");
+		this.queueDepthSources.add(queueDepthSource);
+	}
+
+	/**
+	 * Decide whether to admit a call.
+	 * @param priority the priority of the call, {@code null} for
+	 * {@link CallPriority#NORMAL}
+	 * @return {@code true} if the call is admitted, {@code false} if it is shed
+	 */
+	public boolean admit(@Nullable CallPriority priority) {
+		if (!this.overloaded) {
+			return true;
+		}
+		CallPriority callPriority = (priority != null) ? priority : CallPriority.NORMAL;
+		if (callPriority.compareTo(this.shedPriority) > 0
+				|| ThreadLocalRandom.current().nextDouble() >= this.shedRatio) {
+			return true;
+		}
+		this.shed.increment();
+		return false;
+	}
+
+	/**
+	 * Whether the JVM was overloaded when its load was last sampled.
+	 * @return {@code true} if calls are being shed
+	 */
+	public boolean isOverloaded() {
+		return this.overloaded;
+	}
+
+	/**
+	 * Get the number of calls shed.
+	 * @return the number of calls shed
+	 */
+	public long getShedCount() {
+		return this.shed.sum();
+	}
+
+	/**
+	 * Sample the load of the JVM and update whether it is overloaded.
+	 */
+	void sample() {
+		double gcPauseRatio = this.loadSampler.sampleGcPauseRatio();
+		double cpuLoad = this.loadSampler.sampleCpuLoad();
+		long queueDepth = 0;
+		for (IntSupplier queueDepthSource : this.queueDepthSources) {
+			queueDepth += queueDepthSource.getAsInt();
+		}
+		boolean overloaded = gcPauseRatio > this.maxGcPauseRatio || cpuLoad > this.maxCpuLoad
+				|| (this.maxExecutorQueueDepth != null && queueDepth > this.maxExecutorQueueDepth);
+		if (overloaded != this.overloaded) {
+			if (overloaded) {
+				LOG.warn("JVM overloaded (gc pause ratio " + gcPauseRatio + ", cpu load " + cpuLoad
+						+ ", executor queue depth " + queueDepth + "), shedding " + this.shedPriority
+						+ " and lower priority calls");
+			}
+			else {
+				LOG.info("JVM no longer overloaded, admitting all calls");
+			}
+			this.overloaded = overloaded;
+		}
+	}
+
+	private void sampleSafely() {
+		try {
+			sample();
+		}
+		catch (RuntimeException ex) {
+			LOG.debug("Failed to sample the load of the JVM", ex);
+		}
+	}
+
+	@Override
+	public synchronized void start() {
+		if (this.sampler == null) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("resilience4j-admission-control-");
+			threadFactory.setDaemon(true);
+			ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+			long interval = this.sampleInterval.toNanos();
+			sampler.scheduleWithFixedDelay(this::sampleSafely, interval, interval, TimeUnit.NANOSECONDS);
+			this.sampler = sampler;
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		ScheduledExecutorService sampler = this.sampler;
+		if (sampler != null) {
+			sampler.shutdownNow();
+			this.sampler = null;
+		}
+		this.overloaded = false;
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return this.sampler != null;
+	}
+
+	/**
+	 * Samples the load signals of the JVM. Each sample covers the time since the previous
+	 * one.
+	 */
+	interface LoadSampler {
+
+		double sampleGcPauseRatio();
+
+		double sampleCpuLoad();
+
+	}
+
+	static final class JvmLoadSampler implements LoadSampler {
+
+		private static final boolean PROCESS_CPU_LOAD_PRESENT = ClassUtils
+			.isPresent("com.sun.management.OperatingSystemMXBean", null);
+
+		private final List<GarbageCollectorMXBean> garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+		private final OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+
+		private long lastGcTimeMillis = getGcTimeMillis();
+
+		private long lastSampleNanos = System.nanoTime();
+
+		@Override
+		public double sampleGcPauseRatio() {
+			long gcTimeMillis = getGcTimeMillis();
+			long now = System.nanoTime();
+			long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - this.lastSampleNanos);
+			double ratio = (elapsedMillis > 0) ? (double) (gcTimeMillis - this.lastGcTimeMillis) / elapsedMillis : 0;
+			this.lastGcTimeMillis = gcTimeMillis;
+			this.lastSampleNanos = now;
+			return ratio;
+		}
+
+		@Override
+		public double sampleCpuLoad() {
+			if (PROCESS_CPU_LOAD_PRESENT
+					&& this.operatingSystem instanceof com.sun.management.OperatingSystemMXBean operatingSystem) {
+				return Math.max(0, operatingSystem.getProcessCpuLoad());
+			}
+			double loadAverage = this.operatingSystem.getSystemLoadAverage();
+			return (loadAverage > 0) ? loadAverage / this.operatingSystem.getAvailableProcessors() : 0;
+		}
+
+		private long getGcTimeMillis() {
+			long gcTimeMillis = 0;
+			for (GarbageCollectorMXBean garbageCollector : this.garbageCollectors) {
+				gcTimeMillis += Math.max(0, garbageCollector.getCollectionTime());
+			}
+			return gcTimeMillis;
+		}
+
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The bulkhead of an id, resolved once by a bulkhead provider: whether a semaphore, a
+ * thread pool or a virtual thread bulkhead is used, the bulkhead instance and, if
+ * priority load shedding is enabled, its priority bulkhead. Circuit breakers hold on to the handle of their group
+ * and decorate calls with it, so the configuration and the registries are not looked up
+ * on every call.
+ *
+ * <p>
+ * A handle is invalidated when the bulkhead of its id is configured or customized again
+ * through the provider, when the default configuration of the provider changes, and when
+ * the bulkhead is removed from or replaced in its registry. Holders should get a new
+ * handle from the provider once {@link #isValid()} returns {@code false}.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+public final class BulkheadHandle {
+
+	private final String name;
+
+	private final Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration configuration;
+
+	private final @Nullable Bulkhead bulkhead;
+
+	private final @Nullable ThreadPoolBulkhead threadPoolBulkhead;
+
+	private final @Nullable VirtualThreadBulkhead virtualThreadBulkhead;
+
+	private final @Nullable PriorityBulkhead priorityBulkhead;
+
+	private volatile boolean valid = true;
+
+	BulkheadHandle(String name, Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration configuration,
+			@Nullable Bulkhead bulkhead, @Nullable ThreadPoolBulkhead threadPoolBulkhead,
+			@Nullable VirtualThreadBulkhead virtualThreadBulkhead, @Nullable PriorityBulkhead priorityBulkhead) {
+		this.name = name;
+		this.configuration = configuration;
+		this.bulkhead = bulkhead;
+		this.threadPoolBulkhead = threadPoolBulkhead;
+		this.virtualThreadBulkhead = virtualThreadBulkhead;
+		this.priorityBulkhead = priorityBulkhead;
+	}
+
+	/**
+	 * Get the id of the bulkhead.
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Whether calls are limited by a semaphore bulkhead rather than a thread pool or a
+	 * virtual thread bulkhead.
+	 * @return {@code true} for a semaphore bulkhead
+	 */
+	public boolean isSemaphoreBulkhead() {
+		return this.bulkhead != null;
+	}
+
+	/**
+	 * Whether calls are run on virtual threads by a virtual thread bulkhead.
+	 * @return {@code true} for a virtual thread bulkhead
+	 */
+	public boolean isVirtualThreadBulkhead() {
+		return this.virtualThreadBulkhead != null;
+	}
+
+	/**
+	 * Get the semaphore bulkhead.
+	 * @return the semaphore bulkhead or {@code null} if another kind of bulkhead is used
+	 */
+	public @Nullable Bulkhead getBulkhead() {
+		return this.bulkhead;
+	}
+
+	/**
+	 * Get the thread pool bulkhead.
+	 * @return the thread pool bulkhead or {@code null} if another kind of bulkhead is used
+	 */
+	public @Nullable ThreadPoolBulkhead getThreadPoolBulkhead() {
+		return this.threadPoolBulkhead;
+	}
+
+	/**
+	 * Get the virtual thread bulkhead.
+	 * @return the virtual thread bulkhead or {@code null} if another kind of bulkhead is
+	 * used
+	 */
+	public @Nullable VirtualThreadBulkhead getVirtualThreadBulkhead() {
+		return this.virtualThreadBulkhead;
+	}
+
+	/**
+	 * Get the priority bulkhead.
+	 * @return the priority bulkhead or {@code null} if priority load shedding is not
+	 * enabled for the bulkhead
+	 */
+	public @Nullable PriorityBulkhead getPriorityBulkhead() {
+		return this.priorityBulkhead;
+	}
+
+	/**
+	 * Whether the handle still reflects the configuration of the bulkhead.
+	 * @return {@code false} if the handle should be resolved again
+	 */
+	public boolean isValid() {
+		return this.valid;
+	}
+
+	Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration getConfiguration() {
+		return this.configuration;
+	}
+
+	void invalidate() {
+		this.valid = false;
+	}
+
+	@Override
+	public String toString() {
+		return "BulkheadHandle{name=" + this.name + ", semaphoreBulkhead=" + isSemaphoreBulkhead()
+				+ ", virtualThreadBulkhead=" + isVirtualThreadBulkhead() + ", valid=" + this.valid + "}";
+	}
+
+}
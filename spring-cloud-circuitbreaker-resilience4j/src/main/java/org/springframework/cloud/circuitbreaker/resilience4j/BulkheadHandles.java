@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The bulkhead handles resolved by a bulkhead provider, by bulkhead id.
+ *
+ * <p>
+ * Invalidation first moves to a new generation and then removes the handles, while a
+ * resolved handle is only cached if no invalidation happened since its resolution
+ * started, so a handle resolved from a stale configuration is never cached. Only one
+ * handle of an id is ever valid at a time.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+final class BulkheadHandles {
+
+	private final ConcurrentHashMap<String, BulkheadHandle> handles = new ConcurrentHashMap<>();
+
+	private volatile long generation;
+
+	@Nullable BulkheadHandle find(String id) {
+		return this.handles.get(id);
+	}
+
+	/**
+	 * Get the valid handle of the given id, resolving it if needed.
+	 * @param id the bulkhead id
+	 * @param resolver resolves the handle of the id
+	 * @return the handle, already invalidated if the configuration changed while it was
+	 * resolved
+	 */
+	BulkheadHandle get(String id, Function<String, BulkheadHandle> resolver) {
+		BulkheadHandle handle = this.handles.get(id);
+		if (handle != null && handle.isValid()) {
+			return handle;
+		}
+		long resolvedAt = this.generation;
+		BulkheadHandle resolved = resolver.apply(id);
+		BulkheadHandle cached = this.handles.compute(id, (key, existing) -> {
+			if (this.generation != resolvedAt || (existing != null && existing.isValid())) {
+				return existing;
+			}
+			return resolved;
+		});
+		if (cached == resolved) {
+			return resolved;
+		}
+		// Either the configuration changed while resolving or another caller resolved the
+		// id first: only cached handles are invalidated later, so never hand out the other
+		// one as valid
+		resolved.invalidate();
+		return (cached != null && cached.isValid()) ? cached : resolved;
+	}
+
+	synchronized void invalidate(String id) {
+		this.generation++;
+		BulkheadHandle handle = this.handles.remove(id);
+		if (handle != null) {
+			handle.invalidate();
+		}
+	}
+
+	synchronized void invalidateAll() {
+		this.generation++;
+		for (String id : new ArrayList<>(this.handles.keySet())) {
+			BulkheadHandle handle = this.handles.remove(id);
+			if (handle != null) {
+				handle.invalidate();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Times the waits of bulkhead calls for a {@link Resilience4jBulkheadWaitListener}. Waits
+ * are measured with a pair of {@link System#nanoTime()} calls, and not at all when no
+ * listener is set.
+ *
+ * @author Ryan Baxter
+ */
+final class BulkheadWaits {
+
+	private BulkheadWaits() {
+	}
+
+	/**
+	 * Acquire a permit of the bulkhead, waiting at most its maximum wait duration, and
+	 * report the time waited to the listener.
+	 * @param bulkhead the bulkhead
+	 * @param listener the listener, {@code null} to report nothing
+	 * @throws io.github.resilience4j.bulkhead.BulkheadFullException if no permit is
+	 * available within the maximum wait duration of the bulkhead
+	 */
+	static void acquirePermission(Bulkhead bulkhead, @Nullable Resilience4jBulkheadWaitListener listener) {
+		if (listener == null) {
+			FlightRecorderEvents.acquirePermission(bulkhead);
+			return;
+		}
+		long start = System.nanoTime();
+		boolean permitted = false;
+		try {
+			FlightRecorderEvents.acquirePermission(bulkhead);
+			permitted = true;
+		}
+		finally {
+			listener.onPermitWait(bulkhead.getName(), System.nanoTime() - start, permitted);
+		}
+	}
+
+	/**
+	 * Decorate a callable about to be submitted to a thread pool bulkhead so that the time
+	 * from now until it starts executing is reported to the listener.
+	 */
+	static <T> Callable<T> queued(String bulkheadName, Callable<T> callable,
+			@Nullable Resilience4jBulkheadWaitListener listener) {
+		if (listener == null) {
+			return callable;
+		}
+		long submitted = System.nanoTime();
+		return () -> {
+			listener.onQueueWait(bulkheadName, System.nanoTime() - submitted);
+			return callable.call();
+		};
+	}
+
+	/**
+	 * Decorate a supplier about to be submitted to a thread pool bulkhead so that the time
+	 * from now until it starts executing is reported to the listener.
+	 */
+	static <T> Supplier<T> queued(String bulkheadName, Supplier<T> supplier,
+			@Nullable Resilience4jBulkheadWaitListener listener) {
+		if (listener == null) {
+			return supplier;
+		}
+		long submitted = System.nanoTime();
+		return () -> {
+			listener.onQueueWait(bulkheadName, System.nanoTime() - submitted);
+			return supplier.get();
+		};
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+/**
+ * Priority of a circuit breaker call. Priority-aware components use it to decide which
+ * calls to reject first when they are saturated.
+ *
+ * @author Ryan Baxter
+ * @see Resilience4JRunOptions#getPriority()
+ * @see Resilience4JPriorityBulkheadConfig
+ */
+public enum CallPriority {
+
+	/**
+	 * Background or batch calls that are rejected first.
+	 */
+	LOW,
+
+	/**
+	 * Regular calls.
+	 */
+	NORMAL,
+
+	/**
+	 * Calls, typically on behalf of a user, that should be rejected last.
+	 */
+	HIGH;
+
+	/**
+	 * Key of the priority of a call in the Reactor context.
+	 */
+	public static final String CONTEXT_KEY = CallPriority.class.getName();
+
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerEvent;
+import io.github.resilience4j.core.EventConsumer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties.EventBusProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Dispatches the events of circuit breakers to consumers on a background thread. The
+ * event publisher of a Resilience4j circuit breaker calls its consumers on the thread
+ * making the call, so every consumer adds to the latency of every call. The bus is the
+ * only consumer of the circuit breakers it is bound to: it adds each event to a
+ * preallocated ring buffer without locking, and a single background thread takes the
+ * events from the buffer in batches and calls the consumers added to the bus. When the
+ * buffer is full, events are dropped and counted rather than blocking the call.
+ *
+ * @author Ryan Baxter
+ * @see Resilience4JConfigurationProperties#getEventBus()
+ */
+public class CircuitBreakerEventBus implements SmartLifecycle {
+
+	private static final Log LOG = LogFactory.getLog(CircuitBreakerEventBus.class);
+
+	private final RingBuffer<CircuitBreakerEvent> buffer;
+
+	private final CircuitBreakerEvent[] batch;
+
+	private final Duration dispatchInterval;
+
+	private final List<EventConsumer<CircuitBreakerEvent>> consumers = new CopyOnWriteArrayList<>();
+
+	private final LongAdder dropped = new LongAdder();
+
+	private final LongAdder dispatched = new LongAdder();
+
+	private @Nullable ScheduledExecutorService dispatcher;
+
+	public CircuitBreakerEventBus(EventBusProperties properties) {
+		Assert.isTrue(properties.getCapacity() > 0, "capacity must be positive");
+		Assert.isTrue(properties.getBatchSize() > 0, "batchSize must be positive");
+		Assert.isTrue(properties.getDispatchInterval().isPositive(), "dispatchInterval must be positive");
+		this.buffer = new RingBuffer<>(properties.getCapacity());
+		this.batch = new CircuitBreakerEvent[properties.getBatchSize()];
+		this.dispatchInterval = properties.getDispatchInterval();
+	}
+
+	/**
+	 * Publish the events of all the circuit breakers of a registry, including the ones
+	 * added to it later, to this bus.
+	 * @param circuitBreakerRegistry the circuit breaker registry
+	 */
+	public void bindTo(CircuitBreakerRegistry circuitBreakerRegistry) {
+		circuitBreakerRegistry.getAllCircuitBreakers().forEach(this::bindTo);
+		circuitBreakerRegistry.getEventPublisher()
+			.onEntryAdded(event -> bindTo(event.getAddedEntry()))
+			.onEntryReplaced(event -> bindTo(event.getNewEntry()));
+	}
+
+	/**
+	 * Publish the events of a circuit breaker to this bus.
+	 * @param circuitBreaker the circuit breaker
+	 */
+	public void bindTo(CircuitBreaker circuitBreaker) {
+		circuitBreaker.getEventPublisher().onEvent(this::publish);
+	}
+
+	/**
+	 * Add a consumer called on the background thread with the events published to this
+	 * bus, in the order they were published. A consumer should not block, since it
+	 * delays the events of all circuit breakers.
+	 * @param consumer the event consumer
+	 */
+	public void addConsumer(EventConsumer<CircuitBreakerEvent> consumer) {
+		Assert.notNull(consumer, "Event consumer must not be null");
+		this.consumers.add(consumer);
+	}
+
+	/**
+	 * Add an event to the buffer, to be dispatched on the background thread.
+	 * @param event the event
+	 * @return {@code true} if the event was added, {@code false} if it was dropped
+	 * because the buffer is full
+	 */
+	public boolean publish(CircuitBreakerEvent event) {
+		if (this.buffer.offer(event)) {
+			return true;
+		}
+		this.dropped.increment();
+		return false;
+	}
+
+	/**
+	 * Get the number of events dropped because the buffer was full.
+	 * @return the number of events dropped
+	 */
+	public long getDroppedCount() {
+		return this.dropped.sum();
+	}
+
+	/**
+	 * Get the number of events dispatched to the consumers.
+	 * @return the number of events dispatched
+	 */
+	public long getDispatchedCount() {
+		return this.dispatched.sum();
+	}
+
+	/**
+	 * Dispatch the events in the buffer to the consumers in batches, until it is empty.
+	 * Only called by one thread at a time.
+	 */
+	void dispatch() {
+		int count;
+		while ((count = this.buffer.drainTo(this.batch)) > 0) {
+			for (int i = 0; i < count; i++) {
+				CircuitBreakerEvent event = this.batch[i];
+				this.batch[i] = null;
+				for (EventConsumer<CircuitBreakerEvent> consumer : this.consumers) {
+					try {
+						consumer.consumeEvent(event);
+					}
+					catch (RuntimeException ex) {
+						LOG.warn("Event consumer " + consumer + " failed to consume " + event, ex);
+					}
+				}
+			}
+			this.dispatched.add(count);
+		}
+	}
+
+	@Override
+	public synchronized void start() {
+		if (this.dispatcher == null) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("resilience4j-event-bus-");
+			threadFactory.setDaemon(true);
+			ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+			long interval = this.dispatchInterval.toNanos();
+			dispatcher.scheduleWithFixedDelay(this::dispatch, interval, interval, TimeUnit.NANOSECONDS);
+			this.dispatcher = dispatcher;
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		ScheduledExecutorService dispatcher = this.dispatcher;
+		if (dispatcher != null) {
+			// Dispatch the events left in the buffer before the thread ends
+			dispatcher.execute(this::dispatch);
+			dispatcher.shutdown();
+			this.dispatcher = null;
+		}
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return this.dispatcher != null;
+	}
+
+	/**
+	 * Bounded multi-producer, single-consumer ring buffer. Each slot has a sequence
+	 * telling whether it is free for the producer of a given position or holds the
+	 * element for the consumer, so producers only contend on claiming a position.
+	 */
+	static final class RingBuffer<E> {
+
+		private final AtomicReferenceArray<@Nullable E> elements;
+
+		private final AtomicLongArray sequences;
+
+		private final int mask;
+
+		private final AtomicLong tail = new AtomicLong();
+
+		private long head;
+
+		RingBuffer(int capacity) {
+			int size = (capacity > 1) ? Integer.highestOneBit(capacity - 1) << 1 : 1;
+			this.elements = new AtomicReferenceArray<>(size);
+			this.sequences = new AtomicLongArray(size);
+			this.mask = size - 1;
+			for (int i = 0; i < size; i++) {
+				this.sequences.set(i, i);
+			}
+		}
+
+		int capacity() {
+			return this.mask + 1;
+		}
+
+		boolean offer(E element) {
+			long position = this.tail.get();
+			while (true) {
+				int index = (int) (position & this.mask);
+				long available = this.sequences.get(index) - position;
+				if (available == 0) {
+					if (this.tail.compareAndSet(position, position + 1)) {
+						this.elements.lazySet(index, element);
+						this.sequences.set(index, position + 1);
+						return true;
+					}
+				}
+				else if (available < 0) {
+					return false;
+				}
+				position = this.tail.get();
+			}
+		}
+
+		/**
+		 * Move the elements at the head of the buffer to an array, only called by the
+		 * consumer.
+		 * @param target the array to fill from its start
+		 * @return the number of elements moved
+		 */
+		int drainTo(E[] target) {
+			int count = 0;
+			while (count < target.length) {
+				int index = (int) (this.head & this.mask);
+				if (this.sequences.get(index) != this.head + 1) {
+					break;
+				}
+				target[count++] = this.elements.get(index);
+				this.elements.lazySet(index, null);
+				this.sequences.set(index, this.head + this.mask + 1);
+				this.head++;
+			}
+			return count;
+		}
+
+	}
+
+}
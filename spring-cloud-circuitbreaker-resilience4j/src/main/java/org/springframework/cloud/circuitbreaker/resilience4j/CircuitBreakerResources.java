@@ -0,0 +1,318 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder.Resilience4JCircuitBreakerConfiguration;
+
+/**
+ * Runtime state shared by all circuit breaker instances a factory creates for the same
+ * id. Factories usually create a new circuit breaker instance per call to
+ * {@code create}, so any state that must survive across those instances is kept here.
+ *
+ * @author Ryan Baxter
+ */
+final class CircuitBreakerResources {
+
+	private final boolean writableStackTraceEnabled;
+
+	private final @Nullable String groupName;
+
+	private final @Nullable IdleCircuitBreakerEvictor evictor;
+
+	private volatile @Nullable SingleFlight singleFlight;
+
+	private volatile @Nullable FallbackCache fallbackCache;
+
+	private volatile @Nullable RequestHedger requestHedger;
+
+	private volatile @Nullable SlowStartRamp slowStartRamp;
+
+	private volatile @Nullable AdaptiveTimeout adaptiveTimeout;
+
+	private volatile @Nullable CircuitBreaker circuitBreaker;
+
+	private volatile @Nullable CallNotPermittedException openRejection;
+
+	private volatile @Nullable CircuitBreaker recordedCircuitBreaker;
+
+	private volatile long lastUsed;
+
+	private volatile @Nullable Resilience4JCircuitBreakerConfiguration defaultConfiguration;
+
+	CircuitBreakerResources() {
+		this(false);
+	}
+
+	/**
+	 * Create the resources of a circuit breaker id.
+	 * @param writableStackTraceEnabled whether the exceptions rejecting calls of the
+	 * circuit breaker are created with a stack trace
+	 */
+	CircuitBreakerResources(boolean writableStackTraceEnabled) {
+		this(writableStackTraceEnabled, null, null);
+	}
+
+	/**
+	 * Create the resources of a circuit breaker id.
+	 * @param writableStackTraceEnabled whether the exceptions rejecting calls of the
+	 * circuit breaker are created with a stack trace
+	 * @param groupName the group of the circuit breaker
+	 * @param evictor the evictor tracking the last use of the circuit breaker, if any
+	 */
+	CircuitBreakerResources(boolean writableStackTraceEnabled, @Nullable String groupName,
+			@Nullable IdleCircuitBreakerEvictor evictor) {
+		this.writableStackTraceEnabled = writableStackTraceEnabled;
+		this.groupName = groupName;
+		this.evictor = evictor;
+		this.lastUsed = (evictor != null) ? evictor.now() : 0;
+	}
+
+	boolean isWritableStackTraceEnabled() {
+		return this.writableStackTraceEnabled;
+	}
+
+	/**
+	 * Set the Resilience4J circuit breaker the last call of the id was decorated with.
+	 * @param circuitBreaker the circuit breaker
+	 */
+	void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+		touch();
+		if (this.circuitBreaker != circuitBreaker) {
+			this.circuitBreaker = circuitBreaker;
+		}
+		if (this.recordedCircuitBreaker != circuitBreaker && FlightRecorderEvents.isStateTransitionEnabled()) {
+			recordStateTransitions(circuitBreaker);
+		}
+	}
+
+	/**
+	 * Emit the flight recorder events of the state transitions of the circuit breaker,
+	 * unless already emitting them. The circuit breaker keeps publishing its events for
+	 * the rest of its life, even once no recording enables them.
+	 */
+	private synchronized void recordStateTransitions(CircuitBreaker circuitBreaker) {
+		if (this.recordedCircuitBreaker != circuitBreaker) {
+			circuitBreaker.getEventPublisher()
+				.onStateTransition(event -> FlightRecorderEvents.stateTransition(event.getCircuitBreakerName(),
+						event.getStateTransition()));
+			this.recordedCircuitBreaker = circuitBreaker;
+		}
+	}
+
+	/**
+	 * Reject a call without decorating it if the Resilience4J circuit breaker of the id
+	 * is open. The circuit breaker is still asked for a permission, so it records the
+	 * call as not permitted and transitions to half open once its wait duration has
+	 * elapsed. The permission acquired in that case is released, since it is acquired
+	 * again when the call is decorated. The exception rejecting the call is shared with
+	 * other rejected calls while the circuit breaker is open, not forced open, and
+	 * configured without writable stack traces.
+	 * @return the exception rejecting the call or {@code null} if the call must be made
+	 */
+	@Nullable CallNotPermittedException shortCircuit() {
+		CircuitBreaker circuitBreaker = this.circuitBreaker;
+		if (circuitBreaker == null || !isOpen(circuitBreaker)) {
+			return null;
+		}
+		if (circuitBreaker.tryAcquirePermission()) {
+			circuitBreaker.releasePermission();
+			return null;
+		}
+		touch();
+		if (circuitBreaker.getState() != CircuitBreaker.State.OPEN
+				|| circuitBreaker.getCircuitBreakerConfig().isWritableStackTraceEnabled()) {
+			return CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+		}
+		CallNotPermittedException rejection = this.openRejection;
+		if (rejection == null) {
+			rejection = CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+			this.openRejection = rejection;
+		}
+		return rejection;
+	}
+
+	/**
+	 * Record the use of the circuit breaker, if an evictor tracks it. Only the coarse
+	 * clock of the evictor is stored, and only when it changed, so concurrent calls do not
+	 * contend on the last use.
+	 */
+	private void touch() {
+		IdleCircuitBreakerEvictor evictor = this.evictor;
+		if (evictor != null) {
+			long now = evictor.now();
+			if (this.lastUsed != now) {
+				this.lastUsed = now;
+			}
+		}
+	}
+
+	boolean isTrackedBy(IdleCircuitBreakerEvictor evictor) {
+		return this.evictor == evictor;
+	}
+
+	long getLastUsed() {
+		return this.lastUsed;
+	}
+
+	@Nullable String getGroupName() {
+		return this.groupName;
+	}
+
+	/**
+	 * Whether the Resilience4J circuit breaker of the id was put in a state that only
+	 * changes when asked to, which eviction must not reset.
+	 * @return {@code true} if the circuit breaker is forced open, disabled or only
+	 * records metrics
+	 */
+	boolean hasManualState() {
+		CircuitBreaker circuitBreaker = this.circuitBreaker;
+		if (circuitBreaker == null) {
+			return false;
+		}
+		CircuitBreaker.State state = circuitBreaker.getState();
+		return state == CircuitBreaker.State.FORCED_OPEN || state == CircuitBreaker.State.DISABLED
+				|| state == CircuitBreaker.State.METRICS_ONLY;
+	}
+
+	/**
+	 * Remember the configuration the factory created from its default configuration for
+	 * the id, which is removed from the factory when the id is evicted. Configurations
+	 * set explicitly are kept.
+	 * @param defaultConfiguration the configuration created for the id
+	 * @return the configuration
+	 */
+	Resilience4JCircuitBreakerConfiguration defaultConfiguration(
+			Resilience4JCircuitBreakerConfiguration defaultConfiguration) {
+		this.defaultConfiguration = defaultConfiguration;
+		return defaultConfiguration;
+	}
+
+	@Nullable Resilience4JCircuitBreakerConfiguration getDefaultConfiguration() {
+		return this.defaultConfiguration;
+	}
+
+	private static boolean isOpen(CircuitBreaker circuitBreaker) {
+		CircuitBreaker.State state = circuitBreaker.getState();
+		return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+	}
+
+	/**
+	 * Get the single flight coalescing the calls of the id, created on first use since
+	 * most ids never coalesce calls.
+	 * @return the single flight
+	 */
+	SingleFlight getSingleFlight() {
+		SingleFlight singleFlight = this.singleFlight;
+		if (singleFlight == null) {
+			synchronized (this) {
+				singleFlight = this.singleFlight;
+				if (singleFlight == null) {
+					singleFlight = new SingleFlight();
+					this.singleFlight = singleFlight;
+				}
+			}
+		}
+		return singleFlight;
+	}
+
+	/**
+	 * Get the fallback cache for the given configuration. A new, empty cache replaces the
+	 * current one when the configuration changes.
+	 * @param config the fallback cache configuration
+	 * @return the fallback cache
+	 */
+	FallbackCache getFallbackCache(Resilience4JFallbackCacheConfig config) {
+		FallbackCache cache = this.fallbackCache;
+		if (cache == null || cache.getConfig() != config) {
+			synchronized (this) {
+				cache = this.fallbackCache;
+				if (cache == null || cache.getConfig() != config) {
+					cache = new FallbackCache(config);
+					this.fallbackCache = cache;
+				}
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * Get the request hedger for the given configuration. A new request hedger, with no
+	 * observed durations and an empty budget, replaces the current one when the
+	 * configuration changes.
+	 * @param config the hedging configuration
+	 * @return the request hedger
+	 */
+	RequestHedger getRequestHedger(Resilience4JHedgingConfig config) {
+		RequestHedger hedger = this.requestHedger;
+		if (hedger == null || hedger.getConfig() != config) {
+			synchronized (this) {
+				hedger = this.requestHedger;
+				if (hedger == null || hedger.getConfig() != config) {
+					hedger = new RequestHedger(config);
+					this.requestHedger = hedger;
+				}
+			}
+		}
+		return hedger;
+	}
+
+	/**
+	 * Get the slow start ramp for the given configuration. A new slow start ramp, not
+	 * ramping up until the circuit breaker closes again, replaces the current one when
+	 * the configuration changes.
+	 * @param config the slow start configuration
+	 * @return the slow start ramp
+	 */
+	SlowStartRamp getSlowStartRamp(Resilience4JSlowStartConfig config) {
+		SlowStartRamp ramp = this.slowStartRamp;
+		if (ramp == null || ramp.getConfig() != config) {
+			synchronized (this) {
+				ramp = this.slowStartRamp;
+				if (ramp == null || ramp.getConfig() != config) {
+					ramp = new SlowStartRamp(config);
+					this.slowStartRamp = ramp;
+				}
+			}
+		}
+		return ramp;
+	}
+
+	/**
+	 * Get the adaptive timeout for the given configuration. A new adaptive timeout, with
+	 * no observed durations, replaces the current one when the configuration changes.
+	 * @param config the adaptive timeout configuration
+	 * @return the adaptive timeout
+	 */
+	AdaptiveTimeout getAdaptiveTimeout(Resilience4JAdaptiveTimeoutConfig config) {
+		AdaptiveTimeout timeout = this.adaptiveTimeout;
+		if (timeout == null || timeout.getConfig() != config) {
+			synchronized (this) {
+				timeout = this.adaptiveTimeout;
+				if (timeout == null || timeout.getConfig() != config) {
+					timeout = new AdaptiveTimeout(config);
+					this.adaptiveTimeout = timeout;
+				}
+			}
+		}
+		return timeout;
+	}
+
+}
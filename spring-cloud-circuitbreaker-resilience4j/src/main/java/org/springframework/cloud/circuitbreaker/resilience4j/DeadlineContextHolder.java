@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Instant;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Holds the absolute deadline of the request being processed, so circuit breakers can
+ * limit the calls they make to the time the caller is still willing to wait. Blocking
+ * code binds the deadline to the current thread, reactive code stores it in the Reactor
+ * context under {@link #CONTEXT_KEY}.
+ *
+ * <pre class="code">
+ * DeadlineContextHolder.setDeadline(Instant.now().plusMillis(500));
+ * try {
+ *     circuitBreaker.run(() -&gt; restClient.get()...);
+ * }
+ * finally {
+ *     DeadlineContextHolder.resetDeadline();
+ * }
+ *
+ * circuitBreaker.run(webClient.get()...)
+ *     .contextWrite(Context.of(DeadlineContextHolder.CONTEXT_KEY, deadline));
+ * </pre>
+ *
+ * @author Ryan Baxter
+ */
+public final class DeadlineContextHolder {
+
+	/**
+	 * The key of the deadline, an {@link Instant}, in the Reactor context.
+	 */
+	public static final String CONTEXT_KEY = DeadlineContextHolder.class.getName() + ".DEADLINE";
+
+	private static final ThreadLocal<Instant> deadlineHolder = new ThreadLocal<>();
+
+	private DeadlineContextHolder() {
+	}
+
+	/**
+	 * Bind the deadline to the current thread.
+	 * @param deadline the deadline, {@code null} to reset it
+	 */
+	public static void setDeadline(@Nullable Instant deadline) {
+		if (deadline == null) {
+			resetDeadline();
+		}
+		else {
+			deadlineHolder.set(deadline);
+		}
+	}
+
+	/**
+	 * Get the deadline bound to the current thread.
+	 * @return the deadline or {@code null} if none is bound
+	 */
+	public static @Nullable Instant getDeadline() {
+		return deadlineHolder.get();
+	}
+
+	/**
+	 * Reset the deadline of the current thread.
+	 */
+	public static void resetDeadline() {
+		deadlineHolder.remove();
+	}
+
+}
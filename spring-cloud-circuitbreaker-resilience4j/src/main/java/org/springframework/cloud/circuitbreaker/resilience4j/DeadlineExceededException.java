@@ -0,0 +1,50 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Thrown when the deadline of a call of a circuit breaker passes. A call whose deadline
+ * had already passed when it was made is not executed and not recorded by the circuit
+ * breaker.
+ *
+ * @author Ryan Baxter
+ * @see DeadlineContextHolder
+ */
+public class DeadlineExceededException extends TimeoutException {
+
+	private final String circuitBreakerName;
+
+	private final Instant deadline;
+
+	public DeadlineExceededException(String circuitBreakerName, Instant deadline) {
+		super("Deadline " + deadline + " of call to CircuitBreaker '" + circuitBreakerName + "' exceeded");
+		this.circuitBreakerName = circuitBreakerName;
+		this.deadline = deadline;
+	}
+
+	public String getCircuitBreakerName() {
+		return this.circuitBreakerName;
+	}
+
+	public Instant getDeadline() {
+		return this.deadline;
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when the executor service of a circuit breaker rejects a call, for example
+ * because the maximum number of threads of its group executor are busy. The call has not
+ * been executed. Circuit breakers do not record such calls as failures.
+ *
+ * @author Ryan Baxter
+ * @see Resilience4JConfigurationProperties#getGroupExecutor()
+ */
+public class ExecutorRejectedException extends RejectedExecutionException {
+
+	private final String circuitBreakerName;
+
+	public ExecutorRejectedException(String circuitBreakerName, RejectedExecutionException cause) {
+		super("Executor service of CircuitBreaker '" + circuitBreakerName + "' rejected the call", cause);
+		this.circuitBreakerName = circuitBreakerName;
+	}
+
+	public String getCircuitBreakerName() {
+		return this.circuitBreakerName;
+	}
+
+}
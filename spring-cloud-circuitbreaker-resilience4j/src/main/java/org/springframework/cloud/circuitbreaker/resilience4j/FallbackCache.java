@@ -0,0 +1,215 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Size-bounded last-known-good result cache backing the fallback cache of a
+ * {@link Resilience4JCircuitBreaker}.
+ *
+ * <p>
+ * Reads are lock-free and writes only take a lock to evict. Every read increments the
+ * access frequency of the entry. Once the cache grows beyond its maximum size, the writer
+ * evicts expired entries and then the least frequently used ones, down to the maximum
+ * size less a tenth of it, so that the cost of eviction is amortized over many writes.
+ * The entries to evict are selected in a single pass, without sorting the cache. Writers
+ * that find the cache full while another writer evicts wait for it, so the cache does not
+ * stay above its maximum size. Frequencies are halved on every eviction so that entries
+ * which used to be popular eventually age out.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+final class FallbackCache {
+
+	private static final Comparator<Map.Entry<Object, Entry>> EVICTION_ORDER = Comparator
+		.comparingInt((Map.Entry<Object, Entry> candidate) -> candidate.getValue().evictionFrequency)
+		.thenComparingLong(candidate -> candidate.getValue().writtenAt);
+
+	private final Resilience4JFallbackCacheConfig config;
+
+	private final LongSupplier nanoClock;
+
+	private final long timeToLiveNanos;
+
+	private final long maximumAgeNanos;
+
+	private final int evictionBatchSize;
+
+	private final ConcurrentHashMap<Object, Entry> entries = new ConcurrentHashMap<>();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	FallbackCache(Resilience4JFallbackCacheConfig config) {
+		this(config, System::nanoTime);
+	}
+
+	FallbackCache(Resilience4JFallbackCacheConfig config, LongSupplier nanoClock) {
+		this.config = config;
+		this.nanoClock = nanoClock;
+		this.timeToLiveNanos = config.getTimeToLive().toNanos();
+		this.maximumAgeNanos = this.timeToLiveNanos + config.getStaleWhileRevalidate().toNanos();
+		this.evictionBatchSize = Math.max(1, config.getMaximumSize() / 10);
+	}
+
+	Resilience4JFallbackCacheConfig getConfig() {
+		return this.config;
+	}
+
+	/**
+	 * Store the last known good result for the key.
+	 * @param key the cache key
+	 * @param value the result
+	 */
+	void put(Object key, @Nullable Object value) {
+		this.entries.put(key, new Entry(value, this.nanoClock.getAsLong()));
+		if (this.entries.size() > this.config.getMaximumSize()) {
+			evict();
+		}
+	}
+
+	/**
+	 * Get the cached result for the key.
+	 * @param key the cache key
+	 * @return the entry, or {@code null} if there is none or it is older than the time to
+	 * live and the stale while revalidate window
+	 */
+	@Nullable Entry get(Object key) {
+		Entry entry = this.entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		long age = this.nanoClock.getAsLong() - entry.writtenAt;
+		if (age > this.maximumAgeNanos) {
+			this.entries.remove(key, entry);
+			return null;
+		}
+		entry.frequency.incrementAndGet();
+		return entry;
+	}
+
+	/**
+	 * Whether the entry is older than the time to live. The entry itself holds no
+	 * staleness, since it is shared by all readers of the key.
+	 * @param entry the entry
+	 * @return {@code true} if the entry is stale and should be revalidated
+	 */
+	boolean isStale(Entry entry) {
+		return this.nanoClock.getAsLong() - entry.writtenAt > this.timeToLiveNanos;
+	}
+
+	int size() {
+		return this.entries.size();
+	}
+
+	private void evict() {
+		this.evictionLock.lock();
+		try {
+			if (this.entries.size() <= this.config.getMaximumSize()) {
+				// another writer evicted while this one waited
+				return;
+			}
+			int target = this.config.getMaximumSize() - this.evictionBatchSize;
+			int batchSize = this.entries.size() - target;
+			long now = this.nanoClock.getAsLong();
+			// the least frequently used candidates seen so far, most frequently used first
+			PriorityQueue<Map.Entry<Object, Entry>> victims = new PriorityQueue<>(batchSize + 1,
+					EVICTION_ORDER.reversed());
+			for (Map.Entry<Object, Entry> candidate : this.entries.entrySet()) {
+				Entry entry = candidate.getValue();
+				if (now - entry.writtenAt > this.maximumAgeNanos) {
+					this.entries.remove(candidate.getKey(), entry);
+					continue;
+				}
+				entry.evictionFrequency = entry.frequency.getAndUpdate(frequency -> frequency >>> 1);
+				victims.offer(candidate);
+				if (victims.size() > batchSize) {
+					victims.poll();
+				}
+			}
+			int excess = this.entries.size() - target;
+			int kept = victims.size() - Math.max(0, excess);
+			while (!victims.isEmpty()) {
+				Map.Entry<Object, Entry> victim = victims.poll();
+				if (kept-- <= 0) {
+					this.entries.remove(victim.getKey(), victim.getValue());
+				}
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * A cached result.
+	 */
+	static final class Entry {
+
+		private final @Nullable Object value;
+
+		private final long writtenAt;
+
+		private final AtomicBoolean revalidating = new AtomicBoolean();
+
+		private final AtomicInteger frequency = new AtomicInteger();
+
+		/**
+		 * The frequency of the entry when it was last considered for eviction, only
+		 * accessed while holding the eviction lock.
+		 */
+		private int evictionFrequency;
+
+		private Entry(@Nullable Object value, long writtenAt) {
+			this.value = value;
+			this.writtenAt = writtenAt;
+		}
+
+		@Nullable Object getValue() {
+			return this.value;
+		}
+
+		/**
+		 * Claim the revalidation of this entry.
+		 * @return {@code true} if the caller should revalidate the entry, {@code false} if
+		 * a revalidation is already in progress
+		 */
+		boolean startRevalidation() {
+			return this.revalidating.compareAndSet(false, true);
+		}
+
+		/**
+		 * Release the revalidation of this entry after it failed, so that a later read
+		 * may try again.
+		 */
+		void revalidationFailed() {
+			this.revalidating.set(false);
+		}
+
+	}
+
+}
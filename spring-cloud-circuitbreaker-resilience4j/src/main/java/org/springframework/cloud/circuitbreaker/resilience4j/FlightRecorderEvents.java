@@ -0,0 +1,243 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * JDK Flight Recorder events of the Resilience4J circuit breakers and bulkheads. Each
+ * event is only created and committed while a recording enables it, so emitting events
+ * costs a check of a flag when JFR is not recording.
+ *
+ * @author Ryan Baxter
+ */
+final class FlightRecorderEvents {
+
+	static final String CATEGORY = "Spring Cloud Circuit Breaker";
+
+	private static final EventType REJECTED = EventType.getEventType(RejectedEvent.class);
+
+	private static final EventType TIMEOUT = EventType.getEventType(TimeoutEvent.class);
+
+	private static final EventType FALLBACK = EventType.getEventType(FallbackEvent.class);
+
+	private static final EventType STATE_TRANSITION = EventType.getEventType(StateTransitionEvent.class);
+
+	private FlightRecorderEvents() {
+	}
+
+	/**
+	 * Whether a recording enables any of the events of a failed call, so that reactive
+	 * calls are only decorated to emit them while recording.
+	 * @return {@code true} if the events of failed calls are recorded
+	 */
+	static boolean isCallFailureEnabled() {
+		return REJECTED.isEnabled() || TIMEOUT.isEnabled() || FALLBACK.isEnabled();
+	}
+
+	/**
+	 * Whether a recording enables the state transition events. Listening to the state
+	 * transitions of a Resilience4J circuit breaker makes it create an event for every
+	 * call, so circuit breakers are only listened to once a recording enables them.
+	 * @return {@code true} if state transitions are recorded
+	 */
+	static boolean isStateTransitionEnabled() {
+		return STATE_TRANSITION.isEnabled();
+	}
+
+	/**
+	 * Emit the event of a call rejected before it ran or that timed out, if it is either.
+	 * @param circuitBreakerName the name of the circuit breaker
+	 * @param failure the failure of the call
+	 */
+	static void failed(String circuitBreakerName, Throwable failure) {
+		if (failure instanceof RejectedExecutionException || failure instanceof CallNotPermittedException
+				|| failure instanceof BulkheadFullException) {
+			RejectedEvent event = new RejectedEvent();
+			if (event.isEnabled()) {
+				event.circuitBreaker = circuitBreakerName;
+				event.exceptionClass = failure.getClass().getName();
+				event.message = failure.getMessage();
+				event.commit();
+			}
+		}
+		else if (failure instanceof TimeoutException) {
+			TimeoutEvent event = new TimeoutEvent();
+			if (event.isEnabled()) {
+				event.circuitBreaker = circuitBreakerName;
+				event.exceptionClass = failure.getClass().getName();
+				event.message = failure.getMessage();
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Emit the event of a fallback applied to a failed call.
+	 * @param circuitBreakerName the name of the circuit breaker
+	 * @param failure the failure passed to the fallback
+	 */
+	static void fallback(String circuitBreakerName, @Nullable Throwable failure) {
+		FallbackEvent event = new FallbackEvent();
+		if (event.isEnabled()) {
+			event.circuitBreaker = circuitBreakerName;
+			event.exceptionClass = (failure != null) ? failure.getClass().getName() : null;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Emit the event of a circuit breaker changing state.
+	 * @param circuitBreakerName the name of the circuit breaker
+	 * @param stateTransition the state transition
+	 */
+	static void stateTransition(String circuitBreakerName, CircuitBreaker.StateTransition stateTransition) {
+		StateTransitionEvent event = new StateTransitionEvent();
+		if (event.isEnabled()) {
+			event.circuitBreaker = circuitBreakerName;
+			event.fromState = stateTransition.getFromState().name();
+			event.toState = stateTransition.getToState().name();
+			event.commit();
+		}
+	}
+
+	/**
+	 * Acquire a permission of a semaphore bulkhead, emitting the event of the wait for
+	 * it.
+	 * @param bulkhead the bulkhead
+	 * @throws BulkheadFullException if no permission is available within the maximum
+	 * wait duration of the bulkhead
+	 */
+	static void acquirePermission(Bulkhead bulkhead) {
+		BulkheadWaitEvent event = new BulkheadWaitEvent();
+		if (!event.isEnabled()) {
+			bulkhead.acquirePermission();
+			return;
+		}
+		event.begin();
+		boolean permitted = false;
+		try {
+			bulkhead.acquirePermission();
+			permitted = true;
+		}
+		finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.bulkhead = bulkhead.getName();
+				event.permitted = permitted;
+				event.commit();
+			}
+		}
+	}
+
+	@Name("org.springframework.cloud.circuitbreaker.resilience4j.Rejected")
+	@Label("Call Rejected")
+	@Description("A call was rejected by a circuit breaker, a bulkhead or admission control before it ran")
+	@Category({ CATEGORY, "Resilience4J" })
+	static final class RejectedEvent extends Event {
+
+		@Label("Circuit Breaker")
+		@Nullable String circuitBreaker;
+
+		@Label("Exception Class")
+		@Nullable String exceptionClass;
+
+		@Label("Message")
+		@Nullable String message;
+
+	}
+
+	@Name("org.springframework.cloud.circuitbreaker.resilience4j.Timeout")
+	@Label("Call Timed Out")
+	@Description("A call did not complete within its timeout or deadline")
+	@Category({ CATEGORY, "Resilience4J" })
+	static final class TimeoutEvent extends Event {
+
+		@Label("Circuit Breaker")
+		@Nullable String circuitBreaker;
+
+		@Label("Exception Class")
+		@Nullable String exceptionClass;
+
+		@Label("Message")
+		@Nullable String message;
+
+	}
+
+	@Name("org.springframework.cloud.circuitbreaker.resilience4j.Fallback")
+	@Label("Fallback Applied")
+	@Description("The fallback of a circuit breaker was applied to a failed call")
+	@Category({ CATEGORY, "Resilience4J" })
+	static final class FallbackEvent extends Event {
+
+		@Label("Circuit Breaker")
+		@Nullable String circuitBreaker;
+
+		@Label("Exception Class")
+		@Nullable String exceptionClass;
+
+	}
+
+	@Name("org.springframework.cloud.circuitbreaker.resilience4j.StateTransition")
+	@Label("Circuit Breaker State Transition")
+	@Description("A circuit breaker changed state")
+	@Category({ CATEGORY, "Resilience4J" })
+	@StackTrace(false)
+	static final class StateTransitionEvent extends Event {
+
+		@Label("Circuit Breaker")
+		@Nullable String circuitBreaker;
+
+		@Label("From State")
+		@Nullable String fromState;
+
+		@Label("To State")
+		@Nullable String toState;
+
+	}
+
+	@Name("org.springframework.cloud.circuitbreaker.resilience4j.BulkheadWait")
+	@Label("Bulkhead Wait")
+	@Description("A call waited for a permission of a semaphore bulkhead")
+	@Category({ CATEGORY, "Resilience4J" })
+	@Threshold("1 ms")
+	static final class BulkheadWaitEvent extends Event {
+
+		@Label("Bulkhead")
+		@Nullable String bulkhead;
+
+		@Label("Permitted")
+		boolean permitted;
+
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Creates the executor services used to run the circuit breakers of a group, sized from
+ * {@link Resilience4JConfigurationProperties}. Unless a maximum pool size is configured,
+ * the executor services start a new thread whenever no thread is idle, like
+ * {@link java.util.concurrent.Executors#newCachedThreadPool()}. Otherwise a task
+ * submitted while all threads are busy and the queue is full is rejected with a
+ * {@link RejectedExecutionException} instead of starting yet another thread.
+ *
+ * @author Ryan Baxter
+ */
+final class GroupExecutorServiceFactory implements Function<String, ExecutorService> {
+
+	private final Resilience4JConfigurationProperties properties;
+
+	GroupExecutorServiceFactory(Resilience4JConfigurationProperties properties) {
+		this.properties = properties;
+	}
+
+	@Override
+	public ExecutorService apply(String group) {
+		Resilience4JConfigurationProperties.GroupExecutorProperties executor = this.properties.getGroupExecutors()
+			.getOrDefault(group, this.properties.getGroupExecutor());
+		Integer maxPoolSize = executor.getMaxPoolSize();
+		Assert.isTrue(maxPoolSize == null || maxPoolSize > 0, "maxPoolSize must be greater than 0");
+		int maximumPoolSize = (maxPoolSize != null) ? maxPoolSize : Integer.MAX_VALUE;
+		Assert.isTrue(executor.getCorePoolSize() >= 0 && executor.getCorePoolSize() <= maximumPoolSize,
+				"corePoolSize must be between 0 and maxPoolSize");
+		Assert.isTrue(executor.getQueueCapacity() >= 0, "queueCapacity must not be negative");
+		Duration keepAlive = executor.getKeepAlive();
+		Assert.isTrue(!keepAlive.isNegative(), "keepAlive must not be negative");
+		BlockingQueue<Runnable> queue = (maxPoolSize != null && executor.getQueueCapacity() > 0)
+				? new LinkedBlockingQueue<>(executor.getQueueCapacity()) : new SynchronousQueue<>();
+		ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(executor.getCorePoolSize(), maximumPoolSize,
+				keepAlive.toNanos(), TimeUnit.NANOSECONDS, queue,
+				new CustomizableThreadFactory("resilience4j-" + group + "-"), new CountingAbortPolicy());
+		threadPoolExecutor.allowCoreThreadTimeOut(!keepAlive.isZero());
+		return threadPoolExecutor;
+	}
+
+	/**
+	 * Get the number of tasks an executor service created by this factory rejected.
+	 * @param executorService the executor service
+	 * @return the number of rejected tasks, or {@code -1} if the executor service does not
+	 * count rejections
+	 */
+	static long getRejectedCount(ExecutorService executorService) {
+		if (executorService instanceof ThreadPoolExecutor threadPoolExecutor
+				&& threadPoolExecutor.getRejectedExecutionHandler() instanceof CountingAbortPolicy policy) {
+			return policy.rejected.sum();
+		}
+		return -1;
+	}
+
+	private static final class CountingAbortPolicy implements RejectedExecutionHandler {
+
+		private final LongAdder rejected = new LongAdder();
+
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			this.rejected.increment();
+			throw new RejectedExecutionException("Task " + task + " rejected from " + executor);
+		}
+
+	}
+
+}
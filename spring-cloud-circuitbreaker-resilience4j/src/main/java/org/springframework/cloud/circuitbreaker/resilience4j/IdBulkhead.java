@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Limits the concurrent calls of a circuit breaker id inside the bulkhead of its group,
+ * as described in {@link Resilience4JIdBulkheadConfig}. Permits are acquired without
+ * waiting, with a single atomic counter.
+ *
+ * @author Ryan Baxter
+ */
+public final class IdBulkhead {
+
+	private final String name;
+
+	private final String groupName;
+
+	private final int maxConcurrentCalls;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final LongAdder rejected;
+
+	private final boolean writableStackTrace;
+
+	/**
+	 * Create a per-id bulkhead, carrying over the rejection count of the per-id bulkhead
+	 * it replaces, if any, so it keeps increasing across reconfigurations.
+	 */
+	IdBulkhead(String name, String groupName, int maxConcurrentCalls, @Nullable IdBulkhead previous,
+			boolean writableStackTrace) {
+		this.name = name;
+		this.groupName = groupName;
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.rejected = (previous != null) ? previous.rejected : new LongAdder();
+		this.writableStackTrace = writableStackTrace;
+	}
+
+	/**
+	 * Get the circuit breaker id the bulkhead limits.
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Get the name of the group bulkhead the bulkhead is nested in.
+	 * @return the group name
+	 */
+	public String getGroupName() {
+		return this.groupName;
+	}
+
+	/**
+	 * Get the maximum number of concurrent calls of the id.
+	 * @return the maximum number of concurrent calls
+	 */
+	public int getMaxConcurrentCalls() {
+		return this.maxConcurrentCalls;
+	}
+
+	/**
+	 * Get the number of calls of the id in flight.
+	 * @return the number of calls in flight
+	 */
+	public int getInFlight() {
+		return this.inFlight.get();
+	}
+
+	/**
+	 * Get the number of calls of the id that were rejected.
+	 * @return the number of rejected calls
+	 */
+	public long getRejectedCount() {
+		return this.rejected.sum();
+	}
+
+	boolean tryAcquire() {
+		for (;;) {
+			int current = this.inFlight.get();
+			if (current >= this.maxConcurrentCalls) {
+				this.rejected.increment();
+				return false;
+			}
+			if (this.inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	void release() {
+		this.inFlight.decrementAndGet();
+	}
+
+	IdBulkheadFullException newFullException() {
+		return new IdBulkheadFullException(this.groupName, this.name, this.writableStackTrace);
+	}
+
+	<T> Callable<T> decorateCallable(Callable<T> callable) {
+		return () -> {
+			if (!tryAcquire()) {
+				throw newFullException();
+			}
+			try {
+				return callable.call();
+			}
+			finally {
+				release();
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "IdBulkhead{name=" + this.name + ", groupName=" + this.groupName + ", maxConcurrentCalls="
+				+ this.maxConcurrentCalls + ", inFlight=" + this.inFlight.get() + "}";
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a per-id bulkhead rejects a call because all the concurrent calls of its
+ * id are in use. The call has not been executed and has not used a permit of the group
+ * bulkhead.
+ *
+ * @author Ryan Baxter
+ * @see Resilience4JIdBulkheadConfig
+ */
+public class IdBulkheadFullException extends RejectedExecutionException {
+
+	private final String bulkheadName;
+
+	private final String id;
+
+	private final boolean writableStackTrace;
+
+	public IdBulkheadFullException(String bulkheadName, String id) {
+		this(bulkheadName, id, true);
+	}
+
+	/**
+	 * Create an exception, without a stack trace if {@code writableStackTrace} is
+	 * {@code false}.
+	 */
+	IdBulkheadFullException(String bulkheadName, String id, boolean writableStackTrace) {
+		super("Bulkhead '" + bulkheadName + "' is full for '" + id + "' calls");
+		this.bulkheadName = bulkheadName;
+		this.id = id;
+		this.writableStackTrace = writableStackTrace;
+		if (writableStackTrace) {
+			super.fillInStackTrace();
+		}
+	}
+
+	public String getBulkheadName() {
+		return this.bulkheadName;
+	}
+
+	public String getId() {
+		return this.id;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this.writableStackTrace ? super.fillInStackTrace() : this;
+	}
+
+}
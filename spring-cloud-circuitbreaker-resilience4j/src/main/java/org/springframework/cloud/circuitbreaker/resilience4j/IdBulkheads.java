@@ -0,0 +1,76 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The per-id bulkheads of a bulkhead provider, by circuit breaker id.
+ *
+ * @author Ryan Baxter
+ */
+final class IdBulkheads {
+
+	private final ConcurrentHashMap<String, IdBulkhead> idBulkheads = new ConcurrentHashMap<>();
+
+	private final boolean writableStackTraceEnabled;
+
+	IdBulkheads(boolean writableStackTraceEnabled) {
+		this.writableStackTraceEnabled = writableStackTraceEnabled;
+	}
+
+	@Nullable IdBulkhead find(String id) {
+		return this.idBulkheads.get(id);
+	}
+
+	void remove(String id) {
+		this.idBulkheads.remove(id);
+	}
+
+	/**
+	 * Get the per-id bulkhead of the given id. A new per-id bulkhead, with no call in
+	 * flight, replaces the current one when the group or the limit of the id changes.
+	 * @param groupName the group bulkhead name
+	 * @param id the circuit breaker id
+	 * @param config the per-id bulkhead configuration of the group, if any
+	 * @return the per-id bulkhead or {@code null} if the id is only limited by the group
+	 * bulkhead
+	 */
+	@Nullable IdBulkhead get(String groupName, String id, @Nullable Resilience4JIdBulkheadConfig config) {
+		Integer maxConcurrentCalls = (config != null) ? config.getMaxConcurrentCalls(id) : null;
+		if (maxConcurrentCalls == null) {
+			return null;
+		}
+		IdBulkhead current = this.idBulkheads.get(id);
+		if (current != null && matches(current, groupName, maxConcurrentCalls)) {
+			return current;
+		}
+		return this.idBulkheads.compute(id, (key, existing) -> {
+			if (existing != null && matches(existing, groupName, maxConcurrentCalls)) {
+				return existing;
+			}
+			return new IdBulkhead(id, groupName, maxConcurrentCalls, existing, this.writableStackTraceEnabled);
+		});
+	}
+
+	private static boolean matches(IdBulkhead idBulkhead, String groupName, int maxConcurrentCalls) {
+		return idBulkhead.getGroupName().equals(groupName) && idBulkhead.getMaxConcurrentCalls() == maxConcurrentCalls;
+	}
+
+}
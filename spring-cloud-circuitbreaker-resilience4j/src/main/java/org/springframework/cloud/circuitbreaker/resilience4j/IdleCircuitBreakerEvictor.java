@@ -0,0 +1,246 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties.EvictionProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Evicts the circuit breakers that are no longer used from the factories it is set on.
+ * Factories keep the circuit breaker, time limiter and bulkhead of every id they created
+ * a circuit breaker for, so creating circuit breakers for an unbounded set of ids, such
+ * as tenants or hosts, grows the registries, executors and meters without bound.
+ *
+ * <p>
+ * The evictor keeps a coarse clock, advanced on a background thread once per
+ * {@link EvictionProperties#getInterval() interval}. A call only stores the current value
+ * of that clock as the last use of its circuit breaker, and only when it changed, so
+ * tracking the last use costs no atomic update on the call path. On each interval, the
+ * circuit breakers not used for the {@link EvictionProperties#getIdleTimeout() idle
+ * timeout} and, over the {@link EvictionProperties#getMaxSize() maximum size}, the least
+ * recently used ones are evicted. Circuit breakers forced open, disabled or only
+ * recording metrics are never evicted, so their state is not lost.
+ * </p>
+ *
+ * <p>
+ * An evicted circuit breaker starts over as if it was never called: its next call
+ * creates it again, closed and with no recorded calls.
+ * </p>
+ *
+ * @author Ryan Baxter
+ * @see Resilience4JConfigurationProperties#getEviction()
+ * @see Resilience4JCircuitBreakerFactory#setIdleCircuitBreakerEvictor(IdleCircuitBreakerEvictor)
+ * @see ReactiveResilience4JCircuitBreakerFactory#setIdleCircuitBreakerEvictor(IdleCircuitBreakerEvictor)
+ */
+public class IdleCircuitBreakerEvictor implements SmartLifecycle {
+
+	private static final Log LOG = LogFactory.getLog(IdleCircuitBreakerEvictor.class);
+
+	private final Duration interval;
+
+	private final long idleNanos;
+
+	private final @Nullable Integer maxSize;
+
+	private final List<Runnable> sweeps = new CopyOnWriteArrayList<>();
+
+	private final CopyOnWriteArrayList<EvictionListener> listeners = new CopyOnWriteArrayList<>();
+
+	private final LongAdder evicted = new LongAdder();
+
+	private volatile long now = System.nanoTime();
+
+	private @Nullable ScheduledExecutorService sweeper;
+
+	public IdleCircuitBreakerEvictor(EvictionProperties properties) {
+		Assert.isTrue(properties.getIdleTimeout().isPositive(), "idleTimeout must be positive");
+		Assert.isTrue(properties.getInterval().isPositive(), "interval must be positive");
+		Assert.isTrue(properties.getMaxSize() == null || properties.getMaxSize() >= 0,
+				"maxSize must not be negative");
+		this.interval = properties.getInterval();
+		// The last use of a circuit breaker is the clock value of the interval it was used
+		// in, up to an interval earlier than the call
+		this.idleNanos = properties.getIdleTimeout().toNanos() + properties.getInterval().toNanos();
+		this.maxSize = properties.getMaxSize();
+	}
+
+	/**
+	 * Add a listener notified of the circuit breakers and groups evicted, for example to
+	 * remove their meters. A listener equal to one already added is not added again.
+	 * @param listener the listener
+	 */
+	public void addEvictionListener(EvictionListener listener) {
+		Assert.notNull(listener, "Eviction listener must not be null");
+		this.listeners.addIfAbsent(listener);
+	}
+
+	/**
+	 * Get the number of circuit breakers evicted.
+	 * @return the number of circuit breakers evicted
+	 */
+	public long getEvictedCount() {
+		return this.evicted.sum();
+	}
+
+	/**
+	 * Get the current value of the coarse clock, in {@link System#nanoTime()} units.
+	 * @return the time of the last eviction
+	 */
+	long now() {
+		return this.now;
+	}
+
+	void addSweep(Runnable sweep) {
+		this.sweeps.add(sweep);
+	}
+
+	/**
+	 * Remove the idle circuit breakers from the resources of a factory and, if more than
+	 * the maximum size remain, the least recently used ones.
+	 * @param resources the resources of the circuit breakers of the factory, by id
+	 * @return the resources removed, by id
+	 */
+	Map<String, CircuitBreakerResources> evictIdle(Map<String, CircuitBreakerResources> resources) {
+		long now = this.now;
+		Map<String, CircuitBreakerResources> evicted = new HashMap<>();
+		List<Map.Entry<String, CircuitBreakerResources>> kept = new ArrayList<>();
+		int size = 0;
+		for (Map.Entry<String, CircuitBreakerResources> entry : resources.entrySet()) {
+			size++;
+			CircuitBreakerResources circuitBreakerResources = entry.getValue();
+			if (!circuitBreakerResources.isTrackedBy(this) || circuitBreakerResources.hasManualState()) {
+				continue;
+			}
+			if (now - circuitBreakerResources.getLastUsed() >= this.idleNanos) {
+				remove(resources, entry, evicted);
+			}
+			else {
+				kept.add(entry);
+			}
+		}
+		Integer maxSize = this.maxSize;
+		int overflow = (maxSize != null) ? size - evicted.size() - maxSize : 0;
+		if (overflow > 0) {
+			kept.sort(Comparator.comparingLong(entry -> entry.getValue().getLastUsed() - now));
+			for (int i = 0; i < overflow && i < kept.size(); i++) {
+				remove(resources, kept.get(i), evicted);
+			}
+		}
+		return evicted;
+	}
+
+	private static void remove(Map<String, CircuitBreakerResources> resources,
+			Map.Entry<String, CircuitBreakerResources> entry, Map<String, CircuitBreakerResources> evicted) {
+		if (resources.remove(entry.getKey(), entry.getValue())) {
+			evicted.put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Notify the listeners of the circuit breakers and groups a factory evicted.
+	 * @param ids the ids of the circuit breakers evicted
+	 * @param groupNames the groups evicted along with their last circuit breaker
+	 */
+	void evicted(Set<String> ids, Set<String> groupNames) {
+		this.evicted.add(ids.size());
+		for (EvictionListener listener : this.listeners) {
+			try {
+				listener.onEvicted(ids, groupNames);
+			}
+			catch (RuntimeException ex) {
+				LOG.warn("Eviction listener " + listener + " failed", ex);
+			}
+		}
+	}
+
+	/**
+	 * Advance the clock and evict the idle circuit breakers of every factory.
+	 */
+	void sweep() {
+		this.now = System.nanoTime();
+		for (Runnable sweep : this.sweeps) {
+			try {
+				sweep.run();
+			}
+			catch (RuntimeException ex) {
+				LOG.warn("Failed to evict idle circuit breakers", ex);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void start() {
+		if (this.sweeper == null) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("resilience4j-eviction-");
+			threadFactory.setDaemon(true);
+			ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(threadFactory);
+			long interval = this.interval.toNanos();
+			sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.NANOSECONDS);
+			this.sweeper = sweeper;
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		ScheduledExecutorService sweeper = this.sweeper;
+		if (sweeper != null) {
+			sweeper.shutdownNow();
+			this.sweeper = null;
+		}
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return this.sweeper != null;
+	}
+
+	/**
+	 * Notified of the circuit breakers and groups evicted from a factory.
+	 */
+	@FunctionalInterface
+	public interface EvictionListener {
+
+		/**
+		 * Called once per eviction of a factory that evicted circuit breakers.
+		 * @param ids the ids of the circuit breakers evicted
+		 * @param groupNames the groups no longer used by any circuit breaker of the
+		 * factory, whose bulkhead and executor service were evicted
+		 */
+		void onEvicted(Set<String> ids, Set<String> groupNames);
+
+	}
+
+}
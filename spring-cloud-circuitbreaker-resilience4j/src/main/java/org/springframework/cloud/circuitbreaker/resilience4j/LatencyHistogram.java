@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free rolling histogram of call durations.
+ *
+ * <p>
+ * Durations are recorded in nanoseconds into logarithmic buckets with 8 sub-buckets per
+ * power of two, which bounds the relative error of a percentile to 12.5%. The histogram
+ * keeps two windows of the configured length: samples are recorded into the current
+ * window and percentiles are computed over the current and the previous window, so a
+ * percentile always reflects between one and two windows worth of samples. Recording is
+ * a single atomic increment. A window is rotated by replacing it with a new window with a
+ * compare-and-set, so a recording that raced with the rotation may still increment the
+ * replaced window and be lost. Only recordings made at the boundary of a window can be
+ * lost that way, which does not noticeably change a percentile.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final long windowNanos;
+
+	private final LongSupplier nanoClock;
+
+	private final AtomicReferenceArray<Window> windows = new AtomicReferenceArray<>(
+			new Window[] { new Window(Long.MIN_VALUE), new Window(Long.MIN_VALUE) });
+
+	LatencyHistogram(long windowNanos) {
+		this(windowNanos, System::nanoTime);
+	}
+
+	LatencyHistogram(long windowNanos, LongSupplier nanoClock) {
+		this.windowNanos = windowNanos;
+		this.nanoClock = nanoClock;
+	}
+
+	/**
+	 * Record the duration of a call.
+	 * @param durationNanos the duration in nanoseconds
+	 */
+	void record(long durationNanos) {
+		long epoch = this.nanoClock.getAsLong() / this.windowNanos;
+		int index = (int) (epoch & 1);
+		Window window = this.windows.get(index);
+		while (window.epoch < epoch) {
+			Window rotated = new Window(epoch);
+			window = this.windows.compareAndSet(index, window, rotated) ? rotated : this.windows.get(index);
+		}
+		window.counts.incrementAndGet(bucket(Math.max(0, durationNanos)));
+	}
+
+	/**
+	 * Get the given percentile of the durations recorded in the current and the previous
+	 * window.
+	 * @param percentile the percentile, between 0 and 1
+	 * @param minimumCount the minimum number of recorded durations
+	 * @return the upper bound of the bucket containing the percentile, in nanoseconds, or
+	 * {@code -1} if fewer durations than the minimum count were recorded
+	 */
+	long getPercentile(double percentile, long minimumCount) {
+		Window[] active = activeWindows();
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (Window window : active) {
+			if (window != null) {
+				for (int i = 0; i < BUCKETS; i++) {
+					long count = window.counts.get(i);
+					counts[i] += count;
+					total += count;
+				}
+			}
+		}
+		if (total == 0 || total < minimumCount) {
+			return -1;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return upperBound(i);
+			}
+		}
+		return upperBound(BUCKETS - 1);
+	}
+
+	private Window[] activeWindows() {
+		long epoch = this.nanoClock.getAsLong() / this.windowNanos;
+		Window[] active = new Window[2];
+		for (int i = 0; i < active.length; i++) {
+			Window window = this.windows.get(i);
+			if (window.epoch == epoch || window.epoch == epoch - 1) {
+				active[i] = window;
+			}
+		}
+		return active;
+	}
+
+	static int bucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long upperBound(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+
+	private static final class Window {
+
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+		private final long epoch;
+
+		Window(long epoch) {
+			this.epoch = epoch;
+		}
+
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records the permit and queue wait time of bulkhead calls as Micrometer timers. The
+ * timers of each bulkhead are looked up once and cached, so recording a wait does not
+ * allocate tags. The cached timers of evicted bulkheads are dropped.
+ *
+ * @author Ryan Baxter
+ */
+class MicrometerBulkheadWaitListener
+		implements Resilience4jBulkheadWaitListener, IdleCircuitBreakerEvictor.EvictionListener {
+
+	static final String PERMIT_WAIT_METER_NAME = "resilience4j.bulkhead.permit.wait";
+
+	static final String QUEUE_WAIT_METER_NAME = "resilience4j.bulkhead.queue.wait";
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<String, Timer> permitted = new ConcurrentHashMap<>();
+
+	private final Map<String, Timer> rejected = new ConcurrentHashMap<>();
+
+	private final Map<String, Timer> queueWait = new ConcurrentHashMap<>();
+
+	MicrometerBulkheadWaitListener(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void onPermitWait(String bulkheadName, long waitNanos, boolean permitted) {
+		Map<String, Timer> timers = permitted ? this.permitted : this.rejected;
+		timers.computeIfAbsent(bulkheadName, name -> permitWaitTimer(name, permitted))
+			.record(waitNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void onQueueWait(String bulkheadName, long queueWaitNanos) {
+		this.queueWait.computeIfAbsent(bulkheadName, this::queueWaitTimer)
+			.record(queueWaitNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void onEvicted(Set<String> ids, Set<String> groupNames) {
+		for (String groupName : groupNames) {
+			this.permitted.remove(groupName);
+			this.rejected.remove(groupName);
+			this.queueWait.remove(groupName);
+		}
+	}
+
+	private Timer permitWaitTimer(String name, boolean permitted) {
+		return Timer.builder(PERMIT_WAIT_METER_NAME)
+			.description("The time calls waited for a bulkhead permit before acquiring it or being rejected")
+			.tag("name", name)
+			.tag("outcome", permitted ? "permitted" : "rejected")
+			.register(this.meterRegistry);
+	}
+
+	private Timer queueWaitTimer(String name) {
+		return Timer.builder(QUEUE_WAIT_METER_NAME)
+			.description("The time calls waited in the queue of a thread pool bulkhead before executing")
+			.tag("name", name)
+			.register(this.meterRegistry);
+	}
+
+}
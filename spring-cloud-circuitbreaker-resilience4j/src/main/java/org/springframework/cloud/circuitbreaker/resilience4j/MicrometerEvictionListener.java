@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.Set;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Removes the meters of evicted circuit breakers and groups from a Micrometer registry.
+ * The meters Resilience4J binds to its registries are removed with their registry
+ * entries, this also removes the meters of the circuit breakers, bulkheads and group
+ * executor services published by this project. All meters are scanned once per eviction,
+ * not once per evicted circuit breaker.
+ *
+ * @author Ryan Baxter
+ */
+class MicrometerEvictionListener implements IdleCircuitBreakerEvictor.EvictionListener {
+
+	static final String GROUP_EXECUTOR_SERVICE_NAME = "resilience4j.circuitbreaker.group";
+
+	private final MeterRegistry meterRegistry;
+
+	MicrometerEvictionListener(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void onEvicted(Set<String> ids, Set<String> groupNames) {
+		for (Meter meter : this.meterRegistry.getMeters()) {
+			if (isEvicted(meter.getId(), ids, groupNames)) {
+				this.meterRegistry.remove(meter);
+			}
+		}
+	}
+
+	private static boolean isEvicted(Meter.Id id, Set<String> ids, Set<String> groupNames) {
+		String meterName = id.getName();
+		String name = id.getTag("name");
+		if (name == null) {
+			return false;
+		}
+		if (meterName.startsWith("resilience4j.circuitbreaker.") || meterName.startsWith("resilience4j.timelimiter.")) {
+			return ids.contains(name);
+		}
+		if (meterName.startsWith("resilience4j.bulkhead.")) {
+			return groupNames.contains(name);
+		}
+		if (GROUP_EXECUTOR_SERVICE_NAME.equals(name)) {
+			String groupName = id.getTag(Resilience4JCircuitBreaker.CIRCUIT_BREAKER_GROUP_TAG);
+			return groupName != null && groupNames.contains(groupName);
+		}
+		return false;
+	}
+
+	// The listener is added by the blocking and the reactive auto-configuration, only
+	// scan the meters once
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof MicrometerEvictionListener other && this.meterRegistry == other.meterRegistry;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(this.meterRegistry);
+	}
+
+}
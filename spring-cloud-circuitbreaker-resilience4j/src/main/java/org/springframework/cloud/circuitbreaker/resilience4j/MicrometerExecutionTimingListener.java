@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records the queue wait and execution time of circuit breaker calls as Micrometer
+ * timers.
+ *
+ * @author Ryan Baxter
+ */
+class MicrometerExecutionTimingListener implements Resilience4JExecutionTimingListener {
+
+	static final String QUEUE_WAIT_METER_NAME = "resilience4j.circuitbreaker.queue.wait";
+
+	static final String EXECUTION_METER_NAME = "resilience4j.circuitbreaker.execution";
+
+	private final Meter.MeterProvider<Timer> queueWait;
+
+	private final Meter.MeterProvider<Timer> execution;
+
+	MicrometerExecutionTimingListener(MeterRegistry meterRegistry) {
+		this.queueWait = Timer.builder(QUEUE_WAIT_METER_NAME)
+			.description("The time calls waited for a thread before executing or timing out")
+			.withRegistry(meterRegistry);
+		this.execution = Timer.builder(EXECUTION_METER_NAME)
+			.description("The time calls executed after they got a thread")
+			.withRegistry(meterRegistry);
+	}
+
+	@Override
+	public void onQueueWait(String id, String groupName, long queueWaitNanos, boolean timedOut) {
+		this.queueWait.withTags(tags(id, groupName).and("outcome", timedOut ? "timeout" : "started"))
+			.record(queueWaitNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void onExecution(String id, String groupName, long executionNanos) {
+		this.execution.withTags(tags(id, groupName)).record(executionNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private static Tags tags(String id, String groupName) {
+		return Tags.of("name", id, Resilience4JCircuitBreaker.CIRCUIT_BREAKER_GROUP_TAG, groupName);
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Binds the rejection counts of priority bulkheads, per priority, to a Micrometer
+ * registry.
+ *
+ * @author Ryan Baxter
+ */
+class MicrometerPriorityBulkheadBinder implements Consumer<PriorityBulkhead> {
+
+	static final String REJECTED_METER_NAME = "resilience4j.bulkhead.priority.rejected";
+
+	private final MeterRegistry meterRegistry;
+
+	MicrometerPriorityBulkheadBinder(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void accept(PriorityBulkhead priorityBulkhead) {
+		for (CallPriority priority : CallPriority.values()) {
+			FunctionCounter.builder(REJECTED_METER_NAME, priorityBulkhead, pb -> pb.getRejectedCount(priority))
+				.description("The number of calls rejected because the concurrent calls available to their "
+						+ "priority were in use")
+				.baseUnit("calls")
+				.tag("name", priorityBulkhead.getName())
+				.tag("priority", priority.name().toLowerCase(Locale.ROOT))
+				.register(this.meterRegistry);
+		}
+	}
+
+}
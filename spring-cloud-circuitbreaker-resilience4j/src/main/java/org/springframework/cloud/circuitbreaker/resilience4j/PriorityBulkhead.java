@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Admits calls to a bulkhead according to their {@link CallPriority}, rejecting lower
+ * priority calls first as the concurrent calls fill up, as described in
+ * {@link Resilience4JPriorityBulkheadConfig}. The number of calls in flight is tracked
+ * with a single atomic counter, so admission does not take any lock.
+ *
+ * @author Ryan Baxter
+ */
+public final class PriorityBulkhead {
+
+	private static final CallPriority[] PRIORITIES = CallPriority.values();
+
+	private final String name;
+
+	private final Resilience4JPriorityBulkheadConfig config;
+
+	private final int maxConcurrentCalls;
+
+	private final int[] limits = new int[PRIORITIES.length];
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicIntegerArray inFlightByPriority = new AtomicIntegerArray(PRIORITIES.length);
+
+	private final LongAdder[] rejected;
+
+	private final boolean writableStackTrace;
+
+	PriorityBulkhead(String name, Resilience4JPriorityBulkheadConfig config, int maxConcurrentCalls) {
+		this(name, config, maxConcurrentCalls, null, true);
+	}
+
+	/**
+	 * Create a priority bulkhead, carrying over the rejection counts of the priority
+	 * bulkhead it replaces, if any, so they keep increasing across reconfigurations.
+	 */
+	PriorityBulkhead(String name, Resilience4JPriorityBulkheadConfig config, int maxConcurrentCalls,
+			@Nullable PriorityBulkhead previous, boolean writableStackTrace) {
+		this.name = name;
+		this.writableStackTrace = writableStackTrace;
+		this.config = config;
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		int normal = Math.max(1,
+				maxConcurrentCalls - (int) (maxConcurrentCalls * config.getHighPriorityReservedShare()));
+		int low = Math.min(normal, Math.max(1, (int) (maxConcurrentCalls * config.getLowPriorityShare())));
+		this.limits[CallPriority.HIGH.ordinal()] = maxConcurrentCalls;
+		this.limits[CallPriority.NORMAL.ordinal()] = normal;
+		this.limits[CallPriority.LOW.ordinal()] = low;
+		if (previous != null) {
+			this.rejected = previous.rejected;
+		}
+		else {
+			this.rejected = new LongAdder[PRIORITIES.length];
+			for (int i = 0; i < this.rejected.length; i++) {
+				this.rejected[i] = new LongAdder();
+			}
+		}
+	}
+
+	/**
+	 * Get the name of the bulkhead.
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Get the number of concurrent calls shared between the priorities.
+	 * @return the maximum number of concurrent calls
+	 */
+	public int getMaxConcurrentCalls() {
+		return this.maxConcurrentCalls;
+	}
+
+	/**
+	 * Get the number of concurrent calls of the given priority can use.
+	 * @param priority the priority
+	 * @return the maximum number of concurrent calls for the priority
+	 */
+	public int getMaxConcurrentCalls(CallPriority priority) {
+		return this.limits[priority.ordinal()];
+	}
+
+	/**
+	 * Get the number of calls of the given priority in flight.
+	 * @param priority the priority
+	 * @return the number of calls in flight
+	 */
+	public int getInFlight(CallPriority priority) {
+		return this.inFlightByPriority.get(priority.ordinal());
+	}
+
+	/**
+	 * Get the number of calls of the given priority that were rejected.
+	 * @param priority the priority
+	 * @return the number of rejected calls
+	 */
+	public long getRejectedCount(CallPriority priority) {
+		return this.rejected[priority.ordinal()].sum();
+	}
+
+	Resilience4JPriorityBulkheadConfig getConfig() {
+		return this.config;
+	}
+
+	boolean tryAcquire(CallPriority priority) {
+		int limit = this.limits[priority.ordinal()];
+		for (;;) {
+			int current = this.inFlight.get();
+			if (current >= limit) {
+				this.rejected[priority.ordinal()].increment();
+				return false;
+			}
+			if (this.inFlight.compareAndSet(current, current + 1)) {
+				this.inFlightByPriority.incrementAndGet(priority.ordinal());
+				return true;
+			}
+		}
+	}
+
+	void release(CallPriority priority) {
+		this.inFlightByPriority.decrementAndGet(priority.ordinal());
+		this.inFlight.decrementAndGet();
+	}
+
+	PriorityBulkheadFullException newFullException(CallPriority priority) {
+		return new PriorityBulkheadFullException(this.name, priority, this.writableStackTrace);
+	}
+
+	<T> Callable<T> decorateCallable(CallPriority priority, Callable<T> callable) {
+		return () -> {
+			if (!tryAcquire(priority)) {
+				throw newFullException(priority);
+			}
+			try {
+				return callable.call();
+			}
+			finally {
+				release(priority);
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "PriorityBulkhead{name=" + this.name + ", maxConcurrentCalls=" + this.maxConcurrentCalls
+				+ ", inFlight=" + this.inFlight.get() + "}";
+	}
+
+}
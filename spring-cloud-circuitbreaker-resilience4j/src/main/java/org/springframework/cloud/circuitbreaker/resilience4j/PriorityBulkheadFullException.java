@@ -0,0 +1,67 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a priority bulkhead sheds a call because the concurrent calls available to
+ * its priority are in use. The call has not been executed.
+ *
+ * @author Ryan Baxter
+ * @see Resilience4JPriorityBulkheadConfig
+ */
+public class PriorityBulkheadFullException extends RejectedExecutionException {
+
+	private final String bulkheadName;
+
+	private final CallPriority priority;
+
+	private final boolean writableStackTrace;
+
+	public PriorityBulkheadFullException(String bulkheadName, CallPriority priority) {
+		this(bulkheadName, priority, true);
+	}
+
+	/**
+	 * Create an exception, without a stack trace if {@code writableStackTrace} is
+	 * {@code false}.
+	 */
+	PriorityBulkheadFullException(String bulkheadName, CallPriority priority, boolean writableStackTrace) {
+		super("Bulkhead '" + bulkheadName + "' is full for " + priority + " priority calls");
+		this.bulkheadName = bulkheadName;
+		this.priority = priority;
+		this.writableStackTrace = writableStackTrace;
+		if (writableStackTrace) {
+			super.fillInStackTrace();
+		}
+	}
+
+	public String getBulkheadName() {
+		return this.bulkheadName;
+	}
+
+	public CallPriority getPriority() {
+		return this.priority;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this.writableStackTrace ? super.fillInStackTrace() : this;
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The priority bulkheads of a bulkhead provider, by bulkhead id.
+ *
+ * @author Ryan Baxter
+ */
+final class PriorityBulkheads {
+
+	private final ConcurrentHashMap<String, PriorityBulkhead> priorityBulkheads = new ConcurrentHashMap<>();
+
+	private final boolean writableStackTraceEnabled;
+
+	private volatile @Nullable Consumer<PriorityBulkhead> binder;
+
+	PriorityBulkheads(boolean writableStackTraceEnabled) {
+		this.writableStackTraceEnabled = writableStackTraceEnabled;
+	}
+
+	void setBinder(@Nullable Consumer<PriorityBulkhead> binder) {
+		this.binder = binder;
+	}
+
+	@Nullable PriorityBulkhead find(String id) {
+		return this.priorityBulkheads.get(id);
+	}
+
+	void remove(String id) {
+		this.priorityBulkheads.remove(id);
+	}
+
+	/**
+	 * Get the priority bulkhead for the given configuration. A new priority bulkhead,
+	 * with no call in flight, replaces the current one when the configuration or the
+	 * capacity of the bulkhead changes. The binder is only called for the first priority
+	 * bulkhead of an id, its replacements sharing its rejection counts.
+	 * @param id the bulkhead id
+	 * @param config the priority load shedding configuration
+	 * @param capacity the capacity of the bulkhead
+	 * @return the priority bulkhead
+	 */
+	PriorityBulkhead get(String id, Resilience4JPriorityBulkheadConfig config, int capacity) {
+		Integer configuredMaxConcurrentCalls = config.getMaxConcurrentCalls();
+		int maxConcurrentCalls = (configuredMaxConcurrentCalls != null) ? configuredMaxConcurrentCalls : capacity;
+		PriorityBulkhead current = this.priorityBulkheads.get(id);
+		if (current != null && matches(current, config, maxConcurrentCalls)) {
+			return current;
+		}
+		PriorityBulkhead[] created = new PriorityBulkhead[1];
+		PriorityBulkhead priorityBulkhead = this.priorityBulkheads.compute(id, (key, existing) -> {
+			if (existing != null && matches(existing, config, maxConcurrentCalls)) {
+				return existing;
+			}
+			PriorityBulkhead replacement = new PriorityBulkhead(id, config, maxConcurrentCalls, existing,
+					this.writableStackTraceEnabled);
+			if (existing == null) {
+				created[0] = replacement;
+			}
+			return replacement;
+		});
+		Consumer<PriorityBulkhead> binder = this.binder;
+		if (created[0] != null && binder != null) {
+			binder.accept(created[0]);
+		}
+		return priorityBulkhead;
+	}
+
+	private static boolean matches(PriorityBulkhead priorityBulkhead, Resilience4JPriorityBulkheadConfig config,
+			int maxConcurrentCalls) {
+		return priorityBulkhead.getConfig() == config && priorityBulkhead.getMaxConcurrentCalls() == maxConcurrentCalls;
+	}
+
+}
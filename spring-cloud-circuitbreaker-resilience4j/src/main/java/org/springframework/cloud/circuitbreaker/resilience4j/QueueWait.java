@@ -0,0 +1,135 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Tracks a single call from the moment it is made until its supplier starts executing,
+ * so the time the call waits for a thread can be told apart from the time it executes.
+ * A call that waited longer than the maximum queue wait is never executed.
+ *
+ * @author Ryan Baxter
+ */
+final class QueueWait {
+
+	private static final int WAITING = 0;
+
+	private static final int STARTED = 1;
+
+	private static final int EXPIRED = 2;
+
+	private final String name;
+
+	private final Duration maxWait;
+
+	private final long maxWaitNanos;
+
+	private final long submittedAt = System.nanoTime();
+
+	private final AtomicInteger state = new AtomicInteger(WAITING);
+
+	private final CountDownLatch started = new CountDownLatch(1);
+
+	private volatile long startedAt;
+
+	QueueWait(String name, Duration maxWait) {
+		this.name = name;
+		this.maxWait = maxWait;
+		this.maxWaitNanos = maxWait.toNanos();
+	}
+
+	/**
+	 * Decorate the supplier so it is only executed if the call did not wait for too long.
+	 * If the supplier is executed more than once, for example by request hedging, the
+	 * first execution marks the start of the call.
+	 * @param toRun the supplier
+	 * @param <T> the result type
+	 * @return the decorated supplier, throwing a {@link QueueWaitTimeoutException} when
+	 * the call waited for too long
+	 */
+	<T> Supplier<T> decorate(Supplier<T> toRun) {
+		return () -> {
+			if (!start()) {
+				throw timeout();
+			}
+			return toRun.get();
+		};
+	}
+
+	private boolean start() {
+		long now = System.nanoTime();
+		if (now - this.submittedAt > this.maxWaitNanos) {
+			this.state.compareAndSet(WAITING, EXPIRED);
+		}
+		else if (this.state.compareAndSet(WAITING, STARTED)) {
+			this.startedAt = now;
+			this.started.countDown();
+			return true;
+		}
+		return this.state.get() == STARTED;
+	}
+
+	/**
+	 * Wait for the call to start executing, at most until the maximum queue wait has
+	 * elapsed since the call was made. A call that did not start by then expires and
+	 * will not be executed.
+	 * @return whether the call started executing
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	boolean awaitStart() throws InterruptedException {
+		long remaining = this.maxWaitNanos - (System.nanoTime() - this.submittedAt);
+		if (this.started.await(remaining, TimeUnit.NANOSECONDS)) {
+			return true;
+		}
+		return !this.state.compareAndSet(WAITING, EXPIRED) && this.state.get() == STARTED;
+	}
+
+	boolean isStarted() {
+		return this.state.get() == STARTED;
+	}
+
+	boolean isExpired() {
+		return this.state.get() == EXPIRED;
+	}
+
+	/**
+	 * Get how long the call waited for a thread, or has been waiting so far if it has
+	 * not started.
+	 * @return the queue wait in nanoseconds
+	 */
+	long getQueueWaitNanos() {
+		return (isStarted() ? this.startedAt : System.nanoTime()) - this.submittedAt;
+	}
+
+	/**
+	 * Get how long the call has been executing.
+	 * @return the execution time in nanoseconds, {@code 0} if the call did not start
+	 */
+	long getExecutionNanos() {
+		return isStarted() ? System.nanoTime() - this.startedAt : 0;
+	}
+
+	QueueWaitTimeoutException timeout() {
+		return new QueueWaitTimeoutException(this.name, this.maxWait);
+	}
+
+}
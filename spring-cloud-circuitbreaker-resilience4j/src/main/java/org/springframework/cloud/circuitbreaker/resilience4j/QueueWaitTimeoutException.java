@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a call of a circuit breaker waited longer than its maximum queue wait for
+ * a thread to execute it. The call has not been executed. Circuit breakers do not record
+ * such calls as failures.
+ *
+ * @author Ryan Baxter
+ * @see Resilience4JConfigBuilder#maxQueueWait(Duration)
+ */
+public class QueueWaitTimeoutException extends RejectedExecutionException {
+
+	private final String circuitBreakerName;
+
+	private final Duration maxQueueWait;
+
+	public QueueWaitTimeoutException(String circuitBreakerName, Duration maxQueueWait) {
+		super("Call of CircuitBreaker '" + circuitBreakerName + "' waited more than " + maxQueueWait
+				+ " for a thread");
+		this.circuitBreakerName = circuitBreakerName;
+		this.maxQueueWait = maxQueueWait;
+	}
+
+	public String getCircuitBreakerName() {
+		return this.circuitBreakerName;
+	}
+
+	public Duration getMaxQueueWait() {
+		return this.maxQueueWait;
+	}
+
+}
@@ -26,6 +26,7 @@ import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
 import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
 import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetricsPublisher;
 import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import org.jspecify.annotations.Nullable;
@@ -60,18 +61,56 @@ public class ReactiveResilience4JAutoConfiguration {
 	@Autowired(required = false)
 	private List<Customizer<ReactiveResilience4JCircuitBreakerFactory>> customizers = new ArrayList<>();
 
+	@Autowired(required = false)
+	private List<Customizer<CircuitBreakerEventBus>> eventBusCustomizers = new ArrayList<>();
+
 	@Bean
 	@ConditionalOnMissingBean(ReactiveCircuitBreakerFactory.class)
 	public ReactiveResilience4JCircuitBreakerFactory reactiveResilience4JCircuitBreakerFactory(
 			CircuitBreakerRegistry circuitBreakerRegistry, TimeLimiterRegistry timeLimiterRegistry,
 			@Autowired(required = false) @Nullable ReactiveResilience4jBulkheadProvider bulkheadProvider,
-			Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
+			Resilience4JConfigurationProperties resilience4JConfigurationProperties,
+			@Autowired(required = false) @Nullable AdmissionController admissionController,
+			@Autowired(required = false) @Nullable IdleCircuitBreakerEvictor idleCircuitBreakerEvictor) {
 		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
 				circuitBreakerRegistry, timeLimiterRegistry, bulkheadProvider, resilience4JConfigurationProperties);
+		if (admissionController != null) {
+			factory.setAdmissionController(admissionController);
+		}
+		if (idleCircuitBreakerEvictor != null) {
+			factory.setIdleCircuitBreakerEvictor(idleCircuitBreakerEvictor);
+		}
 		customizers.forEach(customizer -> customizer.customize(factory));
 		return factory;
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty("spring.cloud.circuitbreaker.resilience4j.admission-control.enabled")
+	public AdmissionController resilience4jAdmissionController(
+			Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
+		return new AdmissionController(resilience4JConfigurationProperties.getAdmissionControl());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty("spring.cloud.circuitbreaker.resilience4j.eviction.enabled")
+	public IdleCircuitBreakerEvictor resilience4jIdleCircuitBreakerEvictor(
+			Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
+		return new IdleCircuitBreakerEvictor(resilience4JConfigurationProperties.getEviction());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty("spring.cloud.circuitbreaker.resilience4j.event-bus.enabled")
+	public CircuitBreakerEventBus resilience4jCircuitBreakerEventBus(CircuitBreakerRegistry circuitBreakerRegistry,
+			Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
+		CircuitBreakerEventBus eventBus = new CircuitBreakerEventBus(resilience4JConfigurationProperties.getEventBus());
+		eventBusCustomizers.forEach(customizer -> customizer.customize(eventBus));
+		eventBus.bindTo(circuitBreakerRegistry);
+		return eventBus;
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnClass(Bulkhead.class)
 	@ConditionalOnProperty(value = "spring.cloud.circuitbreaker.bulkhead.resilience4j.enabled", matchIfMissing = true)
@@ -84,7 +123,8 @@ public class ReactiveResilience4JAutoConfiguration {
 		private boolean enableSemaphoreDefaultBulkhead;
 
 		@Bean
-		public ReactiveResilience4jBulkheadProvider reactiveBulkheadProvider(BulkheadRegistry bulkheadRegistry) {
+		public ReactiveResilience4jBulkheadProvider reactiveBulkheadProvider(BulkheadRegistry bulkheadRegistry,
+				Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
 
 			if (!enableSemaphoreDefaultBulkhead) {
 				LoggerFactory.getLogger(Resilience4jBulkheadConfiguration.class)
@@ -93,7 +133,7 @@ public class ReactiveResilience4JAutoConfiguration {
 			}
 
 			ReactiveResilience4jBulkheadProvider reactiveResilience4JCircuitBreaker = new ReactiveResilience4jBulkheadProvider(
-					bulkheadRegistry);
+					bulkheadRegistry, resilience4JConfigurationProperties);
 			bulkheadCustomizers.forEach(customizer -> customizer.customize(reactiveResilience4JCircuitBreaker));
 			return reactiveResilience4JCircuitBreaker;
 		}
@@ -136,4 +176,70 @@ public class ReactiveResilience4JAutoConfiguration {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnBean({ MeterRegistry.class })
+	public static class MicrometerReactiveResilience4JPriorityBulkheadConfiguration {
+
+		@Autowired(required = false)
+		private @Nullable ReactiveResilience4jBulkheadProvider bulkheadProvider;
+
+		@Autowired
+		private MeterRegistry meterRegistry;
+
+		@PostConstruct
+		public void init() {
+			if (bulkheadProvider != null) {
+				bulkheadProvider.setPriorityBulkheadBinder(new MicrometerPriorityBulkheadBinder(meterRegistry));
+			}
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnBean({ MeterRegistry.class })
+	public static class MicrometerReactiveResilience4JEventBusConfiguration {
+
+		@Autowired(required = false)
+		private @Nullable CircuitBreakerEventBus eventBus;
+
+		@Autowired
+		private MeterRegistry meterRegistry;
+
+		@PostConstruct
+		public void init() {
+			if (eventBus != null) {
+				FunctionCounter.builder("resilience4j.circuitbreaker.events.dropped", eventBus,
+						CircuitBreakerEventBus::getDroppedCount)
+					.description("The number of circuit breaker events dropped because the event bus was full")
+					.baseUnit("events")
+					.register(meterRegistry);
+			}
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnBean({ MeterRegistry.class })
+	public static class MicrometerReactiveResilience4JEvictionConfiguration {
+
+		@Autowired(required = false)
+		private @Nullable IdleCircuitBreakerEvictor idleCircuitBreakerEvictor;
+
+		@Autowired
+		private MeterRegistry meterRegistry;
+
+		@PostConstruct
+		public void init() {
+			if (idleCircuitBreakerEvictor != null) {
+				idleCircuitBreakerEvictor.addEvictionListener(new MicrometerEvictionListener(meterRegistry));
+				FunctionCounter.builder("resilience4j.circuitbreaker.evicted", idleCircuitBreakerEvictor,
+						IdleCircuitBreakerEvictor::getEvictedCount)
+					.description("The number of circuit breakers evicted because they were no longer used")
+					.baseUnit("circuitbreakers")
+					.register(meterRegistry);
+			}
+		}
+
+	}
+
 }
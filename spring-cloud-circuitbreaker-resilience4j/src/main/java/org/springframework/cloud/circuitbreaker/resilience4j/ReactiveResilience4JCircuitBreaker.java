@@ -17,12 +17,19 @@
 package org.springframework.cloud.circuitbreaker.resilience4j;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
@@ -33,6 +40,8 @@ import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import org.jspecify.annotations.Nullable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.ContextView;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
@@ -52,106 +61,678 @@ public class ReactiveResilience4JCircuitBreaker implements ReactiveCircuitBreake
 
 	private final String id;
 
-	private final String groupName;
+	private final Settings settings;
 
-	private final @Nullable ReactiveResilience4jBulkheadProvider bulkheadProvider;
+	private final CircuitBreakerResources resources;
 
-	private final @Nullable CircuitBreakerConfig circuitBreakerConfig;
+	private final @Nullable RequestHedger requestHedger;
 
-	private final CircuitBreakerRegistry circuitBreakerRegistry;
+	private final @Nullable SlowStartRamp slowStartRamp;
 
-	private final @Nullable TimeLimiterConfig timeLimiterConfig;
+	private final @Nullable AdaptiveTimeout adaptiveTimeout;
 
-	private final TimeLimiterRegistry timeLimiterRegistry;
-
-	private final Optional<Customizer<CircuitBreaker>> circuitBreakerCustomizer;
-
-	private final boolean disableTimeLimiter;
+	private volatile @Nullable BulkheadHandle bulkheadHandle;
 
 	public ReactiveResilience4JCircuitBreaker(String id, String groupName,
 			Resilience4JConfigBuilder.Resilience4JCircuitBreakerConfiguration config,
 			CircuitBreakerRegistry circuitBreakerRegistry, TimeLimiterRegistry timeLimiterRegistry,
 			Optional<Customizer<CircuitBreaker>> circuitBreakerCustomizer,
 			@Nullable ReactiveResilience4jBulkheadProvider bulkheadProvider, boolean disableTimeLimiter) {
+		this(id,
+				new Settings(groupName, config.getCircuitBreakerConfig(), config.getTimeLimiterConfig(),
+						circuitBreakerRegistry, timeLimiterRegistry, circuitBreakerCustomizer.orElse(null),
+						bulkheadProvider, disableTimeLimiter, config.getStreamingConfig(),
+						ReactiveResilience4JCircuitBreaker::getDeadline, null),
+				config.getHedgingConfig(), config.getSlowStartConfig(), config.getAdaptiveTimeoutConfig(),
+				new CircuitBreakerResources());
+	}
+
+	ReactiveResilience4JCircuitBreaker(String id, Settings settings, @Nullable Resilience4JHedgingConfig hedgingConfig,
+			@Nullable Resilience4JSlowStartConfig slowStartConfig,
+			@Nullable Resilience4JAdaptiveTimeoutConfig adaptiveTimeoutConfig, CircuitBreakerResources resources) {
 		this.id = id;
-		this.groupName = groupName;
-		this.circuitBreakerConfig = config.getCircuitBreakerConfig();
-		this.circuitBreakerRegistry = circuitBreakerRegistry;
-		this.circuitBreakerCustomizer = circuitBreakerCustomizer;
-		this.timeLimiterConfig = config.getTimeLimiterConfig();
-		this.timeLimiterRegistry = timeLimiterRegistry;
-		this.bulkheadProvider = bulkheadProvider;
-		this.disableTimeLimiter = disableTimeLimiter;
+		this.settings = settings;
+		this.resources = resources;
+		this.requestHedger = (hedgingConfig != null) ? resources.getRequestHedger(hedgingConfig) : null;
+		this.slowStartRamp = (slowStartConfig != null) ? resources.getSlowStartRamp(slowStartConfig) : null;
+		this.adaptiveTimeout = (adaptiveTimeoutConfig != null) ? resources.getAdaptiveTimeout(adaptiveTimeoutConfig)
+				: null;
+	}
+
+	/**
+	 * Get the deadline stored in the Reactor context under
+	 * {@link DeadlineContextHolder#CONTEXT_KEY}.
+	 * @param context the Reactor context
+	 * @return the deadline or {@code null} if the context holds none
+	 */
+	static @Nullable Instant getDeadline(ContextView context) {
+		return context.getOrDefault(DeadlineContextHolder.CONTEXT_KEY, null);
+	}
+
+	/**
+	 * Get the priority of a call: the priority of its run options or, if they have none,
+	 * the priority stored in the Reactor context under {@link CallPriority#CONTEXT_KEY}.
+	 * @param priority the priority of the run options
+	 * @param context the Reactor context
+	 * @return the priority, {@link CallPriority#NORMAL} if there is none
+	 */
+	static CallPriority getPriority(@Nullable CallPriority priority, ContextView context) {
+		if (priority != null) {
+			return priority;
+		}
+		return context.getOrDefault(CallPriority.CONTEXT_KEY, CallPriority.NORMAL);
 	}
 
 	@Override
 	public <T> Mono<T> run(Mono<T> toRun, @Nullable Function<Throwable, Mono<T>> fallback) {
-		final Map<String, String> tags = Map.of(CIRCUIT_BREAKER_GROUP_TAG, this.groupName);
-		Tuple2<CircuitBreaker, Optional<TimeLimiter>> tuple = buildCircuitBreakerAndTimeLimiter();
-		Mono<T> toReturn;
-		if (bulkheadProvider != null) {
-			toReturn = bulkheadProvider.decorateMono(groupName, tags, toRun);
-		}
-		else {
-			toReturn = toRun;
+		return run(toRun, fallback, Resilience4JRunOptions.ofDefaults());
+	}
+
+	/**
+	 * Run the {@link Mono} applying the given options to this call only. The options are
+	 * applied on top of the decorators of this circuit breaker, so calls with different
+	 * options share the same circuit breaker, bulkhead and time limiter. The fallback
+	 * cache key of the options is ignored.
+	 * @param toRun the {@link Mono} to run
+	 * @param fallback the fallback to apply if the execution fails
+	 * @param options the options of the call
+	 * @param <T> the result type
+	 * @return a {@link Mono} emitting the result of the execution or of the fallback
+	 * @see Resilience4JRunOptions
+	 */
+	public <T> Mono<T> run(Mono<T> toRun, @Nullable Function<Throwable, Mono<T>> fallback,
+			Resilience4JRunOptions options) {
+		Assert.notNull(options, "Run options must not be null");
+		// Fail fast while the circuit breaker is open, without decorating the call. The
+		// rejection is stackless and immutable, so it is shared by the rejected calls
+		CallNotPermittedException rejection = this.resources.shortCircuit();
+		Mono<T> toReturn = (rejection != null) ? Mono.error(rejection) : decorate(toRun, options);
+		return applyFallback(toReturn, fallback);
+	}
+
+	private <T> Mono<T> decorate(Mono<T> toRun, Resilience4JRunOptions options) {
+		Mono<T> toReturn = protect(toRun, options);
+		Object coalescingKey = options.getCoalescingKey();
+		if (coalescingKey != null) {
+			toReturn = coalesce(coalescingKey, toReturn);
 		}
-		toReturn = toReturn.transform(CircuitBreakerOperator.of(tuple.getT1()));
-		if (tuple.getT2().isPresent()) {
-			final Duration timeoutDuration = tuple.getT2().get().getTimeLimiterConfig().getTimeoutDuration();
-			toReturn = toReturn.timeout(timeoutDuration)
-				// Since we are using the Mono timeout we need to tell the circuit
-				// breaker
-				// about the error
-				.doOnError(TimeoutException.class,
-						t -> tuple.getT1().onError(timeoutDuration.toMillis(), TimeUnit.MILLISECONDS, t));
+		return admit(toReturn, options.getPriority());
+	}
+
+	/**
+	 * Run the {@link Mono}, coalescing it with any execution already in flight for the
+	 * same key. Concurrent subscribers using the same key share a single subscription to
+	 * the protected {@link Mono} (and therefore a single circuit breaker and bulkhead
+	 * permit) and its result. Each subscriber applies its own fallback if the shared
+	 * execution fails. Cancelling a subscriber does not cancel the shared execution.
+	 * @param key the key identifying identical requests
+	 * @param toRun the {@link Mono} to run
+	 * @param fallback the fallback to apply if the execution fails
+	 * @param <T> the result type
+	 * @return a {@link Mono} emitting the result of the shared execution or of the
+	 * fallback
+	 */
+	public <T> Mono<T> runCoalesced(Object key, Mono<T> toRun, @Nullable Function<Throwable, Mono<T>> fallback) {
+		Assert.notNull(key, "Coalescing key must not be null");
+		return run(toRun, fallback, Resilience4JRunOptions.custom().coalescingKey(key).build());
+	}
+
+	private <T> Mono<T> protect(Mono<T> toRun, Resilience4JRunOptions options) {
+		ReactiveResilience4jBulkheadProvider bulkheadProvider = this.settings.bulkheadProvider;
+		Tuple2<CircuitBreaker, Optional<TimeLimiter>> tuple = buildCircuitBreakerAndTimeLimiter();
+		Duration limit = getTimeout(tuple.getT2(), options.getTimeout());
+		Mono<T> toReturn = toRun;
+		AdaptiveTimeout adaptiveTimeout = (this.adaptiveTimeout != null && tuple.getT2().isPresent())
+				? this.adaptiveTimeout : null;
+		if (adaptiveTimeout != null) {
+			toReturn = recording(toReturn, adaptiveTimeout);
+			if (options.getTimeout() == null && limit != null) {
+				limit = adaptiveTimeout.getTimeout(limit);
+			}
 		}
-		if (fallback != null) {
-			toReturn = toReturn.onErrorResume(fallback);
+		final Duration timeout = limit;
+		toReturn = (this.requestHedger != null) ? hedge(toReturn, this.requestHedger) : toReturn;
+		if (bulkheadProvider != null) {
+			toReturn = bulkheadProvider.decorateMono(getBulkheadHandle(bulkheadProvider), this.id, toReturn,
+					options.getPriority());
 		}
-		return toReturn;
+		toReturn = rampUp(toReturn.transform(CircuitBreakerOperator.of(tuple.getT1())), tuple.getT1());
+		final Mono<T> protectedCall = toReturn;
+		return Mono.deferContextual(context -> {
+			Instant deadline = this.settings.deadlineProvider.apply(context);
+			if (deadline == null) {
+				return timeLimit(protectedCall, tuple.getT1(), timeout, adaptiveTimeout);
+			}
+			Duration remaining = Duration.between(Instant.now(), deadline);
+			if (!remaining.isPositive()) {
+				return Mono.error(new DeadlineExceededException(this.id, deadline));
+			}
+			if (!isDeadlineShorter(timeout, remaining)) {
+				return timeLimit(protectedCall, tuple.getT1(), timeout, adaptiveTimeout);
+			}
+			return protectedCall.timeout(remaining, Mono.error(() -> new DeadlineExceededException(this.id, deadline)))
+				.doOnError(DeadlineExceededException.class,
+						t -> tuple.getT1().onError(remaining.toNanos(), TimeUnit.NANOSECONDS, t));
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> Mono<T> coalesce(Object key, Mono<T> protectedCall) {
+		SingleFlight singleFlight = this.resources.getSingleFlight();
+		return Mono.deferContextual(context -> {
+			CompletableFuture<@Nullable Object> call = new CompletableFuture<>();
+			CompletableFuture<@Nullable Object> existing = singleFlight.register(key, call);
+			if (existing == null) {
+				protectedCall.contextWrite(context)
+					.subscribe(result -> singleFlight.complete(key, call, result, null),
+							error -> singleFlight.complete(key, call, null, error),
+							() -> singleFlight.complete(key, call, null, null));
+				existing = call;
+			}
+			return Mono.fromFuture(existing, true).map(result -> (T) result);
+		});
 	}
 
 	@Override
 	public <T> Flux<T> run(Flux<T> toRun, @Nullable Function<Throwable, Flux<T>> fallback) {
-		final Map<String, String> tags = Map.of(CIRCUIT_BREAKER_GROUP_TAG, this.groupName);
+		return run(toRun, fallback, Resilience4JRunOptions.ofDefaults());
+	}
+
+	/**
+	 * Run the {@link Flux} applying the given options to this call only. The timeout of
+	 * the options is ignored in streaming mode, which applies the timeouts of the
+	 * {@link Resilience4JStreamingConfig}, and the coalescing and fallback cache keys of
+	 * the options are ignored.
+	 * @param toRun the {@link Flux} to run
+	 * @param fallback the fallback to apply if the execution fails
+	 * @param options the options of the call
+	 * @param <T> the element type
+	 * @return a {@link Flux} emitting the elements of the execution or of the fallback
+	 * @see Resilience4JRunOptions
+	 */
+	public <T> Flux<T> run(Flux<T> toRun, @Nullable Function<Throwable, Flux<T>> fallback,
+			Resilience4JRunOptions options) {
+		Assert.notNull(options, "Run options must not be null");
+		Resilience4JStreamingConfig streamingConfig = this.settings.streamingConfig;
+		if (streamingConfig != null) {
+			return runStreaming(toRun, fallback, streamingConfig, options.getPriority());
+		}
+		// Fail fast while the circuit breaker is open, without decorating the call. The
+		// rejection is stackless and immutable, so it is shared by the rejected calls
+		CallNotPermittedException rejection = this.resources.shortCircuit();
+		Flux<T> toReturn = (rejection != null) ? Flux.error(rejection) : decorate(toRun, options);
+		return applyFallback(toReturn, fallback);
+	}
+
+	private <T> Flux<T> decorate(Flux<T> toRun, Resilience4JRunOptions options) {
+		ReactiveResilience4jBulkheadProvider bulkheadProvider = this.settings.bulkheadProvider;
 		Tuple2<CircuitBreaker, Optional<TimeLimiter>> tuple = buildCircuitBreakerAndTimeLimiter();
-		Flux<T> toReturn;
+		Duration limit = getTimeout(tuple.getT2(), options.getTimeout());
+		Flux<T> toReturn = toRun;
+		AdaptiveTimeout adaptiveTimeout = (this.adaptiveTimeout != null && tuple.getT2().isPresent())
+				? this.adaptiveTimeout : null;
+		if (adaptiveTimeout != null) {
+			toReturn = recording(toReturn, adaptiveTimeout);
+			if (options.getTimeout() == null && limit != null) {
+				limit = adaptiveTimeout.getTimeout(limit);
+			}
+		}
+		final Duration timeout = limit;
 		if (bulkheadProvider != null) {
-			toReturn = bulkheadProvider.decorateFlux(groupName, tags, toRun);
+			toReturn = bulkheadProvider.decorateFlux(getBulkheadHandle(bulkheadProvider), this.id, toReturn,
+					options.getPriority());
 		}
-		else {
-			toReturn = toRun;
+		toReturn = rampUp(toReturn.transform(CircuitBreakerOperator.of(tuple.getT1())), tuple.getT1());
+		final Flux<T> protectedCall = toReturn;
+		toReturn = Flux.deferContextual(context -> {
+			Instant deadline = this.settings.deadlineProvider.apply(context);
+			if (deadline == null) {
+				return timeLimit(protectedCall, tuple.getT1(), timeout, adaptiveTimeout);
+			}
+			Duration remaining = Duration.between(Instant.now(), deadline);
+			if (!remaining.isPositive()) {
+				return Flux.error(new DeadlineExceededException(this.id, deadline));
+			}
+			if (!isDeadlineShorter(timeout, remaining)) {
+				return timeLimit(protectedCall, tuple.getT1(), timeout, adaptiveTimeout);
+			}
+			// Each element is only given the time left until the deadline, so the deadline
+			// bounds the whole stream rather than the gap between elements
+			return protectedCall
+				.timeout(Mono.delay(remaining), element -> untilDeadline(deadline),
+						Flux.error(() -> new DeadlineExceededException(this.id, deadline)))
+				.doOnError(DeadlineExceededException.class,
+						t -> tuple.getT1().onError(remaining.toNanos(), TimeUnit.NANOSECONDS, t));
+		});
+		return admit(toReturn, options.getPriority());
+	}
+
+	private static Mono<Long> untilDeadline(Instant deadline) {
+		Duration remaining = Duration.between(Instant.now(), deadline);
+		return Mono.delay(remaining.isNegative() ? Duration.ZERO : remaining);
+	}
+
+	private <T> Mono<T> admit(Mono<T> call, @Nullable CallPriority priority) {
+		AdmissionController admissionController = this.settings.admissionController;
+		if (admissionController == null) {
+			return call;
+		}
+		return Mono.deferContextual(context -> admissionController.admit(getPriority(priority, context)) ? call
+				: Mono.error(new AdmissionRejectedException(this.id, this.resources.isWritableStackTraceEnabled())));
+	}
+
+	private <T> Flux<T> admit(Flux<T> call, @Nullable CallPriority priority) {
+		AdmissionController admissionController = this.settings.admissionController;
+		if (admissionController == null) {
+			return call;
+		}
+		return Flux.deferContextual(context -> admissionController.admit(getPriority(priority, context)) ? call
+				: Flux.error(new AdmissionRejectedException(this.id, this.resources.isWritableStackTraceEnabled())));
+	}
+
+	/**
+	 * Only subscribe to the call if the slow start ramp permits it. The ramp is checked
+	 * outside of the circuit breaker, so calls it does not permit are not recorded.
+	 */
+	private <T> Mono<T> rampUp(Mono<T> call, CircuitBreaker circuitBreaker) {
+		SlowStartRamp ramp = this.slowStartRamp;
+		if (ramp == null) {
+			return call;
+		}
+		ramp.attach(circuitBreaker);
+		return Mono.defer(() -> ramp.tryAcquirePermission() ? call
+				: Mono.error(new SlowStartRejectedException(this.id, this.resources.isWritableStackTraceEnabled())));
+	}
+
+	private <T> Flux<T> rampUp(Flux<T> call, CircuitBreaker circuitBreaker) {
+		SlowStartRamp ramp = this.slowStartRamp;
+		if (ramp == null) {
+			return call;
+		}
+		ramp.attach(circuitBreaker);
+		return Flux.defer(() -> ramp.tryAcquirePermission() ? call
+				: Flux.error(new SlowStartRejectedException(this.id, this.resources.isWritableStackTraceEnabled())));
+	}
+
+	private <T> Mono<T> timeLimit(Mono<T> protectedCall, CircuitBreaker circuitBreaker,
+			@Nullable Duration timeoutDuration, @Nullable AdaptiveTimeout adaptiveTimeout) {
+		if (timeoutDuration == null) {
+			return protectedCall;
 		}
-		toReturn = toReturn.transform(CircuitBreakerOperator.of(tuple.getT1()));
-		if (tuple.getT2().isPresent()) {
-			final Duration timeoutDuration = tuple.getT2().get().getTimeLimiterConfig().getTimeoutDuration();
-			toReturn = toReturn.timeout(timeoutDuration)
-				// Since we are using the Flux timeout we need to tell the circuit
-				// breaker
-				// about the error
-				.doOnError(TimeoutException.class,
-						t -> tuple.getT1().onError(timeoutDuration.toMillis(), TimeUnit.MILLISECONDS, t));
+		return protectedCall
+			.timeout(timeoutDuration,
+					Mono.error(() -> new TimeLimitExceededException(this.id, timeoutDuration,
+							this.resources.isWritableStackTraceEnabled())))
+			// Since we are using the Mono timeout we need to tell the circuit
+			// breaker
+			// about the error
+			.doOnError(TimeoutException.class, t -> {
+				circuitBreaker.onError(timeoutDuration.toMillis(), TimeUnit.MILLISECONDS, t);
+				if (adaptiveTimeout != null && t instanceof TimeLimitExceededException) {
+					adaptiveTimeout.record(timeoutDuration.toNanos());
+				}
+			});
+	}
+
+	private <T> Flux<T> timeLimit(Flux<T> protectedCall, CircuitBreaker circuitBreaker,
+			@Nullable Duration timeoutDuration, @Nullable AdaptiveTimeout adaptiveTimeout) {
+		if (timeoutDuration == null) {
+			return protectedCall;
 		}
-		if (fallback != null) {
-			toReturn = toReturn.onErrorResume(fallback);
+		return protectedCall
+			.timeout(timeoutDuration,
+					Flux.error(() -> new TimeLimitExceededException(this.id, timeoutDuration,
+							this.resources.isWritableStackTraceEnabled())))
+			// Since we are using the Flux timeout we need to tell the circuit
+			// breaker
+			// about the error
+			.doOnError(TimeoutException.class, t -> {
+				circuitBreaker.onError(timeoutDuration.toMillis(), TimeUnit.MILLISECONDS, t);
+				if (adaptiveTimeout != null && t instanceof TimeLimitExceededException) {
+					adaptiveTimeout.record(timeoutDuration.toNanos());
+				}
+			});
+	}
+
+	/**
+	 * Get the timeout of a call: the timeout of its options or, if it has none, the time
+	 * limiter timeout.
+	 */
+	private static @Nullable Duration getTimeout(Optional<TimeLimiter> timeLimiter, @Nullable Duration timeout) {
+		if (timeout != null) {
+			return timeout;
 		}
-		return toReturn;
+		return timeLimiter.map(tl -> tl.getTimeLimiterConfig().getTimeoutDuration()).orElse(null);
+	}
+
+	private static boolean isDeadlineShorter(@Nullable Duration timeout, Duration remaining) {
+		return timeout == null || remaining.compareTo(timeout) < 0;
+	}
+
+	/**
+	 * Apply the fallback to the failures of the call. While a recording enables them,
+	 * the flight recorder events of the failure and of the fallback are emitted as well.
+	 */
+	private <T> Mono<T> applyFallback(Mono<T> toReturn, @Nullable Function<Throwable, Mono<T>> fallback) {
+		if (FlightRecorderEvents.isCallFailureEnabled()) {
+			toReturn = toReturn.doOnError(t -> FlightRecorderEvents.failed(this.id, t));
+			if (fallback != null) {
+				return toReturn.onErrorResume(t -> {
+					FlightRecorderEvents.fallback(this.id, t);
+					return fallback.apply(t);
+				});
+			}
+		}
+		return (fallback != null) ? toReturn.onErrorResume(fallback) : toReturn;
+	}
+
+	private <T> Flux<T> applyFallback(Flux<T> toReturn, @Nullable Function<Throwable, Flux<T>> fallback) {
+		if (FlightRecorderEvents.isCallFailureEnabled()) {
+			toReturn = toReturn.doOnError(t -> FlightRecorderEvents.failed(this.id, t));
+			if (fallback != null) {
+				return toReturn.onErrorResume(t -> {
+					FlightRecorderEvents.fallback(this.id, t);
+					return fallback.apply(t);
+				});
+			}
+		}
+		return (fallback != null) ? toReturn.onErrorResume(fallback) : toReturn;
+	}
+
+	/**
+	 * Runs the given {@link Flux} in streaming mode. The first element, inter element and
+	 * total timeouts are applied independently, the total timeout being limited to the
+	 * time remaining until the deadline of the call, and the circuit breaker outcome is
+	 * recorded as soon as the first element is emitted, so the permit is not held for the
+	 * lifetime of the stream. Failures after the first element are propagated (and
+	 * handled by the fallback) but are not recorded by the circuit breaker.
+	 */
+	private <T> Flux<T> runStreaming(Flux<T> toRun, @Nullable Function<Throwable, Flux<T>> fallback,
+			Resilience4JStreamingConfig streamingConfig, @Nullable CallPriority priority) {
+		ReactiveResilience4jBulkheadProvider bulkheadProvider = this.settings.bulkheadProvider;
+		CircuitBreaker circuitBreaker = buildCircuitBreaker();
+		final Flux<T> source = (bulkheadProvider != null)
+				? bulkheadProvider.decorateFlux(getBulkheadHandle(bulkheadProvider), this.id, toRun, priority)
+				: toRun;
+		Flux<T> toReturn = Flux.deferContextual(context -> {
+			Instant deadline = this.settings.deadlineProvider.apply(context);
+			Duration remaining = null;
+			if (deadline != null) {
+				remaining = Duration.between(Instant.now(), deadline);
+				if (!remaining.isPositive()) {
+					return Flux.error(new DeadlineExceededException(this.id, deadline));
+				}
+			}
+			if (!circuitBreaker.tryAcquirePermission()) {
+				return Flux.error(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+			}
+			StreamingCall call = new StreamingCall(circuitBreaker, streamingConfig, remaining);
+			Flux<T> timed = source;
+			if (call.hasTimeouts()) {
+				timed = timed.timeout(call.firstTimeout(), item -> call.nextTimeout());
+			}
+			return timed.doOnNext(item -> call.onSuccess())
+				.doOnComplete(call::onSuccess)
+				.doOnError(call::onError)
+				.doOnCancel(call::onCancel);
+		});
+		toReturn = rampUp(toReturn, circuitBreaker);
+		toReturn = admit(toReturn, priority);
+		return applyFallback(toReturn, fallback);
+	}
+
+	/**
+	 * Subscribe to the {@link Mono} a second time if it did not complete after the
+	 * hedging delay and the budget allows it. The first attempt to succeed provides the
+	 * result and the other attempt is cancelled. The call only fails, with the error of
+	 * the first attempt to fail, once every started attempt has failed.
+	 */
+	private static <T> Mono<T> hedge(Mono<T> toRun, RequestHedger hedger) {
+		return Mono.defer(() -> {
+			hedger.onCall();
+			AtomicReference<@Nullable Throwable> failure = new AtomicReference<>();
+			Sinks.Empty<Void> primaryFailed = Sinks.empty();
+			Mono<Optional<T>> primary = timed(toRun, hedger, failure).doOnError(ex -> primaryFailed.tryEmitEmpty());
+			Mono<Optional<T>> secondary = Mono.delay(hedger.getDelay())
+				.takeUntilOther(primaryFailed.asMono())
+				.flatMap(tick -> hedger.tryAcquireHedge() ? timed(toRun, hedger, failure)
+						: Mono.<Optional<T>>empty());
+			return Mono.firstWithValue(primary, secondary)
+				.onErrorMap(NoSuchElementException.class, ex -> Objects.requireNonNullElse(failure.get(), ex))
+				.mapNotNull(result -> result.orElse(null));
+		});
+	}
+
+	/**
+	 * Record the time until the {@link Mono} succeeds or fails in the adaptive timeout.
+	 * A call cancelled by its timeout is recorded with the timeout by the time limit.
+	 */
+	private static <T> Mono<T> recording(Mono<T> toRun, AdaptiveTimeout adaptiveTimeout) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return toRun.doOnTerminate(() -> adaptiveTimeout.record(System.nanoTime() - start));
+		});
+	}
+
+	/**
+	 * Record the time until the {@link Flux} completes or fails in the adaptive timeout.
+	 * A call cancelled by its timeout is recorded with the timeout by the time limit.
+	 */
+	private static <T> Flux<T> recording(Flux<T> toRun, AdaptiveTimeout adaptiveTimeout) {
+		return Flux.defer(() -> {
+			long start = System.nanoTime();
+			return toRun.doOnTerminate(() -> adaptiveTimeout.record(System.nanoTime() - start));
+		});
+	}
+
+	/**
+	 * Record the duration of an attempt of a hedged {@link Mono}, and the error of the
+	 * first attempt to fail. The result is wrapped in an {@link Optional} so an empty
+	 * attempt provides the result as well.
+	 */
+	private static <T> Mono<Optional<T>> timed(Mono<T> toRun, RequestHedger hedger,
+			AtomicReference<@Nullable Throwable> failure) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return toRun.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.doOnSuccess(result -> hedger.record(System.nanoTime() - start))
+				.doOnError(ex -> {
+					hedger.record(System.nanoTime() - start);
+					failure.compareAndSet(null, ex);
+				});
+		});
+	}
+
+	private BulkheadHandle getBulkheadHandle(ReactiveResilience4jBulkheadProvider bulkheadProvider) {
+		BulkheadHandle handle = this.bulkheadHandle;
+		if (handle == null || !handle.isValid()) {
+			handle = bulkheadProvider.getBulkheadHandle(this.settings.groupName, this.settings.tags);
+			this.bulkheadHandle = handle;
+		}
+		return handle;
+	}
+
+	private CircuitBreaker buildCircuitBreaker() {
+		Settings settings = this.settings;
+		Assert.notNull(settings.circuitBreakerConfig, "CircuitBreakerConfig must not be null");
+		CircuitBreaker circuitBreaker = settings.circuitBreakerRegistry.circuitBreaker(this.id,
+				settings.circuitBreakerConfig, settings.tags);
+		if (settings.circuitBreakerCustomizer != null) {
+			settings.circuitBreakerCustomizer.customize(circuitBreaker);
+		}
+		this.resources.setCircuitBreaker(circuitBreaker);
+		return circuitBreaker;
 	}
 
 	private Tuple2<CircuitBreaker, Optional<TimeLimiter>> buildCircuitBreakerAndTimeLimiter() {
-		Assert.notNull(circuitBreakerConfig, "CircuitBreakerConfig must not be null");
-		final Map<String, String> tags = Map.of(CIRCUIT_BREAKER_GROUP_TAG, this.groupName);
-		CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(id, circuitBreakerConfig, tags);
-		circuitBreakerCustomizer.ifPresent(customizer -> customizer.customize(circuitBreaker));
-		if (disableTimeLimiter) {
+		CircuitBreaker circuitBreaker = buildCircuitBreaker();
+		Settings settings = this.settings;
+		if (settings.disableTimeLimiter) {
 			/* do not provide/load time-limiter */
 			return Tuples.of(circuitBreaker, Optional.empty());
 		}
 		/* provide time-limiter */
-		TimeLimiter timeLimiter = this.timeLimiterRegistry.find(this.id)
-			.orElseGet(() -> this.timeLimiterRegistry.find(this.groupName)
-				.orElseGet(() -> this.timeLimiterRegistry.timeLimiter(this.id, this.timeLimiterConfig, tags)));
+		TimeLimiter timeLimiter = settings.timeLimiterRegistry.find(this.id)
+			.orElseGet(() -> settings.timeLimiterRegistry.find(settings.groupName)
+				.orElseGet(() -> settings.timeLimiterRegistry.timeLimiter(this.id, settings.timeLimiterConfig,
+						settings.tags)));
 		return Tuples.of(circuitBreaker, Optional.of(timeLimiter));
 	}
 
+	/**
+	 * Tracks a single subscription in streaming mode: computes the remaining timeouts and
+	 * records exactly one outcome in the circuit breaker.
+	 */
+	private static final class StreamingCall {
+
+		private final CircuitBreaker circuitBreaker;
+
+		private final Resilience4JStreamingConfig config;
+
+		private final long start = System.nanoTime();
+
+		private final long deadline;
+
+		private final AtomicBoolean recorded = new AtomicBoolean();
+
+		StreamingCall(CircuitBreaker circuitBreaker, Resilience4JStreamingConfig config,
+				@Nullable Duration remaining) {
+			this.circuitBreaker = circuitBreaker;
+			this.config = config;
+			Duration totalTimeout = config.getTotalTimeout();
+			if (remaining != null && (totalTimeout == null || remaining.compareTo(totalTimeout) < 0)) {
+				totalTimeout = remaining;
+			}
+			this.deadline = (totalTimeout != null) ? this.start + totalTimeout.toNanos() : Long.MAX_VALUE;
+		}
+
+		boolean hasTimeouts() {
+			return this.config.getFirstElementTimeout() != null || this.config.getInterElementTimeout() != null
+					|| this.deadline != Long.MAX_VALUE;
+		}
+
+		Mono<Long> firstTimeout() {
+			return delay(this.config.getFirstElementTimeout());
+		}
+
+		Mono<Long> nextTimeout() {
+			return delay(this.config.getInterElementTimeout());
+		}
+
+		private Mono<Long> delay(@Nullable Duration stepTimeout) {
+			if (stepTimeout == null && this.deadline == Long.MAX_VALUE) {
+				return Mono.never();
+			}
+			long timeout = (stepTimeout != null) ? stepTimeout.toNanos() : Long.MAX_VALUE;
+			if (this.deadline != Long.MAX_VALUE) {
+				timeout = Math.min(timeout, Math.max(0, this.deadline - System.nanoTime()));
+			}
+			return Mono.delay(Duration.ofNanos(timeout));
+		}
+
+		void onSuccess() {
+			if (!this.recorded.get() && this.recorded.compareAndSet(false, true)) {
+				this.circuitBreaker.onSuccess(System.nanoTime() - this.start, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		void onError(Throwable throwable) {
+			if (this.recorded.compareAndSet(false, true)) {
+				this.circuitBreaker.onError(System.nanoTime() - this.start, TimeUnit.NANOSECONDS, throwable);
+			}
+		}
+
+		void onCancel() {
+			if (this.recorded.compareAndSet(false, true)) {
+				this.circuitBreaker.releasePermission();
+			}
+		}
+
+	}
+
+	Settings getSettings() {
+		return this.settings;
+	}
+
+	/**
+	 * The state of a reactive circuit breaker that does not depend on its id. Circuit
+	 * breakers created by a factory for the same group and configuration share the same
+	 * settings.
+	 */
+	static final class Settings {
+
+		private final String groupName;
+
+		private final Map<String, String> tags;
+
+		private final @Nullable CircuitBreakerConfig circuitBreakerConfig;
+
+		private final @Nullable TimeLimiterConfig timeLimiterConfig;
+
+		private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+		private final TimeLimiterRegistry timeLimiterRegistry;
+
+		private final @Nullable Customizer<CircuitBreaker> circuitBreakerCustomizer;
+
+		private final @Nullable ReactiveResilience4jBulkheadProvider bulkheadProvider;
+
+		private final boolean disableTimeLimiter;
+
+		private final @Nullable Resilience4JStreamingConfig streamingConfig;
+
+		private final Function<ContextView, @Nullable Instant> deadlineProvider;
+
+		private final @Nullable AdmissionController admissionController;
+
+		Settings(String groupName, @Nullable CircuitBreakerConfig circuitBreakerConfig,
+				@Nullable TimeLimiterConfig timeLimiterConfig, CircuitBreakerRegistry circuitBreakerRegistry,
+				TimeLimiterRegistry timeLimiterRegistry, @Nullable Customizer<CircuitBreaker> circuitBreakerCustomizer,
+				@Nullable ReactiveResilience4jBulkheadProvider bulkheadProvider, boolean disableTimeLimiter,
+				@Nullable Resilience4JStreamingConfig streamingConfig,
+				Function<ContextView, @Nullable Instant> deadlineProvider,
+				@Nullable AdmissionController admissionController) {
+			this.groupName = groupName;
+			this.tags = Map.of(CIRCUIT_BREAKER_GROUP_TAG, groupName);
+			this.circuitBreakerConfig = circuitBreakerConfig;
+			this.timeLimiterConfig = timeLimiterConfig;
+			this.circuitBreakerRegistry = circuitBreakerRegistry;
+			this.timeLimiterRegistry = timeLimiterRegistry;
+			this.circuitBreakerCustomizer = circuitBreakerCustomizer;
+			this.bulkheadProvider = bulkheadProvider;
+			this.disableTimeLimiter = disableTimeLimiter;
+			this.streamingConfig = streamingConfig;
+			this.deadlineProvider = deadlineProvider;
+			this.admissionController = admissionController;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Settings other)) {
+				return false;
+			}
+			// Configurations, registries and collaborators are compared by identity
+			return this.groupName.equals(other.groupName) && this.circuitBreakerConfig == other.circuitBreakerConfig
+					&& this.timeLimiterConfig == other.timeLimiterConfig
+					&& this.circuitBreakerRegistry == other.circuitBreakerRegistry
+					&& this.timeLimiterRegistry == other.timeLimiterRegistry
+					&& this.circuitBreakerCustomizer == other.circuitBreakerCustomizer
+					&& this.bulkheadProvider == other.bulkheadProvider
+					&& this.disableTimeLimiter == other.disableTimeLimiter
+					&& this.streamingConfig == other.streamingConfig && this.deadlineProvider == other.deadlineProvider
+					&& this.admissionController == other.admissionController;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.groupName, System.identityHashCode(this.circuitBreakerConfig),
+					System.identityHashCode(this.timeLimiterConfig), this.disableTimeLimiter);
+		}
+
+	}
+
 }
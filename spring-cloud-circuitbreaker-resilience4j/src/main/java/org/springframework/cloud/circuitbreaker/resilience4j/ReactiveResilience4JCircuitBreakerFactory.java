@@ -16,10 +16,11 @@
 
 package org.springframework.cloud.circuitbreaker.resilience4j;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
@@ -32,11 +33,13 @@ import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jspecify.annotations.Nullable;
+import reactor.util.context.ContextView;
 
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreaker.Settings;
 import org.springframework.cloud.client.circuitbreaker.Customizer;
-import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * @author Ryan Baxter
@@ -61,8 +64,23 @@ public class ReactiveResilience4JCircuitBreakerFactory extends
 
 	private final Set<String> loggedTimeLimiterIds = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
+	/**
+	 * The state of each id a circuit breaker was created for. Like the circuit breaker
+	 * and time limiter registries, it keeps an entry per id until the id is evicted, so
+	 * it only shrinks when an idle circuit breaker evictor is set.
+	 */
+	private final ConcurrentHashMap<String, CircuitBreakerResources> resources = new ConcurrentHashMap<>();
+
+	private final Map<Settings, Settings> settings = new ConcurrentReferenceHashMap<>();
+
 	private final Resilience4JConfigurationProperties resilience4JConfigurationProperties;
 
+	private Function<ContextView, @Nullable Instant> deadlineProvider = ReactiveResilience4JCircuitBreaker::getDeadline;
+
+	private @Nullable AdmissionController admissionController;
+
+	private @Nullable IdleCircuitBreakerEvictor idleCircuitBreakerEvictor;
+
 	public ReactiveResilience4JCircuitBreakerFactory(CircuitBreakerRegistry circuitBreakerRegistry,
 			TimeLimiterRegistry timeLimiterRegistry, @Nullable ReactiveResilience4jBulkheadProvider bulkheadProvider,
 			Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
@@ -77,7 +95,7 @@ public class ReactiveResilience4JCircuitBreakerFactory extends
 	}
 
 	@Override
-	public ReactiveCircuitBreaker create(String id) {
+	public ReactiveResilience4JCircuitBreaker create(String id) {
 		Assert.hasText(id, "A CircuitBreaker must have an id.");
 		return this.create(id, id);
 	}
@@ -96,11 +114,12 @@ public class ReactiveResilience4JCircuitBreakerFactory extends
 	 * @return {@link ReactiveResilience4JCircuitBreaker}
 	 */
 	@Override
-	public ReactiveCircuitBreaker create(String id, String groupName) {
+	public ReactiveResilience4JCircuitBreaker create(String id, String groupName) {
 		Assert.hasText(id, "A CircuitBreaker must have an id.");
 		Assert.hasText(groupName, "A CircuitBreaker must have a group name.");
+		CircuitBreakerResources circuitBreakerResources = getResources(id, groupName);
 		Resilience4JConfigBuilder.Resilience4JCircuitBreakerConfiguration defaultConfig = getConfigurations()
-			.computeIfAbsent(id, defaultConfiguration);
+			.computeIfAbsent(id, key -> circuitBreakerResources.defaultConfiguration(defaultConfiguration.apply(key)));
 		CircuitBreakerConfig circuitBreakerConfig = this.circuitBreakerRegistry.getConfiguration(id)
 			.orElseGet(() -> this.circuitBreakerRegistry.getConfiguration(groupName)
 				.orElseGet(defaultConfig::getCircuitBreakerConfig));
@@ -120,15 +139,30 @@ public class ReactiveResilience4JCircuitBreakerFactory extends
 				}
 				return defaultTimeLimiterConfig;
 			}));
-		Resilience4JConfigBuilder.Resilience4JCircuitBreakerConfiguration config = new Resilience4JConfigBuilder(id)
-			.circuitBreakerConfig(circuitBreakerConfig)
-			.timeLimiterConfig(timeLimiterConfig)
-			.build();
 		boolean isDisableTimeLimiter = ConfigurationPropertiesUtils
 			.isDisableTimeLimiter(this.resilience4JConfigurationProperties, id, groupName);
-		return new ReactiveResilience4JCircuitBreaker(id, groupName, config, circuitBreakerRegistry,
-				timeLimiterRegistry, Optional.ofNullable(circuitBreakerCustomizers.get(id)), bulkheadProvider,
-				isDisableTimeLimiter);
+		Settings settings = getSettings(new Settings(groupName, circuitBreakerConfig, timeLimiterConfig,
+				this.circuitBreakerRegistry, this.timeLimiterRegistry, this.circuitBreakerCustomizers.get(id),
+				this.bulkheadProvider, isDisableTimeLimiter, defaultConfig.getStreamingConfig(), this.deadlineProvider,
+				this.admissionController));
+		return new ReactiveResilience4JCircuitBreaker(id, settings, defaultConfig.getHedgingConfig(),
+				defaultConfig.getSlowStartConfig(), defaultConfig.getAdaptiveTimeoutConfig(), circuitBreakerResources);
+	}
+
+	/**
+	 * Get the settings equal to the given ones that circuit breakers already share, so
+	 * circuit breakers of the same group and configuration do not each hold their own.
+	 */
+	private Settings getSettings(Settings settings) {
+		Settings shared = this.settings.putIfAbsent(settings, settings);
+		return (shared != null) ? shared : settings;
+	}
+
+	private CircuitBreakerResources getResources(String id, String groupName) {
+		boolean writableStackTraceEnabled = this.resilience4JConfigurationProperties.isWritableStackTraceEnabled();
+		IdleCircuitBreakerEvictor evictor = this.idleCircuitBreakerEvictor;
+		return this.resources.computeIfAbsent(id,
+				key -> new CircuitBreakerResources(writableStackTraceEnabled, groupName, evictor));
 	}
 
 	@Override
@@ -154,6 +188,84 @@ public class ReactiveResilience4JCircuitBreakerFactory extends
 		this.circuitBreakerRegistry = registry;
 	}
 
+	/**
+	 * Set the source of the deadline of the current call. Circuit breakers do not
+	 * subscribe to calls whose deadline has passed and limit the time they wait for a call
+	 * to the time remaining until the deadline, if it is shorter than the time limiter
+	 * timeout. By default the deadline is read from the Reactor context, under
+	 * {@link DeadlineContextHolder#CONTEXT_KEY}.
+	 * @param deadlineProvider the deadline provider, returning {@code null} if the call
+	 * has no deadline
+	 */
+	public void setDeadlineProvider(Function<ContextView, @Nullable Instant> deadlineProvider) {
+		Assert.notNull(deadlineProvider, "Deadline provider must not be null");
+		this.deadlineProvider = deadlineProvider;
+	}
+
+	/**
+	 * Set the admission controller shedding calls while the JVM is overloaded.
+	 * @param admissionController the admission controller
+	 */
+	public void setAdmissionController(AdmissionController admissionController) {
+		Assert.notNull(admissionController, "Admission controller must not be null");
+		this.admissionController = admissionController;
+	}
+
+	/**
+	 * Set the evictor evicting the circuit breakers of this factory that are no longer
+	 * used, along with their registry entries and, once no circuit breaker of their group
+	 * is left, the bulkhead of the group, unless it was configured explicitly. Must be set
+	 * before circuit breakers are created.
+	 * @param idleCircuitBreakerEvictor the evictor
+	 */
+	public void setIdleCircuitBreakerEvictor(IdleCircuitBreakerEvictor idleCircuitBreakerEvictor) {
+		Assert.notNull(idleCircuitBreakerEvictor, "Idle circuit breaker evictor must not be null");
+		idleCircuitBreakerEvictor.addSweep(() -> evictIdle(idleCircuitBreakerEvictor));
+		this.idleCircuitBreakerEvictor = idleCircuitBreakerEvictor;
+	}
+
+	private void evictIdle(IdleCircuitBreakerEvictor evictor) {
+		Map<String, CircuitBreakerResources> evicted = evictor.evictIdle(this.resources);
+		if (evicted.isEmpty()) {
+			return;
+		}
+		Set<String> usedGroupNames = new HashSet<>();
+		for (CircuitBreakerResources circuitBreakerResources : this.resources.values()) {
+			String groupName = circuitBreakerResources.getGroupName();
+			if (groupName != null) {
+				usedGroupNames.add(groupName);
+			}
+		}
+		Set<String> evictedGroupNames = new HashSet<>();
+		evicted.forEach((id, circuitBreakerResources) -> {
+			evictCircuitBreaker(id, circuitBreakerResources, usedGroupNames.contains(id));
+			String groupName = circuitBreakerResources.getGroupName();
+			if (groupName != null && !usedGroupNames.contains(groupName) && !evictedGroupNames.contains(groupName)
+					&& (this.bulkheadProvider == null || this.bulkheadProvider.evictBulkhead(groupName))) {
+				evictedGroupNames.add(groupName);
+			}
+		});
+		evictor.evicted(evicted.keySet(), evictedGroupNames);
+	}
+
+	private void evictCircuitBreaker(String id, CircuitBreakerResources circuitBreakerResources,
+			boolean usedAsGroup) {
+		Resilience4JConfigBuilder.Resilience4JCircuitBreakerConfiguration defaultConfig = circuitBreakerResources
+			.getDefaultConfiguration();
+		if (defaultConfig != null) {
+			getConfigurations().remove(id, defaultConfig);
+		}
+		this.loggedTimeLimiterIds.remove(id);
+		this.circuitBreakerRegistry.remove(id);
+		if (!usedAsGroup) {
+			// Circuit breakers of a group use the time limiter of the id named after it
+			this.timeLimiterRegistry.remove(id);
+		}
+		if (this.bulkheadProvider != null) {
+			this.bulkheadProvider.evictIdBulkhead(id);
+		}
+	}
+
 	public void addCircuitBreakerCustomizer(Customizer<CircuitBreaker> customizer, String... ids) {
 		for (String id : ids) {
 			circuitBreakerCustomizers.put(id, customizer);
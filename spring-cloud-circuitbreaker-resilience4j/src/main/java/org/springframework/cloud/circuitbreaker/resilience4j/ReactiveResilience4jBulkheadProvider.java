@@ -18,6 +18,7 @@ package org.springframework.cloud.circuitbreaker.resilience4j;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -26,6 +27,7 @@ import io.github.resilience4j.bulkhead.Bulkhead;
 import io.github.resilience4j.bulkhead.BulkheadConfig;
 import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import org.jspecify.annotations.Nullable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -40,19 +42,39 @@ public class ReactiveResilience4jBulkheadProvider {
 
 	private final ConcurrentHashMap<String, Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration> configurations = new ConcurrentHashMap<>();
 
+	private final Set<String> defaultConfigurations = ConcurrentHashMap.newKeySet();
+
 	private Function<String, Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration> defaultConfiguration;
 
+	private final PriorityBulkheads priorityBulkheads;
+
+	private final IdBulkheads idBulkheads;
+
+	private final BulkheadHandles bulkheadHandles = new BulkheadHandles();
+
 	public ReactiveResilience4jBulkheadProvider(BulkheadRegistry bulkheadRegistry) {
+		this(bulkheadRegistry, new Resilience4JConfigurationProperties());
+	}
+
+	public ReactiveResilience4jBulkheadProvider(BulkheadRegistry bulkheadRegistry,
+			Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
 		this.bulkheadRegistry = bulkheadRegistry;
+		boolean writableStackTraceEnabled = resilience4JConfigurationProperties.isWritableStackTraceEnabled();
+		this.priorityBulkheads = new PriorityBulkheads(writableStackTraceEnabled);
+		this.idBulkheads = new IdBulkheads(writableStackTraceEnabled);
 		this.defaultConfiguration = id -> new Resilience4jBulkheadConfigurationBuilder()
 			.bulkheadConfig(this.bulkheadRegistry.getDefaultConfig())
 			.build();
+		bulkheadRegistry.getEventPublisher()
+			.onEntryRemoved(event -> this.bulkheadHandles.invalidate(event.getRemovedEntry().getName()))
+			.onEntryReplaced(event -> this.bulkheadHandles.invalidate(event.getOldEntry().getName()));
 	}
 
 	public void configureDefault(
 			Function<String, Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration> defaultConfiguration) {
 		Assert.notNull(defaultConfiguration, "Default configuration must not be null");
 		this.defaultConfiguration = defaultConfiguration;
+		this.bulkheadHandles.invalidateAll();
 	}
 
 	public void configure(Consumer<Resilience4jBulkheadConfigurationBuilder> consumer, String... ids) {
@@ -61,6 +83,8 @@ public class ReactiveResilience4jBulkheadProvider {
 			consumer.accept(builder);
 			Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration configuration = builder.build();
 			configurations.put(id, configuration);
+			this.defaultConfigurations.remove(id);
+			this.bulkheadHandles.invalidate(id);
 		}
 	}
 
@@ -71,30 +95,281 @@ public class ReactiveResilience4jBulkheadProvider {
 			Assert.notNull(configuration.getBulkheadConfig(), "Bulkhead configuration must not be null");
 			Bulkhead bulkhead = bulkheadRegistry.bulkhead(id, configuration.getBulkheadConfig());
 			customizer.accept(bulkhead);
+			this.defaultConfigurations.remove(id);
+			this.bulkheadHandles.invalidate(id);
 		}
 	}
 
+	/**
+	 * Evict the per-id bulkhead of a circuit breaker id that was evicted.
+	 * @param id the circuit breaker id
+	 */
+	void evictIdBulkhead(String id) {
+		this.idBulkheads.remove(id);
+	}
+
+	/**
+	 * Evict the bulkhead of a group no longer used by any circuit breaker, unless it was
+	 * configured or customized explicitly. Its next call creates it again from the
+	 * configuration of the registry or the default configuration.
+	 * @param id the bulkhead id
+	 * @return {@code false} if the bulkhead was configured or customized explicitly and
+	 * is kept
+	 */
+	boolean evictBulkhead(String id) {
+		if (!this.defaultConfigurations.remove(id)) {
+			return !this.configurations.containsKey(id);
+		}
+		this.configurations.remove(id);
+		this.priorityBulkheads.remove(id);
+		this.bulkheadRegistry.remove(id);
+		this.bulkheadHandles.invalidate(id);
+		return true;
+	}
+
 	public BulkheadRegistry getBulkheadRegistry() {
 		return bulkheadRegistry;
 	}
 
-	public <T> Mono<T> decorateMono(String id, Map<String, String> tags, Mono<T> mono) {
+	/**
+	 * Set a callback invoked once for each bulkhead with priority load shedding enabled,
+	 * for example to bind its rejection counts to a meter registry.
+	 * @param priorityBulkheadBinder the binder, {@code null} to bind nothing
+	 */
+	public void setPriorityBulkheadBinder(@Nullable Consumer<PriorityBulkhead> priorityBulkheadBinder) {
+		this.priorityBulkheads.setBinder(priorityBulkheadBinder);
+	}
+
+	/**
+	 * Get the priority bulkhead of the given bulkhead.
+	 * @param id the bulkhead id
+	 * @return the priority bulkhead or {@code null} if priority load shedding is not
+	 * enabled for the bulkhead or it has not been called yet
+	 */
+	public @Nullable PriorityBulkhead getPriorityBulkhead(String id) {
+		return this.priorityBulkheads.find(id);
+	}
+
+	/**
+	 * Get the per-id bulkhead of the given circuit breaker id.
+	 * @param id the circuit breaker id
+	 * @return the per-id bulkhead or {@code null} if the id is only limited by the
+	 * bulkhead of its group or it has not been called yet
+	 */
+	public @Nullable IdBulkhead getIdBulkhead(String id) {
+		return this.idBulkheads.find(id);
+	}
+
+	/**
+	 * Get the handle of the bulkhead of the given id, resolving the bulkhead instance if
+	 * the id has no valid handle yet.
+	 * @param id the bulkhead id
+	 * @param tags the tags of the bulkhead, used if the bulkhead is created
+	 * @return the bulkhead handle
+	 * @see BulkheadHandle#isValid()
+	 */
+	public BulkheadHandle getBulkheadHandle(String id, Map<String, String> tags) {
+		return this.bulkheadHandles.get(id, key -> resolveBulkheadHandle(key, tags));
+	}
+
+	private BulkheadHandle resolveBulkheadHandle(String id, Map<String, String> tags) {
 		Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration configuration = configurations
 			.computeIfAbsent(id, this::getConfiguration);
 		Assert.notNull(configuration.getBulkheadConfig(), "Bulkhead configuration must not be null");
 		Bulkhead bulkhead = bulkheadRegistry.bulkhead(id, configuration.getBulkheadConfig(), tags);
-		return mono.transformDeferred(BulkheadOperator.of(bulkhead));
+		return new BulkheadHandle(id, configuration, bulkhead, null, null, getPriorityBulkhead(id, configuration));
+	}
+
+	public <T> Mono<T> decorateMono(String id, Map<String, String> tags, Mono<T> mono) {
+		return decorateMono(id, tags, mono, null);
+	}
+
+	/**
+	 * Decorate the {@link Mono} with the bulkhead of the given id and, if priority load
+	 * shedding is enabled for the bulkhead, admit it according to its priority.
+	 * @param id the bulkhead id
+	 * @param tags the tags of the bulkhead
+	 * @param mono the {@link Mono} to decorate
+	 * @param priority the priority of the call, {@code null} to use the priority stored
+	 * in the Reactor context under {@link CallPriority#CONTEXT_KEY}, or
+	 * {@link CallPriority#NORMAL} if there is none
+	 * @param <T> the result type
+	 * @return the decorated {@link Mono}
+	 * @see Resilience4jBulkheadConfigurationBuilder#priorityBulkheadConfig(Resilience4JPriorityBulkheadConfig)
+	 */
+	public <T> Mono<T> decorateMono(String id, Map<String, String> tags, Mono<T> mono,
+			@Nullable CallPriority priority) {
+		return decorateMono(getBulkheadHandle(id, tags), mono, priority);
+	}
+
+	private <T> Mono<T> decorateMono(BulkheadHandle handle, Mono<T> mono, @Nullable CallPriority priority) {
+		Bulkhead bulkhead = handle.getBulkhead();
+		Assert.state(bulkhead != null, "Bulkhead handle must hold a semaphore bulkhead");
+		Mono<T> bulkheadCall = mono.transformDeferred(BulkheadOperator.of(bulkhead));
+		PriorityBulkhead priorityBulkhead = handle.getPriorityBulkhead();
+		if (priorityBulkhead == null) {
+			return bulkheadCall;
+		}
+		return Mono.deferContextual(context -> {
+			CallPriority callPriority = ReactiveResilience4JCircuitBreaker.getPriority(priority, context);
+			if (!priorityBulkhead.tryAcquire(callPriority)) {
+				return Mono.error(priorityBulkhead.newFullException(callPriority));
+			}
+			return bulkheadCall.doFinally(signal -> priorityBulkhead.release(callPriority));
+		});
 	}
 
 	public <T> Flux<T> decorateFlux(String id, Map<String, String> tags, Flux<T> flux) {
-		Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration configuration = configurations
-			.computeIfAbsent(id, this::getConfiguration);
-		Assert.notNull(configuration.getBulkheadConfig(), "Bulkhead configuration must not be null");
-		Bulkhead bulkhead = bulkheadRegistry.bulkhead(id, configuration.getBulkheadConfig(), tags);
-		return flux.transformDeferred(BulkheadOperator.of(bulkhead));
+		return decorateFlux(id, tags, flux, null);
+	}
+
+	/**
+	 * Decorate the {@link Flux} with the bulkhead of the given id and, if priority load
+	 * shedding is enabled for the bulkhead, admit it according to its priority.
+	 * @param id the bulkhead id
+	 * @param tags the tags of the bulkhead
+	 * @param flux the {@link Flux} to decorate
+	 * @param priority the priority of the call, {@code null} to use the priority stored
+	 * in the Reactor context under {@link CallPriority#CONTEXT_KEY}, or
+	 * {@link CallPriority#NORMAL} if there is none
+	 * @param <T> the element type
+	 * @return the decorated {@link Flux}
+	 * @see Resilience4jBulkheadConfigurationBuilder#priorityBulkheadConfig(Resilience4JPriorityBulkheadConfig)
+	 */
+	public <T> Flux<T> decorateFlux(String id, Map<String, String> tags, Flux<T> flux,
+			@Nullable CallPriority priority) {
+		return decorateFlux(getBulkheadHandle(id, tags), flux, priority);
+	}
+
+	private <T> Flux<T> decorateFlux(BulkheadHandle handle, Flux<T> flux, @Nullable CallPriority priority) {
+		Bulkhead bulkhead = handle.getBulkhead();
+		Assert.state(bulkhead != null, "Bulkhead handle must hold a semaphore bulkhead");
+		Flux<T> bulkheadCall = flux.transformDeferred(BulkheadOperator.of(bulkhead));
+		PriorityBulkhead priorityBulkhead = handle.getPriorityBulkhead();
+		if (priorityBulkhead == null) {
+			return bulkheadCall;
+		}
+		return Flux.deferContextual(context -> {
+			CallPriority callPriority = ReactiveResilience4JCircuitBreaker.getPriority(priority, context);
+			if (!priorityBulkhead.tryAcquire(callPriority)) {
+				return Flux.error(priorityBulkhead.newFullException(callPriority));
+			}
+			return bulkheadCall.doFinally(signal -> priorityBulkhead.release(callPriority));
+		});
+	}
+
+	/**
+	 * Decorate the {@link Mono} with the bulkhead of the given group and, if the group
+	 * limits the concurrent calls of the given id, with the per-id bulkhead of the id.
+	 * The per-id bulkhead is acquired first, without waiting.
+	 * @param groupName the group bulkhead id
+	 * @param id the circuit breaker id
+	 * @param tags the tags of the bulkhead
+	 * @param mono the {@link Mono} to decorate
+	 * @param priority the priority of the call, {@code null} to use the priority stored
+	 * in the Reactor context under {@link CallPriority#CONTEXT_KEY}, or
+	 * {@link CallPriority#NORMAL} if there is none
+	 * @param <T> the result type
+	 * @return the decorated {@link Mono}
+	 * @see Resilience4jBulkheadConfigurationBuilder#idBulkheadConfig(Resilience4JIdBulkheadConfig)
+	 */
+	public <T> Mono<T> decorateMono(String groupName, String id, Map<String, String> tags, Mono<T> mono,
+			@Nullable CallPriority priority) {
+		return decorateMono(getBulkheadHandle(groupName, tags), id, mono, priority);
+	}
+
+	/**
+	 * Decorate the {@link Mono} with the bulkhead of the given handle and, if the
+	 * bulkhead limits the concurrent calls of the given id, with the per-id bulkhead of
+	 * the id.
+	 * @param handle the handle of the group bulkhead
+	 * @param id the circuit breaker id
+	 * @param mono the {@link Mono} to decorate
+	 * @param priority the priority of the call, {@code null} to use the priority stored
+	 * in the Reactor context under {@link CallPriority#CONTEXT_KEY}, or
+	 * {@link CallPriority#NORMAL} if there is none
+	 * @param <T> the result type
+	 * @return the decorated {@link Mono}
+	 * @see #getBulkheadHandle(String, Map)
+	 */
+	public <T> Mono<T> decorateMono(BulkheadHandle handle, String id, Mono<T> mono, @Nullable CallPriority priority) {
+		Mono<T> groupCall = decorateMono(handle, mono, priority);
+		IdBulkhead idBulkhead = getIdBulkhead(handle, id);
+		if (idBulkhead == null) {
+			return groupCall;
+		}
+		return Mono.defer(() -> {
+			if (!idBulkhead.tryAcquire()) {
+				return Mono.error(idBulkhead.newFullException());
+			}
+			return groupCall.doFinally(signal -> idBulkhead.release());
+		});
+	}
+
+	/**
+	 * Decorate the {@link Flux} with the bulkhead of the given group and, if the group
+	 * limits the concurrent calls of the given id, with the per-id bulkhead of the id.
+	 * The per-id bulkhead is acquired first, without waiting.
+	 * @param groupName the group bulkhead id
+	 * @param id the circuit breaker id
+	 * @param tags the tags of the bulkhead
+	 * @param flux the {@link Flux} to decorate
+	 * @param priority the priority of the call, {@code null} to use the priority stored
+	 * in the Reactor context under {@link CallPriority#CONTEXT_KEY}, or
+	 * {@link CallPriority#NORMAL} if there is none
+	 * @param <T> the element type
+	 * @return the decorated {@link Flux}
+	 * @see Resilience4jBulkheadConfigurationBuilder#idBulkheadConfig(Resilience4JIdBulkheadConfig)
+	 */
+	public <T> Flux<T> decorateFlux(String groupName, String id, Map<String, String> tags, Flux<T> flux,
+			@Nullable CallPriority priority) {
+		return decorateFlux(getBulkheadHandle(groupName, tags), id, flux, priority);
+	}
+
+	/**
+	 * Decorate the {@link Flux} with the bulkhead of the given handle and, if the
+	 * bulkhead limits the concurrent calls of the given id, with the per-id bulkhead of
+	 * the id.
+	 * @param handle the handle of the group bulkhead
+	 * @param id the circuit breaker id
+	 * @param flux the {@link Flux} to decorate
+	 * @param priority the priority of the call, {@code null} to use the priority stored
+	 * in the Reactor context under {@link CallPriority#CONTEXT_KEY}, or
+	 * {@link CallPriority#NORMAL} if there is none
+	 * @param <T> the element type
+	 * @return the decorated {@link Flux}
+	 * @see #getBulkheadHandle(String, Map)
+	 */
+	public <T> Flux<T> decorateFlux(BulkheadHandle handle, String id, Flux<T> flux, @Nullable CallPriority priority) {
+		Flux<T> groupCall = decorateFlux(handle, flux, priority);
+		IdBulkhead idBulkhead = getIdBulkhead(handle, id);
+		if (idBulkhead == null) {
+			return groupCall;
+		}
+		return Flux.defer(() -> {
+			if (!idBulkhead.tryAcquire()) {
+				return Flux.error(idBulkhead.newFullException());
+			}
+			return groupCall.doFinally(signal -> idBulkhead.release());
+		});
+	}
+
+	private @Nullable IdBulkhead getIdBulkhead(BulkheadHandle handle, String id) {
+		return this.idBulkheads.get(handle.getName(), id, handle.getConfiguration().getIdBulkheadConfig());
+	}
+
+	private @Nullable PriorityBulkhead getPriorityBulkhead(String id,
+			Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration configuration) {
+		Resilience4JPriorityBulkheadConfig priorityBulkheadConfig = configuration.getPriorityBulkheadConfig();
+		BulkheadConfig bulkheadConfig = configuration.getBulkheadConfig();
+		if (priorityBulkheadConfig == null || bulkheadConfig == null) {
+			return null;
+		}
+		return this.priorityBulkheads.get(id, priorityBulkheadConfig, bulkheadConfig.getMaxConcurrentCalls());
 	}
 
 	private Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration getConfiguration(String id) {
+		this.defaultConfigurations.add(id);
 		Resilience4jBulkheadConfigurationBuilder builder = new Resilience4jBulkheadConfigurationBuilder();
 		Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration defaultConfiguration = this.defaultConfiguration
 			.apply(id);
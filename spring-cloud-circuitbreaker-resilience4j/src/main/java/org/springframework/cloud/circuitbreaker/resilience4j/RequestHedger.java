@@ -0,0 +1,235 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Hedging state of a circuit breaker id: the observed call durations used to compute the
+ * hedging delay and the budget limiting the number of second attempts.
+ *
+ * <p>
+ * The budget is a token bucket: every call deposits {@code maxExtraLoad} tokens, up to
+ * {@value #MAX_TOKENS} tokens, and every second attempt takes one token. Tokens are kept
+ * in thousandths in a single {@link AtomicLong}.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+final class RequestHedger {
+
+	static final int MAX_TOKENS = 10;
+
+	private static final long TOKEN = 1000;
+
+	private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final Resilience4JHedgingConfig config;
+
+	private final LatencyHistogram histogram = new LatencyHistogram(TimeUnit.MINUTES.toNanos(1));
+
+	private final AtomicLong budget = new AtomicLong();
+
+	private final long deposit;
+
+	private volatile long delayNanos;
+
+	private volatile long delayComputedAt;
+
+	RequestHedger(Resilience4JHedgingConfig config) {
+		this.config = config;
+		this.deposit = (long) (config.getMaxExtraLoad() * TOKEN);
+		this.delayNanos = config.getInitialDelay().toNanos();
+		this.delayComputedAt = System.nanoTime() - DELAY_REFRESH_NANOS;
+	}
+
+	Resilience4JHedgingConfig getConfig() {
+		return this.config;
+	}
+
+	/**
+	 * Account for a new call in the budget.
+	 */
+	void onCall() {
+		if (this.deposit == 0) {
+			return;
+		}
+		long current;
+		do {
+			current = this.budget.get();
+			if (current >= MAX_TOKENS * TOKEN) {
+				return;
+			}
+		}
+		while (!this.budget.compareAndSet(current, Math.min(MAX_TOKENS * TOKEN, current + this.deposit)));
+	}
+
+	/**
+	 * Take a token from the budget for a second attempt.
+	 * @return {@code true} if a second attempt may be started
+	 */
+	boolean tryAcquireHedge() {
+		long current;
+		do {
+			current = this.budget.get();
+			if (current < TOKEN) {
+				return false;
+			}
+		}
+		while (!this.budget.compareAndSet(current, current - TOKEN));
+		return true;
+	}
+
+	/**
+	 * Record the duration of an attempt.
+	 * @param durationNanos the duration in nanoseconds
+	 */
+	void record(long durationNanos) {
+		this.histogram.record(durationNanos);
+	}
+
+	/**
+	 * Get the delay after which a second attempt is started. The delay is recomputed from
+	 * the observed durations at most once per second.
+	 * @return the delay
+	 */
+	Duration getDelay() {
+		long now = System.nanoTime();
+		if (now - this.delayComputedAt >= DELAY_REFRESH_NANOS) {
+			long percentile = this.histogram.getPercentile(this.config.getPercentile(),
+					this.config.getMinimumNumberOfCalls());
+			this.delayNanos = (percentile < 0) ? this.config.getInitialDelay().toNanos()
+					: Math.max(this.config.getMinimumDelay().toNanos(), percentile);
+			this.delayComputedAt = now;
+		}
+		return Duration.ofNanos(this.delayNanos);
+	}
+
+	/**
+	 * Submit the task to the executor and, if it did not complete after the hedging delay
+	 * and the budget allows it, submit it a second time. The returned future completes
+	 * with the first attempt to succeed and the other attempt is cancelled. It only
+	 * completes exceptionally, with the failure of the first attempt to fail, once every
+	 * started attempt has failed. Cancelling the returned future cancels both attempts.
+	 * @param executor the executor running the attempts
+	 * @param task the task
+	 * @param <T> the result type
+	 * @return the future of the hedged execution
+	 */
+	<T> Future<T> submit(ExecutorService executor, Callable<T> task) {
+		onCall();
+		HedgedFuture<T> result = new HedgedFuture<>();
+		result.primary = executor.submit(() -> result.attempt(task, true, this));
+		CompletableFuture.delayedExecutor(getDelay().toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+			if (!result.isDone() && tryAcquireHedge() && result.startAttempt()) {
+				try {
+					Future<?> secondary = executor.submit(() -> result.attempt(task, false, this));
+					result.secondary = secondary;
+					if (result.isDone()) {
+						secondary.cancel(true);
+					}
+				}
+				catch (RejectedExecutionException ex) {
+					result.attemptFailed(null);
+				}
+			}
+		});
+		return result;
+	}
+
+	private static final class HedgedFuture<T> extends CompletableFuture<T> {
+
+		private final AtomicInteger outstanding = new AtomicInteger(1);
+
+		private final AtomicReference<@Nullable Throwable> failure = new AtomicReference<>();
+
+		private volatile @Nullable Future<?> primary;
+
+		private volatile @Nullable Future<?> secondary;
+
+		/**
+		 * Account for a second attempt, unless every attempt has already failed.
+		 * @return {@code true} if the second attempt may be started
+		 */
+		boolean startAttempt() {
+			int current;
+			do {
+				current = this.outstanding.get();
+				if (current == 0) {
+					return false;
+				}
+			}
+			while (!this.outstanding.compareAndSet(current, current + 1));
+			return true;
+		}
+
+		void attempt(Callable<T> task, boolean isPrimary, RequestHedger hedger) {
+			long start = System.nanoTime();
+			try {
+				T value = task.call();
+				hedger.record(System.nanoTime() - start);
+				if (complete(value)) {
+					cancel(isPrimary ? this.secondary : this.primary);
+				}
+			}
+			catch (Throwable t) {
+				if (!isDone()) {
+					// an attempt cancelled because the other one succeeded is not recorded
+					hedger.record(System.nanoTime() - start);
+				}
+				attemptFailed(t);
+			}
+		}
+
+		void attemptFailed(@Nullable Throwable t) {
+			if (t != null) {
+				this.failure.compareAndSet(null, t);
+			}
+			if (this.outstanding.decrementAndGet() == 0) {
+				Throwable first = this.failure.get();
+				completeExceptionally((first != null) ? first : new RejectedExecutionException());
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			cancel(this.primary);
+			cancel(this.secondary);
+			return cancelled;
+		}
+
+		private static void cancel(@Nullable Future<?> attempt) {
+			if (attempt != null) {
+				attempt.cancel(true);
+			}
+		}
+
+	}
+
+}
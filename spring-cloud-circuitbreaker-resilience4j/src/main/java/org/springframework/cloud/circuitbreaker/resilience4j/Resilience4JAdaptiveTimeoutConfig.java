@@ -0,0 +1,268 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * Configuration of the adaptive timeout of a circuit breaker.
+ *
+ * <p>
+ * When adaptive timeouts are enabled, the circuit breaker limits the time of a call to a
+ * {@link #getMultiplier() multiple} of the configured {@link #getPercentile() percentile}
+ * of the durations of its recent calls, bounded by the
+ * {@link #getMinimumTimeout() minimum timeout} and the {@link #getMaximumTimeout()
+ * maximum timeout}. The time limiter timeout is used until
+ * {@link #getMinimumNumberOfCalls() minimumNumberOfCalls} durations have been observed.
+ * Calls that time out are observed with the timeout that fired and failed calls with
+ * their duration, so the timeout grows rather than shrinks when the latency increases.
+ * Adaptive timeouts only apply where the time limiter applies, and the timeout of the
+ * run options of a call takes precedence over them.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+public final class Resilience4JAdaptiveTimeoutConfig {
+
+	private final double percentile;
+
+	private final double multiplier;
+
+	private final Duration minimumTimeout;
+
+	private final @Nullable Duration maximumTimeout;
+
+	private final int minimumNumberOfCalls;
+
+	private final Duration window;
+
+	private final Duration refreshInterval;
+
+	private Resilience4JAdaptiveTimeoutConfig(double percentile, double multiplier, Duration minimumTimeout,
+			@Nullable Duration maximumTimeout, int minimumNumberOfCalls, Duration window, Duration refreshInterval) {
+		this.percentile = percentile;
+		this.multiplier = multiplier;
+		this.minimumTimeout = minimumTimeout;
+		this.maximumTimeout = maximumTimeout;
+		this.minimumNumberOfCalls = minimumNumberOfCalls;
+		this.window = window;
+		this.refreshInterval = refreshInterval;
+	}
+
+	/**
+	 * Create a new builder.
+	 * @return the builder
+	 */
+	public static Builder custom() {
+		return new Builder();
+	}
+
+	/**
+	 * Create a configuration using the default values.
+	 * @return the configuration
+	 */
+	public static Resilience4JAdaptiveTimeoutConfig ofDefaults() {
+		return custom().build();
+	}
+
+	/**
+	 * Get the percentile of the observed call durations the timeout is derived from.
+	 * @return the percentile, between 0 and 1
+	 */
+	public double getPercentile() {
+		return this.percentile;
+	}
+
+	/**
+	 * Get the factor applied to the percentile of the observed call durations.
+	 * @return the multiplier
+	 */
+	public double getMultiplier() {
+		return this.multiplier;
+	}
+
+	/**
+	 * Get the lower bound of the timeout.
+	 * @return the minimum timeout
+	 */
+	public Duration getMinimumTimeout() {
+		return this.minimumTimeout;
+	}
+
+	/**
+	 * Get the upper bound of the timeout.
+	 * @return the maximum timeout, {@code null} to use the time limiter timeout
+	 */
+	public @Nullable Duration getMaximumTimeout() {
+		return this.maximumTimeout;
+	}
+
+	/**
+	 * Get the number of call durations that need to be observed before the timeout is
+	 * derived from them.
+	 * @return the minimum number of calls
+	 */
+	public int getMinimumNumberOfCalls() {
+		return this.minimumNumberOfCalls;
+	}
+
+	/**
+	 * Get the length of the rolling window the call durations are observed over. The
+	 * timeout is derived from the durations of the current and the previous window, so
+	 * from one to two windows worth of calls.
+	 * @return the window
+	 */
+	public Duration getWindow() {
+		return this.window;
+	}
+
+	/**
+	 * Get the interval at which the timeout is recomputed from the observed durations.
+	 * @return the refresh interval
+	 */
+	public Duration getRefreshInterval() {
+		return this.refreshInterval;
+	}
+
+	@Override
+	public String toString() {
+		return "Resilience4JAdaptiveTimeoutConfig{percentile=" + this.percentile + ", multiplier=" + this.multiplier
+				+ ", minimumTimeout=" + this.minimumTimeout + ", maximumTimeout=" + this.maximumTimeout
+				+ ", minimumNumberOfCalls=" + this.minimumNumberOfCalls + ", window=" + this.window
+				+ ", refreshInterval=" + this.refreshInterval + "}";
+	}
+
+	/**
+	 * Builder for {@link Resilience4JAdaptiveTimeoutConfig}.
+	 */
+	public static final class Builder {
+
+		private double percentile = 0.99;
+
+		private double multiplier = 1.5;
+
+		private Duration minimumTimeout = Duration.ofMillis(10);
+
+		private @Nullable Duration maximumTimeout;
+
+		private int minimumNumberOfCalls = 100;
+
+		private Duration window = Duration.ofMinutes(1);
+
+		private Duration refreshInterval = Duration.ofSeconds(1);
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the percentile of the observed call durations the timeout is derived from.
+		 * Defaults to 0.99.
+		 * @param percentile the percentile, between 0 and 1
+		 * @return this builder
+		 */
+		public Builder percentile(double percentile) {
+			Assert.isTrue(percentile > 0 && percentile <= 1, "percentile must be between 0 and 1");
+			this.percentile = percentile;
+			return this;
+		}
+
+		/**
+		 * Set the factor applied to the percentile of the observed call durations.
+		 * Defaults to 1.5.
+		 * @param multiplier the multiplier
+		 * @return this builder
+		 */
+		public Builder multiplier(double multiplier) {
+			Assert.isTrue(multiplier > 0, "multiplier must be positive");
+			this.multiplier = multiplier;
+			return this;
+		}
+
+		/**
+		 * Set the lower bound of the timeout. Defaults to 10 milliseconds.
+		 * @param minimumTimeout the minimum timeout
+		 * @return this builder
+		 */
+		public Builder minimumTimeout(Duration minimumTimeout) {
+			Assert.isTrue(minimumTimeout != null && minimumTimeout.isPositive(), "minimumTimeout must be positive");
+			this.minimumTimeout = minimumTimeout;
+			return this;
+		}
+
+		/**
+		 * Set the upper bound of the timeout. Defaults to the time limiter timeout.
+		 * @param maximumTimeout the maximum timeout, {@code null} to use the time
+		 * limiter timeout
+		 * @return this builder
+		 */
+		public Builder maximumTimeout(@Nullable Duration maximumTimeout) {
+			Assert.isTrue(maximumTimeout == null || maximumTimeout.isPositive(), "maximumTimeout must be positive");
+			this.maximumTimeout = maximumTimeout;
+			return this;
+		}
+
+		/**
+		 * Set the number of call durations that need to be observed before the timeout
+		 * is derived from them. Defaults to 100.
+		 * @param minimumNumberOfCalls the minimum number of calls
+		 * @return this builder
+		 */
+		public Builder minimumNumberOfCalls(int minimumNumberOfCalls) {
+			Assert.isTrue(minimumNumberOfCalls >= 0, "minimumNumberOfCalls must not be negative");
+			this.minimumNumberOfCalls = minimumNumberOfCalls;
+			return this;
+		}
+
+		/**
+		 * Set the length of the rolling window the call durations are observed over.
+		 * Defaults to 1 minute.
+		 * @param window the window
+		 * @return this builder
+		 */
+		public Builder window(Duration window) {
+			Assert.isTrue(window != null && window.isPositive(), "window must be positive");
+			this.window = window;
+			return this;
+		}
+
+		/**
+		 * Set the interval at which the timeout is recomputed from the observed
+		 * durations. Defaults to 1 second.
+		 * @param refreshInterval the refresh interval
+		 * @return this builder
+		 */
+		public Builder refreshInterval(Duration refreshInterval) {
+			Assert.isTrue(refreshInterval != null && !refreshInterval.isNegative(),
+					"refreshInterval must not be negative");
+			this.refreshInterval = refreshInterval;
+			return this;
+		}
+
+		public Resilience4JAdaptiveTimeoutConfig build() {
+			Assert.isTrue(this.maximumTimeout == null || this.maximumTimeout.compareTo(this.minimumTimeout) >= 0,
+					"maximumTimeout must not be shorter than minimumTimeout");
+			return new Resilience4JAdaptiveTimeoutConfig(this.percentile, this.multiplier, this.minimumTimeout,
+					this.maximumTimeout, this.minimumNumberOfCalls, this.window, this.refreshInterval);
+		}
+
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.cloud.circuitbreaker.resilience4j;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import io.github.resilience4j.bulkhead.Bulkhead;
 import io.github.resilience4j.bulkhead.BulkheadRegistry;
@@ -29,9 +30,12 @@ import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetricsPubli
 import io.github.resilience4j.micrometer.tagged.TaggedThreadPoolBulkheadMetrics;
 import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerMetricsAutoConfiguration;
 import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import io.micrometer.core.instrument.config.MeterFilter;
 import io.micrometer.observation.ObservationRegistry;
 import jakarta.annotation.PostConstruct;
@@ -64,18 +68,56 @@ public class Resilience4JAutoConfiguration {
 	@Autowired(required = false)
 	private List<Customizer<Resilience4JCircuitBreakerFactory>> customizers = new ArrayList<>();
 
+	@Autowired(required = false)
+	private List<Customizer<CircuitBreakerEventBus>> eventBusCustomizers = new ArrayList<>();
+
 	@Bean
 	@ConditionalOnMissingBean(CircuitBreakerFactory.class)
 	public Resilience4JCircuitBreakerFactory resilience4jCircuitBreakerFactory(
 			CircuitBreakerRegistry circuitBreakerRegistry, TimeLimiterRegistry timeLimiterRegistry,
 			@Autowired(required = false) @Nullable Resilience4jBulkheadProvider bulkheadProvider,
-			Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
+			Resilience4JConfigurationProperties resilience4JConfigurationProperties,
+			@Autowired(required = false) @Nullable AdmissionController admissionController,
+			@Autowired(required = false) @Nullable IdleCircuitBreakerEvictor idleCircuitBreakerEvictor) {
 		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(circuitBreakerRegistry,
 				timeLimiterRegistry, bulkheadProvider, resilience4JConfigurationProperties);
+		if (admissionController != null) {
+			factory.setAdmissionController(admissionController);
+		}
+		if (idleCircuitBreakerEvictor != null) {
+			factory.setIdleCircuitBreakerEvictor(idleCircuitBreakerEvictor);
+		}
 		customizers.forEach(customizer -> customizer.customize(factory));
 		return factory;
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty("spring.cloud.circuitbreaker.resilience4j.admission-control.enabled")
+	public AdmissionController resilience4jAdmissionController(
+			Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
+		return new AdmissionController(resilience4JConfigurationProperties.getAdmissionControl());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty("spring.cloud.circuitbreaker.resilience4j.eviction.enabled")
+	public IdleCircuitBreakerEvictor resilience4jIdleCircuitBreakerEvictor(
+			Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
+		return new IdleCircuitBreakerEvictor(resilience4JConfigurationProperties.getEviction());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty("spring.cloud.circuitbreaker.resilience4j.event-bus.enabled")
+	public CircuitBreakerEventBus resilience4jCircuitBreakerEventBus(CircuitBreakerRegistry circuitBreakerRegistry,
+			Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
+		CircuitBreakerEventBus eventBus = new CircuitBreakerEventBus(resilience4JConfigurationProperties.getEventBus());
+		eventBusCustomizers.forEach(customizer -> customizer.customize(eventBus));
+		eventBus.bindTo(circuitBreakerRegistry);
+		return eventBus;
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnClass(Bulkhead.class)
 	@ConditionalOnProperty(value = "spring.cloud.circuitbreaker.bulkhead.resilience4j.enabled", matchIfMissing = true)
@@ -159,6 +201,70 @@ public class Resilience4JAutoConfiguration {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnBean({ MeterRegistry.class })
+	public static class MicrometerResilience4JExecutorConfiguration {
+
+		@Autowired(required = false)
+		private @Nullable Resilience4JCircuitBreakerFactory factory;
+
+		@Autowired
+		private MeterRegistry meterRegistry;
+
+		@PostConstruct
+		public void init() {
+			if (factory != null) {
+				factory.setGroupExecutorServiceBinder(this::bindTo);
+				factory.setExecutionTimingListener(new MicrometerExecutionTimingListener(meterRegistry));
+			}
+		}
+
+		private void bindTo(String group, ExecutorService executorService) {
+			Tags tags = Tags.of(Resilience4JCircuitBreaker.CIRCUIT_BREAKER_GROUP_TAG, group);
+			new ExecutorServiceMetrics(executorService, MicrometerEvictionListener.GROUP_EXECUTOR_SERVICE_NAME,
+					tags).bindTo(meterRegistry);
+			if (GroupExecutorServiceFactory.getRejectedCount(executorService) >= 0) {
+				FunctionCounter
+					.builder("executor.rejected", executorService, GroupExecutorServiceFactory::getRejectedCount)
+					.description("The number of tasks rejected because all threads were busy and the queue was full")
+					.baseUnit("tasks")
+					.tags(tags)
+					.tag("name", MicrometerEvictionListener.GROUP_EXECUTOR_SERVICE_NAME)
+					.register(meterRegistry);
+			}
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnBean({ MeterRegistry.class })
+	public static class MicrometerResilience4JPriorityBulkheadConfiguration {
+
+		@Autowired(required = false)
+		private @Nullable Resilience4jBulkheadProvider bulkheadProvider;
+
+		@Autowired(required = false)
+		private @Nullable IdleCircuitBreakerEvictor idleCircuitBreakerEvictor;
+
+		@Autowired
+		private MeterRegistry meterRegistry;
+
+		@PostConstruct
+		public void init() {
+			if (bulkheadProvider != null) {
+				bulkheadProvider.setPriorityBulkheadBinder(new MicrometerPriorityBulkheadBinder(meterRegistry));
+				if (bulkheadProvider.getWaitListener() == null) {
+					MicrometerBulkheadWaitListener waitListener = new MicrometerBulkheadWaitListener(meterRegistry);
+					bulkheadProvider.setWaitListener(waitListener);
+					if (idleCircuitBreakerEvictor != null) {
+						idleCircuitBreakerEvictor.addEvictionListener(waitListener);
+					}
+				}
+			}
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnBean(ObservationRegistry.class)
 	@ConditionalOnProperty(value = "spring.cloud.circuitbreaker.resilience4j.micrometer.enabled", matchIfMissing = true)
@@ -179,4 +285,51 @@ public class Resilience4JAutoConfiguration {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnBean({ MeterRegistry.class })
+	public static class MicrometerResilience4JEventBusConfiguration {
+
+		@Autowired(required = false)
+		private @Nullable CircuitBreakerEventBus eventBus;
+
+		@Autowired
+		private MeterRegistry meterRegistry;
+
+		@PostConstruct
+		public void init() {
+			if (eventBus != null) {
+				FunctionCounter.builder("resilience4j.circuitbreaker.events.dropped", eventBus,
+						CircuitBreakerEventBus::getDroppedCount)
+					.description("The number of circuit breaker events dropped because the event bus was full")
+					.baseUnit("events")
+					.register(meterRegistry);
+			}
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnBean({ MeterRegistry.class })
+	public static class MicrometerResilience4JEvictionConfiguration {
+
+		@Autowired(required = false)
+		private @Nullable IdleCircuitBreakerEvictor idleCircuitBreakerEvictor;
+
+		@Autowired
+		private MeterRegistry meterRegistry;
+
+		@PostConstruct
+		public void init() {
+			if (idleCircuitBreakerEvictor != null) {
+				idleCircuitBreakerEvictor.addEvictionListener(new MicrometerEvictionListener(meterRegistry));
+				FunctionCounter.builder("resilience4j.circuitbreaker.evicted", idleCircuitBreakerEvictor,
+						IdleCircuitBreakerEvictor::getEvictedCount)
+					.description("The number of circuit breakers evicted because they were no longer used")
+					.baseUnit("circuitbreakers")
+					.register(meterRegistry);
+			}
+		}
+
+	}
+
 }
@@ -16,22 +16,33 @@
 
 package org.springframework.cloud.circuitbreaker.resilience4j;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.timelimiter.TimeLimiter;
 import io.github.resilience4j.timelimiter.TimeLimiterConfig;
 import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.jspecify.annotations.Nullable;
 
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.cloud.client.circuitbreaker.observation.ObservedCircuitBreaker;
+import org.springframework.util.Assert;
 
 /**
  * @author Ryan Baxter
@@ -45,25 +56,19 @@ public class Resilience4JCircuitBreaker implements CircuitBreaker {
 
 	private final String id;
 
-	private final String groupName;
+	private final Settings settings;
 
-	private final Map<String, String> tags;
+	private final CircuitBreakerResources resources;
 
-	private @Nullable Resilience4jBulkheadProvider bulkheadProvider;
+	private final @Nullable FallbackCache fallbackCache;
 
-	private final io.github.resilience4j.circuitbreaker.CircuitBreakerConfig circuitBreakerConfig;
+	private final @Nullable RequestHedger requestHedger;
 
-	private final CircuitBreakerRegistry registry;
+	private final @Nullable SlowStartRamp slowStartRamp;
 
-	private final TimeLimiterRegistry timeLimiterRegistry;
+	private final @Nullable AdaptiveTimeout adaptiveTimeout;
 
-	private final TimeLimiterConfig timeLimiterConfig;
-
-	private final @Nullable ExecutorService executorService;
-
-	private final Optional<Customizer<io.github.resilience4j.circuitbreaker.CircuitBreaker>> circuitBreakerCustomizer;
-
-	private final boolean disableTimeLimiter;
+	private volatile @Nullable BulkheadHandle bulkheadHandle;
 
 	public Resilience4JCircuitBreaker(String id, String groupName,
 			io.github.resilience4j.circuitbreaker.CircuitBreakerConfig circuitBreakerConfig,
@@ -71,17 +76,25 @@ public class Resilience4JCircuitBreaker implements CircuitBreaker {
 			TimeLimiterRegistry timeLimiterRegistry, @Nullable ExecutorService executorService,
 			Optional<Customizer<io.github.resilience4j.circuitbreaker.CircuitBreaker>> circuitBreakerCustomizer,
 			@Nullable Resilience4jBulkheadProvider bulkheadProvider, boolean disableTimeLimiter) {
+		this(id,
+				new Settings(groupName, circuitBreakerConfig, timeLimiterConfig, circuitBreakerRegistry,
+						timeLimiterRegistry, executorService, circuitBreakerCustomizer.orElse(null), bulkheadProvider,
+						disableTimeLimiter, null, null, DeadlineContextHolder::getDeadline, null, null),
+				null, null, null, null, new CircuitBreakerResources());
+	}
+
+	Resilience4JCircuitBreaker(String id, Settings settings,
+			@Nullable Resilience4JFallbackCacheConfig fallbackCacheConfig,
+			@Nullable Resilience4JHedgingConfig hedgingConfig, @Nullable Resilience4JSlowStartConfig slowStartConfig,
+			@Nullable Resilience4JAdaptiveTimeoutConfig adaptiveTimeoutConfig, CircuitBreakerResources resources) {
 		this.id = id;
-		this.groupName = groupName;
-		this.circuitBreakerConfig = circuitBreakerConfig;
-		this.registry = circuitBreakerRegistry;
-		this.timeLimiterRegistry = timeLimiterRegistry;
-		this.timeLimiterConfig = timeLimiterConfig;
-		this.executorService = executorService;
-		this.circuitBreakerCustomizer = circuitBreakerCustomizer;
-		this.bulkheadProvider = bulkheadProvider;
-		this.disableTimeLimiter = disableTimeLimiter;
-		this.tags = Map.of(CIRCUIT_BREAKER_GROUP_TAG, this.groupName);
+		this.settings = settings;
+		this.resources = resources;
+		this.fallbackCache = (fallbackCacheConfig != null) ? resources.getFallbackCache(fallbackCacheConfig) : null;
+		this.requestHedger = (hedgingConfig != null) ? resources.getRequestHedger(hedgingConfig) : null;
+		this.slowStartRamp = (slowStartConfig != null) ? resources.getSlowStartRamp(slowStartConfig) : null;
+		this.adaptiveTimeout = (adaptiveTimeoutConfig != null) ? resources.getAdaptiveTimeout(adaptiveTimeoutConfig)
+				: null;
 	}
 
 	public Resilience4JCircuitBreaker(String id, String groupName,
@@ -96,75 +109,512 @@ public class Resilience4JCircuitBreaker implements CircuitBreaker {
 
 	@Override
 	public <T> T run(Supplier<T> toRun, Function<@Nullable Throwable, T> fallback) {
-		final Map<String, String> tags = Map.of(CIRCUIT_BREAKER_GROUP_TAG, this.groupName);
-		Optional<TimeLimiter> timeLimiter = loadTimeLimiter();
-		io.github.resilience4j.circuitbreaker.CircuitBreaker defaultCircuitBreaker = registry.circuitBreaker(this.id,
-				this.circuitBreakerConfig, tags);
-		circuitBreakerCustomizer.ifPresent(customizer -> customizer.customize(defaultCircuitBreaker));
-		if (bulkheadProvider != null) {
+		return run(toRun, fallback, Resilience4JRunOptions.ofDefaults());
+	}
+
+	/**
+	 * Run the supplier applying the given options to this call only. The options are
+	 * applied on top of the decorators of this circuit breaker, so calls with different
+	 * options share the same circuit breaker, bulkhead and time limiter.
+	 * @param toRun the supplier to run
+	 * @param fallback the fallback to apply if the execution fails
+	 * @param options the options of the call
+	 * @param <T> the result type
+	 * @return the result of the execution, the cached result or the result of the
+	 * fallback
+	 * @see Resilience4JRunOptions
+	 */
+	public <T> T run(Supplier<T> toRun, Function<@Nullable Throwable, T> fallback, Resilience4JRunOptions options) {
+		Assert.notNull(options, "Run options must not be null");
+		ObservationRegistry observationRegistry = this.settings.observationRegistry;
+		if (observationRegistry == null) {
+			return runWithOptions(toRun, fallback, options);
+		}
+		// Observe the call like an ObservedCircuitBreaker would, while keeping the options
+		CircuitBreaker withOptions = new CircuitBreaker() {
+			@Override
+			public <R> R run(Supplier<R> toRun, Function<@Nullable Throwable, R> fallback) {
+				return runWithOptions(toRun, fallback, options);
+			}
+		};
+		return new ObservedCircuitBreaker(withOptions, observationRegistry).run(toRun, fallback);
+	}
+
+	private <T> T runWithOptions(Supplier<T> toRun, Function<@Nullable Throwable, T> fallback,
+			Resilience4JRunOptions options) {
+		FallbackCache cache = this.fallbackCache;
+		if (cache == null) {
+			// Fail fast while the circuit breaker is open, without decorating the call. The
+			// rejection is only passed to the fallback, so it can be shared
+			CallNotPermittedException rejection = this.resources.shortCircuit();
+			if (rejection != null) {
+				return applyFallback(fallback, rejection);
+			}
+		}
+		AdmissionController admissionController = this.settings.admissionController;
+		if (admissionController != null && !admissionController.admit(options.getPriority())) {
+			return applyFallback(fallback,
+					new AdmissionRejectedException(this.id, this.resources.isWritableStackTraceEnabled()));
+		}
+		Callable<T> decorated = decorate(toRun, options);
+		Object coalescingKey = options.getCoalescingKey();
+		Callable<T> call = (coalescingKey != null)
+				? () -> this.resources.getSingleFlight().call(coalescingKey, decorated) : decorated;
+		if (cache == null) {
+			return getAndApplyFallback(call, fallback);
+		}
+		Object cacheKey = (options.getFallbackCacheKey() != null) ? options.getFallbackCacheKey() : this.id;
+		return getAndApplyFallback(() -> {
+			T result = call.call();
+			cache.put(cacheKey, result);
+			return result;
+		}, t -> getCachedOrApplyFallback(cache, cacheKey, call, t, fallback));
+	}
 
+	/**
+	 * Run the supplier, storing its result in the fallback cache under the given key.
+	 * When the supplier fails or the call is not permitted, the last known good result
+	 * for the key is returned instead of applying the fallback, as described in
+	 * {@link Resilience4JFallbackCacheConfig}. Behaves like
+	 * {@link #run(Supplier, Function)} if no fallback cache is configured for this
+	 * circuit breaker.
+	 * @param cacheKey the key of the result in the fallback cache
+	 * @param toRun the supplier to run
+	 * @param fallback the fallback to apply if the execution fails and no result is
+	 * cached
+	 * @param <T> the result type
+	 * @return the result of the execution, the cached result or the result of the
+	 * fallback
+	 */
+	public <T> T runCached(Object cacheKey, Supplier<T> toRun, Function<@Nullable Throwable, T> fallback) {
+		Assert.notNull(cacheKey, "Cache key must not be null");
+		return run(toRun, fallback, Resilience4JRunOptions.custom().fallbackCacheKey(cacheKey).build());
+	}
+
+	/**
+	 * Run the supplier, coalescing it with any execution already in flight for the same
+	 * key. Concurrent callers using the same key share a single execution (and therefore
+	 * a single circuit breaker, bulkhead and executor permit) and its result. Each caller
+	 * applies its own fallback if the shared execution fails.
+	 * @param key the key identifying identical requests
+	 * @param toRun the supplier to run
+	 * @param fallback the fallback to apply if the execution fails
+	 * @param <T> the result type
+	 * @return the result of the shared execution or of the fallback
+	 */
+	public <T> T runCoalesced(Object key, Supplier<T> toRun, Function<@Nullable Throwable, T> fallback) {
+		Assert.notNull(key, "Coalescing key must not be null");
+		return run(toRun, fallback, Resilience4JRunOptions.custom().coalescingKey(key).build());
+	}
+
+	private <T> Callable<T> decorate(Supplier<T> toRun, Resilience4JRunOptions options) {
+		return () -> {
+			Instant deadline = this.settings.deadlineProvider.get();
+			if (deadline != null && !deadline.isAfter(Instant.now())) {
+				throw new DeadlineExceededException(this.id, deadline);
+			}
+			Duration maxQueueWait = this.settings.maxQueueWait;
+			QueueWait queueWait = (maxQueueWait != null
+					&& (this.settings.executorService != null || this.settings.bulkheadProvider != null))
+					? new QueueWait(this.id, maxQueueWait) : null;
+			return decorate(toRun, queueWait, deadline, options).call();
+		};
+	}
+
+	private <T> Callable<T> decorate(Supplier<T> toRun, @Nullable QueueWait queueWait, @Nullable Instant deadline,
+			Resilience4JRunOptions options) {
+		Settings settings = this.settings;
+		ExecutorService executorService = settings.executorService;
+		Resilience4jBulkheadProvider bulkheadProvider = settings.bulkheadProvider;
+		Optional<TimeLimiter> timeLimiter = loadTimeLimiter();
+		io.github.resilience4j.circuitbreaker.CircuitBreaker defaultCircuitBreaker = settings.registry
+			.circuitBreaker(this.id, settings.circuitBreakerConfig, settings.tags);
+		if (settings.customizer != null) {
+			settings.customizer.customize(defaultCircuitBreaker);
+		}
+		this.resources.setCircuitBreaker(defaultCircuitBreaker);
+		SlowStartRamp ramp = this.slowStartRamp;
+		if (ramp != null) {
+			ramp.attach(defaultCircuitBreaker);
+			if (!ramp.tryAcquirePermission()) {
+				throw new SlowStartRejectedException(this.id, this.resources.isWritableStackTraceEnabled());
+			}
+		}
+		Supplier<T> task = (queueWait != null) ? queueWait.decorate(toRun) : toRun;
+		Duration timeout = options.getTimeout();
+		BulkheadHandle handle = (bulkheadProvider != null) ? getBulkheadHandle(bulkheadProvider) : null;
+		VirtualThreadBulkhead virtualThreadBulkhead = (handle != null) ? handle.getVirtualThreadBulkhead() : null;
+		AdaptiveTimeout adaptiveTimeout = (this.adaptiveTimeout != null
+				&& (executorService != null || virtualThreadBulkhead != null) && timeLimiter.isPresent())
+						? this.adaptiveTimeout : null;
+		if (adaptiveTimeout != null) {
+			task = adaptiveTimeout.recording(task);
+			if (timeout == null) {
+				timeout = adaptiveTimeout.getTimeout(timeLimiter.get().getTimeLimiterConfig().getTimeoutDuration());
+			}
+		}
+		if (bulkheadProvider != null && handle != null) {
+			if (virtualThreadBulkhead != null) {
+				/* run on a virtual thread instead of the executor, time-limited by interrupt */
+				Supplier<T> virtualThreadTask = task;
+				Supplier<Future<T>> futureSupplier = () -> virtualThreadBulkhead.submit(virtualThreadTask::get);
+				Callable<T> timeLimitedCall = timeLimit(timeLimiter, futureSupplier, deadline, timeout,
+						adaptiveTimeout);
+				Callable<T> bulkheadCall = bulkheadProvider.decorateVirtualThreadCall(handle, this.id,
+						timeLimitedCall, options.getPriority());
+				return decorateCircuitBreaker(defaultCircuitBreaker, bulkheadCall, queueWait);
+			}
 			if (executorService != null) {
-				Supplier<Future<T>> futureSupplier = () -> executorService.submit(toRun::get);
+				Supplier<Future<T>> futureSupplier = submit(executorService, task, queueWait);
 				/* conditionally wrap in time-limiter */
-				Callable<T> timeLimitedCall = timeLimiter
-					.map(tl -> TimeLimiter.decorateFutureSupplier(tl, futureSupplier))
-					.orElse(() -> futureSupplier.get().get());
-				Callable<T> bulkheadCall = bulkheadProvider.decorateCallable(this.groupName, tags, timeLimitedCall);
-				Callable<T> circuitBreakerCall = io.github.resilience4j.circuitbreaker.CircuitBreaker
-					.decorateCallable(defaultCircuitBreaker, bulkheadCall);
-				return getAndApplyFallback(circuitBreakerCall, fallback);
+				Callable<T> timeLimitedCall = timeLimit(timeLimiter, futureSupplier, deadline, timeout,
+						adaptiveTimeout);
+				Callable<T> bulkheadCall = bulkheadProvider.decorateCallable(handle, this.id, timeLimitedCall,
+						options.getPriority());
+				return decorateCircuitBreaker(defaultCircuitBreaker, bulkheadCall, queueWait);
 			}
 			else {
-				Callable<T> bulkheadCall = bulkheadProvider.decorateCallable(this.groupName, tags, toRun::get);
-				Callable<T> circuitBreakerCall = io.github.resilience4j.circuitbreaker.CircuitBreaker
-					.decorateCallable(defaultCircuitBreaker, bulkheadCall);
-				return getAndApplyFallback(circuitBreakerCall, fallback);
+				Callable<T> bulkheadCall = bulkheadProvider.decorateCallable(handle, this.id, task::get,
+						options.getPriority());
+				return decorateCircuitBreaker(defaultCircuitBreaker, bulkheadCall, queueWait);
 			}
 		}
 		else {
 			if (executorService != null) {
-				Supplier<Future<T>> futureSupplier = () -> executorService.submit(toRun::get);
+				Supplier<Future<T>> futureSupplier = submit(executorService, task, queueWait);
 				/* conditionally wrap in time-limiter */
-				Callable<T> restrictedCall = timeLimiter
-					.map(tl -> TimeLimiter.decorateFutureSupplier(tl, futureSupplier))
-					.orElse(() -> futureSupplier.get().get());
-				Callable<T> callable = io.github.resilience4j.circuitbreaker.CircuitBreaker
-					.decorateCallable(defaultCircuitBreaker, restrictedCall);
-				return getAndApplyFallback(callable, fallback);
+				Callable<T> restrictedCall = timeLimit(timeLimiter, futureSupplier, deadline, timeout, adaptiveTimeout);
+				return decorateCircuitBreaker(defaultCircuitBreaker, restrictedCall, queueWait);
 			}
 			else {
-				Supplier<T> decorator = io.github.resilience4j.circuitbreaker.CircuitBreaker
-					.decorateSupplier(defaultCircuitBreaker, toRun);
-				return getAndApplyFallback(decorator, fallback);
+				return decorateCircuitBreaker(defaultCircuitBreaker, task::get, queueWait);
 			}
 		}
 	}
 
-	private static <T> T getAndApplyFallback(Supplier<T> supplier, Function<@Nullable Throwable, T> fallback) {
-		try {
-			return supplier.get();
+	/**
+	 * Limit the time to wait for the future to the timeout of the call, either from its
+	 * options or adaptive, or the time limiter timeout if the call has none, or, if it is
+	 * shorter, the time remaining until the deadline. A call that times out is recorded
+	 * with its timeout in the adaptive timeout, if any.
+	 */
+	private <T> Callable<T> timeLimit(Optional<TimeLimiter> timeLimiter, Supplier<Future<T>> futureSupplier,
+			@Nullable Instant deadline, @Nullable Duration timeout, @Nullable AdaptiveTimeout adaptiveTimeout) {
+		if (deadline == null && timeout == null) {
+			return timeLimiter.map(tl -> TimeLimiter.decorateFutureSupplier(tl, futureSupplier))
+				.orElse(() -> futureSupplier.get().get());
 		}
-		catch (Throwable t) {
-			return fallback.apply(t);
+		return () -> {
+			Future<T> future = futureSupplier.get();
+			Duration limit = (timeout != null) ? timeout
+					: timeLimiter.map(tl -> tl.getTimeLimiterConfig().getTimeoutDuration()).orElse(null);
+			boolean deadlineBound = false;
+			if (deadline != null) {
+				Duration remaining = Duration.between(Instant.now(), deadline);
+				if (limit == null || remaining.compareTo(limit) < 0) {
+					limit = remaining;
+					deadlineBound = true;
+				}
+			}
+			if (limit == null || (timeout == null && !deadlineBound)) {
+				return timeLimiter.isPresent() ? timeLimiter.get().executeFutureSupplier(() -> future) : future.get();
+			}
+			try {
+				T result = future.get(Math.max(0, limit.toNanos()), TimeUnit.NANOSECONDS);
+				timeLimiter.ifPresent(TimeLimiter::onSuccess);
+				return result;
+			}
+			catch (TimeoutException ex) {
+				future.cancel(
+						timeLimiter.map(tl -> tl.getTimeLimiterConfig().shouldCancelRunningFuture()).orElse(true));
+				if (adaptiveTimeout != null && !deadlineBound) {
+					adaptiveTimeout.record(limit.toNanos());
+				}
+				TimeoutException timeoutException = deadlineBound ? new DeadlineExceededException(this.id, deadline)
+						: new TimeLimitExceededException(this.id, limit, this.resources.isWritableStackTraceEnabled());
+				// publish the timeout to the time limiter, which is bypassed for this call
+				timeLimiter.ifPresent(tl -> tl.onError(timeoutException));
+				throw timeoutException;
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				timeLimiter.ifPresent(tl -> tl.onError((cause != null) ? cause : ex));
+				if (cause instanceof Exception exception) {
+					throw exception;
+				}
+				if (cause instanceof Error error) {
+					throw error;
+				}
+				throw ex;
+			}
+		};
+	}
+
+	/**
+	 * Decorate the callable with the circuit breaker. A call the executor service rejected
+	 * releases its permission instead of being recorded. When the queue wait of calls is
+	 * tracked, the circuit breaker only records the time a call executed, and releases
+	 * the permission of any call rejected before it executed.
+	 */
+	private <T> Callable<T> decorateCircuitBreaker(io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker,
+			Callable<T> callable, @Nullable QueueWait queueWait) {
+		if (queueWait == null) {
+			return () -> {
+				circuitBreaker.acquirePermission();
+				long start = circuitBreaker.getCurrentTimestamp();
+				try {
+					T result = callable.call();
+					circuitBreaker.onResult(circuitBreaker.getCurrentTimestamp() - start,
+							circuitBreaker.getTimestampUnit(), result);
+					return result;
+				}
+				catch (ExecutorRejectedException ex) {
+					circuitBreaker.releasePermission();
+					throw ex;
+				}
+				catch (Exception ex) {
+					circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start,
+							circuitBreaker.getTimestampUnit(), ex);
+					throw ex;
+				}
+			};
+		}
+		return () -> {
+			circuitBreaker.acquirePermission();
+			try {
+				T result = callable.call();
+				circuitBreaker.onResult(queueWait.getExecutionNanos(), TimeUnit.NANOSECONDS, result);
+				return result;
+			}
+			catch (Exception ex) {
+				if (queueWait.isStarted()) {
+					circuitBreaker.onError(queueWait.getExecutionNanos(), TimeUnit.NANOSECONDS, ex);
+				}
+				else {
+					circuitBreaker.releasePermission();
+				}
+				throw ex;
+			}
+			finally {
+				recordTiming(queueWait);
+			}
+		};
+	}
+
+	private void recordTiming(QueueWait queueWait) {
+		Resilience4JExecutionTimingListener listener = this.settings.executionTimingListener;
+		if (listener == null) {
+			return;
+		}
+		if (queueWait.isStarted()) {
+			listener.onQueueWait(this.id, this.settings.groupName, queueWait.getQueueWaitNanos(), false);
+			listener.onExecution(this.id, this.settings.groupName, queueWait.getExecutionNanos());
+		}
+		else if (queueWait.isExpired()) {
+			listener.onQueueWait(this.id, this.settings.groupName, queueWait.getQueueWaitNanos(), true);
 		}
 	}
 
-	private static <T> T getAndApplyFallback(Callable<T> callable, Function<@Nullable Throwable, T> fallback) {
+	private <T> T getAndApplyFallback(Callable<T> callable, Function<@Nullable Throwable, T> fallback) {
 		try {
 			return callable.call();
 		}
 		catch (Throwable t) {
-			return fallback.apply(t);
+			return applyFallback(fallback, t);
 		}
 	}
 
+	private <T> T applyFallback(Function<@Nullable Throwable, T> fallback, Throwable failure) {
+		FlightRecorderEvents.failed(this.id, failure);
+		FlightRecorderEvents.fallback(this.id, failure);
+		return fallback.apply(failure);
+	}
+
+	private <T> Supplier<Future<T>> submit(ExecutorService executorService, Supplier<T> toRun,
+			@Nullable QueueWait queueWait) {
+		Supplier<Future<T>> futureSupplier = submit(executorService, toRun);
+		if (queueWait == null) {
+			return futureSupplier;
+		}
+		return () -> {
+			Future<T> future = futureSupplier.get();
+			try {
+				if (!queueWait.awaitStart()) {
+					future.cancel(false);
+					throw queueWait.timeout();
+				}
+			}
+			catch (InterruptedException ex) {
+				future.cancel(true);
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for a thread", ex);
+			}
+			return future;
+		};
+	}
+
+	private <T> Supplier<Future<T>> submit(ExecutorService executorService, Supplier<T> toRun) {
+		RequestHedger hedger = this.requestHedger;
+		return () -> {
+			try {
+				return (hedger != null) ? hedger.submit(executorService, toRun::get)
+						: executorService.submit(toRun::get);
+			}
+			catch (RejectedExecutionException ex) {
+				throw new ExecutorRejectedException(this.id, ex);
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T getCachedOrApplyFallback(FallbackCache cache, Object cacheKey, Callable<T> call,
+			@Nullable Throwable failure, Function<@Nullable Throwable, T> fallback) {
+		FallbackCache.Entry entry = cache.get(cacheKey);
+		if (entry == null) {
+			return fallback.apply(failure);
+		}
+		if (cache.isStale(entry) && entry.startRevalidation()) {
+			revalidate(cache, cacheKey, entry, call);
+		}
+		return (T) entry.getValue();
+	}
+
+	private static void revalidate(FallbackCache cache, Object cacheKey, FallbackCache.Entry entry, Callable<?> call) {
+		try {
+			cache.getConfig().getRevalidationExecutor().execute(() -> {
+				try {
+					cache.put(cacheKey, call.call());
+				}
+				catch (Throwable t) {
+					entry.revalidationFailed();
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			entry.revalidationFailed();
+		}
+	}
+
+	private BulkheadHandle getBulkheadHandle(Resilience4jBulkheadProvider bulkheadProvider) {
+		BulkheadHandle handle = this.bulkheadHandle;
+		if (handle == null || !handle.isValid()) {
+			handle = bulkheadProvider.getBulkheadHandle(this.settings.groupName, this.settings.tags);
+			this.bulkheadHandle = handle;
+		}
+		return handle;
+	}
+
 	private Optional<TimeLimiter> loadTimeLimiter() {
-		if (disableTimeLimiter) {
+		Settings settings = this.settings;
+		if (settings.disableTimeLimiter) {
 			return Optional.empty();
 		}
-		return Optional.of(this.timeLimiterRegistry.find(this.id)
-			.orElseGet(() -> this.timeLimiterRegistry.find(this.groupName)
-				.orElseGet(() -> this.timeLimiterRegistry.timeLimiter(this.id, this.timeLimiterConfig, this.tags))));
+		return Optional.of(settings.timeLimiterRegistry.find(this.id)
+			.orElseGet(() -> settings.timeLimiterRegistry.find(settings.groupName)
+				.orElseGet(() -> settings.timeLimiterRegistry.timeLimiter(this.id, settings.timeLimiterConfig,
+						settings.tags))));
+	}
+
+	Settings getSettings() {
+		return this.settings;
+	}
+
+	/**
+	 * The state of a circuit breaker that does not depend on its id. Circuit breakers
+	 * created by a factory for the same group and configuration share the same settings,
+	 * so holding many of them only costs their id and per-id resources.
+	 */
+	static final class Settings {
+
+		private final String groupName;
+
+		private final Map<String, String> tags;
+
+		private final io.github.resilience4j.circuitbreaker.CircuitBreakerConfig circuitBreakerConfig;
+
+		private final TimeLimiterConfig timeLimiterConfig;
+
+		private final CircuitBreakerRegistry registry;
+
+		private final TimeLimiterRegistry timeLimiterRegistry;
+
+		private final @Nullable ExecutorService executorService;
+
+		private final @Nullable Customizer<io.github.resilience4j.circuitbreaker.CircuitBreaker> customizer;
+
+		private final @Nullable Resilience4jBulkheadProvider bulkheadProvider;
+
+		private final boolean disableTimeLimiter;
+
+		private final @Nullable Duration maxQueueWait;
+
+		private final @Nullable Resilience4JExecutionTimingListener executionTimingListener;
+
+		private final Supplier<@Nullable Instant> deadlineProvider;
+
+		private final @Nullable AdmissionController admissionController;
+
+		private final @Nullable ObservationRegistry observationRegistry;
+
+		Settings(String groupName, io.github.resilience4j.circuitbreaker.CircuitBreakerConfig circuitBreakerConfig,
+				TimeLimiterConfig timeLimiterConfig, CircuitBreakerRegistry registry,
+				TimeLimiterRegistry timeLimiterRegistry, @Nullable ExecutorService executorService,
+				@Nullable Customizer<io.github.resilience4j.circuitbreaker.CircuitBreaker> customizer,
+				@Nullable Resilience4jBulkheadProvider bulkheadProvider, boolean disableTimeLimiter,
+				@Nullable Duration maxQueueWait, @Nullable Resilience4JExecutionTimingListener executionTimingListener,
+				Supplier<@Nullable Instant> deadlineProvider, @Nullable AdmissionController admissionController,
+				@Nullable ObservationRegistry observationRegistry) {
+			this.groupName = groupName;
+			this.tags = Map.of(CIRCUIT_BREAKER_GROUP_TAG, groupName);
+			this.circuitBreakerConfig = circuitBreakerConfig;
+			this.timeLimiterConfig = timeLimiterConfig;
+			this.registry = registry;
+			this.timeLimiterRegistry = timeLimiterRegistry;
+			this.executorService = executorService;
+			this.customizer = customizer;
+			this.bulkheadProvider = bulkheadProvider;
+			this.disableTimeLimiter = disableTimeLimiter;
+			this.maxQueueWait = maxQueueWait;
+			this.executionTimingListener = executionTimingListener;
+			this.deadlineProvider = deadlineProvider;
+			this.admissionController = admissionController;
+			this.observationRegistry = observationRegistry;
+		}
+
+		@Nullable ExecutorService getExecutorService() {
+			return this.executorService;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Settings other)) {
+				return false;
+			}
+			// Configurations, registries and collaborators are compared by identity
+			return this.groupName.equals(other.groupName) && this.circuitBreakerConfig == other.circuitBreakerConfig
+					&& this.timeLimiterConfig == other.timeLimiterConfig && this.registry == other.registry
+					&& this.timeLimiterRegistry == other.timeLimiterRegistry
+					&& Objects.equals(this.executorService, other.executorService)
+					&& this.customizer == other.customizer
+					&& this.bulkheadProvider == other.bulkheadProvider
+					&& this.disableTimeLimiter == other.disableTimeLimiter
+					&& Objects.equals(this.maxQueueWait, other.maxQueueWait)
+					&& this.executionTimingListener == other.executionTimingListener
+					&& this.deadlineProvider == other.deadlineProvider
+					&& this.admissionController == other.admissionController
+					&& this.observationRegistry == other.observationRegistry;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.groupName, System.identityHashCode(this.circuitBreakerConfig),
+					System.identityHashCode(this.timeLimiterConfig), this.executorService, this.disableTimeLimiter,
+					this.maxQueueWait);
+		}
+
 	}
 
 }
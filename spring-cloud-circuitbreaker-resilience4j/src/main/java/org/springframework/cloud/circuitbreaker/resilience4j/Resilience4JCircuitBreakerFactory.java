@@ -16,15 +16,24 @@
 
 package org.springframework.cloud.circuitbreaker.resilience4j;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
@@ -36,18 +45,31 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jspecify.annotations.Nullable;
 
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreaker.Settings;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
 import org.springframework.cloud.client.circuitbreaker.Customizer;
-import org.springframework.cloud.client.circuitbreaker.observation.ObservedCircuitBreaker;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
+ * Creates {@link Resilience4JCircuitBreaker}s. The factory owns the executor services it
+ * runs circuit breakers on and, as a {@link SmartLifecycle}, drains and shuts them down
+ * when the application context is closed.
+ *
  * @author Ryan Baxter
  * @author Andrii Bohutskyi
  * @author 荒
  */
 public class Resilience4JCircuitBreakerFactory extends
-		CircuitBreakerFactory<Resilience4JConfigBuilder.Resilience4JCircuitBreakerConfiguration, Resilience4JConfigBuilder> {
+		CircuitBreakerFactory<Resilience4JConfigBuilder.Resilience4JCircuitBreakerConfiguration, Resilience4JConfigBuilder>
+		implements SmartLifecycle {
+
+	/**
+	 * The phase the factory stops in, after the web server has stopped accepting requests
+	 * and its graceful shutdown completed.
+	 */
+	public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
 
 	private static final Log LOG = LogFactory.getLog(Resilience4JCircuitBreakerFactory.class);
 
@@ -61,18 +83,41 @@ public class Resilience4JCircuitBreakerFactory extends
 
 	private ExecutorService executorService = Executors.newCachedThreadPool();
 
-	private Function<String, ExecutorService> groupExecutorServiceFactory = group -> Executors.newCachedThreadPool();
+	private boolean ownsExecutorService = true;
+
+	private Function<String, ExecutorService> groupExecutorServiceFactory;
+
+	private @Nullable BiConsumer<String, ExecutorService> groupExecutorServiceBinder;
 
 	private ConcurrentHashMap<String, ExecutorService> executorServices = new ConcurrentHashMap<>();
 
+	private volatile boolean running;
+
 	private Map<String, Customizer<CircuitBreaker>> circuitBreakerCustomizers = new HashMap<>();
 
 	private final Set<String> loggedTimeLimiterIds = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
+	/**
+	 * The state of each id a circuit breaker was created for. Like the circuit breaker
+	 * and time limiter registries, it keeps an entry per id until the id is evicted, so
+	 * it only shrinks when an idle circuit breaker evictor is set.
+	 */
+	private final ConcurrentHashMap<String, CircuitBreakerResources> resources = new ConcurrentHashMap<>();
+
+	private final Map<Settings, Settings> settings = new ConcurrentReferenceHashMap<>();
+
 	private Resilience4JConfigurationProperties resilience4JConfigurationProperties;
 
 	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
 
+	private @Nullable Resilience4JExecutionTimingListener executionTimingListener;
+
+	private Supplier<@Nullable Instant> deadlineProvider = DeadlineContextHolder::getDeadline;
+
+	private @Nullable AdmissionController admissionController;
+
+	private @Nullable IdleCircuitBreakerEvictor idleCircuitBreakerEvictor;
+
 	public Resilience4JCircuitBreakerFactory(CircuitBreakerRegistry circuitBreakerRegistry,
 			TimeLimiterRegistry timeLimiterRegistry, Resilience4jBulkheadProvider bulkheadProvider) {
 		this(circuitBreakerRegistry, timeLimiterRegistry, bulkheadProvider, new Resilience4JConfigurationProperties());
@@ -89,6 +134,7 @@ public class Resilience4JCircuitBreakerFactory extends
 			.timeLimiterConfig(this.timeLimiterRegistry.getDefaultConfig())
 			.build();
 		this.resilience4JConfigurationProperties = resilience4JConfigurationProperties;
+		this.groupExecutorServiceFactory = new GroupExecutorServiceFactory(resilience4JConfigurationProperties);
 	}
 
 	@Override
@@ -118,41 +164,67 @@ public class Resilience4JCircuitBreakerFactory extends
 		return this.bulkheadProvider;
 	}
 
+	/**
+	 * Configure the executor service circuit breakers created without a group name run on.
+	 * The caller remains responsible for shutting it down.
+	 * @param executorService the executor service
+	 */
 	public void configureExecutorService(ExecutorService executorService) {
 		this.executorService = executorService;
+		this.ownsExecutorService = false;
 	}
 
 	/**
-	 * configure GroupExecutorService.
+	 * Configure the factory creating the executor service of each group. By default every
+	 * group gets a thread pool sized by
+	 * {@link Resilience4JConfigurationProperties#getGroupExecutor()} or the group's entry in
+	 * {@link Resilience4JConfigurationProperties#getGroupExecutors()}. The executor services
+	 * created are owned by this factory and shut down when it is stopped.
 	 * @param groupFactory GroupExecutorService Factory
 	 */
 	public void configureGroupExecutorService(Function<String, ExecutorService> groupFactory) {
 		this.groupExecutorServiceFactory = groupFactory;
 	}
 
+	/**
+	 * Set a callback invoked with the group name and executor service whenever a group
+	 * executor service is created, for example to bind metrics to it. Group executor
+	 * services created before the callback was set are passed to it right away.
+	 * @param groupExecutorServiceBinder the callback
+	 */
+	public void setGroupExecutorServiceBinder(BiConsumer<String, ExecutorService> groupExecutorServiceBinder) {
+		this.groupExecutorServiceBinder = groupExecutorServiceBinder;
+		this.executorServices.forEach(groupExecutorServiceBinder);
+	}
+
 	@Override
-	public org.springframework.cloud.client.circuitbreaker.CircuitBreaker create(String id) {
+	public Resilience4JCircuitBreaker create(String id) {
 		Assert.hasText(id, "A CircuitBreaker must have an id.");
-		Resilience4JCircuitBreaker resilience4JCircuitBreaker = create(id, id, this.executorService);
-		return tryObservedCircuitBreaker(resilience4JCircuitBreaker);
+		return create(id, id, this.executorService);
 	}
 
 	@Override
-	public org.springframework.cloud.client.circuitbreaker.CircuitBreaker create(String id, String groupName) {
+	public Resilience4JCircuitBreaker create(String id, String groupName) {
 		Assert.hasText(id, "A CircuitBreaker must have an id.");
 		Assert.hasText(groupName, "A CircuitBreaker must have a group name.");
-		final ExecutorService groupExecutorService = executorServices.computeIfAbsent(groupName,
-				groupExecutorServiceFactory);
-		Resilience4JCircuitBreaker resilience4JCircuitBreaker = create(id, groupName, groupExecutorService);
-		return tryObservedCircuitBreaker(resilience4JCircuitBreaker);
+		final ExecutorService groupExecutorService = (this.idleCircuitBreakerEvictor != null)
+				? new EvictableGroupExecutorService(groupName) : getGroupExecutorService(groupName);
+		return create(id, groupName, groupExecutorService);
+	}
+
+	private ExecutorService getGroupExecutorService(String groupName) {
+		ExecutorService groupExecutorService = this.executorServices.get(groupName);
+		return (groupExecutorService != null) ? groupExecutorService
+				: this.executorServices.computeIfAbsent(groupName, this::createGroupExecutorService);
 	}
 
-	private org.springframework.cloud.client.circuitbreaker.CircuitBreaker tryObservedCircuitBreaker(
-			Resilience4JCircuitBreaker resilience4JCircuitBreaker) {
-		if (this.observationRegistry.isNoop()) {
-			return resilience4JCircuitBreaker;
+	private ExecutorService createGroupExecutorService(String groupName) {
+		ExecutorService groupExecutorService = this.groupExecutorServiceFactory.apply(groupName);
+		BiConsumer<String, ExecutorService> binder = this.groupExecutorServiceBinder;
+		if (binder != null) {
+			binder.accept(groupName, groupExecutorService);
 		}
-		return new ObservedCircuitBreaker(resilience4JCircuitBreaker, this.observationRegistry);
+		return groupExecutorService;
 	}
 
 	public void addCircuitBreakerCustomizer(Customizer<CircuitBreaker> customizer, String... ids) {
@@ -176,8 +248,9 @@ public class Resilience4JCircuitBreakerFactory extends
 	 */
 	private Resilience4JCircuitBreaker create(String id, String groupName,
 			ExecutorService circuitBreakerExecutorService) {
+		CircuitBreakerResources circuitBreakerResources = getResources(id, groupName);
 		Resilience4JConfigBuilder.Resilience4JCircuitBreakerConfiguration defaultConfig = getConfigurations()
-			.computeIfAbsent(id, defaultConfiguration);
+			.computeIfAbsent(id, key -> circuitBreakerResources.defaultConfiguration(defaultConfiguration.apply(key)));
 		CircuitBreakerConfig circuitBreakerConfig = this.circuitBreakerRegistry.getConfiguration(id)
 			.orElseGet(() -> this.circuitBreakerRegistry.getConfiguration(groupName)
 				.orElseGet(defaultConfig::getCircuitBreakerConfig));
@@ -197,23 +270,311 @@ public class Resilience4JCircuitBreakerFactory extends
 				}
 				return defaultTimeLimiterConfig;
 			}));
-		if (resilience4JConfigurationProperties.isDisableThreadPool()) {
-			return new Resilience4JCircuitBreaker(id, groupName, circuitBreakerConfig, timeLimiterConfig,
-					circuitBreakerRegistry, timeLimiterRegistry, Optional.ofNullable(circuitBreakerCustomizers.get(id)),
-					bulkheadProvider);
-		}
-		else {
-			boolean isDisableTimeLimiter = ConfigurationPropertiesUtils
-				.isDisableTimeLimiter(this.resilience4JConfigurationProperties, id, groupName);
-			return new Resilience4JCircuitBreaker(id, groupName, circuitBreakerConfig, timeLimiterConfig,
-					circuitBreakerRegistry, timeLimiterRegistry, circuitBreakerExecutorService,
-					Optional.ofNullable(circuitBreakerCustomizers.get(id)), bulkheadProvider, isDisableTimeLimiter);
-		}
+		boolean disableThreadPool = this.resilience4JConfigurationProperties.isDisableThreadPool();
+		boolean isDisableTimeLimiter = !disableThreadPool && ConfigurationPropertiesUtils
+			.isDisableTimeLimiter(this.resilience4JConfigurationProperties, id, groupName);
+		Settings settings = getSettings(new Settings(groupName, circuitBreakerConfig, timeLimiterConfig,
+				this.circuitBreakerRegistry, this.timeLimiterRegistry,
+				disableThreadPool ? null : circuitBreakerExecutorService, this.circuitBreakerCustomizers.get(id),
+				this.bulkheadProvider, isDisableTimeLimiter, defaultConfig.getMaxQueueWait(),
+				this.executionTimingListener, this.deadlineProvider, this.admissionController,
+				this.observationRegistry.isNoop() ? null : this.observationRegistry));
+		return new Resilience4JCircuitBreaker(id, settings, defaultConfig.getFallbackCacheConfig(),
+				defaultConfig.getHedgingConfig(), defaultConfig.getSlowStartConfig(),
+				defaultConfig.getAdaptiveTimeoutConfig(), circuitBreakerResources);
+	}
+
+	/**
+	 * Get the settings equal to the given ones that circuit breakers already share, so
+	 * circuit breakers of the same group and configuration do not each hold their own.
+	 */
+	private Settings getSettings(Settings settings) {
+		Settings shared = this.settings.putIfAbsent(settings, settings);
+		return (shared != null) ? shared : settings;
+	}
 
+	private CircuitBreakerResources getResources(String id, String groupName) {
+		boolean writableStackTraceEnabled = this.resilience4JConfigurationProperties.isWritableStackTraceEnabled();
+		IdleCircuitBreakerEvictor evictor = this.idleCircuitBreakerEvictor;
+		return this.resources.computeIfAbsent(id,
+				key -> new CircuitBreakerResources(writableStackTraceEnabled, groupName, evictor));
 	}
 
+	/**
+	 * Set the registry observing the calls of the circuit breakers created afterwards.
+	 * The circuit breakers are still {@link Resilience4JCircuitBreaker} instances, so
+	 * their run options, coalescing and fallback cache remain available.
+	 * @param observationRegistry the observation registry
+	 */
 	public void setObservationRegistry(ObservationRegistry observationRegistry) {
 		this.observationRegistry = observationRegistry;
 	}
 
+	/**
+	 * Set the listener receiving the queue wait and execution time of calls of circuit
+	 * breakers configured with a maximum queue wait.
+	 * @param executionTimingListener the listener
+	 * @see Resilience4JConfigBuilder#maxQueueWait(java.time.Duration)
+	 */
+	public void setExecutionTimingListener(Resilience4JExecutionTimingListener executionTimingListener) {
+		this.executionTimingListener = executionTimingListener;
+	}
+
+	/**
+	 * Set the source of the deadline of the current call. Circuit breakers do not execute
+	 * calls whose deadline has passed and limit the time they wait for a call to the time
+	 * remaining until the deadline, if it is shorter than the time limiter timeout. By
+	 * default the deadline is read from {@link DeadlineContextHolder}.
+	 * @param deadlineProvider the deadline provider, returning {@code null} if the
+	 * current call has no deadline
+	 */
+	public void setDeadlineProvider(Supplier<@Nullable Instant> deadlineProvider) {
+		Assert.notNull(deadlineProvider, "Deadline provider must not be null");
+		this.deadlineProvider = deadlineProvider;
+	}
+
+	/**
+	 * Set the admission controller shedding calls while the JVM is overloaded. The number
+	 * of tasks waiting in the group executor services of this factory is added to its
+	 * signals.
+	 * @param admissionController the admission controller
+	 */
+	public void setAdmissionController(AdmissionController admissionController) {
+		Assert.notNull(admissionController, "Admission controller must not be null");
+		admissionController.addQueueDepthSource(this::getGroupExecutorQueueDepth);
+		this.admissionController = admissionController;
+	}
+
+	/**
+	 * Set the evictor evicting the circuit breakers of this factory that are no longer
+	 * used, along with their registry entries and, once no circuit breaker of their group
+	 * is left, the bulkhead and executor service of the group, unless its bulkhead was
+	 * configured explicitly. Circuit breakers created with a group then look up the
+	 * executor service of their group on each call, so they keep working once it was
+	 * evicted. Must be set before circuit breakers are created.
+	 * @param idleCircuitBreakerEvictor the evictor
+	 */
+	public void setIdleCircuitBreakerEvictor(IdleCircuitBreakerEvictor idleCircuitBreakerEvictor) {
+		Assert.notNull(idleCircuitBreakerEvictor, "Idle circuit breaker evictor must not be null");
+		idleCircuitBreakerEvictor.addSweep(() -> evictIdle(idleCircuitBreakerEvictor));
+		this.idleCircuitBreakerEvictor = idleCircuitBreakerEvictor;
+	}
+
+	private void evictIdle(IdleCircuitBreakerEvictor evictor) {
+		Map<String, CircuitBreakerResources> evicted = evictor.evictIdle(this.resources);
+		if (evicted.isEmpty()) {
+			return;
+		}
+		Set<String> usedGroupNames = new HashSet<>();
+		for (CircuitBreakerResources circuitBreakerResources : this.resources.values()) {
+			String groupName = circuitBreakerResources.getGroupName();
+			if (groupName != null) {
+				usedGroupNames.add(groupName);
+			}
+		}
+		Set<String> evictedGroupNames = new HashSet<>();
+		evicted.forEach((id, circuitBreakerResources) -> {
+			evictCircuitBreaker(id, circuitBreakerResources, usedGroupNames.contains(id));
+			String groupName = circuitBreakerResources.getGroupName();
+			if (groupName != null && !usedGroupNames.contains(groupName) && !evictedGroupNames.contains(groupName)
+					&& evictGroup(groupName)) {
+				evictedGroupNames.add(groupName);
+			}
+		});
+		evictor.evicted(evicted.keySet(), evictedGroupNames);
+	}
+
+	private void evictCircuitBreaker(String id, CircuitBreakerResources circuitBreakerResources,
+			boolean usedAsGroup) {
+		Resilience4JConfigBuilder.Resilience4JCircuitBreakerConfiguration defaultConfig = circuitBreakerResources
+			.getDefaultConfiguration();
+		if (defaultConfig != null) {
+			getConfigurations().remove(id, defaultConfig);
+		}
+		this.loggedTimeLimiterIds.remove(id);
+		this.circuitBreakerRegistry.remove(id);
+		if (!usedAsGroup) {
+			// Circuit breakers of a group use the time limiter of the id named after it
+			this.timeLimiterRegistry.remove(id);
+		}
+		if (this.bulkheadProvider != null) {
+			this.bulkheadProvider.evictIdBulkhead(id);
+		}
+	}
+
+	/**
+	 * Evict the bulkhead and executor service of a group no longer used by any circuit
+	 * breaker. Groups whose bulkhead was configured explicitly are kept.
+	 */
+	private boolean evictGroup(String groupName) {
+		if (this.bulkheadProvider != null && !this.bulkheadProvider.evictBulkhead(groupName)) {
+			return false;
+		}
+		ExecutorService groupExecutorService = this.executorServices.remove(groupName);
+		if (groupExecutorService != null) {
+			groupExecutorService.shutdown();
+		}
+		return true;
+	}
+
+	private int getGroupExecutorQueueDepth() {
+		int queueDepth = 0;
+		for (ExecutorService groupExecutorService : this.executorServices.values()) {
+			if (groupExecutorService instanceof ThreadPoolExecutor threadPoolExecutor) {
+				queueDepth += threadPoolExecutor.getQueue().size();
+			}
+		}
+		return queueDepth;
+	}
+
+	@Override
+	public void start() {
+		this.running = true;
+	}
+
+	/**
+	 * Shut down the group executor services and, unless one was configured, the default
+	 * executor service. Tasks already submitted may complete within
+	 * {@link Resilience4JConfigurationProperties#getExecutorAwaitTerminationPeriod()},
+	 * executor services still running after that are interrupted. Circuit breakers created
+	 * after the factory stopped run on new executor services.
+	 */
+	@Override
+	public void stop() {
+		this.running = false;
+		List<ExecutorService> stopping = new ArrayList<>();
+		this.executorServices.forEach((group, groupExecutorService) -> {
+			if (this.executorServices.remove(group, groupExecutorService)) {
+				stopping.add(groupExecutorService);
+			}
+		});
+		if (this.ownsExecutorService) {
+			stopping.add(this.executorService);
+			this.executorService = Executors.newCachedThreadPool();
+		}
+		stopping.forEach(ExecutorService::shutdown);
+		long deadline = System.nanoTime()
+				+ this.resilience4JConfigurationProperties.getExecutorAwaitTerminationPeriod().toNanos();
+		for (ExecutorService stoppingExecutorService : stopping) {
+			awaitTermination(stoppingExecutorService, deadline);
+		}
+	}
+
+	private static void awaitTermination(ExecutorService executorService, long deadline) {
+		try {
+			if (!executorService.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				LOG.warn("Executor service " + executorService + " did not terminate in time, interrupting its tasks");
+				executorService.shutdownNow();
+			}
+		}
+		catch (InterruptedException ex) {
+			executorService.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	@Override
+	public int getPhase() {
+		return PHASE;
+	}
+
+	/**
+	 * The executor service of a group handed to circuit breakers while idle circuit
+	 * breakers are evicted. It looks up the executor service of the group on each call,
+	 * creating it again if it was evicted. Shutting it down shuts down the executor service
+	 * of the group, or the last one it ran a command on if the group was evicted since.
+	 */
+	private final class EvictableGroupExecutorService extends AbstractExecutorService {
+
+		private final String groupName;
+
+		private volatile @Nullable ExecutorService lastGroupExecutorService;
+
+		EvictableGroupExecutorService(String groupName) {
+			this.groupName = groupName;
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			ExecutorService groupExecutorService = getGroupExecutorService(this.groupName);
+			this.lastGroupExecutorService = groupExecutorService;
+			try {
+				groupExecutorService.execute(command);
+			}
+			catch (RejectedExecutionException ex) {
+				if (!groupExecutorService.isShutdown()) {
+					throw ex;
+				}
+				// The group was evicted while the command was submitted
+				groupExecutorService = getGroupExecutorService(this.groupName);
+				this.lastGroupExecutorService = groupExecutorService;
+				groupExecutorService.execute(command);
+			}
+		}
+
+		private @Nullable ExecutorService getDelegate() {
+			ExecutorService groupExecutorService = executorServices.get(this.groupName);
+			return (groupExecutorService != null) ? groupExecutorService : this.lastGroupExecutorService;
+		}
+
+		@Override
+		public void shutdown() {
+			ExecutorService delegate = getDelegate();
+			if (delegate != null) {
+				delegate.shutdown();
+			}
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			ExecutorService delegate = getDelegate();
+			return (delegate != null) ? delegate.shutdownNow() : Collections.emptyList();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			ExecutorService delegate = getDelegate();
+			return delegate != null && delegate.isShutdown();
+		}
+
+		@Override
+		public boolean isTerminated() {
+			ExecutorService delegate = getDelegate();
+			return delegate != null && delegate.isTerminated();
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+			ExecutorService delegate = getDelegate();
+			return delegate != null && delegate.awaitTermination(timeout, unit);
+		}
+
+		private Resilience4JCircuitBreakerFactory getFactory() {
+			return Resilience4JCircuitBreakerFactory.this;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object o) {
+			// Equal for the same group, so circuit breakers of the group share their settings
+			return this == o || (o instanceof EvictableGroupExecutorService other
+					&& getFactory() == other.getFactory() && this.groupName.equals(other.groupName));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.groupName.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return "EvictableGroupExecutorService{group=" + this.groupName + "}";
+		}
+
+	}
+
 }
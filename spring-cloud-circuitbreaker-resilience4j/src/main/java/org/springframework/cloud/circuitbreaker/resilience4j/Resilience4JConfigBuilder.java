@@ -16,11 +16,14 @@
 
 package org.springframework.cloud.circuitbreaker.resilience4j;
 
+import java.time.Duration;
+
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.timelimiter.TimeLimiterConfig;
 import org.jspecify.annotations.Nullable;
 
 import org.springframework.cloud.client.circuitbreaker.ConfigBuilder;
+import org.springframework.util.Assert;
 
 /**
  * @author Ryan Baxter
@@ -34,6 +37,18 @@ public class Resilience4JConfigBuilder
 
 	private CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.ofDefaults();
 
+	private @Nullable Resilience4JStreamingConfig streamingConfig;
+
+	private @Nullable Resilience4JFallbackCacheConfig fallbackCacheConfig;
+
+	private @Nullable Resilience4JHedgingConfig hedgingConfig;
+
+	private @Nullable Duration maxQueueWait;
+
+	private @Nullable Resilience4JSlowStartConfig slowStartConfig;
+
+	private @Nullable Resilience4JAdaptiveTimeoutConfig adaptiveTimeoutConfig;
+
 	public Resilience4JConfigBuilder(String id) {
 		this.id = id;
 	}
@@ -48,12 +63,95 @@ public class Resilience4JConfigBuilder
 		return this;
 	}
 
+	/**
+	 * Enables the streaming mode for {@code Flux} executions of reactive circuit
+	 * breakers.
+	 * @param streamingConfig the streaming configuration, {@code null} to disable
+	 * streaming mode
+	 * @return this builder
+	 */
+	public Resilience4JConfigBuilder streamingConfig(@Nullable Resilience4JStreamingConfig streamingConfig) {
+		this.streamingConfig = streamingConfig;
+		return this;
+	}
+
+	/**
+	 * Enables the last-known-good fallback cache for blocking circuit breakers.
+	 * @param fallbackCacheConfig the fallback cache configuration, {@code null} to disable
+	 * the fallback cache
+	 * @return this builder
+	 */
+	public Resilience4JConfigBuilder fallbackCacheConfig(
+			@Nullable Resilience4JFallbackCacheConfig fallbackCacheConfig) {
+		this.fallbackCacheConfig = fallbackCacheConfig;
+		return this;
+	}
+
+	/**
+	 * Enables request hedging. Blocking circuit breakers only hedge calls when they run
+	 * them on an executor.
+	 * @param hedgingConfig the hedging configuration, {@code null} to disable hedging
+	 * @return this builder
+	 */
+	public Resilience4JConfigBuilder hedgingConfig(@Nullable Resilience4JHedgingConfig hedgingConfig) {
+		this.hedgingConfig = hedgingConfig;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum time a call of a blocking circuit breaker may wait for a thread of
+	 * its executor or thread pool bulkhead. A call that waits longer is not executed and
+	 * fails with a {@link QueueWaitTimeoutException}. Once set, the time limiter only
+	 * limits the time a call executes, and the circuit breaker neither records the queue
+	 * wait as part of the call duration nor records calls rejected before they executed as
+	 * failures.
+	 * @param maxQueueWait the maximum queue wait, {@code null} to let the time limiter
+	 * limit the queue wait and the execution together
+	 * @return this builder
+	 */
+	public Resilience4JConfigBuilder maxQueueWait(@Nullable Duration maxQueueWait) {
+		Assert.isTrue(maxQueueWait == null || !maxQueueWait.isNegative(), "maxQueueWait must not be negative");
+		this.maxQueueWait = maxQueueWait;
+		return this;
+	}
+
+	/**
+	 * Enables the slow start of the circuit breaker, ramping up the share of permitted
+	 * calls after it transitions from {@code HALF_OPEN} to {@code CLOSED}.
+	 * @param slowStartConfig the slow start configuration, {@code null} to permit all
+	 * calls as soon as the circuit breaker closes
+	 * @return this builder
+	 */
+	public Resilience4JConfigBuilder slowStartConfig(@Nullable Resilience4JSlowStartConfig slowStartConfig) {
+		this.slowStartConfig = slowStartConfig;
+		return this;
+	}
+
+	/**
+	 * Enables adaptive timeouts, deriving the timeout of calls from the durations of
+	 * recent successful calls instead of using the time limiter timeout.
+	 * @param adaptiveTimeoutConfig the adaptive timeout configuration, {@code null} to use
+	 * the time limiter timeout
+	 * @return this builder
+	 */
+	public Resilience4JConfigBuilder adaptiveTimeoutConfig(
+			@Nullable Resilience4JAdaptiveTimeoutConfig adaptiveTimeoutConfig) {
+		this.adaptiveTimeoutConfig = adaptiveTimeoutConfig;
+		return this;
+	}
+
 	@Override
 	public Resilience4JCircuitBreakerConfiguration build() {
 		Resilience4JCircuitBreakerConfiguration config = new Resilience4JCircuitBreakerConfiguration();
 		config.setId(id);
 		config.setCircuitBreakerConfig(circuitBreakerConfig);
 		config.setTimeLimiterConfig(timeLimiterConfig);
+		config.setStreamingConfig(streamingConfig);
+		config.setFallbackCacheConfig(fallbackCacheConfig);
+		config.setHedgingConfig(hedgingConfig);
+		config.setMaxQueueWait(maxQueueWait);
+		config.setSlowStartConfig(slowStartConfig);
+		config.setAdaptiveTimeoutConfig(adaptiveTimeoutConfig);
 		return config;
 	}
 
@@ -65,6 +163,18 @@ public class Resilience4JConfigBuilder
 
 		private @Nullable CircuitBreakerConfig circuitBreakerConfig;
 
+		private @Nullable Resilience4JStreamingConfig streamingConfig;
+
+		private @Nullable Resilience4JFallbackCacheConfig fallbackCacheConfig;
+
+		private @Nullable Resilience4JHedgingConfig hedgingConfig;
+
+		private @Nullable Duration maxQueueWait;
+
+		private @Nullable Resilience4JSlowStartConfig slowStartConfig;
+
+		private @Nullable Resilience4JAdaptiveTimeoutConfig adaptiveTimeoutConfig;
+
 		public @Nullable String getId() {
 			return id;
 		}
@@ -89,6 +199,54 @@ public class Resilience4JConfigBuilder
 			this.circuitBreakerConfig = circuitBreakerConfig;
 		}
 
+		public @Nullable Resilience4JStreamingConfig getStreamingConfig() {
+			return streamingConfig;
+		}
+
+		public void setStreamingConfig(@Nullable Resilience4JStreamingConfig streamingConfig) {
+			this.streamingConfig = streamingConfig;
+		}
+
+		public @Nullable Resilience4JFallbackCacheConfig getFallbackCacheConfig() {
+			return fallbackCacheConfig;
+		}
+
+		public void setFallbackCacheConfig(@Nullable Resilience4JFallbackCacheConfig fallbackCacheConfig) {
+			this.fallbackCacheConfig = fallbackCacheConfig;
+		}
+
+		public @Nullable Resilience4JHedgingConfig getHedgingConfig() {
+			return hedgingConfig;
+		}
+
+		public void setHedgingConfig(@Nullable Resilience4JHedgingConfig hedgingConfig) {
+			this.hedgingConfig = hedgingConfig;
+		}
+
+		public @Nullable Duration getMaxQueueWait() {
+			return maxQueueWait;
+		}
+
+		public void setMaxQueueWait(@Nullable Duration maxQueueWait) {
+			this.maxQueueWait = maxQueueWait;
+		}
+
+		public @Nullable Resilience4JSlowStartConfig getSlowStartConfig() {
+			return slowStartConfig;
+		}
+
+		public void setSlowStartConfig(@Nullable Resilience4JSlowStartConfig slowStartConfig) {
+			this.slowStartConfig = slowStartConfig;
+		}
+
+		public @Nullable Resilience4JAdaptiveTimeoutConfig getAdaptiveTimeoutConfig() {
+			return adaptiveTimeoutConfig;
+		}
+
+		public void setAdaptiveTimeoutConfig(@Nullable Resilience4JAdaptiveTimeoutConfig adaptiveTimeoutConfig) {
+			this.adaptiveTimeoutConfig = adaptiveTimeoutConfig;
+		}
+
 	}
 
 }
@@ -16,9 +16,12 @@
 
 package org.springframework.cloud.circuitbreaker.resilience4j;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.jspecify.annotations.Nullable;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -39,6 +42,20 @@ public class Resilience4JConfigurationProperties {
 
 	private Map<String, Boolean> disableTimeLimiterMap = new HashMap<>();
 
+	private GroupExecutorProperties groupExecutor = new GroupExecutorProperties();
+
+	private Map<String, GroupExecutorProperties> groupExecutors = new HashMap<>();
+
+	private Duration executorAwaitTerminationPeriod = Duration.ofSeconds(10);
+
+	private AdmissionControlProperties admissionControl = new AdmissionControlProperties();
+
+	private boolean writableStackTraceEnabled = false;
+
+	private EventBusProperties eventBus = new EventBusProperties();
+
+	private EvictionProperties eviction = new EvictionProperties();
+
 	public boolean isEnableGroupMeterFilter() {
 		return enableGroupMeterFilter;
 	}
@@ -87,4 +104,345 @@ public class Resilience4JConfigurationProperties {
 		this.disableTimeLimiterMap = disableTimeLimiterMap;
 	}
 
+	public GroupExecutorProperties getGroupExecutor() {
+		return groupExecutor;
+	}
+
+	public void setGroupExecutor(GroupExecutorProperties groupExecutor) {
+		this.groupExecutor = groupExecutor;
+	}
+
+	public Map<String, GroupExecutorProperties> getGroupExecutors() {
+		return groupExecutors;
+	}
+
+	public void setGroupExecutors(Map<String, GroupExecutorProperties> groupExecutors) {
+		this.groupExecutors = groupExecutors;
+	}
+
+	public Duration getExecutorAwaitTerminationPeriod() {
+		return executorAwaitTerminationPeriod;
+	}
+
+	public void setExecutorAwaitTerminationPeriod(Duration executorAwaitTerminationPeriod) {
+		this.executorAwaitTerminationPeriod = executorAwaitTerminationPeriod;
+	}
+
+	public AdmissionControlProperties getAdmissionControl() {
+		return admissionControl;
+	}
+
+	public void setAdmissionControl(AdmissionControlProperties admissionControl) {
+		this.admissionControl = admissionControl;
+	}
+
+	public boolean isWritableStackTraceEnabled() {
+		return writableStackTraceEnabled;
+	}
+
+	public void setWritableStackTraceEnabled(boolean writableStackTraceEnabled) {
+		this.writableStackTraceEnabled = writableStackTraceEnabled;
+	}
+
+	public EventBusProperties getEventBus() {
+		return eventBus;
+	}
+
+	public void setEventBus(EventBusProperties eventBus) {
+		this.eventBus = eventBus;
+	}
+
+	public EvictionProperties getEviction() {
+		return eviction;
+	}
+
+	public void setEviction(EvictionProperties eviction) {
+		this.eviction = eviction;
+	}
+
+	/**
+	 * Sizing of the executor service used to run the circuit breakers of a group.
+	 */
+	public static class GroupExecutorProperties {
+
+		/**
+		 * Number of threads kept while the group is busy. Idle threads time out after the
+		 * keep alive period.
+		 */
+		private int corePoolSize = 0;
+
+		/**
+		 * Maximum number of threads. Not bounded if not set, in which case every call
+		 * that finds no idle thread starts a new one.
+		 */
+		private @Nullable Integer maxPoolSize;
+
+		/**
+		 * Number of tasks that can wait for a thread once the maximum number of threads
+		 * is set. Threads beyond the core pool size are only started once the queue is
+		 * full, a capacity of 0 hands tasks directly to a thread.
+		 */
+		private int queueCapacity = 0;
+
+		/**
+		 * Time an idle thread is kept alive.
+		 */
+		private Duration keepAlive = Duration.ofSeconds(60);
+
+		public int getCorePoolSize() {
+			return corePoolSize;
+		}
+
+		public void setCorePoolSize(int corePoolSize) {
+			this.corePoolSize = corePoolSize;
+		}
+
+		public @Nullable Integer getMaxPoolSize() {
+			return maxPoolSize;
+		}
+
+		public void setMaxPoolSize(@Nullable Integer maxPoolSize) {
+			this.maxPoolSize = maxPoolSize;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public Duration getKeepAlive() {
+			return keepAlive;
+		}
+
+		public void setKeepAlive(Duration keepAlive) {
+			this.keepAlive = keepAlive;
+		}
+
+	}
+
+	/**
+	 * Admission control shedding calls while the JVM is overloaded.
+	 */
+	public static class AdmissionControlProperties {
+
+		/**
+		 * Whether to shed calls while the JVM is overloaded.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Interval at which the load of the JVM is sampled.
+		 */
+		private Duration sampleInterval = Duration.ofSeconds(1);
+
+		/**
+		 * Share of the last sample interval spent in garbage collection above which the
+		 * JVM is overloaded.
+		 */
+		private double maxGcPauseRatio = 0.25;
+
+		/**
+		 * CPU load of the process, between 0 and 1, above which the JVM is overloaded.
+		 */
+		private double maxCpuLoad = 0.9;
+
+		/**
+		 * Number of tasks waiting in the group executors above which the JVM is
+		 * overloaded. Not checked if not set.
+		 */
+		private @Nullable Integer maxExecutorQueueDepth;
+
+		/**
+		 * Share of the calls that can be shed that are shed while the JVM is overloaded.
+		 */
+		private double shedRatio = 0.5;
+
+		/**
+		 * Highest priority of the calls that can be shed.
+		 */
+		private CallPriority shedPriority = CallPriority.LOW;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Duration getSampleInterval() {
+			return sampleInterval;
+		}
+
+		public void setSampleInterval(Duration sampleInterval) {
+			this.sampleInterval = sampleInterval;
+		}
+
+		public double getMaxGcPauseRatio() {
+			return maxGcPauseRatio;
+		}
+
+		public void setMaxGcPauseRatio(double maxGcPauseRatio) {
+			this.maxGcPauseRatio = maxGcPauseRatio;
+		}
+
+		public double getMaxCpuLoad() {
+			return maxCpuLoad;
+		}
+
+		public void setMaxCpuLoad(double maxCpuLoad) {
+			this.maxCpuLoad = maxCpuLoad;
+		}
+
+		public @Nullable Integer getMaxExecutorQueueDepth() {
+			return maxExecutorQueueDepth;
+		}
+
+		public void setMaxExecutorQueueDepth(@Nullable Integer maxExecutorQueueDepth) {
+			this.maxExecutorQueueDepth = maxExecutorQueueDepth;
+		}
+
+		public double getShedRatio() {
+			return shedRatio;
+		}
+
+		public void setShedRatio(double shedRatio) {
+			this.shedRatio = shedRatio;
+		}
+
+		public CallPriority getShedPriority() {
+			return shedPriority;
+		}
+
+		public void setShedPriority(CallPriority shedPriority) {
+			this.shedPriority = shedPriority;
+		}
+
+	}
+
+	/**
+	 * Asynchronous dispatch of the events of the circuit breakers.
+	 */
+	public static class EventBusProperties {
+
+		/**
+		 * Whether to dispatch the events of the circuit breakers on a background thread.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Number of events buffered before new events are dropped, rounded up to a power
+		 * of two.
+		 */
+		private int capacity = 8192;
+
+		/**
+		 * Maximum number of events taken from the buffer at once.
+		 */
+		private int batchSize = 256;
+
+		/**
+		 * Interval at which the buffered events are dispatched.
+		 */
+		private Duration dispatchInterval = Duration.ofMillis(10);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getCapacity() {
+			return capacity;
+		}
+
+		public void setCapacity(int capacity) {
+			this.capacity = capacity;
+		}
+
+		public int getBatchSize() {
+			return batchSize;
+		}
+
+		public void setBatchSize(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		public Duration getDispatchInterval() {
+			return dispatchInterval;
+		}
+
+		public void setDispatchInterval(Duration dispatchInterval) {
+			this.dispatchInterval = dispatchInterval;
+		}
+
+	}
+
+	/**
+	 * Eviction of the circuit breakers that are no longer used.
+	 */
+	public static class EvictionProperties {
+
+		/**
+		 * Whether to evict the circuit breakers that were not used for the idle timeout,
+		 * along with their registry entries, bulkheads, executors and meters.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * How long a circuit breaker must not be used before it is evicted.
+		 */
+		private Duration idleTimeout = Duration.ofHours(1);
+
+		/**
+		 * Maximum number of circuit breakers each factory keeps, the least recently used
+		 * ones being evicted first. Not limited if not set.
+		 */
+		private @Nullable Integer maxSize;
+
+		/**
+		 * Interval at which idle circuit breakers are evicted, which is also the
+		 * resolution at which their last use is tracked.
+		 */
+		private Duration interval = Duration.ofMinutes(1);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Duration getIdleTimeout() {
+			return idleTimeout;
+		}
+
+		public void setIdleTimeout(Duration idleTimeout) {
+			this.idleTimeout = idleTimeout;
+		}
+
+		public @Nullable Integer getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(@Nullable Integer maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public Duration getInterval() {
+			return interval;
+		}
+
+		public void setInterval(Duration interval) {
+			this.interval = interval;
+		}
+
+	}
+
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+/**
+ * Receives, for blocking circuit breakers configured with a
+ * {@link Resilience4JConfigBuilder#maxQueueWait(java.time.Duration) maximum queue wait},
+ * how long each call waited for a thread and how long it then executed.
+ *
+ * @author Ryan Baxter
+ */
+public interface Resilience4JExecutionTimingListener {
+
+	/**
+	 * Called when a call started executing or its queue wait timed out.
+	 * @param id the id of the circuit breaker
+	 * @param groupName the group name of the circuit breaker
+	 * @param queueWaitNanos the time the call waited for a thread, in nanoseconds
+	 * @param timedOut whether the call waited longer than the maximum queue wait and was
+	 * not executed
+	 */
+	void onQueueWait(String id, String groupName, long queueWaitNanos, boolean timedOut);
+
+	/**
+	 * Called when a call that started executing completed, successfully or not.
+	 * @param id the id of the circuit breaker
+	 * @param groupName the group name of the circuit breaker
+	 * @param executionNanos the time the call executed, in nanoseconds
+	 */
+	void onExecution(String id, String groupName, long executionNanos);
+
+}
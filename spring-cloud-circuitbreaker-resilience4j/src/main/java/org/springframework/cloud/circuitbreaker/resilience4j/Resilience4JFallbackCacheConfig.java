@@ -0,0 +1,186 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.util.Assert;
+
+/**
+ * Configuration of the last-known-good fallback cache of a
+ * {@link Resilience4JCircuitBreaker}.
+ *
+ * <p>
+ * When a fallback cache is configured, every successful result is stored in the cache.
+ * When a call fails, including when it is not permitted because the circuit is open, the
+ * cached result is returned instead of invoking the fallback function, as long as it is
+ * younger than {@link #getTimeToLive() timeToLive}. A result that is older than
+ * {@code timeToLive} but still within the {@link #getStaleWhileRevalidate()
+ * staleWhileRevalidate} window is returned as well, and the call is retried in the
+ * background on the {@link #getRevalidationExecutor() revalidation executor} to refresh
+ * it. Once both windows have elapsed the fallback function is invoked.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+public final class Resilience4JFallbackCacheConfig {
+
+	private final int maximumSize;
+
+	private final Duration timeToLive;
+
+	private final Duration staleWhileRevalidate;
+
+	private final Executor revalidationExecutor;
+
+	private Resilience4JFallbackCacheConfig(int maximumSize, Duration timeToLive, Duration staleWhileRevalidate,
+			Executor revalidationExecutor) {
+		this.maximumSize = maximumSize;
+		this.timeToLive = timeToLive;
+		this.staleWhileRevalidate = staleWhileRevalidate;
+		this.revalidationExecutor = revalidationExecutor;
+	}
+
+	/**
+	 * Create a new builder.
+	 * @return the builder
+	 */
+	public static Builder custom() {
+		return new Builder();
+	}
+
+	/**
+	 * Create a configuration using the default values.
+	 * @return the configuration
+	 */
+	public static Resilience4JFallbackCacheConfig ofDefaults() {
+		return custom().build();
+	}
+
+	/**
+	 * Get the maximum number of results kept in the cache.
+	 * @return the maximum size
+	 */
+	public int getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	/**
+	 * Get the time during which a cached result is considered fresh.
+	 * @return the time to live
+	 */
+	public Duration getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	/**
+	 * Get the time after {@link #getTimeToLive() timeToLive} during which a stale result
+	 * is still served while it is being refreshed in the background.
+	 * @return the stale while revalidate window
+	 */
+	public Duration getStaleWhileRevalidate() {
+		return this.staleWhileRevalidate;
+	}
+
+	/**
+	 * Get the executor used to refresh stale results.
+	 * @return the revalidation executor
+	 */
+	public Executor getRevalidationExecutor() {
+		return this.revalidationExecutor;
+	}
+
+	@Override
+	public String toString() {
+		return "Resilience4JFallbackCacheConfig{maximumSize=" + this.maximumSize + ", timeToLive=" + this.timeToLive
+				+ ", staleWhileRevalidate=" + this.staleWhileRevalidate + "}";
+	}
+
+	/**
+	 * Builder for {@link Resilience4JFallbackCacheConfig}.
+	 */
+	public static final class Builder {
+
+		private int maximumSize = 1000;
+
+		private Duration timeToLive = Duration.ofMinutes(5);
+
+		private Duration staleWhileRevalidate = Duration.ZERO;
+
+		private Executor revalidationExecutor = ForkJoinPool.commonPool();
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the maximum number of results kept in the cache. Defaults to 1000.
+		 * @param maximumSize the maximum size
+		 * @return this builder
+		 */
+		public Builder maximumSize(int maximumSize) {
+			Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * Set the time during which a cached result is considered fresh. Defaults to 5
+		 * minutes.
+		 * @param timeToLive the time to live
+		 * @return this builder
+		 */
+		public Builder timeToLive(Duration timeToLive) {
+			Assert.isTrue(!timeToLive.isNegative(), "timeToLive must not be negative");
+			this.timeToLive = timeToLive;
+			return this;
+		}
+
+		/**
+		 * Set the time after the time to live during which a stale result is still
+		 * served while it is being refreshed in the background. Defaults to zero, which
+		 * disables background revalidation.
+		 * @param staleWhileRevalidate the stale while revalidate window
+		 * @return this builder
+		 */
+		public Builder staleWhileRevalidate(Duration staleWhileRevalidate) {
+			Assert.isTrue(!staleWhileRevalidate.isNegative(), "staleWhileRevalidate must not be negative");
+			this.staleWhileRevalidate = staleWhileRevalidate;
+			return this;
+		}
+
+		/**
+		 * Set the executor used to refresh stale results. Defaults to the common
+		 * {@link ForkJoinPool}.
+		 * @param revalidationExecutor the executor
+		 * @return this builder
+		 */
+		public Builder revalidationExecutor(Executor revalidationExecutor) {
+			Assert.notNull(revalidationExecutor, "revalidationExecutor must not be null");
+			this.revalidationExecutor = revalidationExecutor;
+			return this;
+		}
+
+		public Resilience4JFallbackCacheConfig build() {
+			return new Resilience4JFallbackCacheConfig(this.maximumSize, this.timeToLive, this.staleWhileRevalidate,
+					this.revalidationExecutor);
+		}
+
+	}
+
+}
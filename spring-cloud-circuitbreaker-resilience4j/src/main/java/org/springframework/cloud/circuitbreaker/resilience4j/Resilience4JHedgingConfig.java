@@ -0,0 +1,212 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+
+import org.springframework.util.Assert;
+
+/**
+ * Configuration of request hedging for a circuit breaker.
+ *
+ * <p>
+ * When hedging is enabled, a second attempt of the call is started if the first one did
+ * not complete within the configured {@link #getPercentile() percentile} of the call
+ * durations observed by the circuit breaker, and whichever attempt succeeds first
+ * provides the result while the other one is cancelled. The call only fails once both
+ * attempts have failed. Both attempts count as a single call for the circuit breaker
+ * and the bulkhead. The number of second attempts is
+ * limited to {@link #getMaxExtraLoad() maxExtraLoad} of the calls, so hedging cannot
+ * amplify an outage. Hedging should only be enabled for idempotent calls.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+public final class Resilience4JHedgingConfig {
+
+	private final double percentile;
+
+	private final Duration initialDelay;
+
+	private final Duration minimumDelay;
+
+	private final int minimumNumberOfCalls;
+
+	private final double maxExtraLoad;
+
+	private Resilience4JHedgingConfig(double percentile, Duration initialDelay, Duration minimumDelay,
+			int minimumNumberOfCalls, double maxExtraLoad) {
+		this.percentile = percentile;
+		this.initialDelay = initialDelay;
+		this.minimumDelay = minimumDelay;
+		this.minimumNumberOfCalls = minimumNumberOfCalls;
+		this.maxExtraLoad = maxExtraLoad;
+	}
+
+	/**
+	 * Create a new builder.
+	 * @return the builder
+	 */
+	public static Builder custom() {
+		return new Builder();
+	}
+
+	/**
+	 * Create a configuration using the default values.
+	 * @return the configuration
+	 */
+	public static Resilience4JHedgingConfig ofDefaults() {
+		return custom().build();
+	}
+
+	/**
+	 * Get the percentile of the observed call durations after which a second attempt is
+	 * started.
+	 * @return the percentile, between 0 and 1
+	 */
+	public double getPercentile() {
+		return this.percentile;
+	}
+
+	/**
+	 * Get the delay after which a second attempt is started until
+	 * {@link #getMinimumNumberOfCalls() minimumNumberOfCalls} call durations have been
+	 * observed.
+	 * @return the initial delay
+	 */
+	public Duration getInitialDelay() {
+		return this.initialDelay;
+	}
+
+	/**
+	 * Get the minimum delay after which a second attempt is started.
+	 * @return the minimum delay
+	 */
+	public Duration getMinimumDelay() {
+		return this.minimumDelay;
+	}
+
+	/**
+	 * Get the number of call durations that need to be observed before the percentile is
+	 * used as the delay.
+	 * @return the minimum number of calls
+	 */
+	public int getMinimumNumberOfCalls() {
+		return this.minimumNumberOfCalls;
+	}
+
+	/**
+	 * Get the maximum ratio of second attempts to calls.
+	 * @return the maximum extra load, between 0 and 1
+	 */
+	public double getMaxExtraLoad() {
+		return this.maxExtraLoad;
+	}
+
+	@Override
+	public String toString() {
+		return "Resilience4JHedgingConfig{percentile=" + this.percentile + ", initialDelay=" + this.initialDelay
+				+ ", minimumDelay=" + this.minimumDelay + ", minimumNumberOfCalls=" + this.minimumNumberOfCalls
+				+ ", maxExtraLoad=" + this.maxExtraLoad + "}";
+	}
+
+	/**
+	 * Builder for {@link Resilience4JHedgingConfig}.
+	 */
+	public static final class Builder {
+
+		private double percentile = 0.95;
+
+		private Duration initialDelay = Duration.ofMillis(100);
+
+		private Duration minimumDelay = Duration.ofMillis(1);
+
+		private int minimumNumberOfCalls = 100;
+
+		private double maxExtraLoad = 0.1;
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the percentile of the observed call durations after which a second attempt
+		 * is started. Defaults to 0.95.
+		 * @param percentile the percentile, between 0 and 1
+		 * @return this builder
+		 */
+		public Builder percentile(double percentile) {
+			Assert.isTrue(percentile > 0 && percentile <= 1, "percentile must be between 0 and 1");
+			this.percentile = percentile;
+			return this;
+		}
+
+		/**
+		 * Set the delay after which a second attempt is started until enough call
+		 * durations have been observed. Defaults to 100 milliseconds.
+		 * @param initialDelay the initial delay
+		 * @return this builder
+		 */
+		public Builder initialDelay(Duration initialDelay) {
+			Assert.isTrue(!initialDelay.isNegative(), "initialDelay must not be negative");
+			this.initialDelay = initialDelay;
+			return this;
+		}
+
+		/**
+		 * Set the minimum delay after which a second attempt is started. Defaults to 1
+		 * millisecond.
+		 * @param minimumDelay the minimum delay
+		 * @return this builder
+		 */
+		public Builder minimumDelay(Duration minimumDelay) {
+			Assert.isTrue(!minimumDelay.isNegative(), "minimumDelay must not be negative");
+			this.minimumDelay = minimumDelay;
+			return this;
+		}
+
+		/**
+		 * Set the number of call durations that need to be observed before the
+		 * percentile is used as the delay. Defaults to 100.
+		 * @param minimumNumberOfCalls the minimum number of calls
+		 * @return this builder
+		 */
+		public Builder minimumNumberOfCalls(int minimumNumberOfCalls) {
+			Assert.isTrue(minimumNumberOfCalls >= 0, "minimumNumberOfCalls must not be negative");
+			this.minimumNumberOfCalls = minimumNumberOfCalls;
+			return this;
+		}
+
+		/**
+		 * Set the maximum ratio of second attempts to calls. Defaults to 0.1, that is at
+		 * most 10% extra load.
+		 * @param maxExtraLoad the maximum extra load, between 0 and 1
+		 * @return this builder
+		 */
+		public Builder maxExtraLoad(double maxExtraLoad) {
+			Assert.isTrue(maxExtraLoad >= 0 && maxExtraLoad <= 1, "maxExtraLoad must be between 0 and 1");
+			this.maxExtraLoad = maxExtraLoad;
+			return this;
+		}
+
+		public Resilience4JHedgingConfig build() {
+			return new Resilience4JHedgingConfig(this.percentile, this.initialDelay, this.minimumDelay,
+					this.minimumNumberOfCalls, this.maxExtraLoad);
+		}
+
+	}
+
+}
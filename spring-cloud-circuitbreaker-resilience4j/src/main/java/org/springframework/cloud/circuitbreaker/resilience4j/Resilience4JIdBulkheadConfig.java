@@ -0,0 +1,141 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * Configuration of the per-id bulkheads of a bulkhead group.
+ *
+ * <p>
+ * Circuit breakers call the bulkhead of their group, so all the ids of a group share the
+ * same concurrent calls and one slow id can use all of them. Per-id bulkheads limit the
+ * concurrent calls of each id inside the limit of the group bulkhead: a call first
+ * acquires a permit of the bulkhead of its id, without waiting, and then a permit of the
+ * group bulkhead. Since calls never wait for a per-id permit while holding a group
+ * permit, the two levels cannot deadlock. Ids without a limit only acquire the group
+ * bulkhead.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+public final class Resilience4JIdBulkheadConfig {
+
+	private final @Nullable Integer maxConcurrentCalls;
+
+	private final Map<String, Integer> maxConcurrentCallsById;
+
+	private Resilience4JIdBulkheadConfig(@Nullable Integer maxConcurrentCalls,
+			Map<String, Integer> maxConcurrentCallsById) {
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.maxConcurrentCallsById = maxConcurrentCallsById;
+	}
+
+	/**
+	 * Create a new builder.
+	 * @return the builder
+	 */
+	public static Builder custom() {
+		return new Builder();
+	}
+
+	/**
+	 * Get the maximum number of concurrent calls of the ids without a specific limit.
+	 * @return the maximum number of concurrent calls, {@code null} if they are only
+	 * limited by the group bulkhead
+	 */
+	public @Nullable Integer getMaxConcurrentCalls() {
+		return this.maxConcurrentCalls;
+	}
+
+	/**
+	 * Get the specific limits of ids.
+	 * @return the maximum number of concurrent calls, by id
+	 */
+	public Map<String, Integer> getMaxConcurrentCallsById() {
+		return this.maxConcurrentCallsById;
+	}
+
+	/**
+	 * Get the maximum number of concurrent calls of the given id.
+	 * @param id the circuit breaker id
+	 * @return the maximum number of concurrent calls, {@code null} if the id is only
+	 * limited by the group bulkhead
+	 */
+	public @Nullable Integer getMaxConcurrentCalls(String id) {
+		Integer maxConcurrentCalls = this.maxConcurrentCallsById.get(id);
+		return (maxConcurrentCalls != null) ? maxConcurrentCalls : this.maxConcurrentCalls;
+	}
+
+	@Override
+	public String toString() {
+		return "Resilience4JIdBulkheadConfig{maxConcurrentCalls=" + this.maxConcurrentCalls
+				+ ", maxConcurrentCallsById=" + this.maxConcurrentCallsById + "}";
+	}
+
+	/**
+	 * Builder for {@link Resilience4JIdBulkheadConfig}.
+	 */
+	public static final class Builder {
+
+		private @Nullable Integer maxConcurrentCalls;
+
+		private final Map<String, Integer> maxConcurrentCallsById = new HashMap<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the maximum number of concurrent calls of the ids without a specific
+		 * limit. By default, they are only limited by the group bulkhead.
+		 * @param maxConcurrentCalls the maximum number of concurrent calls, {@code null}
+		 * to only limit them by the group bulkhead
+		 * @return this builder
+		 */
+		public Builder maxConcurrentCalls(@Nullable Integer maxConcurrentCalls) {
+			Assert.isTrue(maxConcurrentCalls == null || maxConcurrentCalls > 0, "maxConcurrentCalls must be positive");
+			this.maxConcurrentCalls = maxConcurrentCalls;
+			return this;
+		}
+
+		/**
+		 * Set the maximum number of concurrent calls of the given id.
+		 * @param id the circuit breaker id
+		 * @param maxConcurrentCalls the maximum number of concurrent calls
+		 * @return this builder
+		 */
+		public Builder maxConcurrentCalls(String id, int maxConcurrentCalls) {
+			Assert.hasText(id, "id must not be empty");
+			Assert.isTrue(maxConcurrentCalls > 0, "maxConcurrentCalls must be positive");
+			this.maxConcurrentCallsById.put(id, maxConcurrentCalls);
+			return this;
+		}
+
+		public Resilience4JIdBulkheadConfig build() {
+			return new Resilience4JIdBulkheadConfig(this.maxConcurrentCalls,
+					Collections.unmodifiableMap(new HashMap<>(this.maxConcurrentCallsById)));
+		}
+
+	}
+
+}
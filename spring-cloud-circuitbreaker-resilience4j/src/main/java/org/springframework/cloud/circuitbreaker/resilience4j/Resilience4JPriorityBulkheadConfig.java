@@ -0,0 +1,171 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * Configuration of priority load shedding for a bulkhead.
+ *
+ * <p>
+ * When priority load shedding is enabled, calls are admitted according to their
+ * {@link CallPriority} before they reach the bulkhead. {@link CallPriority#HIGH High}
+ * priority calls can use all of the concurrent calls of the bulkhead,
+ * {@link CallPriority#NORMAL normal} priority calls all but the
+ * {@link #getHighPriorityReservedShare() share reserved} for high priority calls and
+ * {@link CallPriority#LOW low} priority calls only the
+ * {@link #getLowPriorityShare() low priority share}. As the bulkhead fills up, low
+ * priority calls are therefore rejected first and high priority calls last.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+public final class Resilience4JPriorityBulkheadConfig {
+
+	private final @Nullable Integer maxConcurrentCalls;
+
+	private final double highPriorityReservedShare;
+
+	private final double lowPriorityShare;
+
+	private Resilience4JPriorityBulkheadConfig(@Nullable Integer maxConcurrentCalls, double highPriorityReservedShare,
+			double lowPriorityShare) {
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.highPriorityReservedShare = highPriorityReservedShare;
+		this.lowPriorityShare = lowPriorityShare;
+	}
+
+	/**
+	 * Create a new builder.
+	 * @return the builder
+	 */
+	public static Builder custom() {
+		return new Builder();
+	}
+
+	/**
+	 * Create a configuration using the default values.
+	 * @return the configuration
+	 */
+	public static Resilience4JPriorityBulkheadConfig ofDefaults() {
+		return custom().build();
+	}
+
+	/**
+	 * Get the number of concurrent calls shared between the priorities.
+	 * @return the maximum number of concurrent calls or {@code null} to use the capacity
+	 * of the bulkhead
+	 */
+	public @Nullable Integer getMaxConcurrentCalls() {
+		return this.maxConcurrentCalls;
+	}
+
+	/**
+	 * Get the share of the concurrent calls only high priority calls can use.
+	 * @return the high priority reserved share, between 0 and 1
+	 */
+	public double getHighPriorityReservedShare() {
+		return this.highPriorityReservedShare;
+	}
+
+	/**
+	 * Get the share of the concurrent calls low priority calls can use.
+	 * @return the low priority share, between 0 and 1
+	 */
+	public double getLowPriorityShare() {
+		return this.lowPriorityShare;
+	}
+
+	@Override
+	public String toString() {
+		return "Resilience4JPriorityBulkheadConfig{maxConcurrentCalls=" + this.maxConcurrentCalls
+				+ ", highPriorityReservedShare=" + this.highPriorityReservedShare + ", lowPriorityShare="
+				+ this.lowPriorityShare + "}";
+	}
+
+	/**
+	 * Builder for {@link Resilience4JPriorityBulkheadConfig}.
+	 */
+	public static final class Builder {
+
+		private @Nullable Integer maxConcurrentCalls;
+
+		private double highPriorityReservedShare = 0.2;
+
+		private double lowPriorityShare = 0.5;
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the number of concurrent calls shared between the priorities. Defaults to
+		 * the capacity of the bulkhead, that is its maximum number of concurrent calls
+		 * for a semaphore bulkhead and its maximum thread pool size plus its queue
+		 * capacity for a thread pool bulkhead.
+		 * @param maxConcurrentCalls the maximum number of concurrent calls, {@code null}
+		 * to use the capacity of the bulkhead
+		 * @return this builder
+		 */
+		public Builder maxConcurrentCalls(@Nullable Integer maxConcurrentCalls) {
+			Assert.isTrue(maxConcurrentCalls == null || maxConcurrentCalls > 0, "maxConcurrentCalls must be positive");
+			this.maxConcurrentCalls = maxConcurrentCalls;
+			return this;
+		}
+
+		/**
+		 * Set the share of the concurrent calls only high priority calls can use.
+		 * Defaults to 0.2.
+		 * @param highPriorityReservedShare the high priority reserved share, between 0
+		 * (inclusive) and 1 (exclusive)
+		 * @return this builder
+		 */
+		public Builder highPriorityReservedShare(double highPriorityReservedShare) {
+			Assert.isTrue(highPriorityReservedShare >= 0 && highPriorityReservedShare < 1,
+					"highPriorityReservedShare must be between 0 (inclusive) and 1 (exclusive)");
+			this.highPriorityReservedShare = highPriorityReservedShare;
+			return this;
+		}
+
+		/**
+		 * Set the share of the concurrent calls low priority calls can use. Defaults to
+		 * 0.5. Low priority calls can never use more concurrent calls than normal
+		 * priority calls.
+		 * @param lowPriorityShare the low priority share, between 0 (exclusive) and 1
+		 * (inclusive)
+		 * @return this builder
+		 */
+		public Builder lowPriorityShare(double lowPriorityShare) {
+			Assert.isTrue(lowPriorityShare > 0 && lowPriorityShare <= 1,
+					"lowPriorityShare must be between 0 (exclusive) and 1 (inclusive)");
+			this.lowPriorityShare = lowPriorityShare;
+			return this;
+		}
+
+		/**
+		 * Build the configuration.
+		 * @return the configuration
+		 */
+		public Resilience4JPriorityBulkheadConfig build() {
+			return new Resilience4JPriorityBulkheadConfig(this.maxConcurrentCalls, this.highPriorityReservedShare,
+					this.lowPriorityShare);
+		}
+
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * Options applied to a single call of a circuit breaker, so calls of the same circuit
+ * breaker can behave differently without creating a circuit breaker per variant. Options
+ * are immutable and can be shared between calls.
+ *
+ * @author Ryan Baxter
+ * @see Resilience4JCircuitBreaker#run(java.util.function.Supplier,
+ * java.util.function.Function, Resilience4JRunOptions)
+ * @see ReactiveResilience4JCircuitBreaker#run(reactor.core.publisher.Mono,
+ * java.util.function.Function, Resilience4JRunOptions)
+ */
+public final class Resilience4JRunOptions {
+
+	private static final Resilience4JRunOptions DEFAULTS = custom().build();
+
+	private final @Nullable Duration timeout;
+
+	private final @Nullable CallPriority priority;
+
+	private final @Nullable Object coalescingKey;
+
+	private final @Nullable Object fallbackCacheKey;
+
+	private Resilience4JRunOptions(@Nullable Duration timeout, @Nullable CallPriority priority,
+			@Nullable Object coalescingKey, @Nullable Object fallbackCacheKey) {
+		this.timeout = timeout;
+		this.priority = priority;
+		this.coalescingKey = coalescingKey;
+		this.fallbackCacheKey = fallbackCacheKey;
+	}
+
+	/**
+	 * Create a new builder.
+	 * @return the builder
+	 */
+	public static Builder custom() {
+		return new Builder();
+	}
+
+	/**
+	 * Get the options used by calls made without options.
+	 * @return the default options
+	 */
+	public static Resilience4JRunOptions ofDefaults() {
+		return DEFAULTS;
+	}
+
+	/**
+	 * Get the timeout of the call, replacing the time limiter timeout.
+	 * @return the timeout or {@code null} to apply the time limiter timeout
+	 */
+	public @Nullable Duration getTimeout() {
+		return this.timeout;
+	}
+
+	/**
+	 * Get the priority of the call.
+	 * @return the priority or {@code null} to use the priority stored in the Reactor
+	 * context under {@link CallPriority#CONTEXT_KEY} for reactive calls, and
+	 * {@link CallPriority#NORMAL} otherwise
+	 */
+	public @Nullable CallPriority getPriority() {
+		return this.priority;
+	}
+
+	/**
+	 * Get the key identifying identical calls that are coalesced into a single
+	 * execution.
+	 * @return the coalescing key or {@code null} to not coalesce the call
+	 */
+	public @Nullable Object getCoalescingKey() {
+		return this.coalescingKey;
+	}
+
+	/**
+	 * Get the key of the result of the call in the fallback cache.
+	 * @return the fallback cache key or {@code null} to use the circuit breaker id
+	 */
+	public @Nullable Object getFallbackCacheKey() {
+		return this.fallbackCacheKey;
+	}
+
+	@Override
+	public String toString() {
+		return "Resilience4JRunOptions{timeout=" + this.timeout + ", priority=" + this.priority + ", coalescingKey="
+				+ this.coalescingKey + ", fallbackCacheKey=" + this.fallbackCacheKey + "}";
+	}
+
+	/**
+	 * Builder for {@link Resilience4JRunOptions}.
+	 */
+	public static final class Builder {
+
+		private @Nullable Duration timeout;
+
+		private @Nullable CallPriority priority;
+
+		private @Nullable Object coalescingKey;
+
+		private @Nullable Object fallbackCacheKey;
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the timeout of the call, replacing the time limiter timeout. Applies to
+		 * calls that are time limited, that is blocking calls run on an executor and
+		 * reactive calls outside of streaming mode. A shorter deadline still takes
+		 * precedence.
+		 * @param timeout the timeout, {@code null} to apply the time limiter timeout
+		 * @return this builder
+		 */
+		public Builder timeout(@Nullable Duration timeout) {
+			Assert.isTrue(timeout == null || timeout.isPositive(), "timeout must be positive");
+			this.timeout = timeout;
+			return this;
+		}
+
+		/**
+		 * Set the priority of the call, used by priority bulkheads to decide which calls
+		 * to reject first. Reactive calls without a priority use the priority stored in
+		 * the Reactor context under {@link CallPriority#CONTEXT_KEY}, and other calls
+		 * {@link CallPriority#NORMAL}.
+		 * @param priority the priority, {@code null} to use the default priority
+		 * @return this builder
+		 * @see Resilience4JPriorityBulkheadConfig
+		 */
+		public Builder priority(@Nullable CallPriority priority) {
+			this.priority = priority;
+			return this;
+		}
+
+		/**
+		 * Set the key identifying identical calls. Concurrent calls with the same key
+		 * share a single execution, like calls made through {@code runCoalesced}.
+		 * @param coalescingKey the coalescing key, {@code null} to not coalesce the call
+		 * @return this builder
+		 */
+		public Builder coalescingKey(@Nullable Object coalescingKey) {
+			this.coalescingKey = coalescingKey;
+			return this;
+		}
+
+		/**
+		 * Set the key of the result of the call in the fallback cache of a blocking
+		 * circuit breaker, like the key given to {@code runCached}. Ignored by reactive
+		 * circuit breakers and if no fallback cache is configured.
+		 * @param fallbackCacheKey the fallback cache key, {@code null} to use the circuit
+		 * breaker id
+		 * @return this builder
+		 */
+		public Builder fallbackCacheKey(@Nullable Object fallbackCacheKey) {
+			this.fallbackCacheKey = fallbackCacheKey;
+			return this;
+		}
+
+		/**
+		 * Build the options.
+		 * @return the options
+		 */
+		public Resilience4JRunOptions build() {
+			return new Resilience4JRunOptions(this.timeout, this.priority, this.coalescingKey, this.fallbackCacheKey);
+		}
+
+	}
+
+}
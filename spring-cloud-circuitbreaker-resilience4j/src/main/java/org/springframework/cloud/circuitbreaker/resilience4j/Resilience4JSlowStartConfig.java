@@ -0,0 +1,193 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+
+import org.springframework.util.Assert;
+
+/**
+ * Configuration of the slow start of a circuit breaker.
+ *
+ * <p>
+ * When a circuit breaker transitions from {@code HALF_OPEN} to {@code CLOSED}, its
+ * downstream usually recovered only recently and may not be able to handle the full load
+ * right away. With slow start, the circuit breaker only permits a share of the calls
+ * after it closes, starting at the {@link #getInitialPermittedRatio() initial permitted
+ * ratio} and increasing along the {@link #getRampUpCurve() ramp-up curve} until all calls
+ * are permitted once the {@link #getRampUpDuration() ramp-up duration} elapsed. Calls
+ * that are not permitted are not executed, are not recorded by the circuit breaker, and
+ * fail with a {@link SlowStartRejectedException}.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+public final class Resilience4JSlowStartConfig {
+
+	private final Duration rampUpDuration;
+
+	private final double initialPermittedRatio;
+
+	private final RampUpCurve rampUpCurve;
+
+	private Resilience4JSlowStartConfig(Duration rampUpDuration, double initialPermittedRatio,
+			RampUpCurve rampUpCurve) {
+		this.rampUpDuration = rampUpDuration;
+		this.initialPermittedRatio = initialPermittedRatio;
+		this.rampUpCurve = rampUpCurve;
+	}
+
+	/**
+	 * Create a new builder.
+	 * @return the builder
+	 */
+	public static Builder custom() {
+		return new Builder();
+	}
+
+	/**
+	 * Create a configuration using the default values.
+	 * @return the configuration
+	 */
+	public static Resilience4JSlowStartConfig ofDefaults() {
+		return custom().build();
+	}
+
+	/**
+	 * Get the time after which all calls are permitted again.
+	 * @return the ramp-up duration
+	 */
+	public Duration getRampUpDuration() {
+		return this.rampUpDuration;
+	}
+
+	/**
+	 * Get the share of the calls permitted right after the circuit breaker closed.
+	 * @return the initial permitted ratio, between 0 and 1
+	 */
+	public double getInitialPermittedRatio() {
+		return this.initialPermittedRatio;
+	}
+
+	/**
+	 * Get the curve along which the share of permitted calls increases.
+	 * @return the ramp-up curve
+	 */
+	public RampUpCurve getRampUpCurve() {
+		return this.rampUpCurve;
+	}
+
+	/**
+	 * Get the share of the calls permitted after the given share of the ramp-up duration
+	 * elapsed.
+	 * @param progress the elapsed share of the ramp-up duration, between 0 and 1
+	 * @return the permitted ratio, between 0 and 1
+	 */
+	double getPermittedRatio(double progress) {
+		if (progress >= 1) {
+			return 1;
+		}
+		if (this.rampUpCurve == RampUpCurve.EXPONENTIAL) {
+			return this.initialPermittedRatio * Math.pow(1 / this.initialPermittedRatio, progress);
+		}
+		return this.initialPermittedRatio + (1 - this.initialPermittedRatio) * progress;
+	}
+
+	@Override
+	public String toString() {
+		return "Resilience4JSlowStartConfig{rampUpDuration=" + this.rampUpDuration + ", initialPermittedRatio="
+				+ this.initialPermittedRatio + ", rampUpCurve=" + this.rampUpCurve + "}";
+	}
+
+	/**
+	 * Curve along which the share of permitted calls increases during the ramp-up.
+	 */
+	public enum RampUpCurve {
+
+		/**
+		 * The share of permitted calls increases by the same amount over time.
+		 */
+		LINEAR,
+
+		/**
+		 * The share of permitted calls is multiplied by the same factor over time, so
+		 * it increases slowly at first and quickly at the end of the ramp-up.
+		 */
+		EXPONENTIAL
+
+	}
+
+	/**
+	 * Builder for {@link Resilience4JSlowStartConfig}.
+	 */
+	public static final class Builder {
+
+		private Duration rampUpDuration = Duration.ofSeconds(30);
+
+		private double initialPermittedRatio = 0.1;
+
+		private RampUpCurve rampUpCurve = RampUpCurve.LINEAR;
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the time after which all calls are permitted again. Defaults to 30
+		 * seconds.
+		 * @param rampUpDuration the ramp-up duration
+		 * @return this builder
+		 */
+		public Builder rampUpDuration(Duration rampUpDuration) {
+			Assert.isTrue(rampUpDuration != null && rampUpDuration.isPositive(), "rampUpDuration must be positive");
+			this.rampUpDuration = rampUpDuration;
+			return this;
+		}
+
+		/**
+		 * Set the share of the calls permitted right after the circuit breaker closed.
+		 * Defaults to 0.1.
+		 * @param initialPermittedRatio the initial permitted ratio, between 0 and 1
+		 * @return this builder
+		 */
+		public Builder initialPermittedRatio(double initialPermittedRatio) {
+			Assert.isTrue(initialPermittedRatio >= 0 && initialPermittedRatio <= 1,
+					"initialPermittedRatio must be between 0 and 1");
+			this.initialPermittedRatio = initialPermittedRatio;
+			return this;
+		}
+
+		/**
+		 * Set the curve along which the share of permitted calls increases. Defaults to
+		 * {@link RampUpCurve#LINEAR}.
+		 * @param rampUpCurve the ramp-up curve
+		 * @return this builder
+		 */
+		public Builder rampUpCurve(RampUpCurve rampUpCurve) {
+			Assert.notNull(rampUpCurve, "rampUpCurve must not be null");
+			this.rampUpCurve = rampUpCurve;
+			return this;
+		}
+
+		public Resilience4JSlowStartConfig build() {
+			Assert.isTrue(this.rampUpCurve != RampUpCurve.EXPONENTIAL || this.initialPermittedRatio > 0,
+					"initialPermittedRatio must be positive for an exponential ramp-up");
+			return new Resilience4JSlowStartConfig(this.rampUpDuration, this.initialPermittedRatio, this.rampUpCurve);
+		}
+
+	}
+
+}
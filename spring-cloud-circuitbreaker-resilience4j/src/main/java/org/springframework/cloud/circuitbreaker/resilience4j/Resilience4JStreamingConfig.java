@@ -0,0 +1,147 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * Configuration of the streaming mode used by {@link ReactiveResilience4JCircuitBreaker}
+ * when protecting a {@link reactor.core.publisher.Flux}.
+ *
+ * <p>
+ * In streaming mode the single {@code TimeLimiter} duration is replaced by three
+ * independent budgets: the time allowed until the first element is emitted, the time
+ * allowed between two consecutive elements and the total duration of the stream. Any of
+ * them may be left unset. The circuit breaker records the outcome of the call as soon as
+ * the first element is emitted (or the stream terminates before that), so long-lived
+ * streams neither hold a circuit breaker permit nor count as slow calls.
+ * </p>
+ *
+ * @author Ryan Baxter
+ */
+public final class Resilience4JStreamingConfig {
+
+	private final @Nullable Duration firstElementTimeout;
+
+	private final @Nullable Duration interElementTimeout;
+
+	private final @Nullable Duration totalTimeout;
+
+	private Resilience4JStreamingConfig(@Nullable Duration firstElementTimeout,
+			@Nullable Duration interElementTimeout, @Nullable Duration totalTimeout) {
+		this.firstElementTimeout = firstElementTimeout;
+		this.interElementTimeout = interElementTimeout;
+		this.totalTimeout = totalTimeout;
+	}
+
+	/**
+	 * Create a new builder.
+	 * @return the builder
+	 */
+	public static Builder custom() {
+		return new Builder();
+	}
+
+	/**
+	 * Get the maximum time to wait for the first element.
+	 * @return the first element timeout or {@code null} if unbounded
+	 */
+	public @Nullable Duration getFirstElementTimeout() {
+		return this.firstElementTimeout;
+	}
+
+	/**
+	 * Get the maximum time to wait between two consecutive elements.
+	 * @return the inter element timeout or {@code null} if unbounded
+	 */
+	public @Nullable Duration getInterElementTimeout() {
+		return this.interElementTimeout;
+	}
+
+	/**
+	 * Get the maximum duration of the whole stream.
+	 * @return the total timeout or {@code null} if unbounded
+	 */
+	public @Nullable Duration getTotalTimeout() {
+		return this.totalTimeout;
+	}
+
+	@Override
+	public String toString() {
+		return "Resilience4JStreamingConfig{firstElementTimeout=" + this.firstElementTimeout
+				+ ", interElementTimeout=" + this.interElementTimeout + ", totalTimeout=" + this.totalTimeout + "}";
+	}
+
+	/**
+	 * Builder for {@link Resilience4JStreamingConfig}.
+	 */
+	public static final class Builder {
+
+		private @Nullable Duration firstElementTimeout;
+
+		private @Nullable Duration interElementTimeout;
+
+		private @Nullable Duration totalTimeout;
+
+		private Builder() {
+		}
+
+		/**
+		 * Set the maximum time to wait for the first element.
+		 * @param firstElementTimeout the timeout
+		 * @return this builder
+		 */
+		public Builder firstElementTimeout(Duration firstElementTimeout) {
+			Assert.isTrue(!firstElementTimeout.isNegative(), "firstElementTimeout must not be negative");
+			this.firstElementTimeout = firstElementTimeout;
+			return this;
+		}
+
+		/**
+		 * Set the maximum time to wait between two consecutive elements.
+		 * @param interElementTimeout the timeout
+		 * @return this builder
+		 */
+		public Builder interElementTimeout(Duration interElementTimeout) {
+			Assert.isTrue(!interElementTimeout.isNegative(), "interElementTimeout must not be negative");
+			this.interElementTimeout = interElementTimeout;
+			return this;
+		}
+
+		/**
+		 * Set the maximum duration of the whole stream.
+		 * @param totalTimeout the timeout
+		 * @return this builder
+		 */
+		public Builder totalTimeout(Duration totalTimeout) {
+			Assert.isTrue(!totalTimeout.isNegative(), "totalTimeout must not be negative");
+			this.totalTimeout = totalTimeout;
+			return this;
+		}
+
+		public Resilience4JStreamingConfig build() {
+			return new Resilience4JStreamingConfig(this.firstElementTimeout, this.interElementTimeout,
+					this.totalTimeout);
+		}
+
+	}
+
+}
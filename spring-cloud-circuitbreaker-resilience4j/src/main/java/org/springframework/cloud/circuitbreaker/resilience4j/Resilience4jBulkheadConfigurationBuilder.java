@@ -29,6 +29,12 @@ public class Resilience4jBulkheadConfigurationBuilder {
 
 	private ThreadPoolBulkheadConfig threadPoolBulkheadConfig = ThreadPoolBulkheadConfig.ofDefaults();
 
+	private @Nullable Resilience4JPriorityBulkheadConfig priorityBulkheadConfig;
+
+	private @Nullable Resilience4JIdBulkheadConfig idBulkheadConfig;
+
+	private boolean virtualThreadBulkhead;
+
 	public Resilience4jBulkheadConfigurationBuilder bulkheadConfig(@Nullable BulkheadConfig bulkheadConfig) {
 		if (bulkheadConfig != null) {
 			this.bulkheadConfig = bulkheadConfig;
@@ -44,10 +50,55 @@ public class Resilience4jBulkheadConfigurationBuilder {
 		return this;
 	}
 
+	/**
+	 * Enable priority load shedding in front of the bulkhead.
+	 * @param priorityBulkheadConfig the priority load shedding configuration,
+	 * {@code null} to admit calls regardless of their priority
+	 * @return this builder
+	 */
+	public Resilience4jBulkheadConfigurationBuilder priorityBulkheadConfig(
+			@Nullable Resilience4JPriorityBulkheadConfig priorityBulkheadConfig) {
+		this.priorityBulkheadConfig = priorityBulkheadConfig;
+		return this;
+	}
+
+	/**
+	 * Limit the concurrent calls of each circuit breaker id inside the bulkhead of their
+	 * group.
+	 * @param idBulkheadConfig the per-id bulkhead configuration, {@code null} to only
+	 * limit the calls of the group
+	 * @return this builder
+	 */
+	public Resilience4jBulkheadConfigurationBuilder idBulkheadConfig(
+			@Nullable Resilience4JIdBulkheadConfig idBulkheadConfig) {
+		this.idBulkheadConfig = idBulkheadConfig;
+		return this;
+	}
+
+	/**
+	 * Run the calls of the bulkhead on virtual threads, limited by the maximum
+	 * concurrent calls and maximum wait duration of the bulkhead configuration, instead
+	 * of using a semaphore or a thread pool bulkhead. Requires Java 21 or later.
+	 * @param virtualThreadBulkhead whether to use a virtual thread bulkhead
+	 * @return this builder
+	 * @throws IllegalStateException if enabled on a Java version earlier than 21
+	 * @see VirtualThreadBulkhead
+	 */
+	public Resilience4jBulkheadConfigurationBuilder virtualThreadBulkhead(boolean virtualThreadBulkhead) {
+		if (virtualThreadBulkhead) {
+			VirtualThreadBulkhead.assertSupported();
+		}
+		this.virtualThreadBulkhead = virtualThreadBulkhead;
+		return this;
+	}
+
 	public BulkheadConfiguration build() {
 		BulkheadConfiguration configuration = new BulkheadConfiguration();
 		configuration.setBulkheadConfig(this.bulkheadConfig);
 		configuration.setThreadPoolBulkheadConfig(this.threadPoolBulkheadConfig);
+		configuration.setPriorityBulkheadConfig(this.priorityBulkheadConfig);
+		configuration.setIdBulkheadConfig(this.idBulkheadConfig);
+		configuration.setVirtualThreadBulkhead(this.virtualThreadBulkhead);
 		return configuration;
 	}
 
@@ -57,6 +108,12 @@ public class Resilience4jBulkheadConfigurationBuilder {
 
 		private @Nullable ThreadPoolBulkheadConfig threadPoolBulkheadConfig;
 
+		private @Nullable Resilience4JPriorityBulkheadConfig priorityBulkheadConfig;
+
+		private @Nullable Resilience4JIdBulkheadConfig idBulkheadConfig;
+
+		private boolean virtualThreadBulkhead;
+
 		public void setBulkheadConfig(BulkheadConfig bulkheadConfig) {
 			this.bulkheadConfig = bulkheadConfig;
 		}
@@ -73,6 +130,30 @@ public class Resilience4jBulkheadConfigurationBuilder {
 			return bulkheadConfig;
 		}
 
+		public @Nullable Resilience4JPriorityBulkheadConfig getPriorityBulkheadConfig() {
+			return priorityBulkheadConfig;
+		}
+
+		public void setPriorityBulkheadConfig(@Nullable Resilience4JPriorityBulkheadConfig priorityBulkheadConfig) {
+			this.priorityBulkheadConfig = priorityBulkheadConfig;
+		}
+
+		public @Nullable Resilience4JIdBulkheadConfig getIdBulkheadConfig() {
+			return idBulkheadConfig;
+		}
+
+		public void setIdBulkheadConfig(@Nullable Resilience4JIdBulkheadConfig idBulkheadConfig) {
+			this.idBulkheadConfig = idBulkheadConfig;
+		}
+
+		public boolean isVirtualThreadBulkhead() {
+			return virtualThreadBulkhead;
+		}
+
+		public void setVirtualThreadBulkhead(boolean virtualThreadBulkhead) {
+			this.virtualThreadBulkhead = virtualThreadBulkhead;
+		}
+
 	}
 
 }
@@ -18,6 +18,7 @@ package org.springframework.cloud.circuitbreaker.resilience4j;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -25,6 +26,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import io.github.resilience4j.bulkhead.Bulkhead;
@@ -52,10 +54,20 @@ public class Resilience4jBulkheadProvider {
 
 	private final ConcurrentHashMap<String, Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration> configurations = new ConcurrentHashMap<>();
 
+	private final Set<String> defaultConfigurations = ConcurrentHashMap.newKeySet();
+
 	private Function<String, Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration> defaultConfiguration;
 
 	private boolean semaphoreDefaultBulkhead = false;
 
+	private final PriorityBulkheads priorityBulkheads;
+
+	private final IdBulkheads idBulkheads;
+
+	private final BulkheadHandles bulkheadHandles = new BulkheadHandles();
+
+	private volatile @Nullable Resilience4jBulkheadWaitListener waitListener;
+
 	public Resilience4jBulkheadProvider(ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry,
 			BulkheadRegistry bulkheadRegistry,
 			Resilience4JConfigurationProperties resilience4JConfigurationProperties) {
@@ -66,12 +78,38 @@ public class Resilience4jBulkheadProvider {
 			.threadPoolBulkheadConfig(this.threadPoolBulkheadRegistry.getDefaultConfig())
 			.build();
 		this.semaphoreDefaultBulkhead = resilience4JConfigurationProperties.isEnableSemaphoreDefaultBulkhead();
+		boolean writableStackTraceEnabled = resilience4JConfigurationProperties.isWritableStackTraceEnabled();
+		this.priorityBulkheads = new PriorityBulkheads(writableStackTraceEnabled);
+		this.idBulkheads = new IdBulkheads(writableStackTraceEnabled);
+		bulkheadRegistry.getEventPublisher()
+			.onEntryAdded(event -> invalidateBulkheadHandle(event.getAddedEntry().getName(),
+					handle -> handle.getThreadPoolBulkhead() != null))
+			.onEntryRemoved(event -> this.bulkheadHandles.invalidate(event.getRemovedEntry().getName()))
+			.onEntryReplaced(event -> this.bulkheadHandles.invalidate(event.getOldEntry().getName()));
+		threadPoolBulkheadRegistry.getEventPublisher()
+			.onEntryAdded(event -> invalidateBulkheadHandle(event.getAddedEntry().getName(),
+					BulkheadHandle::isSemaphoreBulkhead))
+			.onEntryRemoved(event -> this.bulkheadHandles.invalidate(event.getRemovedEntry().getName()))
+			.onEntryReplaced(event -> this.bulkheadHandles.invalidate(event.getOldEntry().getName()));
+	}
+
+	/**
+	 * Invalidate the handle of a bulkhead when an entry is added to the registry of the
+	 * other kind of bulkhead, since it may change the kind of bulkhead used for the id.
+	 * Virtual thread bulkheads are explicitly configured, so they are not affected.
+	 */
+	private void invalidateBulkheadHandle(String id, Predicate<BulkheadHandle> affected) {
+		BulkheadHandle handle = this.bulkheadHandles.find(id);
+		if (handle != null && affected.test(handle)) {
+			this.bulkheadHandles.invalidate(id);
+		}
 	}
 
 	public void configureDefault(
 			Function<String, Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration> defaultConfiguration) {
 		Assert.notNull(defaultConfiguration, "Default configuration must not be null");
 		this.defaultConfiguration = defaultConfiguration;
+		this.bulkheadHandles.invalidateAll();
 	}
 
 	public void configure(Consumer<Resilience4jBulkheadConfigurationBuilder> consumer, String... ids) {
@@ -80,6 +118,8 @@ public class Resilience4jBulkheadProvider {
 			consumer.accept(builder);
 			Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration configuration = builder.build();
 			configurations.put(id, configuration);
+			this.defaultConfigurations.remove(id);
+			this.bulkheadHandles.invalidate(id);
 		}
 	}
 
@@ -91,6 +131,8 @@ public class Resilience4jBulkheadProvider {
 			Assert.notNull(bulkheadConfig, "Bulkhead configuration must not be null");
 			Bulkhead bulkhead = bulkheadRegistry.bulkhead(id, bulkheadConfig);
 			customizer.customize(bulkhead);
+			this.defaultConfigurations.remove(id);
+			this.bulkheadHandles.invalidate(id);
 		}
 	}
 
@@ -102,6 +144,130 @@ public class Resilience4jBulkheadProvider {
 			Assert.notNull(threadPoolBulkheadConfig, "ThreadPoolBulkhead configuration must not be null");
 			ThreadPoolBulkhead threadPoolBulkhead = threadPoolBulkheadRegistry.bulkhead(id, threadPoolBulkheadConfig);
 			customizer.customize(threadPoolBulkhead);
+			this.defaultConfigurations.remove(id);
+			this.bulkheadHandles.invalidate(id);
+		}
+	}
+
+	/**
+	 * Set a callback invoked once for each bulkhead with priority load shedding enabled,
+	 * for example to bind its rejection counts to a meter registry.
+	 * @param priorityBulkheadBinder the binder, {@code null} to bind nothing
+	 */
+	public void setPriorityBulkheadBinder(@Nullable Consumer<PriorityBulkhead> priorityBulkheadBinder) {
+		this.priorityBulkheads.setBinder(priorityBulkheadBinder);
+	}
+
+	/**
+	 * Set a listener receiving how long calls waited for a bulkhead permit and how long
+	 * they waited in the queue of a thread pool bulkhead.
+	 * @param waitListener the listener, {@code null} to not time waits
+	 */
+	public void setWaitListener(@Nullable Resilience4jBulkheadWaitListener waitListener) {
+		this.waitListener = waitListener;
+		// virtual thread bulkheads hold the listener of their handle
+		this.bulkheadHandles.invalidateAll();
+	}
+
+	@Nullable Resilience4jBulkheadWaitListener getWaitListener() {
+		return this.waitListener;
+	}
+
+	/**
+	 * Get the priority bulkhead of the given bulkhead.
+	 * @param id the bulkhead id
+	 * @return the priority bulkhead or {@code null} if priority load shedding is not
+	 * enabled for the bulkhead or it has not been called yet
+	 */
+	public @Nullable PriorityBulkhead getPriorityBulkhead(String id) {
+		return this.priorityBulkheads.find(id);
+	}
+
+	/**
+	 * Get the per-id bulkhead of the given circuit breaker id.
+	 * @param id the circuit breaker id
+	 * @return the per-id bulkhead or {@code null} if the id is only limited by the
+	 * bulkhead of its group or it has not been called yet
+	 */
+	public @Nullable IdBulkhead getIdBulkhead(String id) {
+		return this.idBulkheads.find(id);
+	}
+
+	/**
+	 * Get the handle of the bulkhead of the given id, resolving the kind of bulkhead to
+	 * use and the bulkhead instance if the id has no valid handle yet.
+	 * @param id the bulkhead id
+	 * @param tags the tags of the bulkhead, used if the bulkhead is created
+	 * @return the bulkhead handle
+	 * @see BulkheadHandle#isValid()
+	 */
+	public BulkheadHandle getBulkheadHandle(String id, Map<String, String> tags) {
+		return this.bulkheadHandles.get(id, key -> resolveBulkheadHandle(key, tags));
+	}
+
+	private BulkheadHandle resolveBulkheadHandle(String id, Map<String, String> tags) {
+		// If the configuration was supplied via a customizer use that configuration, else
+		// check if the configuration is present
+		// in the registries, and if its not present in either place, use the default
+		// configuration
+		Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration configuration = configurations
+			.computeIfAbsent(id, this::getConfiguration);
+		Resilience4JPriorityBulkheadConfig priorityBulkheadConfig = configuration.getPriorityBulkheadConfig();
+		boolean virtualThreadBulkhead = configuration.isVirtualThreadBulkhead();
+		if (virtualThreadBulkhead || useSemaphoreBulkhead(id)) {
+			BulkheadConfig bulkheadConfig = configuration.getBulkheadConfig();
+			Assert.notNull(bulkheadConfig, "Bulkhead configuration must not be null");
+			Bulkhead bulkhead = bulkheadRegistry.bulkhead(id, bulkheadConfig, tags);
+			PriorityBulkhead priorityBulkhead = (priorityBulkheadConfig != null) ? this.priorityBulkheads.get(id,
+					priorityBulkheadConfig, bulkheadConfig.getMaxConcurrentCalls()) : null;
+			if (virtualThreadBulkhead) {
+				return new BulkheadHandle(id, configuration, null, null,
+						new VirtualThreadBulkhead(bulkhead, this.waitListener), priorityBulkhead);
+			}
+			return new BulkheadHandle(id, configuration, bulkhead, null, null, priorityBulkhead);
+		}
+		ThreadPoolBulkheadConfig threadPoolBulkheadConfig = configuration.getThreadPoolBulkheadConfig();
+		Assert.notNull(threadPoolBulkheadConfig, "ThreadPoolBulkhead configuration must not be null");
+		ThreadPoolBulkhead threadPoolBulkhead = threadPoolBulkheadRegistry.bulkhead(id, threadPoolBulkheadConfig, tags);
+		PriorityBulkhead priorityBulkhead = (priorityBulkheadConfig != null)
+				? this.priorityBulkheads.get(id, priorityBulkheadConfig, getCapacity(threadPoolBulkheadConfig)) : null;
+		return new BulkheadHandle(id, configuration, null, threadPoolBulkhead, null, priorityBulkhead);
+	}
+
+	/**
+	 * Evict the per-id bulkhead of a circuit breaker id that was evicted.
+	 * @param id the circuit breaker id
+	 */
+	void evictIdBulkhead(String id) {
+		this.idBulkheads.remove(id);
+	}
+
+	/**
+	 * Evict the bulkhead of a group no longer used by any circuit breaker, unless it was
+	 * configured or customized explicitly. Its next call creates it again from the
+	 * configuration of the registries or the default configuration.
+	 * @param id the bulkhead id
+	 * @return {@code false} if the bulkhead was configured or customized explicitly and
+	 * is kept
+	 */
+	boolean evictBulkhead(String id) {
+		if (!this.defaultConfigurations.remove(id)) {
+			return !this.configurations.containsKey(id);
+		}
+		this.configurations.remove(id);
+		this.priorityBulkheads.remove(id);
+		this.bulkheadRegistry.remove(id);
+		this.threadPoolBulkheadRegistry.remove(id).ifPresent(Resilience4jBulkheadProvider::close);
+		this.bulkheadHandles.invalidate(id);
+		return true;
+	}
+
+	private static void close(ThreadPoolBulkhead threadPoolBulkhead) {
+		try {
+			threadPoolBulkhead.close();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Failed to close thread pool bulkhead " + threadPoolBulkhead.getName(), ex);
 		}
 	}
 
@@ -115,8 +281,17 @@ public class Resilience4jBulkheadProvider {
 
 	public <T> T run(String id, Supplier<T> toRun, Function<Throwable, T> fallback, CircuitBreaker circuitBreaker,
 			@Nullable TimeLimiter timeLimiter, Map<String, String> tags) {
-		Supplier<CompletionStage<T>> bulkheadCall = decorateBulkhead(id, tags, toRun);
-		final Callable<T> timeLimiterCall = decorateTimeLimiter(bulkheadCall, timeLimiter);
+		BulkheadHandle handle = getBulkheadHandle(id, tags);
+		VirtualThreadBulkhead virtualThreadBulkhead = handle.getVirtualThreadBulkhead();
+		final Callable<T> timeLimiterCall;
+		if (virtualThreadBulkhead != null) {
+			Callable<T> virtualThreadCall = decorateFutureTimeLimiter(() -> virtualThreadBulkhead.submit(toRun::get),
+					timeLimiter);
+			timeLimiterCall = decoratePriority(handle, virtualThreadCall, null);
+		}
+		else {
+			timeLimiterCall = decorateTimeLimiter(decorateBulkhead(handle, toRun), timeLimiter);
+		}
 		final Callable<T> circuitBreakerCall = circuitBreaker.decorateCallable(timeLimiterCall);
 		try {
 			return circuitBreakerCall.call();
@@ -126,32 +301,44 @@ public class Resilience4jBulkheadProvider {
 		}
 	}
 
-	private <T> Supplier<CompletionStage<T>> decorateBulkhead(final String id, final Map<String, String> tags,
-			final Supplier<T> supplier) {
-		// If the configuration was supplied via a customizer use that configuration, else
-		// check if the configuration is present
-		// in the registries, and if its not present in either place, use the default
-		// configuration
-		Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration configuration = configurations
-			.computeIfAbsent(id, this::getConfiguration);
-
-		if (useSemaphoreBulkhead(id)) {
-			BulkheadConfig bulkheadConfig = configuration.getBulkheadConfig();
-			Assert.notNull(bulkheadConfig, "Bulkhead configuration must not be null");
-			Bulkhead bulkhead = bulkheadRegistry.bulkhead(id, bulkheadConfig, tags);
+	private <T> Supplier<CompletionStage<T>> decorateBulkhead(BulkheadHandle handle, final Supplier<T> supplier) {
+		Bulkhead bulkhead = handle.getBulkhead();
+		ThreadPoolBulkhead threadPoolBulkhead = handle.getThreadPoolBulkhead();
+		Supplier<CompletionStage<T>> bulkheadCall;
+		if (bulkhead != null) {
 			Supplier<CompletionStage<T>> completionStageSupplier = () -> CompletableFuture.supplyAsync(supplier);
-			return Bulkhead.decorateCompletionStage(bulkhead, completionStageSupplier);
+			bulkheadCall = Bulkhead.decorateCompletionStage(bulkhead, completionStageSupplier);
 		}
 		else {
-			ThreadPoolBulkheadConfig threadPoolBulkheadConfig = configuration.getThreadPoolBulkheadConfig();
-			Assert.notNull(threadPoolBulkheadConfig, "ThreadPoolBulkhead configuration must not be null");
-			ThreadPoolBulkhead threadPoolBulkhead = threadPoolBulkheadRegistry.bulkhead(id, threadPoolBulkheadConfig,
-					tags);
-			return threadPoolBulkhead.decorateSupplier(supplier);
+			Assert.state(threadPoolBulkhead != null, "Bulkhead handle must hold a bulkhead");
+			bulkheadCall = () -> threadPoolBulkhead
+				.decorateSupplier(BulkheadWaits.queued(handle.getName(), supplier, this.waitListener))
+				.get();
+		}
+		return decoratePriority(handle.getPriorityBulkhead(), bulkheadCall);
+	}
+
+	private static <T> Supplier<CompletionStage<T>> decoratePriority(@Nullable PriorityBulkhead priorityBulkhead,
+			Supplier<CompletionStage<T>> supplier) {
+		if (priorityBulkhead == null) {
+			return supplier;
 		}
+		return () -> {
+			if (!priorityBulkhead.tryAcquire(CallPriority.NORMAL)) {
+				return CompletableFuture.failedFuture(priorityBulkhead.newFullException(CallPriority.NORMAL));
+			}
+			try {
+				return supplier.get().whenComplete((result, failure) -> priorityBulkhead.release(CallPriority.NORMAL));
+			}
+			catch (RuntimeException ex) {
+				priorityBulkhead.release(CallPriority.NORMAL);
+				throw ex;
+			}
+		};
 	}
 
 	private Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration getConfiguration(String id) {
+		this.defaultConfigurations.add(id);
 		Resilience4jBulkheadConfigurationBuilder builder = new Resilience4jBulkheadConfigurationBuilder();
 		Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration defaultConfiguration = this.defaultConfiguration
 			.apply(id);
@@ -165,22 +352,123 @@ public class Resilience4jBulkheadProvider {
 
 	public <T> Callable<T> decorateCallable(final String id, final Map<String, String> tags,
 			final Callable<T> callable) {
-		Resilience4jBulkheadConfigurationBuilder.BulkheadConfiguration configuration = configurations
-			.computeIfAbsent(id, this::getConfiguration);
+		return decorateCallable(id, tags, callable, null);
+	}
 
-		if (useSemaphoreBulkhead(id)) {
-			BulkheadConfig bulkheadConfig = configuration.getBulkheadConfig();
-			Assert.notNull(bulkheadConfig, "Bulkhead configuration must not be null");
-			Bulkhead bulkhead = bulkheadRegistry.bulkhead(id, bulkheadConfig, tags);
-			return Bulkhead.decorateCallable(bulkhead, callable);
+	/**
+	 * Decorate the callable with the bulkhead of the given id and, if priority load
+	 * shedding is enabled for the bulkhead, admit it according to its priority.
+	 * @param id the bulkhead id
+	 * @param tags the tags of the bulkhead
+	 * @param callable the callable to decorate
+	 * @param priority the priority of the call, {@code null} for
+	 * {@link CallPriority#NORMAL}
+	 * @param <T> the result type
+	 * @return the decorated callable
+	 * @see Resilience4jBulkheadConfigurationBuilder#priorityBulkheadConfig(Resilience4JPriorityBulkheadConfig)
+	 */
+	public <T> Callable<T> decorateCallable(final String id, final Map<String, String> tags,
+			final Callable<T> callable, @Nullable CallPriority priority) {
+		return decorateCallable(getBulkheadHandle(id, tags), callable, priority);
+	}
+
+	/**
+	 * Decorate the callable with the bulkhead of the given group and, if the group limits
+	 * the concurrent calls of the given id, with the per-id bulkhead of the id. The
+	 * per-id bulkhead is acquired first, without waiting, so a call never waits for the
+	 * group bulkhead while another call of the same id waits for it.
+	 * @param groupName the group bulkhead id
+	 * @param id the circuit breaker id
+	 * @param tags the tags of the bulkhead
+	 * @param callable the callable to decorate
+	 * @param priority the priority of the call, {@code null} for
+	 * {@link CallPriority#NORMAL}
+	 * @param <T> the result type
+	 * @return the decorated callable
+	 * @see Resilience4jBulkheadConfigurationBuilder#idBulkheadConfig(Resilience4JIdBulkheadConfig)
+	 */
+	public <T> Callable<T> decorateCallable(final String groupName, final String id, final Map<String, String> tags,
+			final Callable<T> callable, @Nullable CallPriority priority) {
+		return decorateCallable(getBulkheadHandle(groupName, tags), id, callable, priority);
+	}
+
+	/**
+	 * Decorate the callable with the bulkhead of the given handle and, if the bulkhead
+	 * limits the concurrent calls of the given id, with the per-id bulkhead of the id.
+	 * @param handle the handle of the group bulkhead
+	 * @param id the circuit breaker id
+	 * @param callable the callable to decorate
+	 * @param priority the priority of the call, {@code null} for
+	 * {@link CallPriority#NORMAL}
+	 * @param <T> the result type
+	 * @return the decorated callable
+	 * @see #getBulkheadHandle(String, Map)
+	 */
+	public <T> Callable<T> decorateCallable(BulkheadHandle handle, String id, Callable<T> callable,
+			@Nullable CallPriority priority) {
+		return decorateIdBulkhead(handle, id, decorateCallable(handle, callable, priority));
+	}
+
+	/**
+	 * Decorate a call to the {@link VirtualThreadBulkhead} of the given handle, which
+	 * submits the call to the virtual thread bulkhead itself, with the priority and per-id
+	 * bulkheads of the handle. Used by circuit breakers to limit the time they wait for
+	 * the virtual thread.
+	 */
+	<T> Callable<T> decorateVirtualThreadCall(BulkheadHandle handle, String id, Callable<T> virtualThreadCall,
+			@Nullable CallPriority priority) {
+		Assert.state(handle.isVirtualThreadBulkhead(), "Bulkhead handle must hold a virtual thread bulkhead");
+		return decorateIdBulkhead(handle, id, decoratePriority(handle, virtualThreadCall, priority));
+	}
+
+	private <T> Callable<T> decorateIdBulkhead(BulkheadHandle handle, String id, Callable<T> groupCall) {
+		IdBulkhead idBulkhead = this.idBulkheads.get(handle.getName(), id,
+				handle.getConfiguration().getIdBulkheadConfig());
+		return (idBulkhead != null) ? idBulkhead.decorateCallable(groupCall) : groupCall;
+	}
+
+	private <T> Callable<T> decorateCallable(BulkheadHandle handle, Callable<T> callable,
+			@Nullable CallPriority priority) {
+		Bulkhead bulkhead = handle.getBulkhead();
+		ThreadPoolBulkhead threadPoolBulkhead = handle.getThreadPoolBulkhead();
+		VirtualThreadBulkhead virtualThreadBulkhead = handle.getVirtualThreadBulkhead();
+		Callable<T> bulkheadCall;
+		if (bulkhead != null) {
+			bulkheadCall = () -> {
+				BulkheadWaits.acquirePermission(bulkhead, this.waitListener);
+				try {
+					return callable.call();
+				}
+				finally {
+					bulkhead.onComplete();
+				}
+			};
+		}
+		else if (virtualThreadBulkhead != null) {
+			bulkheadCall = () -> virtualThreadBulkhead.call(callable);
 		}
 		else {
-			ThreadPoolBulkheadConfig threadPoolBulkheadConfig = configuration.getThreadPoolBulkheadConfig();
-			Assert.notNull(threadPoolBulkheadConfig, "ThreadPoolBulkhead configuration must not be null");
-			ThreadPoolBulkhead threadPoolBulkhead = threadPoolBulkheadRegistry.bulkhead(id, threadPoolBulkheadConfig,
-					tags);
-			return () -> threadPoolBulkhead.decorateCallable(callable).get().toCompletableFuture().get();
+			Assert.state(threadPoolBulkhead != null, "Bulkhead handle must hold a bulkhead");
+			bulkheadCall = () -> threadPoolBulkhead
+				.decorateCallable(BulkheadWaits.queued(handle.getName(), callable, this.waitListener))
+				.get()
+				.toCompletableFuture()
+				.get();
+		}
+		return decoratePriority(handle, bulkheadCall, priority);
+	}
+
+	private static <T> Callable<T> decoratePriority(BulkheadHandle handle, Callable<T> bulkheadCall,
+			@Nullable CallPriority priority) {
+		PriorityBulkhead priorityBulkhead = handle.getPriorityBulkhead();
+		if (priorityBulkhead == null) {
+			return bulkheadCall;
 		}
+		return priorityBulkhead.decorateCallable((priority != null) ? priority : CallPriority.NORMAL, bulkheadCall);
+	}
+
+	private static int getCapacity(ThreadPoolBulkheadConfig threadPoolBulkheadConfig) {
+		return threadPoolBulkheadConfig.getMaxThreadPoolSize() + threadPoolBulkheadConfig.getQueueCapacity();
 	}
 
 	private boolean useSemaphoreBulkhead(String id) {
@@ -207,7 +495,11 @@ public class Resilience4jBulkheadProvider {
 
 	private static <T> Callable<T> decorateTimeLimiter(final Supplier<? extends CompletionStage<T>> supplier,
 			@Nullable TimeLimiter timeLimiter) {
-		final Supplier<Future<T>> futureSupplier = () -> supplier.get().toCompletableFuture();
+		return decorateFutureTimeLimiter(() -> supplier.get().toCompletableFuture(), timeLimiter);
+	}
+
+	private static <T> Callable<T> decorateFutureTimeLimiter(final Supplier<Future<T>> futureSupplier,
+			@Nullable TimeLimiter timeLimiter) {
 		if (timeLimiter == null) {
 			/* execute without time-limiter */
 			return () -> futureSupplier.get().get();
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+/**
+ * Receives how long calls of blocking circuit breakers waited for a permit of a
+ * semaphore or virtual thread bulkhead and, for a {@code ThreadPoolBulkhead}, how long
+ * they waited in its queue for a thread.
+ *
+ * @author Ryan Baxter
+ * @see Resilience4jBulkheadProvider#setWaitListener(Resilience4jBulkheadWaitListener)
+ */
+public interface Resilience4jBulkheadWaitListener {
+
+	/**
+	 * Called when a call acquired a permit of a bulkhead or gave up waiting for one.
+	 * @param bulkheadName the id of the bulkhead
+	 * @param waitNanos the time the call waited for the permit, in nanoseconds
+	 * @param permitted whether the call acquired the permit
+	 */
+	void onPermitWait(String bulkheadName, long waitNanos, boolean permitted);
+
+	/**
+	 * Called when a call submitted to a thread pool bulkhead started executing.
+	 * @param bulkheadName the id of the bulkhead
+	 * @param queueWaitNanos the time the call waited in the queue of the bulkhead, in
+	 * nanoseconds
+	 */
+	void onQueueWait(String bulkheadName, long queueWaitNanos);
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Coalesces concurrent executions sharing the same key into a single in-flight
+ * execution. The first caller for a key (the leader) performs the execution, every caller
+ * arriving while it is in flight waits for and receives the leader's result. Once the
+ * execution completes the key is released, so later callers trigger a new execution.
+ *
+ * @author Ryan Baxter
+ */
+final class SingleFlight {
+
+	private final ConcurrentHashMap<Object, CompletableFuture<@Nullable Object>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Execute the callable, or join the execution already in flight for the key.
+	 * @param key the coalescing key
+	 * @param callable the execution to perform when no execution is in flight
+	 * @param <T> the result type
+	 * @return the result of the shared execution
+	 * @throws Exception the failure of the shared execution
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T call(Object key, Callable<T> callable) throws Exception {
+		CompletableFuture<@Nullable Object> call = new CompletableFuture<>();
+		CompletableFuture<@Nullable Object> existing = register(key, call);
+		if (existing != null) {
+			return (T) await(existing);
+		}
+		try {
+			T result = callable.call();
+			complete(key, call, result, null);
+			return result;
+		}
+		catch (Exception | Error ex) {
+			complete(key, call, null, ex);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Register an execution for the key.
+	 * @param key the coalescing key
+	 * @param call the future completed by the caller once its execution finishes
+	 * @return the execution already in flight for the key or {@code null} if the given
+	 * call was registered and the caller is expected to perform the execution
+	 */
+	@Nullable CompletableFuture<@Nullable Object> register(Object key, CompletableFuture<@Nullable Object> call) {
+		return this.inFlight.putIfAbsent(key, call);
+	}
+
+	/**
+	 * Release the key and publish the outcome of an execution to the callers waiting for
+	 * it.
+	 * @param key the coalescing key
+	 * @param call the future that was registered for the execution
+	 * @param result the result of the execution
+	 * @param failure the failure of the execution, if any
+	 */
+	void complete(Object key, CompletableFuture<@Nullable Object> call, @Nullable Object result,
+			@Nullable Throwable failure) {
+		this.inFlight.remove(key, call);
+		if (failure != null) {
+			call.completeExceptionally(failure);
+		}
+		else {
+			call.complete(result);
+		}
+	}
+
+	/**
+	 * Get the number of keys that currently have an execution in flight.
+	 * @return the number of in-flight executions
+	 */
+	int size() {
+		return this.inFlight.size();
+	}
+
+	private static @Nullable Object await(CompletableFuture<@Nullable Object> call) throws Exception {
+		try {
+			return call.get();
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof Exception exception) {
+				throw exception;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+}
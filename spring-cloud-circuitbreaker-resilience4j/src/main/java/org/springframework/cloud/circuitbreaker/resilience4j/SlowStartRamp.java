@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Ramps up the traffic of a circuit breaker after it transitions from
+ * {@code HALF_OPEN} to {@code CLOSED}, as described in
+ * {@link Resilience4JSlowStartConfig}. The ramp-up is driven by the state transition
+ * events of the circuit breaker, so the permission check only reads the start of the
+ * current ramp-up. The first check after the ramp-up duration has elapsed ends the
+ * ramp-up, so later checks no longer read the clock.
+ *
+ * @author Ryan Baxter
+ */
+final class SlowStartRamp {
+
+	private static final long NOT_RAMPING = Long.MIN_VALUE;
+
+	private final Resilience4JSlowStartConfig config;
+
+	private final LongSupplier nanoClock;
+
+	private final long rampUpNanos;
+
+	private final AtomicLong rampUpStart = new AtomicLong(NOT_RAMPING);
+
+	private volatile @Nullable CircuitBreaker circuitBreaker;
+
+	SlowStartRamp(Resilience4JSlowStartConfig config) {
+		this(config, System::nanoTime);
+	}
+
+	SlowStartRamp(Resilience4JSlowStartConfig config, LongSupplier nanoClock) {
+		this.config = config;
+		this.nanoClock = nanoClock;
+		this.rampUpNanos = config.getRampUpDuration().toNanos();
+	}
+
+	Resilience4JSlowStartConfig getConfig() {
+		return this.config;
+	}
+
+	/**
+	 * Listen to the state transitions of the circuit breaker, unless already listening to
+	 * them. The registry may replace the circuit breaker of an id, in which case the ramp
+	 * follows the new circuit breaker.
+	 * @param circuitBreaker the circuit breaker
+	 */
+	void attach(CircuitBreaker circuitBreaker) {
+		if (this.circuitBreaker == circuitBreaker) {
+			return;
+		}
+		synchronized (this) {
+			if (this.circuitBreaker != circuitBreaker) {
+				circuitBreaker.getEventPublisher().onStateTransition(event -> {
+					if (this.circuitBreaker == circuitBreaker) {
+						onStateTransition(event.getStateTransition());
+					}
+				});
+				this.circuitBreaker = circuitBreaker;
+				this.rampUpStart.set(NOT_RAMPING);
+			}
+		}
+	}
+
+	void onStateTransition(CircuitBreaker.StateTransition stateTransition) {
+		if (stateTransition == CircuitBreaker.StateTransition.HALF_OPEN_TO_CLOSED && this.rampUpNanos > 0) {
+			this.rampUpStart.set(this.nanoClock.getAsLong());
+		}
+		else {
+			this.rampUpStart.set(NOT_RAMPING);
+		}
+	}
+
+	/**
+	 * Whether the circuit breaker is ramping up its traffic.
+	 * @return {@code true} if only a share of the calls is permitted
+	 */
+	boolean isRampingUp() {
+		return getPermittedRatio() < 1;
+	}
+
+	/**
+	 * Get the share of the calls currently permitted.
+	 * @return the permitted ratio, 1 when the circuit breaker is not ramping up
+	 */
+	double getPermittedRatio() {
+		long start = this.rampUpStart.get();
+		if (start == NOT_RAMPING) {
+			return 1;
+		}
+		long elapsed = this.nanoClock.getAsLong() - start;
+		if (elapsed >= this.rampUpNanos) {
+			// A transition may have started a new ramp-up since, which must not be ended
+			this.rampUpStart.compareAndSet(start, NOT_RAMPING);
+			return 1;
+		}
+		return this.config.getPermittedRatio((double) elapsed / this.rampUpNanos);
+	}
+
+	/**
+	 * Decide whether a call is permitted.
+	 * @return {@code true} if the call is permitted
+	 */
+	boolean tryAcquirePermission() {
+		double permittedRatio = getPermittedRatio();
+		return permittedRatio >= 1 || ThreadLocalRandom.current().nextDouble() < permittedRatio;
+	}
+
+}
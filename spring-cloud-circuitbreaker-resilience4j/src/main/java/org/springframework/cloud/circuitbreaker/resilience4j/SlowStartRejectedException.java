@@ -0,0 +1,61 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a call of a circuit breaker is not permitted because the circuit breaker
+ * closed recently and is still ramping up its traffic. The call has not been executed.
+ * Circuit breakers do not record such calls.
+ *
+ * @author Ryan Baxter
+ * @see Resilience4JSlowStartConfig
+ */
+public class SlowStartRejectedException extends RejectedExecutionException {
+
+	private final String circuitBreakerName;
+
+	private final boolean writableStackTrace;
+
+	public SlowStartRejectedException(String circuitBreakerName) {
+		this(circuitBreakerName, true);
+	}
+
+	/**
+	 * Create an exception, without a stack trace if {@code writableStackTrace} is
+	 * {@code false}.
+	 */
+	SlowStartRejectedException(String circuitBreakerName, boolean writableStackTrace) {
+		super("Call of CircuitBreaker '" + circuitBreakerName + "' not permitted while it ramps up after closing");
+		this.circuitBreakerName = circuitBreakerName;
+		this.writableStackTrace = writableStackTrace;
+		if (writableStackTrace) {
+			super.fillInStackTrace();
+		}
+	}
+
+	public String getCircuitBreakerName() {
+		return this.circuitBreakerName;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this.writableStackTrace ? super.fillInStackTrace() : this;
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Thrown when a call of a circuit breaker does not complete within its time limiter
+ * timeout, or within the timeout of its run options. The call is cancelled and recorded
+ * as a failure by the circuit breaker.
+ *
+ * @author Ryan Baxter
+ * @see Resilience4JCircuitBreaker
+ * @see ReactiveResilience4JCircuitBreaker
+ */
+public class TimeLimitExceededException extends TimeoutException {
+
+	private final String circuitBreakerName;
+
+	private final Duration timeout;
+
+	private final boolean writableStackTrace;
+
+	public TimeLimitExceededException(String circuitBreakerName, Duration timeout) {
+		this(circuitBreakerName, timeout, true);
+	}
+
+	/**
+	 * Create an exception, without a stack trace if {@code writableStackTrace} is
+	 * {@code false}.
+	 */
+	TimeLimitExceededException(String circuitBreakerName, Duration timeout, boolean writableStackTrace) {
+		super("Call of CircuitBreaker '" + circuitBreakerName + "' did not complete within " + timeout);
+		this.circuitBreakerName = circuitBreakerName;
+		this.timeout = timeout;
+		this.writableStackTrace = writableStackTrace;
+		if (writableStackTrace) {
+			super.fillInStackTrace();
+		}
+	}
+
+	public String getCircuitBreakerName() {
+		return this.circuitBreakerName;
+	}
+
+	public Duration getTimeout() {
+		return this.timeout;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this.writableStackTrace ? super.fillInStackTrace() : this;
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.util.Assert;
+
+/**
+ * Runs each call on a new virtual thread once it gets a permit of a semaphore
+ * {@link Bulkhead}. Like a thread pool bulkhead, calls are isolated from the calling
+ * thread and can be interrupted when they time out, but no thread pool needs to be sized
+ * and no platform thread is held while a call is blocked. The permits, their wait and
+ * their metrics are those of the semaphore bulkhead, which is registered in the
+ * {@code BulkheadRegistry} under the id of the bulkhead.
+ *
+ * <p>
+ * Virtual threads require Java 21 or later. Creating a virtual thread bulkhead on an
+ * earlier Java version fails with an {@link IllegalStateException}.
+ * </p>
+ *
+ * @author Ryan Baxter
+ * @see Resilience4jBulkheadConfigurationBuilder#virtualThreadBulkhead(boolean)
+ */
+public final class VirtualThreadBulkhead {
+
+	private final Bulkhead bulkhead;
+
+	private final TaskExecutor executor;
+
+	private final @Nullable Resilience4jBulkheadWaitListener waitListener;
+
+	VirtualThreadBulkhead(Bulkhead bulkhead, @Nullable Resilience4jBulkheadWaitListener waitListener) {
+		this(bulkhead, createExecutor(bulkhead.getName()), waitListener);
+	}
+
+	VirtualThreadBulkhead(Bulkhead bulkhead, TaskExecutor executor) {
+		this(bulkhead, executor, null);
+	}
+
+	VirtualThreadBulkhead(Bulkhead bulkhead, TaskExecutor executor,
+			@Nullable Resilience4jBulkheadWaitListener waitListener) {
+		this.bulkhead = bulkhead;
+		this.executor = executor;
+		this.waitListener = waitListener;
+	}
+
+	private static TaskExecutor createExecutor(String name) {
+		assertSupported();
+		return new VirtualThreadTaskExecutor(name + "-bulkhead-");
+	}
+
+	/**
+	 * Whether the JVM supports virtual threads.
+	 * @return {@code true} on Java 21 or later
+	 */
+	static boolean isSupported() {
+		return Runtime.version().feature() >= 21;
+	}
+
+	/**
+	 * Fail if the JVM does not support virtual threads.
+	 * @throws IllegalStateException on Java versions earlier than 21
+	 */
+	static void assertSupported() {
+		Assert.state(isSupported(), () -> "Virtual thread bulkheads require Java 21 or later, but running on Java "
+				+ Runtime.version().feature());
+	}
+
+	/**
+	 * Get the id of the bulkhead.
+	 * @return the name
+	 */
+	public String getName() {
+		return this.bulkhead.getName();
+	}
+
+	/**
+	 * Get the semaphore bulkhead holding the permits of the bulkhead.
+	 * @return the semaphore bulkhead
+	 */
+	public Bulkhead getBulkhead() {
+		return this.bulkhead;
+	}
+
+	/**
+	 * Run the callable on a new virtual thread once a permit is acquired. The permit is
+	 * released once the virtual thread is done with the call. Cancelling the returned
+	 * future interrupts the virtual thread, but the permit stays held until the callable
+	 * returns.
+	 * @param callable the callable to run
+	 * @param <T> the result type
+	 * @return the future of the call
+	 * @throws io.github.resilience4j.bulkhead.BulkheadFullException if no permit is
+	 * available within the maximum wait duration of the bulkhead
+	 */
+	public <T> Future<T> submit(Callable<T> callable) {
+		BulkheadWaits.acquirePermission(this.bulkhead, this.waitListener);
+		FutureTask<T> task = new FutureTask<>(callable) {
+			@Override
+			public void run() {
+				try {
+					super.run();
+				}
+				finally {
+					VirtualThreadBulkhead.this.bulkhead.onComplete();
+				}
+			}
+		};
+		try {
+			this.executor.execute(task);
+		}
+		catch (RuntimeException ex) {
+			this.bulkhead.releasePermission();
+			throw ex;
+		}
+		return task;
+	}
+
+	/**
+	 * Run the callable on a new virtual thread once a permit is acquired and wait for
+	 * its result. The virtual thread is interrupted if the calling thread is interrupted
+	 * while waiting.
+	 * @param callable the callable to run
+	 * @param <T> the result type
+	 * @return the result of the callable
+	 * @throws Exception the exception thrown by the callable
+	 */
+	public <T> T call(Callable<T> callable) throws Exception {
+		Future<T> future = submit(callable);
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			future.cancel(true);
+			throw ex;
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof Exception exception) {
+				throw exception;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "VirtualThreadBulkhead{name=" + getName() + "}";
+	}
+
+}
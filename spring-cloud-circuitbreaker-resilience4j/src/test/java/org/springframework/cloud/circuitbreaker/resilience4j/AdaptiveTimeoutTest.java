@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Ryan Baxter
+ */
+public class AdaptiveTimeoutTest {
+
+	private static final Duration TIME_LIMITER_TIMEOUT = Duration.ofSeconds(1);
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	@Test
+	public void usesTimeLimiterTimeoutUntilEnoughCallsObserved() {
+		AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(
+				Resilience4JAdaptiveTimeoutConfig.custom().minimumNumberOfCalls(10).build(), nanoTime::get);
+		record(adaptiveTimeout, 9, Duration.ofMillis(100));
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isEqualTo(TIME_LIMITER_TIMEOUT);
+	}
+
+	@Test
+	public void derivesTimeoutFromPercentile() {
+		AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(Resilience4JAdaptiveTimeoutConfig.custom()
+			.percentile(0.9)
+			.multiplier(2)
+			.minimumNumberOfCalls(10)
+			.build(), nanoTime::get);
+		record(adaptiveTimeout, 90, Duration.ofMillis(10));
+		record(adaptiveTimeout, 10, Duration.ofMillis(500));
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isBetween(Duration.ofMillis(20),
+				Duration.ofMillis(23));
+	}
+
+	@Test
+	public void recomputesTimeoutAtMostOncePerSecond() {
+		AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(
+				Resilience4JAdaptiveTimeoutConfig.custom().minimumNumberOfCalls(10).build(), nanoTime::get);
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isEqualTo(TIME_LIMITER_TIMEOUT);
+		record(adaptiveTimeout, 100, Duration.ofMillis(100));
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isEqualTo(TIME_LIMITER_TIMEOUT);
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isLessThan(TIME_LIMITER_TIMEOUT);
+	}
+
+	@Test
+	public void boundsTimeout() {
+		AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(Resilience4JAdaptiveTimeoutConfig.custom()
+			.minimumTimeout(Duration.ofMillis(50))
+			.maximumTimeout(Duration.ofMillis(200))
+			.minimumNumberOfCalls(10)
+			.build(), nanoTime::get);
+		record(adaptiveTimeout, 100, Duration.ofMillis(1));
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isEqualTo(Duration.ofMillis(50));
+		nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(3));
+		record(adaptiveTimeout, 100, Duration.ofMillis(400));
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isEqualTo(Duration.ofMillis(200));
+	}
+
+	@Test
+	public void boundsTimeoutByTimeLimiterTimeoutByDefault() {
+		AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(
+				Resilience4JAdaptiveTimeoutConfig.custom().minimumNumberOfCalls(10).build(), nanoTime::get);
+		record(adaptiveTimeout, 100, Duration.ofSeconds(2));
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isEqualTo(TIME_LIMITER_TIMEOUT);
+	}
+
+	@Test
+	public void recordsDurationOfSuccessfulCalls() {
+		AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(
+				Resilience4JAdaptiveTimeoutConfig.custom().minimumNumberOfCalls(1).build(), nanoTime::get);
+		assertThat(adaptiveTimeout.recording(() -> {
+			nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+			return "foo";
+		}).get()).isEqualTo("foo");
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isBetween(Duration.ofMillis(150),
+				Duration.ofMillis(170));
+	}
+
+	@Test
+	public void recordsDurationOfFailedCalls() {
+		AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(
+				Resilience4JAdaptiveTimeoutConfig.custom().minimumNumberOfCalls(1).build(), nanoTime::get);
+		assertThatThrownBy(() -> adaptiveTimeout.recording(() -> {
+			nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+			throw new IllegalStateException("boom");
+		}).get()).isInstanceOf(IllegalStateException.class);
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isBetween(Duration.ofMillis(150),
+				Duration.ofMillis(170));
+	}
+
+	@Test
+	public void growsTimeoutWhenLatencyShiftsAboveIt() {
+		AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(
+				Resilience4JAdaptiveTimeoutConfig.custom().minimumNumberOfCalls(10).build(), nanoTime::get);
+		record(adaptiveTimeout, 100, Duration.ofMillis(10));
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		Duration timeout = adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT);
+		assertThat(timeout).isLessThan(Duration.ofMillis(20));
+		Duration latency = Duration.ofMillis(100);
+		for (int i = 0; i < 10; i++) {
+			// calls slower than the timeout time out and are recorded at the timeout
+			record(adaptiveTimeout, 100, (latency.compareTo(timeout) < 0) ? latency : timeout);
+			nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+			timeout = adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT);
+		}
+		assertThat(timeout).isGreaterThan(latency);
+	}
+
+	@Test
+	public void usesConfiguredWindowAndRefreshInterval() {
+		AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout(Resilience4JAdaptiveTimeoutConfig.custom()
+			.minimumNumberOfCalls(10)
+			.window(Duration.ofSeconds(10))
+			.refreshInterval(Duration.ofSeconds(5))
+			.build(), nanoTime::get);
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isEqualTo(TIME_LIMITER_TIMEOUT);
+		record(adaptiveTimeout, 100, Duration.ofMillis(100));
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(4));
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isEqualTo(TIME_LIMITER_TIMEOUT);
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isLessThan(TIME_LIMITER_TIMEOUT);
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(20));
+		assertThat(adaptiveTimeout.getTimeout(TIME_LIMITER_TIMEOUT)).isEqualTo(TIME_LIMITER_TIMEOUT);
+	}
+
+	private static void record(AdaptiveTimeout adaptiveTimeout, int calls, Duration duration) {
+		for (int i = 0; i < calls; i++) {
+			adaptiveTimeout.record(duration.toNanos());
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties.AdmissionControlProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Ryan Baxter
+ */
+public class AdmissionControllerTest {
+
+	private final TestLoadSampler loadSampler = new TestLoadSampler();
+
+	@Test
+	public void admitsAllCallsUntilOverloaded() {
+		AdmissionController admissionController = new AdmissionController(properties(), loadSampler);
+		admissionController.sample();
+		assertThat(admissionController.isOverloaded()).isFalse();
+		assertThat(admissionController.admit(CallPriority.LOW)).isTrue();
+	}
+
+	@Test
+	public void shedsLowPriorityCallsWhileGcPausesAreTooLong() {
+		AdmissionController admissionController = new AdmissionController(properties(), loadSampler);
+		loadSampler.gcPauseRatio = 0.5;
+		admissionController.sample();
+		assertThat(admissionController.isOverloaded()).isTrue();
+		assertThat(admissionController.admit(CallPriority.LOW)).isFalse();
+		assertThat(admissionController.admit(CallPriority.NORMAL)).isTrue();
+		assertThat(admissionController.admit(null)).isTrue();
+		assertThat(admissionController.admit(CallPriority.HIGH)).isTrue();
+		assertThat(admissionController.getShedCount()).isEqualTo(1);
+
+		loadSampler.gcPauseRatio = 0;
+		admissionController.sample();
+		assertThat(admissionController.isOverloaded()).isFalse();
+		assertThat(admissionController.admit(CallPriority.LOW)).isTrue();
+	}
+
+	@Test
+	public void shedsCallsUpToShedPriorityWhileCpuIsSaturated() {
+		AdmissionControlProperties properties = properties();
+		properties.setShedPriority(CallPriority.NORMAL);
+		AdmissionController admissionController = new AdmissionController(properties, loadSampler);
+		loadSampler.cpuLoad = 0.99;
+		admissionController.sample();
+		assertThat(admissionController.admit(CallPriority.LOW)).isFalse();
+		assertThat(admissionController.admit(null)).isFalse();
+		assertThat(admissionController.admit(CallPriority.HIGH)).isTrue();
+	}
+
+	@Test
+	public void overloadedWhileExecutorQueuesAreTooDeep() {
+		AdmissionControlProperties properties = properties();
+		properties.setMaxExecutorQueueDepth(10);
+		AdmissionController admissionController = new AdmissionController(properties, loadSampler);
+		AtomicInteger queueDepth = new AtomicInteger(6);
+		admissionController.addQueueDepthSource(queueDepth::get);
+		admissionController.addQueueDepthSource(queueDepth::get);
+		admissionController.sample();
+		assertThat(admissionController.isOverloaded()).isTrue();
+		queueDepth.set(5);
+		admissionController.sample();
+		assertThat(admissionController.isOverloaded()).isFalse();
+	}
+
+	@Test
+	public void shedsShareOfCalls() {
+		AdmissionControlProperties properties = properties();
+		properties.setShedRatio(0.5);
+		AdmissionController admissionController = new AdmissionController(properties, loadSampler);
+		loadSampler.gcPauseRatio = 0.5;
+		admissionController.sample();
+		int admitted = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (admissionController.admit(CallPriority.LOW)) {
+				admitted++;
+			}
+		}
+		assertThat(admitted).isBetween(4_000, 6_000);
+	}
+
+	@Test
+	public void stopAdmitsAllCalls() {
+		AdmissionController admissionController = new AdmissionController(properties(), loadSampler);
+		admissionController.start();
+		assertThat(admissionController.isRunning()).isTrue();
+		loadSampler.gcPauseRatio = 0.5;
+		admissionController.sample();
+		admissionController.stop();
+		assertThat(admissionController.isRunning()).isFalse();
+		assertThat(admissionController.admit(CallPriority.LOW)).isTrue();
+	}
+
+	static AdmissionControlProperties properties() {
+		AdmissionControlProperties properties = new AdmissionControlProperties();
+		properties.setShedRatio(1);
+		return properties;
+	}
+
+	static class TestLoadSampler implements AdmissionController.LoadSampler {
+
+		volatile double gcPauseRatio;
+
+		volatile double cpuLoad;
+
+		@Override
+		public double sampleGcPauseRatio() {
+			return this.gcPauseRatio;
+		}
+
+		@Override
+		public double sampleCpuLoad() {
+			return this.cpuLoad;
+		}
+
+	}
+
+}
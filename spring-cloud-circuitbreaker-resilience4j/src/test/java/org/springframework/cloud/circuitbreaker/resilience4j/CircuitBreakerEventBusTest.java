@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerEvent;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnErrorEvent;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnSuccessEvent;
+import org.junit.Test;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.CircuitBreakerEventBus.RingBuffer;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties.EventBusProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Ryan Baxter
+ */
+public class CircuitBreakerEventBusTest {
+
+	@Test
+	public void dispatchesEventsOfBoundCircuitBreakersInOrder() {
+		CircuitBreakerEventBus eventBus = new CircuitBreakerEventBus(new EventBusProperties());
+		List<CircuitBreakerEvent> events = new CopyOnWriteArrayList<>();
+		eventBus.addConsumer(events::add);
+		CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+		eventBus.bindTo(registry);
+
+		CircuitBreaker circuitBreaker = registry.circuitBreaker("foo");
+		circuitBreaker.executeSupplier(() -> "foo");
+		try {
+			circuitBreaker.executeSupplier(() -> {
+				throw new IllegalStateException("boom");
+			});
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+		assertThat(events).isEmpty();
+
+		eventBus.dispatch();
+		assertThat(events).hasSize(2);
+		assertThat(events.get(0)).isInstanceOf(CircuitBreakerOnSuccessEvent.class);
+		assertThat(events.get(1)).isInstanceOf(CircuitBreakerOnErrorEvent.class);
+		assertThat(events).allMatch(event -> event.getCircuitBreakerName().equals("foo"));
+		assertThat(eventBus.getDispatchedCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void dropsEventsWhileBufferIsFull() {
+		EventBusProperties properties = new EventBusProperties();
+		properties.setCapacity(4);
+		properties.setBatchSize(3);
+		CircuitBreakerEventBus eventBus = new CircuitBreakerEventBus(properties);
+		List<CircuitBreakerEvent> events = new CopyOnWriteArrayList<>();
+		eventBus.addConsumer(events::add);
+		eventBus.addConsumer(event -> {
+			throw new IllegalStateException("boom");
+		});
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("foo");
+		eventBus.bindTo(circuitBreaker);
+
+		for (int i = 0; i < 6; i++) {
+			circuitBreaker.executeSupplier(() -> "foo");
+		}
+		assertThat(eventBus.getDroppedCount()).isEqualTo(2);
+
+		eventBus.dispatch();
+		assertThat(events).hasSize(4);
+		assertThat(eventBus.getDispatchedCount()).isEqualTo(4);
+
+		circuitBreaker.executeSupplier(() -> "foo");
+		eventBus.dispatch();
+		assertThat(events).hasSize(5);
+		assertThat(eventBus.getDroppedCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void dispatchesEventsOnBackgroundThread() throws InterruptedException {
+		CircuitBreakerEventBus eventBus = new CircuitBreakerEventBus(new EventBusProperties());
+		CountDownLatch dispatched = new CountDownLatch(1);
+		List<String> threadNames = new CopyOnWriteArrayList<>();
+		eventBus.addConsumer(event -> {
+			threadNames.add(Thread.currentThread().getName());
+			dispatched.countDown();
+		});
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("foo");
+		eventBus.bindTo(circuitBreaker);
+		eventBus.start();
+		try {
+			assertThat(eventBus.isRunning()).isTrue();
+			circuitBreaker.executeSupplier(() -> "foo");
+			assertThat(dispatched.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(threadNames).singleElement().asString().startsWith("resilience4j-event-bus-");
+		}
+		finally {
+			eventBus.stop();
+		}
+		assertThat(eventBus.isRunning()).isFalse();
+	}
+
+	@Test
+	public void ringBufferCapacityIsRoundedUpToPowerOfTwo() {
+		assertThat(new RingBuffer<String>(1).capacity()).isEqualTo(1);
+		assertThat(new RingBuffer<String>(5).capacity()).isEqualTo(8);
+		assertThat(new RingBuffer<String>(8).capacity()).isEqualTo(8);
+	}
+
+	@Test
+	public void ringBufferWrapsAround() {
+		RingBuffer<String> buffer = new RingBuffer<>(2);
+		String[] batch = new String[2];
+		for (int i = 0; i < 5; i++) {
+			assertThat(buffer.offer("a" + i)).isTrue();
+			assertThat(buffer.offer("b" + i)).isTrue();
+			assertThat(buffer.offer("c" + i)).isFalse();
+			assertThat(buffer.drainTo(batch)).isEqualTo(2);
+			assertThat(batch).containsExactly("a" + i, "b" + i);
+			assertThat(buffer.drainTo(batch)).isZero();
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Ryan Baxter
+ */
+public class FallbackCacheTest {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	public void expiresEntriesAfterTimeToLiveAndStaleWindow() {
+		FallbackCache cache = new FallbackCache(Resilience4JFallbackCacheConfig.custom()
+			.timeToLive(Duration.ofSeconds(10))
+			.staleWhileRevalidate(Duration.ofSeconds(5))
+			.build(), clock::get);
+		cache.put("key", "value");
+
+		clock.set(Duration.ofSeconds(10).toNanos());
+		FallbackCache.Entry fresh = cache.get("key");
+		assertThat(fresh).isNotNull();
+		assertThat(cache.isStale(fresh)).isFalse();
+
+		clock.set(Duration.ofSeconds(12).toNanos());
+		FallbackCache.Entry stale = cache.get("key");
+		assertThat(stale).isNotNull();
+		assertThat(cache.isStale(stale)).isTrue();
+		assertThat(stale.getValue()).isEqualTo("value");
+		assertThat(stale.startRevalidation()).isTrue();
+		assertThat(stale.startRevalidation()).isFalse();
+
+		clock.set(Duration.ofSeconds(16).toNanos());
+		assertThat(cache.get("key")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void evictsLeastFrequentlyUsedEntriesWhenFull() {
+		FallbackCache cache = new FallbackCache(Resilience4JFallbackCacheConfig.custom().maximumSize(10).build(),
+				clock::get);
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, "value" + i);
+			clock.incrementAndGet();
+		}
+		for (int i = 0; i < 5; i++) {
+			cache.get(i);
+		}
+		cache.put(10, "value10");
+
+		// evicted down to the maximum size less a batch of a tenth of it
+		assertThat(cache.size()).isEqualTo(9);
+		for (int i = 0; i < 5; i++) {
+			assertThat(cache.get(i)).isNotNull();
+		}
+		assertThat(cache.get(5)).isNull();
+		assertThat(cache.get(6)).isNull();
+		assertThat(cache.get(7)).isNotNull();
+	}
+
+	@Test
+	public void staysWithinMaximumSizeWhenWrittenConcurrently() throws Exception {
+		FallbackCache cache = new FallbackCache(Resilience4JFallbackCacheConfig.custom().maximumSize(100).build());
+		ExecutorService writers = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int writer = 0; writer < 4; writer++) {
+				int offset = writer * 10_000;
+				futures.add(writers.submit(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						cache.put(offset + i, "value");
+						cache.get(offset + i);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			writers.shutdownNow();
+		}
+		assertThat(cache.size()).isLessThanOrEqualTo(100);
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Ryan Baxter
+ */
+public class FlightRecorderEventsTest {
+
+	private static final String PREFIX = "org.springframework.cloud.circuitbreaker.resilience4j.";
+
+	@Test
+	public void recordsFallbacksRejectionsAndStateTransitions() throws IOException {
+		CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+		Resilience4JConfigurationProperties properties = new Resilience4JConfigurationProperties();
+		properties.setDisableThreadPool(true);
+		CircuitBreaker cb = new Resilience4JCircuitBreakerFactory(registry, TimeLimiterRegistry.ofDefaults(), null,
+				properties)
+			.create("foo");
+
+		List<RecordedEvent> events = record(() -> {
+			cb.run(() -> {
+				throw new IllegalStateException("boom");
+			}, t -> "fallback");
+			registry.circuitBreaker("foo").transitionToOpenState();
+			cb.run(() -> "foobar", t -> "fallback");
+		});
+
+		assertThat(eventsOf(events, "Fallback")).extracting(event -> event.getString("exceptionClass"))
+			.containsExactly(IllegalStateException.class.getName(), CallNotPermittedException.class.getName());
+		assertThat(eventsOf(events, "Fallback")).allMatch(event -> "foo".equals(event.getString("circuitBreaker")));
+		List<RecordedEvent> rejected = eventsOf(events, "Rejected");
+		assertThat(rejected).singleElement().satisfies(event -> {
+			assertThat(event.getString("circuitBreaker")).isEqualTo("foo");
+			assertThat(event.getString("exceptionClass")).isEqualTo(CallNotPermittedException.class.getName());
+		});
+		assertThat(eventsOf(events, "StateTransition")).singleElement().satisfies(event -> {
+			assertThat(event.getString("circuitBreaker")).isEqualTo("foo");
+			assertThat(event.getString("fromState")).isEqualTo("CLOSED");
+			assertThat(event.getString("toState")).isEqualTo("OPEN");
+		});
+	}
+
+	@Test
+	public void recordsReactiveTimeouts() throws IOException {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		ReactiveResilience4JCircuitBreaker cb = (ReactiveResilience4JCircuitBreaker) factory.create("foo");
+		Mono<String> slow = Mono.just("foobar").delayElement(Duration.ofMillis(1500));
+		Resilience4JRunOptions options = Resilience4JRunOptions.custom().timeout(Duration.ofMillis(100)).build();
+
+		List<RecordedEvent> events = record(() -> cb.run(slow, t -> Mono.just("timeout"), options).block());
+
+		assertThat(eventsOf(events, "Timeout")).singleElement().satisfies(event -> {
+			assertThat(event.getString("circuitBreaker")).isEqualTo("foo");
+			assertThat(event.getString("exceptionClass")).isEqualTo(TimeLimitExceededException.class.getName());
+			assertThat(event.getString("message")).contains("foo");
+		});
+		assertThat(eventsOf(events, "Fallback")).singleElement()
+			.satisfies(event -> assertThat(event.getString("exceptionClass"))
+				.isEqualTo(TimeLimitExceededException.class.getName()));
+	}
+
+	@Test
+	public void recordsBulkheadWaits() throws IOException {
+		Bulkhead bulkhead = Bulkhead.of("foo",
+				BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ofMillis(50)).build());
+		bulkhead.acquirePermission();
+
+		List<RecordedEvent> events = record(
+				() -> assertThatThrownBy(() -> FlightRecorderEvents.acquirePermission(bulkhead))
+					.isInstanceOf(BulkheadFullException.class));
+
+		assertThat(eventsOf(events, "BulkheadWait")).singleElement().satisfies(event -> {
+			assertThat(event.getString("bulkhead")).isEqualTo("foo");
+			assertThat(event.getBoolean("permitted")).isFalse();
+			assertThat(event.getDuration()).isGreaterThanOrEqualTo(Duration.ofMillis(40));
+		});
+	}
+
+	private static List<RecordedEvent> record(Runnable runnable) throws IOException {
+		Path file = Files.createTempFile("circuitbreaker", ".jfr");
+		try (Recording recording = new Recording()) {
+			for (String name : List.of("Rejected", "Timeout", "Fallback", "StateTransition", "BulkheadWait")) {
+				recording.enable(PREFIX + name);
+			}
+			recording.start();
+			runnable.run();
+			recording.stop();
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file);
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static List<RecordedEvent> eventsOf(List<RecordedEvent> events, String name) {
+		return events.stream()
+			.filter(event -> event.getEventType().getName().equals(PREFIX + name))
+			.collect(Collectors.toList());
+	}
+
+}
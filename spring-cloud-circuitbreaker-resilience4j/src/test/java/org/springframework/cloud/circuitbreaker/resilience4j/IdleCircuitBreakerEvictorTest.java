@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties.EvictionProperties;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Ryan Baxter
+ */
+public class IdleCircuitBreakerEvictorTest {
+
+	private final Set<String> evictedIds = new HashSet<>();
+
+	private final Set<String> evictedGroupNames = new HashSet<>();
+
+	private final List<ExecutorService> groupExecutorServices = new CopyOnWriteArrayList<>();
+
+	private final Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+			CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+			new Resilience4JConfigurationProperties());
+
+	@After
+	public void after() {
+		factory.stop();
+	}
+
+	@Test
+	public void evictsIdleCircuitBreakersAndTheirGroup() throws Exception {
+		IdleCircuitBreakerEvictor evictor = evictor(Duration.ofMillis(1), null);
+		CircuitBreaker cb = factory.create("foo", "groupFoo");
+		assertThat(cb.run(() -> "foobar")).isEqualTo("foobar");
+		assertThat(factory.getCircuitBreakerRegistry().find("foo")).isPresent();
+		assertThat(groupExecutorServices).hasSize(1);
+
+		Thread.sleep(10);
+		evictor.sweep();
+		assertThat(evictedIds).containsExactly("foo");
+		assertThat(evictedGroupNames).containsExactly("groupFoo");
+		assertThat(evictor.getEvictedCount()).isEqualTo(1);
+		assertThat(factory.getCircuitBreakerRegistry().find("foo")).isEmpty();
+		assertThat(groupExecutorServices.get(0).isShutdown()).isTrue();
+
+		// The circuit breaker held by the caller keeps working with a new executor
+		assertThat(cb.run(() -> "foobar")).isEqualTo("foobar");
+		assertThat(factory.getCircuitBreakerRegistry().find("foo")).isPresent();
+		assertThat(groupExecutorServices).hasSize(2);
+		assertThat(groupExecutorServices.get(1).isShutdown()).isFalse();
+	}
+
+	@Test
+	public void shutsDownTheGroupExecutorService() throws Exception {
+		evictor(Duration.ofMillis(1), null);
+		Resilience4JCircuitBreaker cb = factory.create("foo", "groupFoo");
+		assertThat(cb.run(() -> "foobar")).isEqualTo("foobar");
+		ExecutorService executorService = cb.getSettings().getExecutorService();
+		assertThat(executorService).isNotNull();
+		assertThat(executorService.isShutdown()).isFalse();
+
+		executorService.shutdown();
+		assertThat(groupExecutorServices.get(0).isShutdown()).isTrue();
+		assertThat(executorService.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(executorService.isShutdown()).isTrue();
+		assertThat(executorService.isTerminated()).isTrue();
+	}
+
+	@Test
+	public void keepsCircuitBreakersInUse() {
+		IdleCircuitBreakerEvictor evictor = evictor(Duration.ofHours(1), null);
+		CircuitBreaker cb = factory.create("foo");
+		cb.run(() -> "foobar");
+		evictor.sweep();
+		assertThat(evictedIds).isEmpty();
+		assertThat(factory.getCircuitBreakerRegistry().find("foo")).isPresent();
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedCircuitBreakersOverMaxSize() {
+		IdleCircuitBreakerEvictor evictor = evictor(Duration.ofHours(1), 2);
+		factory.create("foo").run(() -> "foobar");
+		evictor.sweep();
+		factory.create("bar").run(() -> "foobar");
+		evictor.sweep();
+		factory.create("baz").run(() -> "foobar");
+		evictor.sweep();
+		assertThat(evictedIds).containsExactly("foo");
+		assertThat(factory.getCircuitBreakerRegistry().find("foo")).isEmpty();
+		assertThat(factory.getCircuitBreakerRegistry().find("bar")).isPresent();
+		assertThat(factory.getCircuitBreakerRegistry().find("baz")).isPresent();
+	}
+
+	@Test
+	public void keepsCircuitBreakersInManualState() throws Exception {
+		IdleCircuitBreakerEvictor evictor = evictor(Duration.ofMillis(1), null);
+		CircuitBreaker cb = factory.create("foo");
+		cb.run(() -> "foobar");
+		factory.getCircuitBreakerRegistry().circuitBreaker("foo").transitionToForcedOpenState();
+		Thread.sleep(10);
+		evictor.sweep();
+		assertThat(evictedIds).isEmpty();
+		assertThat(factory.getCircuitBreakerRegistry().find("foo")).isPresent();
+	}
+
+	private IdleCircuitBreakerEvictor evictor(Duration idleTimeout, Integer maxSize) {
+		EvictionProperties properties = new EvictionProperties();
+		properties.setIdleTimeout(idleTimeout);
+		properties.setInterval(Duration.ofMillis(1));
+		properties.setMaxSize(maxSize);
+		IdleCircuitBreakerEvictor evictor = new IdleCircuitBreakerEvictor(properties);
+		evictor.addEvictionListener((ids, groupNames) -> {
+			evictedIds.addAll(ids);
+			evictedGroupNames.addAll(groupNames);
+		});
+		factory.setGroupExecutorServiceBinder((groupName, executorService) -> {
+			groupExecutorServices.add(executorService);
+		});
+		factory.setIdleCircuitBreakerEvictor(evictor);
+		return evictor;
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Ryan Baxter
+ */
+public class LatencyHistogramTest {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	public void bucketUpperBoundContainsValue() {
+		for (long value : new long[] { 0, 1, 7, 8, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE / 2 }) {
+			int bucket = LatencyHistogram.bucket(value);
+			assertThat(LatencyHistogram.upperBound(bucket)).isGreaterThanOrEqualTo(value);
+			if (bucket > 0) {
+				assertThat(LatencyHistogram.upperBound(bucket - 1)).isLessThan(value);
+			}
+		}
+	}
+
+	@Test
+	public void percentile() {
+		LatencyHistogram histogram = new LatencyHistogram(TimeUnit.MINUTES.toNanos(1), clock::get);
+		assertThat(histogram.getPercentile(0.95, 1)).isEqualTo(-1);
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+		}
+		assertThat(histogram.getPercentile(0.95, 101)).isEqualTo(-1);
+		long p95 = histogram.getPercentile(0.95, 100);
+		assertThat(p95).isBetween(TimeUnit.MILLISECONDS.toNanos(95), TimeUnit.MILLISECONDS.toNanos(95) * 9 / 8);
+	}
+
+	@Test
+	public void samplesExpireAfterTwoWindows() {
+		LatencyHistogram histogram = new LatencyHistogram(TimeUnit.MINUTES.toNanos(1), clock::get);
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+		clock.set(TimeUnit.SECONDS.toNanos(90));
+		assertThat(histogram.getPercentile(0.5, 1)).isPositive();
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+		clock.set(TimeUnit.SECONDS.toNanos(150));
+		assertThat(histogram.getPercentile(1, 1)).isLessThan(TimeUnit.MILLISECONDS.toNanos(20));
+		clock.set(TimeUnit.SECONDS.toNanos(250));
+		assertThat(histogram.getPercentile(0.5, 1)).isEqualTo(-1);
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Ryan Baxter
+ */
+public class PriorityBulkheadTest {
+
+	@Test
+	public void limitsPerPriority() {
+		PriorityBulkhead priorityBulkhead = new PriorityBulkhead("foo", Resilience4JPriorityBulkheadConfig.custom()
+			.highPriorityReservedShare(0.2)
+			.lowPriorityShare(0.5)
+			.build(), 10);
+		assertThat(priorityBulkhead.getMaxConcurrentCalls(CallPriority.HIGH)).isEqualTo(10);
+		assertThat(priorityBulkhead.getMaxConcurrentCalls(CallPriority.NORMAL)).isEqualTo(8);
+		assertThat(priorityBulkhead.getMaxConcurrentCalls(CallPriority.LOW)).isEqualTo(5);
+	}
+
+	@Test
+	public void limitsAreNeverZero() {
+		PriorityBulkhead priorityBulkhead = new PriorityBulkhead("foo", Resilience4JPriorityBulkheadConfig.custom()
+			.highPriorityReservedShare(0.9)
+			.lowPriorityShare(1)
+			.build(), 1);
+		assertThat(priorityBulkhead.getMaxConcurrentCalls(CallPriority.HIGH)).isEqualTo(1);
+		assertThat(priorityBulkhead.getMaxConcurrentCalls(CallPriority.NORMAL)).isEqualTo(1);
+		assertThat(priorityBulkhead.getMaxConcurrentCalls(CallPriority.LOW)).isEqualTo(1);
+	}
+
+	@Test
+	public void shedsLowerPrioritiesFirst() {
+		PriorityBulkhead priorityBulkhead = new PriorityBulkhead("foo", Resilience4JPriorityBulkheadConfig.custom()
+			.highPriorityReservedShare(0.25)
+			.lowPriorityShare(0.25)
+			.build(), 4);
+		assertThat(priorityBulkhead.tryAcquire(CallPriority.LOW)).isTrue();
+		assertThat(priorityBulkhead.tryAcquire(CallPriority.LOW)).isFalse();
+		assertThat(priorityBulkhead.tryAcquire(CallPriority.NORMAL)).isTrue();
+		assertThat(priorityBulkhead.tryAcquire(CallPriority.NORMAL)).isTrue();
+		assertThat(priorityBulkhead.tryAcquire(CallPriority.NORMAL)).isFalse();
+		assertThat(priorityBulkhead.tryAcquire(CallPriority.HIGH)).isTrue();
+		assertThat(priorityBulkhead.tryAcquire(CallPriority.HIGH)).isFalse();
+
+		assertThat(priorityBulkhead.getInFlight(CallPriority.LOW)).isEqualTo(1);
+		assertThat(priorityBulkhead.getInFlight(CallPriority.NORMAL)).isEqualTo(2);
+		assertThat(priorityBulkhead.getInFlight(CallPriority.HIGH)).isEqualTo(1);
+		assertThat(priorityBulkhead.getRejectedCount(CallPriority.LOW)).isEqualTo(1);
+		assertThat(priorityBulkhead.getRejectedCount(CallPriority.NORMAL)).isEqualTo(1);
+		assertThat(priorityBulkhead.getRejectedCount(CallPriority.HIGH)).isEqualTo(1);
+
+		priorityBulkhead.release(CallPriority.NORMAL);
+		assertThat(priorityBulkhead.tryAcquire(CallPriority.LOW)).isFalse();
+		assertThat(priorityBulkhead.tryAcquire(CallPriority.NORMAL)).isTrue();
+	}
+
+	@Test
+	public void replacementKeepsRejectedCounts() {
+		Resilience4JPriorityBulkheadConfig config = Resilience4JPriorityBulkheadConfig.ofDefaults();
+		PriorityBulkhead priorityBulkhead = new PriorityBulkhead("foo", config, 1);
+		assertThat(priorityBulkhead.tryAcquire(CallPriority.HIGH)).isTrue();
+		assertThat(priorityBulkhead.tryAcquire(CallPriority.LOW)).isFalse();
+		PriorityBulkhead replacement = new PriorityBulkhead("foo", config, 2, priorityBulkhead, true);
+		assertThat(replacement.getRejectedCount(CallPriority.LOW)).isEqualTo(1);
+		assertThat(replacement.getInFlight(CallPriority.HIGH)).isZero();
+	}
+
+	@Test
+	public void fullExceptionsAreStacklessUnlessEnabled() {
+		Resilience4JPriorityBulkheadConfig config = Resilience4JPriorityBulkheadConfig.ofDefaults();
+		PriorityBulkheadFullException stackless = new PriorityBulkhead("foo", config, 1, null, false)
+			.newFullException(CallPriority.LOW);
+		assertThat(stackless.getBulkheadName()).isEqualTo("foo");
+		assertThat(stackless.getPriority()).isEqualTo(CallPriority.LOW);
+		assertThat(stackless.getStackTrace()).isEmpty();
+		assertThat(new PriorityBulkhead("foo", config, 1, null, true).newFullException(CallPriority.LOW)
+			.getStackTrace()).isNotEmpty();
+	}
+
+}
@@ -16,17 +16,34 @@
 
 package org.springframework.cloud.circuitbreaker.resilience4j;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import io.github.resilience4j.bulkhead.BulkheadConfig;
 import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
 import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import org.junit.Test;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
 import org.springframework.cloud.client.circuitbreaker.NoFallbackAvailableException;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
@@ -263,4 +280,503 @@ public class ReactiveResilience4JCircuitBreakerTest {
 			.block()).isEqualTo(Collections.singletonList("noBulkheadFallbackFlux"));
 	}
 
+	@Test
+	public void runFluxInStreamingModeRecordsSuccessAfterFirstElement() {
+		ReactiveResilience4JCircuitBreakerFactory factory = factory();
+		factory.configure(builder -> builder.streamingConfig(Resilience4JStreamingConfig.custom()
+			.firstElementTimeout(Duration.ofSeconds(1))
+			.totalTimeout(Duration.ofMillis(100))
+			.build()), "foo");
+		ReactiveCircuitBreaker cb = factory.create("foo");
+
+		assertThat(Flux.concat(Mono.just("item0"), Mono.<String>never())
+			.transform(it -> cb.run(it, t -> Flux.just("fallback")))
+			.collectList()
+			.block()).containsExactly("item0", "fallback");
+		CircuitBreaker.Metrics metrics = factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics();
+		assertThat(metrics.getNumberOfSuccessfulCalls()).isEqualTo(1);
+		assertThat(metrics.getNumberOfFailedCalls()).isZero();
+	}
+
+	@Test
+	public void runFluxInStreamingModeFirstElementTimeout() {
+		ReactiveResilience4JCircuitBreakerFactory factory = factory();
+		factory.configure(builder -> builder.streamingConfig(
+				Resilience4JStreamingConfig.custom().firstElementTimeout(Duration.ofMillis(100)).build()), "foo");
+		ReactiveCircuitBreaker cb = factory.create("foo");
+
+		assertThat(Flux.<String>never()
+			.transform(it -> cb.run(it, t -> Flux.just("fallback")))
+			.collectList()
+			.block()).containsExactly("fallback");
+		CircuitBreaker.Metrics metrics = factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics();
+		assertThat(metrics.getNumberOfSuccessfulCalls()).isZero();
+		assertThat(metrics.getNumberOfFailedCalls()).isEqualTo(1);
+	}
+
+	@Test
+	public void runFluxInStreamingModeInterElementTimeout() {
+		ReactiveResilience4JCircuitBreakerFactory factory = factory();
+		factory.configure(builder -> builder.streamingConfig(
+				Resilience4JStreamingConfig.custom().interElementTimeout(Duration.ofMillis(100)).build()), "foo");
+		ReactiveCircuitBreaker cb = factory.create("foo");
+
+		assertThat(Flux.concat(Mono.just("first"), Mono.<String>never())
+			.transform(it -> cb.run(it, t -> Flux.just("fallback")))
+			.collectList()
+			.block()).containsExactly("first", "fallback");
+		CircuitBreaker.Metrics metrics = factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics();
+		assertThat(metrics.getNumberOfSuccessfulCalls()).isEqualTo(1);
+		assertThat(metrics.getNumberOfFailedCalls()).isZero();
+	}
+
+	@Test
+	public void runMonoCoalescedSharesInFlightExecution() throws Exception {
+		ReactiveResilience4JCircuitBreakerFactory factory = factory();
+		AtomicInteger subscriptions = new AtomicInteger();
+		Sinks.One<String> inFlight = Sinks.one();
+		Mono<String> slow = Mono.defer(() -> {
+			subscriptions.incrementAndGet();
+			return inFlight.asMono();
+		});
+
+		CompletableFuture<List<String>> results = Flux
+			.merge(factory.create("foo").runCoalesced("key", slow, t -> Mono.just("fallback")),
+					factory.create("foo").runCoalesced("key", slow, t -> Mono.just("fallback")))
+			.collectList()
+			.toFuture();
+		assertThat(subscriptions.get()).isEqualTo(1);
+		inFlight.tryEmitValue("foobar");
+		assertThat(results.get(5, TimeUnit.SECONDS)).containsExactly("foobar", "foobar");
+		assertThat(subscriptions.get()).isEqualTo(1);
+		assertThat(factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics().getNumberOfSuccessfulCalls())
+			.isEqualTo(1);
+	}
+
+	@Test
+	public void runMonoCoalescedWithFallback() {
+		ReactiveResilience4JCircuitBreaker cb = factory().create("foo");
+		Mono<String> failing = Mono.error(new RuntimeException("boom"));
+		assertThat(cb.runCoalesced("key", failing, t -> Mono.just("fallback")).block()).isEqualTo("fallback");
+		assertThat(cb.runCoalesced("key", Mono.just("foobar"), t -> Mono.just("fallback")).block())
+			.isEqualTo("foobar");
+	}
+
+	@Test
+	public void runMonoWithHedgingReturnsFirstCompletedAttempt() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		factory.configure(builder -> builder.hedgingConfig(
+				Resilience4JHedgingConfig.custom().initialDelay(Duration.ofMillis(50)).maxExtraLoad(1).build()),
+				"foo");
+		AtomicInteger subscriptions = new AtomicInteger();
+		AtomicBoolean cancelled = new AtomicBoolean();
+		Mono<String> toRun = Mono.defer(() -> {
+			if (subscriptions.incrementAndGet() == 1) {
+				return Mono.just("slow").delayElement(Duration.ofSeconds(5)).doOnCancel(() -> cancelled.set(true));
+			}
+			return Mono.just("fast");
+		});
+
+		assertThat(factory.create("foo").run(toRun, t -> Mono.just("fallback")).block()).isEqualTo("fast");
+		assertThat(subscriptions.get()).isEqualTo(2);
+		assertThat(cancelled.get()).isTrue();
+		CircuitBreaker.Metrics metrics = factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics();
+		assertThat(metrics.getNumberOfSuccessfulCalls()).isEqualTo(1);
+	}
+
+	@Test
+	public void runMonoWithHedgingReturnsSecondAttemptWhenFirstAttemptFails() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		factory.configure(builder -> builder.hedgingConfig(
+				Resilience4JHedgingConfig.custom().initialDelay(Duration.ofMillis(10)).maxExtraLoad(1).build()),
+				"foo");
+		AtomicInteger subscriptions = new AtomicInteger();
+		Sinks.Empty<Void> hedgeStarted = Sinks.empty();
+		Sinks.Empty<Void> firstFailed = Sinks.empty();
+		Mono<String> toRun = Mono.defer(() -> {
+			if (subscriptions.incrementAndGet() == 1) {
+				return hedgeStarted.asMono()
+					.then(Mono.<String>error(new IllegalStateException("first")))
+					.doOnError(ex -> firstFailed.tryEmitEmpty());
+			}
+			return firstFailed.asMono().then(Mono.just("second")).doOnSubscribe(s -> hedgeStarted.tryEmitEmpty());
+		});
+
+		assertThat(factory.create("foo").run(toRun, t -> Mono.just("fallback")).block()).isEqualTo("second");
+		assertThat(subscriptions.get()).isEqualTo(2);
+		CircuitBreaker.Metrics metrics = factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics();
+		assertThat(metrics.getNumberOfSuccessfulCalls()).isEqualTo(1);
+	}
+
+	@Test
+	public void runMonoWithHedgingFailsOnceEveryAttemptFailed() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		factory.configure(builder -> builder.hedgingConfig(
+				Resilience4JHedgingConfig.custom().initialDelay(Duration.ofMillis(10)).maxExtraLoad(1).build()),
+				"foo");
+		AtomicInteger subscriptions = new AtomicInteger();
+		Sinks.Empty<Void> secondFailed = Sinks.empty();
+		Mono<String> toRun = Mono.defer(() -> {
+			if (subscriptions.incrementAndGet() == 1) {
+				return secondFailed.asMono().then(Mono.<String>error(new IllegalStateException("first")));
+			}
+			return Mono.<String>error(new IllegalArgumentException("second"))
+				.doOnError(ex -> secondFailed.tryEmitEmpty());
+		});
+
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		assertThat(factory.create("foo").run(toRun, t -> {
+			failure.set(t);
+			return Mono.just("fallback");
+		}).block()).isEqualTo("fallback");
+		assertThat(failure.get()).isInstanceOfAny(IllegalStateException.class, IllegalArgumentException.class);
+		assertThat(subscriptions.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void runMonoWithPassedDeadlineDoesNotSubscribe() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		AtomicInteger subscriptions = new AtomicInteger();
+		Mono<String> toRun = Mono.fromSupplier(() -> {
+			subscriptions.incrementAndGet();
+			return "foobar";
+		});
+		assertThat(factory.create("foo")
+			.run(toRun, t -> Mono.just(t instanceof DeadlineExceededException ? "deadline" : "fallback"))
+			.contextWrite(Context.of(DeadlineContextHolder.CONTEXT_KEY, Instant.now().minusMillis(1)))
+			.block()).isEqualTo("deadline");
+		assertThat(subscriptions.get()).isZero();
+		CircuitBreaker.Metrics metrics = factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics();
+		assertThat(metrics.getNumberOfBufferedCalls()).isZero();
+	}
+
+	@Test
+	public void runMonoWithDeadlineShorterThanTimeLimiter() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		long start = System.nanoTime();
+		assertThat(factory.create("foo")
+			.run(Mono.just("foobar").delayElement(Duration.ofSeconds(5)),
+					t -> Mono.just(t instanceof DeadlineExceededException ? "deadline" : "fallback"))
+			.contextWrite(Context.of(DeadlineContextHolder.CONTEXT_KEY, Instant.now().plusMillis(100)))
+			.block()).isEqualTo("deadline");
+		assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(900));
+		CircuitBreaker.Metrics metrics = factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics();
+		assertThat(metrics.getNumberOfFailedCalls()).isEqualTo(1);
+	}
+
+	@Test
+	public void runFluxWithDeadlineBoundsTheWholeStream() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		long start = System.nanoTime();
+		List<String> result = factory.create("foo")
+			.run(Flux.interval(Duration.ofMillis(50)).map(String::valueOf),
+					t -> Flux.just(t instanceof DeadlineExceededException ? "deadline" : "fallback"))
+			.contextWrite(Context.of(DeadlineContextHolder.CONTEXT_KEY, Instant.now().plusMillis(200)))
+			.collectList()
+			.block(Duration.ofSeconds(5));
+		assertThat(result).isNotNull().last().isEqualTo("deadline");
+		assertThat(result).hasSizeLessThan(6);
+		assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(900));
+	}
+
+	@Test
+	public void runFluxWithCustomDeadlineProvider() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		factory.setDeadlineProvider(context -> context.<Instant>getOrEmpty("budget").orElse(null));
+		assertThat(factory.create("foo")
+			.run(Flux.just("foo", "bar").delayElements(Duration.ofMillis(400)), t -> Flux.just("deadline"))
+			.contextWrite(Context.of("budget", Instant.now().plusMillis(200)))
+			.collectList()
+			.block()).containsExactly("deadline");
+	}
+
+	@Test
+	public void runMonoWhileOpenFailsFastWithoutDecoratingTheCall() {
+		CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(registry,
+				TimeLimiterRegistry.ofDefaults(), null, new Resilience4JConfigurationProperties());
+		AtomicInteger decorations = new AtomicInteger();
+		factory.addCircuitBreakerCustomizer(circuitBreaker -> decorations.incrementAndGet(), "foo");
+		assertThat(factory.create("foo").run(Mono.just("foobar"), t -> Mono.just("fallback")).block())
+			.isEqualTo("foobar");
+		registry.circuitBreaker("foo").transitionToOpenState();
+		Mono<String> rejected = factory.create("foo")
+			.run(Mono.just("foobar"),
+					t -> Mono.just(t instanceof CallNotPermittedException ? "rejected" : "fallback"));
+		assertThat(rejected.block()).isEqualTo("rejected");
+		assertThat(decorations.get()).isEqualTo(1);
+
+		registry.circuitBreaker("foo").transitionToClosedState();
+		assertThat(factory.create("foo").run(Mono.just("foobar"), t -> Mono.just("fallback")).block())
+			.isEqualTo("foobar");
+		assertThat(decorations.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void runMonoWhileOpenSharesStacklessRejection() {
+		CircuitBreakerRegistry registry = CircuitBreakerRegistry
+			.of(CircuitBreakerConfig.custom().writableStackTraceEnabled(false).build());
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(registry,
+				TimeLimiterRegistry.ofDefaults(), null, new Resilience4JConfigurationProperties());
+		assertThat(factory.create("foo").run(Mono.just("foobar")).block()).isEqualTo("foobar");
+		registry.circuitBreaker("foo").transitionToOpenState();
+		List<Throwable> rejections = new CopyOnWriteArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			factory.create("foo").run(Mono.just("foobar"), t -> {
+				rejections.add(t);
+				return Mono.just("fallback");
+			}).block();
+		}
+		assertThat(rejections).hasSize(2);
+		assertThat(rejections.get(0)).isInstanceOf(CallNotPermittedException.class).isSameAs(rejections.get(1));
+		assertThat(rejections.get(0).getStackTrace()).isEmpty();
+	}
+
+	@Test
+	public void runMonoTimeoutIsStacklessUnlessEnabled() {
+		Resilience4JConfigurationProperties properties = new Resilience4JConfigurationProperties();
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null, properties);
+		Mono<String> slow = Mono.just("foobar").delayElement(Duration.ofMillis(1500));
+		Resilience4JRunOptions options = Resilience4JRunOptions.custom().timeout(Duration.ofMillis(100)).build();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		((ReactiveResilience4JCircuitBreaker) factory.create("foo")).run(slow, t -> {
+			failure.set(t);
+			return Mono.just("timeout");
+		}, options).block();
+		assertThat(failure.get()).isInstanceOf(TimeLimitExceededException.class);
+		assertThat(failure.get().getStackTrace()).isEmpty();
+
+		properties.setWritableStackTraceEnabled(true);
+		factory = new ReactiveResilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(),
+				TimeLimiterRegistry.ofDefaults(), null, properties);
+		((ReactiveResilience4JCircuitBreaker) factory.create("foo")).run(slow, t -> {
+			failure.set(t);
+			return Mono.just("timeout");
+		}, options).block();
+		assertThat(failure.get()).isInstanceOf(TimeLimitExceededException.class);
+		assertThat(failure.get().getStackTrace()).isNotEmpty();
+	}
+
+	@Test
+	public void runMonoWithRunOptionsTimeout() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		ReactiveResilience4JCircuitBreaker cb = (ReactiveResilience4JCircuitBreaker) factory.create("foo");
+		Mono<String> slow = Mono.just("foobar").delayElement(Duration.ofMillis(1500));
+		assertThat(cb.run(slow, t -> Mono.just(t instanceof TimeoutException ? "timeout" : "fallback"),
+				Resilience4JRunOptions.custom().timeout(Duration.ofMillis(100)).build())
+			.block()).isEqualTo("timeout");
+		assertThat(cb.run(slow, t -> Mono.just("fallback"),
+				Resilience4JRunOptions.custom().timeout(Duration.ofSeconds(5)).build())
+			.block()).isEqualTo("foobar");
+		assertThat(cb.run(slow, t -> Mono.just("fallback")).block()).isEqualTo("fallback");
+	}
+
+	@Test
+	public void runFluxWithRunOptionsTimeout() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		ReactiveResilience4JCircuitBreaker cb = (ReactiveResilience4JCircuitBreaker) factory.create("foo");
+		assertThat(cb
+			.run(Flux.just("foo", "bar").delayElements(Duration.ofMillis(800)), t -> Flux.just("fallback"),
+					Resilience4JRunOptions.custom().timeout(Duration.ofSeconds(5)).build())
+			.collectList()
+			.block()).containsExactly("foo", "bar");
+	}
+
+	@Test
+	public void runMonoWithRunOptionsCoalescingKey() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		AtomicInteger subscriptions = new AtomicInteger();
+		Mono<String> slow = Mono.defer(() -> {
+			subscriptions.incrementAndGet();
+			return Mono.just("foobar").delayElement(Duration.ofMillis(200));
+		});
+		ReactiveResilience4JCircuitBreaker cb = (ReactiveResilience4JCircuitBreaker) factory.create("foo");
+		Resilience4JRunOptions options = Resilience4JRunOptions.custom().coalescingKey("key").build();
+
+		List<String> results = Flux
+			.merge(cb.run(slow, t -> Mono.just("fallback"), options), cb.run(slow, t -> Mono.just("fallback"), options))
+			.collectList()
+			.block();
+		assertThat(results).containsExactly("foobar", "foobar");
+		assertThat(subscriptions.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void runMonoWithPriorityBulkheadShedsLowPriorityCallsFirst() {
+		ReactiveResilience4jBulkheadProvider bulkheadProvider = new ReactiveResilience4jBulkheadProvider(
+				BulkheadRegistry.ofDefaults());
+		bulkheadProvider.configure(builder -> builder
+			.bulkheadConfig(BulkheadConfig.custom().maxConcurrentCalls(2).build())
+			.priorityBulkheadConfig(Resilience4JPriorityBulkheadConfig.custom()
+				.highPriorityReservedShare(0.5)
+				.lowPriorityShare(0.5)
+				.build()), "foo");
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), bulkheadProvider,
+				new Resilience4JConfigurationProperties());
+		ReactiveResilience4JCircuitBreaker cb = (ReactiveResilience4JCircuitBreaker) factory.create("foo");
+		Disposable running = cb.run(Mono.just("foobar").delayElement(Duration.ofMillis(500)), null).subscribe();
+		try {
+			assertThat(cb
+				.run(Mono.just("low"),
+						t -> Mono.just(t instanceof PriorityBulkheadFullException ? "shed" : "fallback"))
+				.contextWrite(Context.of(CallPriority.CONTEXT_KEY, CallPriority.LOW))
+				.block()).isEqualTo("shed");
+			assertThat(cb
+				.run(Mono.just("high"), t -> Mono.just("fallback"),
+						Resilience4JRunOptions.custom().priority(CallPriority.HIGH).build())
+				.contextWrite(Context.of(CallPriority.CONTEXT_KEY, CallPriority.LOW))
+				.block()).isEqualTo("high");
+		}
+		finally {
+			running.dispose();
+		}
+		PriorityBulkhead priorityBulkhead = bulkheadProvider.getPriorityBulkhead("foo");
+		assertThat(priorityBulkhead).isNotNull();
+		assertThat(priorityBulkhead.getRejectedCount(CallPriority.LOW)).isEqualTo(1);
+		assertThat(priorityBulkhead.getInFlight(CallPriority.NORMAL)).isZero();
+	}
+
+	@Test
+	public void runMonoWithIdBulkheadLimitsIdInsideGroupBulkhead() {
+		ReactiveResilience4jBulkheadProvider bulkheadProvider = new ReactiveResilience4jBulkheadProvider(
+				BulkheadRegistry.ofDefaults());
+		bulkheadProvider.configure(builder -> builder
+			.bulkheadConfig(BulkheadConfig.custom().maxConcurrentCalls(10).build())
+			.idBulkheadConfig(Resilience4JIdBulkheadConfig.custom().maxConcurrentCalls(1).build()), "group");
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), bulkheadProvider,
+				new Resilience4JConfigurationProperties());
+		ReactiveCircuitBreaker slow = factory.create("slow", "group");
+		ReactiveCircuitBreaker cheap = factory.create("cheap", "group");
+		Disposable running = slow.run(Mono.just("foobar").delayElement(Duration.ofMillis(500)), null).subscribe();
+		try {
+			assertThat(slow
+				.run(Mono.just("slow"),
+						t -> Mono.just(t instanceof IdBulkheadFullException ? "rejected" : "fallback"))
+				.block()).isEqualTo("rejected");
+			assertThat(cheap.run(Mono.just("cheap"), t -> Mono.just("fallback")).block()).isEqualTo("cheap");
+		}
+		finally {
+			running.dispose();
+		}
+		IdBulkhead idBulkhead = bulkheadProvider.getIdBulkhead("slow");
+		assertThat(idBulkhead).isNotNull();
+		assertThat(idBulkhead.getRejectedCount()).isEqualTo(1);
+		assertThat(idBulkhead.getInFlight()).isZero();
+	}
+
+	@Test
+	public void runMonoWhileJvmIsOverloadedShedsLowPriorityCalls() {
+		AdmissionControllerTest.TestLoadSampler loadSampler = new AdmissionControllerTest.TestLoadSampler();
+		AdmissionController admissionController = new AdmissionController(AdmissionControllerTest.properties(),
+				loadSampler);
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		factory.setAdmissionController(admissionController);
+		ReactiveCircuitBreaker cb = factory.create("foo");
+		loadSampler.cpuLoad = 1;
+		admissionController.sample();
+		AtomicInteger subscriptions = new AtomicInteger();
+		Mono<String> toRun = Mono.fromSupplier(() -> {
+			subscriptions.incrementAndGet();
+			return "foobar";
+		});
+		assertThat(cb.run(toRun, t -> Mono.just(t instanceof AdmissionRejectedException ? "shed" : "fallback"))
+			.contextWrite(Context.of(CallPriority.CONTEXT_KEY, CallPriority.LOW))
+			.block()).isEqualTo("shed");
+		assertThat(cb.run(toRun, t -> Mono.just("fallback")).block()).isEqualTo("foobar");
+		assertThat(subscriptions.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void runMonoAfterCircuitBreakerClosesRampsUpTraffic() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		factory.configureDefault(id -> new Resilience4JConfigBuilder(id)
+			.slowStartConfig(Resilience4JSlowStartConfig.custom()
+				.rampUpDuration(Duration.ofMinutes(1))
+				.initialPermittedRatio(0)
+				.build())
+			.build());
+		ReactiveCircuitBreaker cb = factory.create("foo");
+		assertThat(cb.run(Mono.just("foobar"), t -> Mono.just("fallback")).block()).isEqualTo("foobar");
+		CircuitBreaker circuitBreaker = factory.getCircuitBreakerRegistry().circuitBreaker("foo");
+		circuitBreaker.transitionToOpenState();
+		circuitBreaker.transitionToHalfOpenState();
+		circuitBreaker.transitionToClosedState();
+		assertThat(cb.run(Mono.just("foobar"),
+				t -> Mono.just(t instanceof SlowStartRejectedException ? "ramping" : "fallback"))
+			.block()).isEqualTo("ramping");
+		assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isZero();
+	}
+
+	@Test
+	public void runMonoWithAdaptiveTimeoutTimesOutCallsSlowerThanObservedCalls() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		factory.configureDefault(id -> new Resilience4JConfigBuilder(id)
+			.timeLimiterConfig(TimeLimiterConfig.custom().timeoutDuration(Duration.ofSeconds(2)).build())
+			.adaptiveTimeoutConfig(Resilience4JAdaptiveTimeoutConfig.custom()
+				.minimumTimeout(Duration.ofMillis(100))
+				.minimumNumberOfCalls(5)
+				.build())
+			.build());
+		ReactiveCircuitBreaker cb = factory.create("foo");
+		for (int i = 0; i < 5; i++) {
+			assertThat(cb.run(Mono.just("foobar"), t -> Mono.just("fallback")).block()).isEqualTo("foobar");
+		}
+		Mono.delay(Duration.ofMillis(1100)).block();
+		assertThat(cb.run(Mono.just("foobar").delayElement(Duration.ofSeconds(1)),
+				t -> Mono.just(t instanceof TimeoutException ? "timeout" : "fallback"))
+			.block()).isEqualTo("timeout");
+	}
+
+	@Test
+	public void circuitBreakersOfTheSameGroupShareTheirSettings() {
+		ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null,
+				new Resilience4JConfigurationProperties());
+		ReactiveResilience4JCircuitBreaker foo = (ReactiveResilience4JCircuitBreaker) factory.create("foo",
+				"groupFoo");
+		ReactiveResilience4JCircuitBreaker bar = (ReactiveResilience4JCircuitBreaker) factory.create("bar",
+				"groupFoo");
+		ReactiveResilience4JCircuitBreaker baz = (ReactiveResilience4JCircuitBreaker) factory.create("baz",
+				"groupBaz");
+		assertThat(bar.getSettings()).isSameAs(foo.getSettings());
+		assertThat(baz.getSettings()).isNotSameAs(foo.getSettings());
+		assertThat(foo.run(Mono.just("foobar"), t -> Mono.just("fallback")).block()).isEqualTo("foobar");
+		assertThat(bar.run(Mono.just("foobar"), t -> Mono.just("fallback")).block()).isEqualTo("foobar");
+		assertThat(factory.getCircuitBreakerRegistry().find("bar")).isPresent();
+	}
+
+	private static ReactiveResilience4JCircuitBreakerFactory factory() {
+		return new ReactiveResilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(),
+				TimeLimiterRegistry.ofDefaults(), null, new Resilience4JConfigurationProperties());
+	}
+
 }
@@ -18,6 +18,7 @@ package org.springframework.cloud.circuitbreaker.resilience4j;
 
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.Test;
 
 import org.springframework.boot.SpringBootConfiguration;
@@ -58,6 +59,22 @@ public class Resilience4JAutoConfigurationTests {
 		}
 	}
 
+	@Test
+	public void groupExecutorServiceMetricsBound() {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder().web(WebApplicationType.NONE)
+			.sources(Resilience4JAutoConfigurationTests.TestApp.class)
+			.run()) {
+			assertThat(circuitBreakerFactory.create("foo", "metricsGroup").run(() -> "foobar")).isEqualTo("foobar");
+			MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+			assertThat(meterRegistry.find("executor.active").tag("group", "metricsGroup").gauge()).isNotNull();
+			assertThat(meterRegistry.find("executor.queued").tag("group", "metricsGroup").gauge()).isNotNull();
+			assertThat(meterRegistry.find("executor.rejected").tag("group", "metricsGroup").functionCounter())
+				.isNotNull();
+			assertThat(circuitBreakerFactory.isRunning()).isTrue();
+		}
+		assertThat(circuitBreakerFactory.isRunning()).isFalse();
+	}
+
 	@SpringBootConfiguration
 	@EnableAutoConfiguration
 	protected static class TestApp {
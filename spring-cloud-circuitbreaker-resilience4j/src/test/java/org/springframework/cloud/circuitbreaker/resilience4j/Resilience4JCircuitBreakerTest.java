@@ -17,27 +17,51 @@
 package org.springframework.cloud.circuitbreaker.resilience4j;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.timelimiter.TimeLimiterConfig;
 import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micrometer.core.instrument.util.NamedThreadFactory;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
 import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties.GroupExecutorProperties;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.NoFallbackAvailableException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * @author Ryan Baxter
@@ -47,11 +71,21 @@ public class Resilience4JCircuitBreakerTest {
 
 	Resilience4JConfigurationProperties properties = null;
 
+	private final ExecutorService callers = Executors.newCachedThreadPool();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
 	@Before
 	public void before() {
 		properties = new Resilience4JConfigurationProperties();
 	}
 
+	@After
+	public void after() {
+		release.countDown();
+		callers.shutdownNow();
+	}
+
 	@Test
 	public void run() {
 		CircuitBreaker cb = new Resilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(),
@@ -345,6 +379,875 @@ public class Resilience4JCircuitBreakerTest {
 		assertThat(cb.run(() -> Thread.currentThread().getName())).startsWith(threadPoolName);
 	}
 
+	@Test
+	public void runCoalescedSharesInFlightExecution() throws Exception {
+		Resilience4JCircuitBreakerFactory factory = factory();
+		AtomicInteger invocations = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		Future<String> leader = callers.submit(() -> factory.create("foo").runCoalesced("key", () -> {
+				invocations.incrementAndGet();
+				started.countDown();
+				awaitQuietly(release);
+				return "foobar";
+			}, t -> "fallback"));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		Future<String> follower = submitAndAwaitWaiting(() -> factory.create("foo").runCoalesced("key", () -> {
+			invocations.incrementAndGet();
+			return "other";
+		}, t -> "fallback"));
+		release.countDown();
+		assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("foobar");
+		assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("foobar");
+		assertThat(invocations.get()).isEqualTo(1);
+		assertThat(factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics().getNumberOfSuccessfulCalls())
+			.isEqualTo(1);
+	}
+
+	@Test
+	public void runCoalescedAppliesFallbackAndReleasesKey() {
+		Resilience4JCircuitBreaker cb = factory().create("foo");
+		assertThat(cb.runCoalesced("key", () -> {
+			throw new RuntimeException("boom");
+		}, t -> "fallback")).isEqualTo("fallback");
+		assertThat(cb.runCoalesced("key", () -> "foobar", t -> "fallback")).isEqualTo("foobar");
+	}
+
+	@Test
+	public void runCoalescedWithObservationRegistry() {
+		TestObservationRegistry observationRegistry = TestObservationRegistry.create();
+		Resilience4JCircuitBreakerFactory factory = factory();
+		factory.setObservationRegistry(observationRegistry);
+		Resilience4JCircuitBreaker cb = factory.create("foo");
+		assertThat(cb.runCoalesced("key", () -> "foobar", t -> "fallback")).isEqualTo("foobar");
+		assertThat(cb.run(() -> {
+			throw new RuntimeException("boom");
+		}, t -> "fallback", Resilience4JRunOptions.ofDefaults())).isEqualTo("fallback");
+		TestObservationRegistryAssert.assertThat(observationRegistry)
+			.hasObservationWithNameEqualTo("spring.cloud.circuitbreaker");
+	}
+
+	@Test
+	public void runWithFallbackCacheReturnsLastKnownGoodResult() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		factory.configure(builder -> builder.fallbackCacheConfig(Resilience4JFallbackCacheConfig.ofDefaults()), "foo");
+		Resilience4JCircuitBreaker cb = (Resilience4JCircuitBreaker) factory.create("foo");
+		assertThat(cb.run(() -> "foobar", t -> "fallback")).isEqualTo("foobar");
+		assertThat(factory.create("foo").run(() -> {
+			throw new RuntimeException("boom");
+		}, t -> "fallback")).isEqualTo("foobar");
+		assertThat(cb.runCached("other", () -> {
+			throw new RuntimeException("boom");
+		}, t -> "fallback")).isEqualTo("fallback");
+
+		factory.getCircuitBreakerRegistry().circuitBreaker("foo").transitionToForcedOpenState();
+		AtomicInteger invocations = new AtomicInteger();
+		assertThat(cb.run(() -> {
+			invocations.incrementAndGet();
+			return "other";
+		}, t -> "fallback")).isEqualTo("foobar");
+		assertThat(invocations.get()).isZero();
+	}
+
+	@Test
+	public void runWithFallbackCacheRevalidatesStaleResult() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		factory.configure(builder -> builder.fallbackCacheConfig(Resilience4JFallbackCacheConfig.custom()
+			.timeToLive(Duration.ZERO)
+			.staleWhileRevalidate(Duration.ofMinutes(1))
+			.revalidationExecutor(Runnable::run)
+			.build()), "foo");
+		Resilience4JCircuitBreaker cb = (Resilience4JCircuitBreaker) factory.create("foo");
+		AtomicInteger invocations = new AtomicInteger();
+		Supplier<String> flaky = () -> {
+			int invocation = invocations.incrementAndGet();
+			if (invocation == 2) {
+				throw new RuntimeException("boom");
+			}
+			return "result" + invocation;
+		};
+		assertThat(cb.run(flaky, t -> "fallback")).isEqualTo("result1");
+		// the stale result is served and refreshed in the background
+		assertThat(cb.run(flaky, t -> "fallback")).isEqualTo("result1");
+		assertThat(invocations.get()).isEqualTo(3);
+
+		factory.getCircuitBreakerRegistry().circuitBreaker("foo").transitionToForcedOpenState();
+		assertThat(cb.run(flaky, t -> "fallback")).isEqualTo("result3");
+	}
+
+	@Test
+	public void runWithHedgingReturnsFirstCompletedAttempt() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		factory.configure(builder -> builder.hedgingConfig(
+				Resilience4JHedgingConfig.custom().initialDelay(Duration.ofMillis(50)).maxExtraLoad(1).build()),
+				"foo");
+		AtomicInteger invocations = new AtomicInteger();
+		CountDownLatch interrupted = new CountDownLatch(1);
+		String result = factory.create("foo").run(() -> {
+			if (invocations.incrementAndGet() == 1) {
+				try {
+					Thread.sleep(5000);
+				}
+				catch (InterruptedException ex) {
+					interrupted.countDown();
+				}
+				return "slow";
+			}
+			return "fast";
+		}, t -> "fallback");
+		assertThat(result).isEqualTo("fast");
+		assertThat(invocations.get()).isEqualTo(2);
+		awaitQuietly(interrupted);
+		assertThat(interrupted.getCount()).isZero();
+		assertThat(factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics().getNumberOfSuccessfulCalls())
+			.isEqualTo(1);
+	}
+
+	@Test
+	public void runWithHedgingReturnsSecondAttemptWhenFirstAttemptFails() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		factory.configure(builder -> builder.hedgingConfig(
+				Resilience4JHedgingConfig.custom().initialDelay(Duration.ofMillis(10)).maxExtraLoad(1).build()),
+				"foo");
+		AtomicInteger invocations = new AtomicInteger();
+		CountDownLatch hedgeStarted = new CountDownLatch(1);
+		CountDownLatch firstFailed = new CountDownLatch(1);
+		String result = factory.create("foo").run(() -> {
+			if (invocations.incrementAndGet() == 1) {
+				awaitQuietly(hedgeStarted);
+				firstFailed.countDown();
+				throw new IllegalStateException("first");
+			}
+			hedgeStarted.countDown();
+			awaitQuietly(firstFailed);
+			return "second";
+		}, t -> "fallback");
+		assertThat(result).isEqualTo("second");
+		assertThat(invocations.get()).isEqualTo(2);
+		assertThat(factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics().getNumberOfSuccessfulCalls())
+			.isEqualTo(1);
+	}
+
+	@Test
+	public void runWithHedgingFailsOnceEveryAttemptFailed() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		factory.configure(builder -> builder.hedgingConfig(
+				Resilience4JHedgingConfig.custom().initialDelay(Duration.ofMillis(10)).maxExtraLoad(1).build()),
+				"foo");
+		AtomicInteger invocations = new AtomicInteger();
+		CountDownLatch secondFailed = new CountDownLatch(1);
+		Throwable failure = factory.create("foo").run(() -> {
+			if (invocations.incrementAndGet() == 1) {
+				awaitQuietly(secondFailed);
+				throw new IllegalStateException("first");
+			}
+			secondFailed.countDown();
+			throw new IllegalArgumentException("second");
+		}, t -> t);
+		assertThat(failure).isInstanceOfAny(IllegalStateException.class, IllegalArgumentException.class);
+		assertThat(invocations.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void runWithHedgingRespectsBudget() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		factory.configure(builder -> builder.hedgingConfig(
+				Resilience4JHedgingConfig.custom().initialDelay(Duration.ofMillis(10)).maxExtraLoad(0).build()),
+				"foo");
+		AtomicInteger invocations = new AtomicInteger();
+		assertThat(factory.create("foo").run(() -> {
+			invocations.incrementAndGet();
+			sleep(200);
+			return "foobar";
+		}, t -> "fallback")).isEqualTo("foobar");
+		assertThat(invocations.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void runWithGroupNameRejectsWhenGroupExecutorIsSaturated() throws Exception {
+		GroupExecutorProperties groupExecutor = new GroupExecutorProperties();
+		groupExecutor.setCorePoolSize(1);
+		groupExecutor.setMaxPoolSize(1);
+		properties.getGroupExecutors().put("groupFoo", groupExecutor);
+		Resilience4JCircuitBreakerFactory factory = factory();
+		CountDownLatch started = new CountDownLatch(1);
+		try {
+			Future<String> busy = callers.submit(() -> factory.create("foo", "groupFoo").run(() -> {
+				started.countDown();
+				awaitQuietly(release);
+				return "foobar";
+			}));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(factory.create("bar", "groupFoo")
+				.run(() -> "foobar", t -> t instanceof ExecutorRejectedException ? "rejected" : "fallback"))
+				.isEqualTo("rejected");
+			release.countDown();
+			assertThat(busy.get(5, TimeUnit.SECONDS)).isEqualTo("foobar");
+			io.github.resilience4j.circuitbreaker.CircuitBreaker.Metrics metrics = factory.getCircuitBreakerRegistry()
+				.circuitBreaker("bar")
+				.getMetrics();
+			assertThat(metrics.getNumberOfFailedCalls()).isZero();
+			assertThat(metrics.getNumberOfBufferedCalls()).isZero();
+		}
+		finally {
+			release.countDown();
+			factory.stop();
+		}
+	}
+
+	@Test
+	public void runWithGroupNameDoesNotBoundGroupExecutorByDefault() throws Exception {
+		Resilience4JCircuitBreakerFactory factory = factory();
+		Map<String, ExecutorService> bound = new HashMap<>();
+		factory.setGroupExecutorServiceBinder(bound::put);
+		try {
+			assertThat(factory.create("foo", "groupFoo").run(() -> "foobar")).isEqualTo("foobar");
+			assertThat(((ThreadPoolExecutor) bound.get("groupFoo")).getMaximumPoolSize()).isEqualTo(Integer.MAX_VALUE);
+		}
+		finally {
+			factory.stop();
+		}
+	}
+
+	@Test
+	public void stopShutsDownGroupExecutorServices() {
+		Resilience4JCircuitBreakerFactory factory = factory();
+		Map<String, ExecutorService> bound = new HashMap<>();
+		factory.setGroupExecutorServiceBinder(bound::put);
+		factory.start();
+		assertThat(factory.create("foo", "groupFoo").run(() -> Thread.currentThread().getName()))
+			.startsWith("resilience4j-groupFoo-");
+		assertThat(bound).containsOnlyKeys("groupFoo");
+		ExecutorService groupExecutorService = bound.get("groupFoo");
+
+		factory.stop();
+
+		assertThat(factory.isRunning()).isFalse();
+		assertThat(groupExecutorService.isTerminated()).isTrue();
+		assertThat(factory.create("foo", "groupFoo").run(() -> "foobar")).isEqualTo("foobar");
+		assertThat(bound.get("groupFoo")).isNotSameAs(groupExecutorService);
+		factory.stop();
+	}
+
+	@Test
+	public void runWithMaxQueueWaitRejectsCallsWaitingTooLong() throws Exception {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		factory.configureExecutorService(executorService);
+		factory.configure(builder -> builder.maxQueueWait(Duration.ofMillis(50)), "foo");
+		List<String> timings = new CopyOnWriteArrayList<>();
+		factory.setExecutionTimingListener(new Resilience4JExecutionTimingListener() {
+			@Override
+			public void onQueueWait(String id, String groupName, long queueWaitNanos, boolean timedOut) {
+				timings.add(timedOut ? "timeout" : "started");
+			}
+
+			@Override
+			public void onExecution(String id, String groupName, long executionNanos) {
+				timings.add("executed");
+			}
+		});
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService caller = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> busy = caller.submit(() -> factory.create("foo").run(() -> {
+				started.countDown();
+				awaitQuietly(release);
+				return "foobar";
+			}));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			AtomicInteger invocations = new AtomicInteger();
+			assertThat(factory.create("foo").run(() -> {
+				invocations.incrementAndGet();
+				return "foobar";
+			}, t -> t instanceof QueueWaitTimeoutException ? "rejected" : "fallback")).isEqualTo("rejected");
+			release.countDown();
+			assertThat(busy.get(5, TimeUnit.SECONDS)).isEqualTo("foobar");
+			assertThat(invocations.get()).isZero();
+			io.github.resilience4j.circuitbreaker.CircuitBreaker.Metrics metrics = factory.getCircuitBreakerRegistry()
+				.circuitBreaker("foo")
+				.getMetrics();
+			assertThat(metrics.getNumberOfSuccessfulCalls()).isEqualTo(1);
+			assertThat(metrics.getNumberOfFailedCalls()).isZero();
+			assertThat(timings).containsExactlyInAnyOrder("timeout", "started", "executed");
+		}
+		finally {
+			release.countDown();
+			caller.shutdownNow();
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void runWithMaxQueueWaitLimitsOnlyExecutionTime() throws Exception {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		factory.configureExecutorService(executorService);
+		factory.configure(builder -> builder
+			.timeLimiterConfig(TimeLimiterConfig.custom().timeoutDuration(Duration.ofMillis(200)).build())
+			.maxQueueWait(Duration.ofSeconds(2)), "foo");
+		CountDownLatch started = new CountDownLatch(1);
+		ExecutorService caller = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> busy = caller.submit(() -> factory.create("foo").run(() -> {
+				started.countDown();
+				sleep(150);
+				return "foobar";
+			}));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(factory.create("foo").run(() -> {
+				sleep(100);
+				return "foobar";
+			}, t -> "fallback")).isEqualTo("foobar");
+			assertThat(busy.get(5, TimeUnit.SECONDS)).isEqualTo("foobar");
+		}
+		finally {
+			caller.shutdownNow();
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void runWithPassedDeadlineDoesNotExecute() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		AtomicInteger invocations = new AtomicInteger();
+		DeadlineContextHolder.setDeadline(Instant.now().minusMillis(1));
+		try {
+			assertThat(factory.create("foo").run(() -> {
+				invocations.incrementAndGet();
+				return "foobar";
+			}, t -> t instanceof DeadlineExceededException ? "deadline" : "fallback")).isEqualTo("deadline");
+		}
+		finally {
+			DeadlineContextHolder.resetDeadline();
+		}
+		assertThat(invocations.get()).isZero();
+		assertThat(factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics().getNumberOfBufferedCalls())
+			.isZero();
+	}
+
+	@Test
+	public void runWithDeadlineShorterThanTimeLimiter() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		long start = System.nanoTime();
+		DeadlineContextHolder.setDeadline(Instant.now().plusMillis(100));
+		try {
+			assertThat(factory.create("foo").run(() -> {
+				sleep(5000);
+				return "foobar";
+			}, t -> t instanceof DeadlineExceededException ? "deadline" : "fallback")).isEqualTo("deadline");
+		}
+		finally {
+			DeadlineContextHolder.resetDeadline();
+		}
+		assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(900));
+		assertThat(factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics().getNumberOfFailedCalls())
+			.isEqualTo(1);
+	}
+
+	@Test
+	public void runWithDeadlineLongerThanTimeLimiter() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		factory.setDeadlineProvider(() -> Instant.now().plusSeconds(60));
+		assertThat(factory.create("foo").run(() -> {
+			sleep(5000);
+			return "foobar";
+		}, t -> t instanceof TimeoutException
+				&& !(t instanceof DeadlineExceededException) ? "timeout" : "fallback")).isEqualTo("timeout");
+	}
+
+	@Test
+	public void runWithRunOptionsTimeoutShorterThanTimeLimiter() {
+		Resilience4JCircuitBreaker cb = (Resilience4JCircuitBreaker) new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null)
+			.create("foo");
+		long start = System.nanoTime();
+		assertThat(cb.run(() -> {
+			sleep(5000);
+			return "foobar";
+		}, t -> t instanceof TimeoutException ? "timeout" : "fallback",
+				Resilience4JRunOptions.custom().timeout(Duration.ofMillis(100)).build()))
+			.isEqualTo("timeout");
+		assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(900));
+	}
+
+	@Test
+	public void runWithRunOptionsTimeoutPublishesStacklessTimeoutToTimeLimiter() {
+		TimeLimiterRegistry timeLimiterRegistry = TimeLimiterRegistry.ofDefaults();
+		AtomicInteger timeouts = new AtomicInteger();
+		timeLimiterRegistry.timeLimiter("foo").getEventPublisher().onTimeout(event -> timeouts.incrementAndGet());
+		Resilience4JCircuitBreaker cb = new Resilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(),
+				timeLimiterRegistry, null)
+			.create("foo");
+		CountDownLatch release = new CountDownLatch(1);
+		Throwable failure = cb.run(() -> {
+			awaitQuietly(release);
+			return null;
+		}, t -> t, Resilience4JRunOptions.custom().timeout(Duration.ofMillis(50)).build());
+		release.countDown();
+		assertThat(failure).isInstanceOf(TimeLimitExceededException.class);
+		assertThat(failure.getStackTrace()).isEmpty();
+		assertThat(timeouts.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void runWithRunOptionsTimeoutLongerThanTimeLimiter() {
+		Resilience4JCircuitBreaker cb = (Resilience4JCircuitBreaker) new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null)
+			.create("foo");
+		assertThat(cb.run(() -> {
+			sleep(1500);
+			return "foobar";
+		}, t -> "fallback", Resilience4JRunOptions.custom().timeout(Duration.ofSeconds(5)).build()))
+			.isEqualTo("foobar");
+		assertThat(cb.run(() -> {
+			sleep(1500);
+			return "foobar";
+		}, t -> "fallback")).isEqualTo("fallback");
+	}
+
+	@Test
+	public void runWithRunOptionsFallbackCacheKey() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		factory.configure(builder -> builder.fallbackCacheConfig(Resilience4JFallbackCacheConfig.ofDefaults()), "foo");
+		Resilience4JCircuitBreaker cb = (Resilience4JCircuitBreaker) factory.create("foo");
+		Resilience4JRunOptions user1 = Resilience4JRunOptions.custom().fallbackCacheKey("user-1").build();
+		Resilience4JRunOptions user2 = Resilience4JRunOptions.custom().fallbackCacheKey("user-2").build();
+		assertThat(cb.run(() -> "first", t -> "fallback", user1)).isEqualTo("first");
+		assertThat(cb.run(() -> "second", t -> "fallback", user2)).isEqualTo("second");
+		assertThat(cb.run(() -> {
+			throw new RuntimeException("boom");
+		}, t -> "fallback", user1)).isEqualTo("first");
+		assertThat(cb.run(() -> {
+			throw new RuntimeException("boom");
+		}, t -> "fallback")).isEqualTo("fallback");
+	}
+
+	@Test
+	public void runWithRunOptionsCoalescingKey() throws Exception {
+		Resilience4JCircuitBreaker cb = (Resilience4JCircuitBreaker) new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null)
+			.create("foo");
+		Resilience4JRunOptions options = Resilience4JRunOptions.custom().coalescingKey("key").build();
+		AtomicInteger invocations = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> leader = callers.submit(() -> cb.run(() -> {
+				invocations.incrementAndGet();
+				started.countDown();
+				awaitQuietly(release);
+				return "foobar";
+			}, t -> "fallback", options));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			Future<String> follower = callers.submit(() -> cb.run(() -> {
+				invocations.incrementAndGet();
+				return "other";
+			}, t -> "fallback", options));
+			Thread.sleep(100);
+			release.countDown();
+			assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("foobar");
+			assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("foobar");
+		}
+		finally {
+			callers.shutdownNow();
+		}
+		assertThat(invocations.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void runWithPriorityBulkheadShedsLowPriorityCallsFirst() throws Exception {
+		properties.setDisableThreadPool(true);
+		properties.setEnableSemaphoreDefaultBulkhead(true);
+		Resilience4jBulkheadProvider bulkheadProvider = new Resilience4jBulkheadProvider(
+				ThreadPoolBulkheadRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), properties);
+		bulkheadProvider.configure(builder -> builder
+			.bulkheadConfig(BulkheadConfig.custom().maxConcurrentCalls(2).build())
+			.priorityBulkheadConfig(Resilience4JPriorityBulkheadConfig.custom()
+				.highPriorityReservedShare(0.5)
+				.lowPriorityShare(0.5)
+				.build()), "foo");
+		Resilience4JCircuitBreaker cb = (Resilience4JCircuitBreaker) new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), bulkheadProvider, properties)
+			.create("foo");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService callers = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> running = callers.submit(() -> cb.run(() -> {
+				started.countDown();
+				awaitQuietly(release);
+				return "foobar";
+			}, t -> "fallback"));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(cb.run(() -> "low", t -> t instanceof PriorityBulkheadFullException ? "shed" : "fallback",
+					Resilience4JRunOptions.custom().priority(CallPriority.LOW).build()))
+				.isEqualTo("shed");
+			assertThat(cb.run(() -> "high", t -> "fallback",
+					Resilience4JRunOptions.custom().priority(CallPriority.HIGH).build()))
+				.isEqualTo("high");
+			release.countDown();
+			assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("foobar");
+		}
+		finally {
+			callers.shutdownNow();
+		}
+		PriorityBulkhead priorityBulkhead = bulkheadProvider.getPriorityBulkhead("foo");
+		assertThat(priorityBulkhead).isNotNull();
+		assertThat(priorityBulkhead.getRejectedCount(CallPriority.LOW)).isEqualTo(1);
+		assertThat(priorityBulkhead.getRejectedCount(CallPriority.HIGH)).isZero();
+		assertThat(priorityBulkhead.getInFlight(CallPriority.NORMAL)).isZero();
+	}
+
+	@Test
+	public void bulkheadHandleIsResolvedOnceUntilBulkheadChanges() {
+		properties.setEnableSemaphoreDefaultBulkhead(true);
+		ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.ofDefaults();
+		BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+		Resilience4jBulkheadProvider bulkheadProvider = new Resilience4jBulkheadProvider(threadPoolBulkheadRegistry,
+				bulkheadRegistry, properties);
+		BulkheadHandle handle = bulkheadProvider.getBulkheadHandle("foo", Map.of());
+		assertThat(handle.isSemaphoreBulkhead()).isTrue();
+		assertThat(bulkheadProvider.getBulkheadHandle("foo", Map.of())).isSameAs(handle);
+
+		bulkheadProvider.configure(builder -> builder.bulkheadConfig(BulkheadConfig.custom().build()), "foo");
+		assertThat(handle.isValid()).isFalse();
+		BulkheadHandle configured = bulkheadProvider.getBulkheadHandle("foo", Map.of());
+		assertThat(configured).isNotSameAs(handle);
+		assertThat(configured.isValid()).isTrue();
+
+		bulkheadRegistry.remove("foo");
+		assertThat(configured.isValid()).isFalse();
+		BulkheadHandle recreated = bulkheadProvider.getBulkheadHandle("foo", Map.of());
+		assertThat(recreated.getBulkhead()).isSameAs(bulkheadRegistry.bulkhead("foo"));
+
+		threadPoolBulkheadRegistry.bulkhead("foo");
+		assertThat(recreated.isValid()).isFalse();
+		BulkheadHandle threadPool = bulkheadProvider.getBulkheadHandle("foo", Map.of());
+		assertThat(threadPool.isSemaphoreBulkhead()).isFalse();
+		assertThat(threadPool.getThreadPoolBulkhead()).isSameAs(threadPoolBulkheadRegistry.bulkhead("foo"));
+		CircuitBreaker cb = new Resilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(),
+				TimeLimiterRegistry.ofDefaults(), bulkheadProvider, properties)
+			.create("foo");
+		assertThat(cb.run(() -> "foobar")).isEqualTo("foobar");
+		assertThat(bulkheadProvider.getBulkheadHandle("foo", Map.of())).isSameAs(threadPool);
+	}
+
+	@Test
+	public void bulkheadWaitListenerRecordsPermitAndQueueWaits() throws Exception {
+		Resilience4jBulkheadProvider threadPoolProvider = new Resilience4jBulkheadProvider(
+				ThreadPoolBulkheadRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), properties);
+		properties.setEnableSemaphoreDefaultBulkhead(true);
+		Resilience4jBulkheadProvider semaphoreProvider = new Resilience4jBulkheadProvider(
+				ThreadPoolBulkheadRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), properties);
+		semaphoreProvider.configure(builder -> builder.bulkheadConfig(
+				BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ofMillis(50)).build()),
+				"semaphore");
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		semaphoreProvider.setWaitListener(new MicrometerBulkheadWaitListener(meterRegistry));
+		threadPoolProvider.setWaitListener(new MicrometerBulkheadWaitListener(meterRegistry));
+
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService callers = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> running = callers.submit(() -> semaphoreProvider
+				.decorateCallable("semaphore", Map.of(), () -> {
+					started.countDown();
+					awaitQuietly(release);
+					return "foobar";
+				})
+				.call());
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThatThrownBy(() -> semaphoreProvider.decorateCallable("semaphore", Map.of(), () -> "rejected").call())
+				.isInstanceOf(BulkheadFullException.class);
+			release.countDown();
+			assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("foobar");
+		}
+		finally {
+			callers.shutdownNow();
+		}
+		Timer rejected = meterRegistry.get(MicrometerBulkheadWaitListener.PERMIT_WAIT_METER_NAME)
+			.tags("name", "semaphore", "outcome", "rejected")
+			.timer();
+		assertThat(rejected.count()).isEqualTo(1);
+		assertThat(rejected.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(40);
+		assertThat(meterRegistry.get(MicrometerBulkheadWaitListener.PERMIT_WAIT_METER_NAME)
+			.tags("name", "semaphore", "outcome", "permitted")
+			.timer()
+			.count()).isEqualTo(1);
+
+		assertThat(threadPoolProvider.decorateCallable("threadPool", Map.of(), () -> "foobar").call())
+			.isEqualTo("foobar");
+		assertThat(meterRegistry.get(MicrometerBulkheadWaitListener.QUEUE_WAIT_METER_NAME)
+			.tags("name", "threadPool")
+			.timer()
+			.count()).isEqualTo(1);
+	}
+
+	@Test
+	public void runWithVirtualThreadBulkheadInterruptsTimedOutCalls() throws Exception {
+		Assume.assumeTrue(Runtime.version().feature() >= 21);
+		Resilience4jBulkheadProvider bulkheadProvider = new Resilience4jBulkheadProvider(
+				ThreadPoolBulkheadRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), properties);
+		bulkheadProvider.configure(builder -> builder
+			.bulkheadConfig(BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build())
+			.virtualThreadBulkhead(true), "foo");
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), bulkheadProvider, properties);
+		factory.configureDefault(id -> new Resilience4JConfigBuilder(id)
+			.timeLimiterConfig(TimeLimiterConfig.custom().timeoutDuration(Duration.ofMillis(100)).build())
+			.build());
+		Resilience4JCircuitBreaker cb = factory.create("foo");
+		assertThat(cb.run(() -> Thread.currentThread().getName())).startsWith("foo-bulkhead-");
+
+		CountDownLatch interrupted = new CountDownLatch(1);
+		assertThat(cb.run(() -> {
+			try {
+				release.await();
+				return "slow";
+			}
+			catch (InterruptedException ex) {
+				interrupted.countDown();
+				throw new IllegalStateException(ex);
+			}
+		}, t -> t instanceof TimeoutException ? "timeout" : "fallback")).isEqualTo("timeout");
+		assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		BulkheadHandle handle = bulkheadProvider.getBulkheadHandle("foo", Map.of());
+		assertThat(handle.isVirtualThreadBulkhead()).isTrue();
+		assertThat(handle.getVirtualThreadBulkhead().getBulkhead().getMetrics().getAvailableConcurrentCalls())
+			.isEqualTo(1);
+	}
+
+	@Test
+	public void runWithIdBulkheadLimitsIdInsideGroupBulkhead() throws Exception {
+		properties.setDisableThreadPool(true);
+		properties.setEnableSemaphoreDefaultBulkhead(true);
+		Resilience4jBulkheadProvider bulkheadProvider = new Resilience4jBulkheadProvider(
+				ThreadPoolBulkheadRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), properties);
+		bulkheadProvider.configure(builder -> builder
+			.bulkheadConfig(BulkheadConfig.custom().maxConcurrentCalls(10).build())
+			.idBulkheadConfig(Resilience4JIdBulkheadConfig.custom().maxConcurrentCalls("slow", 1).build()), "group");
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), bulkheadProvider, properties);
+		Resilience4JCircuitBreaker slow = (Resilience4JCircuitBreaker) factory.create("slow", "group");
+		Resilience4JCircuitBreaker cheap = (Resilience4JCircuitBreaker) factory.create("cheap", "group");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService callers = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> running = callers.submit(() -> slow.run(() -> {
+				started.countDown();
+				awaitQuietly(release);
+				return "foobar";
+			}, t -> "fallback"));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(slow.run(() -> "slow", t -> t instanceof IdBulkheadFullException ? "rejected" : "fallback"))
+				.isEqualTo("rejected");
+			assertThat(cheap.run(() -> "cheap", t -> "fallback")).isEqualTo("cheap");
+			Bulkhead groupBulkhead = bulkheadProvider.getBulkheadRegistry().bulkhead("group");
+			assertThat(groupBulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(9);
+			release.countDown();
+			assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("foobar");
+		}
+		finally {
+			callers.shutdownNow();
+		}
+		IdBulkhead idBulkhead = bulkheadProvider.getIdBulkhead("slow");
+		assertThat(idBulkhead).isNotNull();
+		assertThat(idBulkhead.getGroupName()).isEqualTo("group");
+		assertThat(idBulkhead.getRejectedCount()).isEqualTo(1);
+		assertThat(idBulkhead.getInFlight()).isZero();
+		assertThat(bulkheadProvider.getIdBulkhead("cheap")).isNull();
+	}
+
+	@Test
+	public void runWhileOpenFailsFastWithoutDecoratingTheCall() throws InterruptedException {
+		CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+			.waitDurationInOpenState(Duration.ofMillis(100))
+			.writableStackTraceEnabled(false)
+			.build());
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(registry,
+				TimeLimiterRegistry.ofDefaults(), null);
+		AtomicInteger decorations = new AtomicInteger();
+		factory.addCircuitBreakerCustomizer(circuitBreaker -> decorations.incrementAndGet(), "foo");
+		CircuitBreaker cb = factory.create("foo");
+		assertThat(cb.run(() -> "foobar", t -> "fallback")).isEqualTo("foobar");
+		registry.circuitBreaker("foo").transitionToOpenState();
+		List<Throwable> rejections = new CopyOnWriteArrayList<>();
+		assertThat(factory.create("foo").run(() -> "foobar", t -> {
+			rejections.add(t);
+			return "fallback";
+		})).isEqualTo("fallback");
+		assertThat(cb.run(() -> "foobar", t -> {
+			rejections.add(t);
+			return "fallback";
+		})).isEqualTo("fallback");
+		assertThat(rejections).hasSize(2).allMatch(CallNotPermittedException.class::isInstance);
+		assertThat(rejections.get(1)).isSameAs(rejections.get(0));
+		assertThat(decorations.get()).isEqualTo(1);
+		assertThat(registry.circuitBreaker("foo").getMetrics().getNumberOfNotPermittedCalls()).isEqualTo(2);
+
+		Thread.sleep(150);
+		assertThat(cb.run(() -> "foobar", t -> "fallback")).isEqualTo("foobar");
+		assertThat(decorations.get()).isEqualTo(2);
+		assertThat(registry.circuitBreaker("foo").getState())
+			.isEqualTo(io.github.resilience4j.circuitbreaker.CircuitBreaker.State.HALF_OPEN);
+	}
+
+	@Test
+	public void rejectedCallsFailWithStacklessExceptionsUnlessEnabled() {
+		AdmissionControllerTest.TestLoadSampler loadSampler = new AdmissionControllerTest.TestLoadSampler();
+		AdmissionController admissionController = new AdmissionController(AdmissionControllerTest.properties(),
+				loadSampler);
+		loadSampler.gcPauseRatio = 0.5;
+		admissionController.sample();
+		Resilience4JRunOptions low = Resilience4JRunOptions.custom().priority(CallPriority.LOW).build();
+		Resilience4JConfigurationProperties properties = new Resilience4JConfigurationProperties();
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null, properties);
+		factory.setAdmissionController(admissionController);
+		Throwable rejection = ((Resilience4JCircuitBreaker) factory.create("foo")).run(() -> null, t -> t, low);
+		assertThat(rejection).isInstanceOf(AdmissionRejectedException.class);
+		assertThat(rejection.getStackTrace()).isEmpty();
+
+		properties.setWritableStackTraceEnabled(true);
+		factory = new Resilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(),
+				TimeLimiterRegistry.ofDefaults(), null, properties);
+		factory.setAdmissionController(admissionController);
+		rejection = ((Resilience4JCircuitBreaker) factory.create("foo")).run(() -> null, t -> t, low);
+		assertThat(rejection).isInstanceOf(AdmissionRejectedException.class);
+		assertThat(rejection.getStackTrace()).isNotEmpty();
+	}
+
+	@Test
+	public void runWhileJvmIsOverloadedShedsLowPriorityCalls() {
+		AdmissionControllerTest.TestLoadSampler loadSampler = new AdmissionControllerTest.TestLoadSampler();
+		AdmissionController admissionController = new AdmissionController(AdmissionControllerTest.properties(),
+				loadSampler);
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		factory.setAdmissionController(admissionController);
+		Resilience4JCircuitBreaker cb = (Resilience4JCircuitBreaker) factory.create("foo");
+		Resilience4JRunOptions low = Resilience4JRunOptions.custom().priority(CallPriority.LOW).build();
+		loadSampler.gcPauseRatio = 0.5;
+		admissionController.sample();
+		AtomicInteger invocations = new AtomicInteger();
+		assertThat(cb.run(() -> {
+			invocations.incrementAndGet();
+			return "foobar";
+		}, t -> t instanceof AdmissionRejectedException ? "shed" : "fallback", low)).isEqualTo("shed");
+		assertThat(cb.run(() -> {
+			invocations.incrementAndGet();
+			return "foobar";
+		}, t -> "fallback")).isEqualTo("foobar");
+		assertThat(invocations.get()).isEqualTo(1);
+		assertThat(factory.getCircuitBreakerRegistry().circuitBreaker("foo").getMetrics().getNumberOfBufferedCalls())
+			.isEqualTo(1);
+	}
+
+	@Test
+	public void runAfterCircuitBreakerClosesRampsUpTraffic() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		factory.configureDefault(id -> new Resilience4JConfigBuilder(id)
+			.slowStartConfig(Resilience4JSlowStartConfig.custom()
+				.rampUpDuration(Duration.ofMinutes(1))
+				.initialPermittedRatio(0)
+				.build())
+			.build());
+		Resilience4JCircuitBreaker cb = (Resilience4JCircuitBreaker) factory.create("foo");
+		assertThat(cb.run(() -> "foobar", t -> "fallback")).isEqualTo("foobar");
+		io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker = factory.getCircuitBreakerRegistry()
+			.circuitBreaker("foo");
+		circuitBreaker.transitionToOpenState();
+		circuitBreaker.transitionToHalfOpenState();
+		circuitBreaker.transitionToClosedState();
+		assertThat(cb.run(() -> "foobar", t -> t instanceof SlowStartRejectedException ? "ramping" : "fallback"))
+			.isEqualTo("ramping");
+		assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isZero();
+		circuitBreaker.transitionToOpenState();
+		circuitBreaker.transitionToClosedState();
+		assertThat(cb.run(() -> "foobar", t -> "fallback")).isEqualTo("foobar");
+	}
+
+	@Test
+	public void runWithAdaptiveTimeoutTimesOutCallsSlowerThanObservedCalls() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null);
+		factory.configureDefault(id -> new Resilience4JConfigBuilder(id)
+			.timeLimiterConfig(TimeLimiterConfig.custom().timeoutDuration(Duration.ofSeconds(2)).build())
+			.adaptiveTimeoutConfig(Resilience4JAdaptiveTimeoutConfig.custom()
+				.minimumTimeout(Duration.ofMillis(100))
+				.minimumNumberOfCalls(5)
+				.build())
+			.build());
+		Resilience4JCircuitBreaker cb = (Resilience4JCircuitBreaker) factory.create("foo");
+		for (int i = 0; i < 5; i++) {
+			assertThat(cb.run(() -> "foobar", t -> "fallback")).isEqualTo("foobar");
+		}
+		sleep(1100);
+		assertThat(cb.run(() -> {
+			sleep(1000);
+			return "foobar";
+		}, t -> t instanceof TimeoutException ? "timeout" : "fallback")).isEqualTo("timeout");
+	}
+
+	private Resilience4JCircuitBreakerFactory factory() {
+		return new Resilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(),
+				TimeLimiterRegistry.ofDefaults(), null, properties);
+	}
+
+	/**
+	 * Submit the call and wait until its thread is waiting, for example to join an
+	 * execution already in flight.
+	 */
+	private Future<String> submitAndAwaitWaiting(Callable<String> call) throws Exception {
+		CompletableFuture<Thread> caller = new CompletableFuture<>();
+		Future<String> result = callers.submit(() -> {
+			caller.complete(Thread.currentThread());
+			return call.call();
+		});
+		Thread thread = caller.get(5, TimeUnit.SECONDS);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+		return result;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	static class ContextThreadPoolExecutor extends ThreadPoolExecutor {
 
 		/**
@@ -358,4 +1261,19 @@ public class Resilience4JCircuitBreakerTest {
 
 	}
 
+	@Test
+	public void circuitBreakersOfTheSameGroupShareTheirSettings() {
+		Resilience4JCircuitBreakerFactory factory = new Resilience4JCircuitBreakerFactory(
+				CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), null, properties);
+		Resilience4JCircuitBreaker foo = (Resilience4JCircuitBreaker) factory.create("foo", "groupFoo");
+		Resilience4JCircuitBreaker bar = (Resilience4JCircuitBreaker) factory.create("bar", "groupFoo");
+		Resilience4JCircuitBreaker baz = (Resilience4JCircuitBreaker) factory.create("baz", "groupBaz");
+		assertThat(bar.getSettings()).isSameAs(foo.getSettings());
+		assertThat(baz.getSettings()).isNotSameAs(foo.getSettings());
+		assertThat(foo.run(() -> "foobar")).isEqualTo("foobar");
+		assertThat(bar.run(() -> "foobar")).isEqualTo("foobar");
+		assertThat(factory.getCircuitBreakerRegistry().find("bar")).isPresent();
+		factory.stop();
+	}
+
 }
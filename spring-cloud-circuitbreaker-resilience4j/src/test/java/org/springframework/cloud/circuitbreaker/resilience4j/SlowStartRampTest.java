@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * @author Ryan Baxter
+ */
+public class SlowStartRampTest {
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	@Test
+	public void permitsAllCallsUntilCircuitBreakerCloses() {
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("foo");
+		SlowStartRamp ramp = ramp(Resilience4JSlowStartConfig.ofDefaults(), circuitBreaker);
+		assertThat(ramp.isRampingUp()).isFalse();
+		circuitBreaker.transitionToOpenState();
+		circuitBreaker.transitionToHalfOpenState();
+		assertThat(ramp.isRampingUp()).isFalse();
+		circuitBreaker.transitionToClosedState();
+		assertThat(ramp.isRampingUp()).isTrue();
+	}
+
+	@Test
+	public void rampsUpLinearly() {
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("foo");
+		SlowStartRamp ramp = ramp(Resilience4JSlowStartConfig.custom()
+			.rampUpDuration(Duration.ofSeconds(10))
+			.initialPermittedRatio(0.2)
+			.build(), circuitBreaker);
+		close(circuitBreaker);
+		assertThat(ramp.getPermittedRatio()).isCloseTo(0.2, within(0.001));
+		nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+		assertThat(ramp.getPermittedRatio()).isCloseTo(0.6, within(0.001));
+		nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+		assertThat(ramp.getPermittedRatio()).isEqualTo(1);
+		assertThat(ramp.isRampingUp()).isFalse();
+	}
+
+	@Test
+	public void rampsUpExponentially() {
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("foo");
+		SlowStartRamp ramp = ramp(Resilience4JSlowStartConfig.custom()
+			.rampUpDuration(Duration.ofSeconds(10))
+			.initialPermittedRatio(0.01)
+			.rampUpCurve(Resilience4JSlowStartConfig.RampUpCurve.EXPONENTIAL)
+			.build(), circuitBreaker);
+		close(circuitBreaker);
+		assertThat(ramp.getPermittedRatio()).isCloseTo(0.01, within(0.001));
+		nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+		assertThat(ramp.getPermittedRatio()).isCloseTo(0.1, within(0.001));
+		nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+		assertThat(ramp.getPermittedRatio()).isEqualTo(1);
+	}
+
+	@Test
+	public void stopsRampingUpOnceRampUpDurationElapsed() {
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("foo");
+		SlowStartRamp ramp = ramp(Resilience4JSlowStartConfig.custom()
+			.rampUpDuration(Duration.ofSeconds(10))
+			.initialPermittedRatio(0.2)
+			.build(), circuitBreaker);
+		close(circuitBreaker);
+		nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertThat(ramp.getPermittedRatio()).isEqualTo(1);
+		// The ramp-up ended, so the clock is no longer read
+		nanoTime.addAndGet(-Duration.ofSeconds(10).toNanos());
+		assertThat(ramp.getPermittedRatio()).isEqualTo(1);
+		close(circuitBreaker);
+		assertThat(ramp.getPermittedRatio()).isCloseTo(0.2, within(0.001));
+	}
+
+	@Test
+	public void permitsShareOfCalls() {
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("foo");
+		SlowStartRamp ramp = ramp(Resilience4JSlowStartConfig.custom().initialPermittedRatio(0.5).build(),
+				circuitBreaker);
+		close(circuitBreaker);
+		int permitted = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (ramp.tryAcquirePermission()) {
+				permitted++;
+			}
+		}
+		assertThat(permitted).isBetween(4_000, 6_000);
+	}
+
+	@Test
+	public void stopsRampingUpWhenCircuitBreakerOpens() {
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("foo");
+		SlowStartRamp ramp = ramp(Resilience4JSlowStartConfig.custom().initialPermittedRatio(0).build(),
+				circuitBreaker);
+		close(circuitBreaker);
+		assertThat(ramp.tryAcquirePermission()).isFalse();
+		circuitBreaker.transitionToOpenState();
+		assertThat(ramp.tryAcquirePermission()).isTrue();
+	}
+
+	@Test
+	public void followsReplacedCircuitBreaker() {
+		CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("foo");
+		SlowStartRamp ramp = ramp(Resilience4JSlowStartConfig.custom().initialPermittedRatio(0).build(),
+				circuitBreaker);
+		CircuitBreaker replacement = CircuitBreaker.ofDefaults("foo");
+		ramp.attach(replacement);
+		ramp.attach(replacement);
+		close(circuitBreaker);
+		assertThat(ramp.isRampingUp()).isFalse();
+		close(replacement);
+		assertThat(ramp.isRampingUp()).isTrue();
+	}
+
+	@Test
+	public void exponentialRampUpRequiresInitialPermittedCalls() {
+		assertThatIllegalArgumentException().isThrownBy(() -> Resilience4JSlowStartConfig.custom()
+			.initialPermittedRatio(0)
+			.rampUpCurve(Resilience4JSlowStartConfig.RampUpCurve.EXPONENTIAL)
+			.build());
+	}
+
+	private SlowStartRamp ramp(Resilience4JSlowStartConfig config, CircuitBreaker circuitBreaker) {
+		SlowStartRamp ramp = new SlowStartRamp(config, nanoTime::get);
+		ramp.attach(circuitBreaker);
+		return ramp;
+	}
+
+	private static void close(CircuitBreaker circuitBreaker) {
+		circuitBreaker.transitionToOpenState();
+		circuitBreaker.transitionToHalfOpenState();
+		circuitBreaker.transitionToClosedState();
+	}
+
+}
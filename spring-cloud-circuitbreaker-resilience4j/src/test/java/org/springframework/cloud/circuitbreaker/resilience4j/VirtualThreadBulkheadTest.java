@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.resilience4j;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.Assume;
+import org.junit.Test;
+
+import org.springframework.core.task.TaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Ryan Baxter
+ */
+public class VirtualThreadBulkheadTest {
+
+	private static final TaskExecutor THREAD_PER_TASK = task -> new Thread(task).start();
+
+	@Test
+	public void limitsConcurrentCalls() throws Exception {
+		Bulkhead bulkhead = Bulkhead.of("foo",
+				BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build());
+		VirtualThreadBulkhead virtualThreadBulkhead = new VirtualThreadBulkhead(bulkhead, THREAD_PER_TASK);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> running = virtualThreadBulkhead.submit(() -> {
+			release.await();
+			return "foobar";
+		});
+		assertThatThrownBy(() -> virtualThreadBulkhead.submit(() -> "rejected"))
+			.isInstanceOf(BulkheadFullException.class);
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("foobar");
+		assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+		assertThat(virtualThreadBulkhead.call(() -> "foobar")).isEqualTo("foobar");
+	}
+
+	@Test
+	public void callRethrowsFailureOfCallable() {
+		VirtualThreadBulkhead virtualThreadBulkhead = new VirtualThreadBulkhead(Bulkhead.ofDefaults("foo"),
+				THREAD_PER_TASK);
+		assertThatThrownBy(() -> virtualThreadBulkhead.call(() -> {
+			throw new IllegalStateException("boom");
+		})).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+		assertThat(virtualThreadBulkhead.getBulkhead().getMetrics().getAvailableConcurrentCalls())
+			.isEqualTo(BulkheadConfig.DEFAULT_MAX_CONCURRENT_CALLS);
+	}
+
+	@Test
+	public void cancelInterruptsCallAndReleasesPermitOnceItReturns() throws Exception {
+		Bulkhead bulkhead = Bulkhead.of("foo", BulkheadConfig.custom().maxConcurrentCalls(1).build());
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		VirtualThreadBulkhead virtualThreadBulkhead = new VirtualThreadBulkhead(bulkhead, task -> {
+			thread.set(new Thread(task));
+			thread.get().start();
+		});
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch completed = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> running = virtualThreadBulkhead.submit(() -> {
+			started.countDown();
+			try {
+				completed.await();
+				return "foobar";
+			}
+			catch (InterruptedException ex) {
+				interrupted.countDown();
+				release.await();
+				throw ex;
+			}
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isZero();
+		running.cancel(true);
+		assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		// the call is still running, so it keeps its permit
+		assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isZero();
+		release.countDown();
+		thread.get().join(5000);
+		assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+	}
+
+	@Test
+	public void failsFastWithoutVirtualThreads() {
+		Assume.assumeTrue(Runtime.version().feature() < 21);
+		assertThatThrownBy(() -> new Resilience4jBulkheadConfigurationBuilder().virtualThreadBulkhead(true))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageStartingWith("Virtual thread bulkheads require Java 21 or later");
+	}
+
+}
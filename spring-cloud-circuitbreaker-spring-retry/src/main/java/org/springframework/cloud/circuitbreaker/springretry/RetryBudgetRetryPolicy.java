@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.circuitbreaker.springretry;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.cloud.circuitbreaker.retry.RetryBudget;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+
+/**
+ * {@link RetryPolicy} that only allows a retry when the wrapped policy allows it and a
+ * token can be taken from a {@link RetryBudget}.
+ *
+ * <p>
+ * The retry context of a stateful circuit breaker outlives a single call, so
+ * {@link SpringRetryCircuitBreaker} marks the attempts of the current call with
+ * {@link #attemptStarted(RetryContext)} and {@link #callCompleted(RetryContext)}. The
+ * initial attempt of a call never takes a token, and the decision for a retry is
+ * remembered because {@code RetryTemplate} checks the policy more than once per retry.
+ * </p>
+ *
+ * @author Ryan Baxter
+ * @deprecated in favor of the {@code RetryBudget} in
+ * spring-cloud-circuitbreaker-framework-retry
+ */
+@Deprecated
+class RetryBudgetRetryPolicy implements RetryPolicy {
+
+	private static final String IN_CALL = RetryBudgetRetryPolicy.class.getName() + ".IN_CALL";
+
+	private static final String DECIDED_RETRY = RetryBudgetRetryPolicy.class.getName() + ".DECIDED_RETRY";
+
+	private static final String DECISION = RetryBudgetRetryPolicy.class.getName() + ".DECISION";
+
+	private final RetryPolicy delegate;
+
+	private final RetryBudget retryBudget;
+
+	RetryBudgetRetryPolicy(RetryPolicy delegate, RetryBudget retryBudget) {
+		this.delegate = delegate;
+		this.retryBudget = retryBudget;
+	}
+
+	static void attemptStarted(RetryContext context) {
+		context.setAttribute(IN_CALL, Boolean.TRUE);
+	}
+
+	static void callCompleted(RetryContext context) {
+		context.removeAttribute(IN_CALL);
+		context.removeAttribute(DECIDED_RETRY);
+		context.removeAttribute(DECISION);
+	}
+
+	@Override
+	public boolean canRetry(RetryContext context) {
+		if (!this.delegate.canRetry(context)) {
+			return false;
+		}
+		if (!context.hasAttribute(IN_CALL)) {
+			// initial attempt of a call
+			return true;
+		}
+		Integer retryCount = context.getRetryCount();
+		if (retryCount.equals(context.getAttribute(DECIDED_RETRY))) {
+			return Boolean.TRUE.equals(context.getAttribute(DECISION));
+		}
+		boolean allowed = this.retryBudget.tryAcquireRetry();
+		context.setAttribute(DECIDED_RETRY, retryCount);
+		context.setAttribute(DECISION, allowed);
+		return allowed;
+	}
+
+	@Override
+	public RetryContext open(@Nullable RetryContext parent) {
+		return this.delegate.open(parent);
+	}
+
+	@Override
+	public void close(RetryContext context) {
+		this.delegate.close(context);
+	}
+
+	@Override
+	public void registerThrowable(RetryContext context, @Nullable Throwable throwable) {
+		this.delegate.registerThrowable(context, throwable);
+	}
+
+	@Override
+	public int getMaxAttempts() {
+		return this.delegate.getMaxAttempts();
+	}
+
+}
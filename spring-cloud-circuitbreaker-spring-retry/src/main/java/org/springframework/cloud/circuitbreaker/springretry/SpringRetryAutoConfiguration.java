@@ -18,10 +18,15 @@ package org.springframework.cloud.circuitbreaker.springretry;
 
 import java.util.List;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jspecify.annotations.Nullable;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cloud.circuitbreaker.retry.FrameworkRetryAutoConfiguration;
+import org.springframework.cloud.circuitbreaker.retry.RetryBudgetMetrics;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
 import org.springframework.cloud.client.circuitbreaker.Customizer;
 import org.springframework.context.annotation.Bean;
@@ -29,11 +34,17 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.retry.support.RetryTemplate;
 
 /**
+ * Auto-configuration for Spring Retry circuit breaker. This module shares the retry
+ * budget of spring-cloud-circuitbreaker-framework-retry, so it is processed before the
+ * Framework Retry auto-configuration, which backs off once this one created the circuit
+ * breaker factory.
+ *
  * @author Ryan Baxter
  * @author Eric Bussieres
  */
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnClass(RetryTemplate.class)
+@AutoConfigureBefore(FrameworkRetryAutoConfiguration.class)
 public class SpringRetryAutoConfiguration {
 
 	@Bean
@@ -48,4 +59,17 @@ public class SpringRetryAutoConfiguration {
 		return factory;
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	static class RetryBudgetMetricsConfiguration {
+
+		@Bean
+		Customizer<SpringRetryCircuitBreakerFactory> springRetryBudgetMetricsCustomizer(
+				ObjectProvider<MeterRegistry> meterRegistry) {
+			return factory -> meterRegistry.ifAvailable(registry -> factory
+				.setRetryBudgetConsumer(retryBudget -> new RetryBudgetMetrics(retryBudget).bindTo(registry)));
+		}
+
+	}
+
 }
@@ -21,6 +21,7 @@ import java.util.function.Supplier;
 
 import org.jspecify.annotations.Nullable;
 
+import org.springframework.cloud.circuitbreaker.retry.RetryBudget;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.Customizer;
 import org.springframework.retry.support.DefaultRetryState;
@@ -60,8 +61,24 @@ public class SpringRetryCircuitBreaker implements CircuitBreaker {
 			retryTemplateCustomizer.customize(retryTemplate);
 		}
 
+		DefaultRetryState retryState = new DefaultRetryState(id, config.isForceRefreshState(),
+				config.getStateClassifier());
+		RetryBudget retryBudget = config.getRetryBudget();
+		if (retryBudget != null) {
+			retryBudget.onCall();
+			return retryTemplate.execute(context -> {
+				RetryBudgetRetryPolicy.attemptStarted(context);
+				T result = toRun.get();
+				RetryBudgetRetryPolicy.callCompleted(context);
+				return result;
+			}, context -> {
+				RetryBudgetRetryPolicy.callCompleted(context);
+				return fallback.apply(context.getLastThrowable());
+			}, retryState);
+		}
+
 		return retryTemplate.execute(context -> toRun.get(), context -> fallback.apply(context.getLastThrowable()),
-				new DefaultRetryState(id, config.isForceRefreshState(), config.getStateClassifier()));
+				retryState);
 	}
 
 }
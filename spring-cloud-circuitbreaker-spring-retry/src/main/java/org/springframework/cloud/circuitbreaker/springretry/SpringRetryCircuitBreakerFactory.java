@@ -18,8 +18,14 @@ package org.springframework.cloud.circuitbreaker.springretry;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.cloud.circuitbreaker.retry.RetryBudget;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
 import org.springframework.cloud.client.circuitbreaker.Customizer;
@@ -39,6 +45,10 @@ public class SpringRetryCircuitBreakerFactory
 
 	private final Map<String, Customizer<RetryTemplate>> retryTemplateCustomizers = new HashMap<>();
 
+	private final Set<RetryBudget> retryBudgets = ConcurrentHashMap.newKeySet();
+
+	private @Nullable Consumer<RetryBudget> retryBudgetConsumer;
+
 	@Override
 	protected SpringRetryConfigBuilder configBuilder(String id) {
 		return new SpringRetryConfigBuilder(id);
@@ -53,6 +63,10 @@ public class SpringRetryCircuitBreakerFactory
 	public CircuitBreaker create(String id) {
 		Assert.hasText(id, "A circuit breaker must have an id");
 		SpringRetryConfig config = getConfigurations().computeIfAbsent(id, defaultConfig);
+		RetryBudget retryBudget = config.getRetryBudget();
+		if (retryBudget != null && retryBudgetConsumer != null && retryBudgets.add(retryBudget)) {
+			retryBudgetConsumer.accept(retryBudget);
+		}
 		return new SpringRetryCircuitBreaker(id, config, retryTemplateCustomizers.get(id));
 	}
 
@@ -62,4 +76,13 @@ public class SpringRetryCircuitBreakerFactory
 		}
 	}
 
+	/**
+	 * Sets a consumer notified once for every {@link RetryBudget} used by the circuit
+	 * breakers this factory creates, for example to bind metrics for the budget.
+	 * @param retryBudgetConsumer The consumer.
+	 */
+	public void setRetryBudgetConsumer(Consumer<RetryBudget> retryBudgetConsumer) {
+		this.retryBudgetConsumer = retryBudgetConsumer;
+	}
+
 }
@@ -19,6 +19,7 @@ package org.springframework.cloud.circuitbreaker.springretry;
 import org.jspecify.annotations.Nullable;
 
 import org.springframework.classify.Classifier;
+import org.springframework.cloud.circuitbreaker.retry.RetryBudget;
 import org.springframework.retry.RetryPolicy;
 import org.springframework.retry.backoff.BackOffPolicy;
 
@@ -37,6 +38,8 @@ public class SpringRetryConfig {
 
 	private @Nullable Classifier<Throwable, Boolean> stateClassifier;
 
+	private @Nullable RetryBudget retryBudget;
+
 	boolean isForceRefreshState() {
 		return forceRefreshState;
 	}
@@ -82,4 +85,13 @@ public class SpringRetryConfig {
 		return this;
 	}
 
+	public @Nullable RetryBudget getRetryBudget() {
+		return retryBudget;
+	}
+
+	SpringRetryConfig setRetryBudget(@Nullable RetryBudget retryBudget) {
+		this.retryBudget = retryBudget;
+		return this;
+	}
+
 }
@@ -16,7 +16,10 @@
 
 package org.springframework.cloud.circuitbreaker.springretry;
 
+import org.jspecify.annotations.Nullable;
+
 import org.springframework.classify.Classifier;
+import org.springframework.cloud.circuitbreaker.retry.RetryBudget;
 import org.springframework.cloud.client.circuitbreaker.ConfigBuilder;
 import org.springframework.retry.RetryPolicy;
 import org.springframework.retry.backoff.BackOffPolicy;
@@ -41,6 +44,8 @@ public class SpringRetryConfigBuilder implements ConfigBuilder<SpringRetryConfig
 
 	private Classifier<Throwable, Boolean> stateClassifier = classifiable -> false;
 
+	private @Nullable RetryBudget retryBudget;
+
 	/**
 	 * Constructor.
 	 * @param id The id of the circuit breaker.
@@ -100,13 +105,26 @@ public class SpringRetryConfigBuilder implements ConfigBuilder<SpringRetryConfig
 		return this;
 	}
 
+	/**
+	 * Sets the {@link RetryBudget} limiting the number of retries relative to the number
+	 * of calls. Use the same {@code RetryBudget} for several circuit breakers to share
+	 * the budget between them.
+	 * @param retryBudget The {@code RetryBudget} to use.
+	 * @return The builder.
+	 */
+	public SpringRetryConfigBuilder retryBudget(@Nullable RetryBudget retryBudget) {
+		this.retryBudget = retryBudget;
+		return this;
+	}
+
 	@Override
 	public SpringRetryConfig build() {
 		return new SpringRetryConfig().setBackOffPolicy(backOffPolicy)
 			.setId(id)
-			.setRetryPolicy(retryPolicy)
+			.setRetryPolicy((retryBudget != null) ? new RetryBudgetRetryPolicy(retryPolicy, retryBudget) : retryPolicy)
 			.setForceRefreshState(forceRefreshState)
-			.setStateClassifier(stateClassifier);
+			.setStateClassifier(stateClassifier)
+			.setRetryBudget(retryBudget);
 	}
 
 }
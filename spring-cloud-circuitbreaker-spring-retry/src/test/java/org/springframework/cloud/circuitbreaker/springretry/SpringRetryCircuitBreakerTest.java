@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.circuitbreaker.springretry;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Test;
@@ -25,6 +26,7 @@ import org.springframework.retry.RetryCallback;
 import org.springframework.retry.RetryContext;
 import org.springframework.retry.RetryListener;
 
+import org.springframework.cloud.circuitbreaker.retry.RetryBudget;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -71,6 +73,30 @@ class SpringRetryCircuitBreakerTest {
 		assertThat(listener.toCheck[0]).isEqualTo("check-me-please");
 	}
 
+	@Test
+	void testRetryBudget() {
+		SpringRetryCircuitBreakerFactory factory = new SpringRetryCircuitBreakerFactory();
+		RetryBudget retryBudget = new RetryBudget("foo", 0, 1);
+		factory.configure(builder -> builder.retryBudget(retryBudget), "foo");
+		AtomicInteger attempts = new AtomicInteger();
+		Supplier<String> failing = () -> {
+			attempts.incrementAndGet();
+			throw new RuntimeException("boom");
+		};
+		CircuitBreaker cb = factory.create("foo");
+
+		// initial attempt and the single retry the budget allows
+		assertThat(cb.run(failing, t -> "fallback")).isEqualTo("fallback");
+		assertThat(attempts.get()).isEqualTo(2);
+		assertThat(retryBudget.getExhausted()).isEqualTo(1);
+
+		// the initial attempt of a new call does not need a token
+		assertThat(cb.run(failing, t -> "fallback")).isEqualTo("fallback");
+		assertThat(attempts.get()).isEqualTo(3);
+		assertThat(retryBudget.getCalls()).isEqualTo(2);
+		assertThat(retryBudget.getRetries()).isEqualTo(1);
+	}
+
 	private static final class CustomListener implements RetryListener {
 
 		private final String[] toCheck = new String[1];